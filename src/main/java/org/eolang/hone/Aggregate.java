@@ -0,0 +1,163 @@
+/*
+ * SPDX-FileCopyrightText: Copyright (c) 2024-2026 Objectionary.com
+ * SPDX-License-Identifier: MIT
+ */
+package org.eolang.hone;
+
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Totals of rows of {@link Statistics}, accumulated one row at a time.
+ *
+ * <p>Only counters, sums of numeric columns, and a {@link Histogram}
+ * of durations are kept, not the rows, thus the memory doesn't grow with
+ * the number of rows. The durations are the {@code Millis} of the files
+ * that were rewritten or timed out, while the files skipped by grep-in
+ * or taken from the cache, with zero {@code Millis}, are not counted.</p>
+ *
+ * @since 0.30.0
+ */
+final class Aggregate {
+
+    /**
+     * Numeric columns to sum.
+     */
+    private static final Collection<String> NUMERIC = Arrays.asList(
+        "Changed", "Millis", "ParseMillis", "PrintMillis", "XmirBytes",
+        "ClassBefore", "ClassAfter", "InstructionsDelta"
+    );
+
+    /**
+     * Sums of numeric columns.
+     */
+    private final Map<String, Long> sums;
+
+    /**
+     * Numbers of rows by outcomes.
+     */
+    private final Map<String, Long> outcomes;
+
+    /**
+     * Durations of files.
+     */
+    private final Histogram durations;
+
+    /**
+     * How many rows.
+     */
+    private long rows;
+
+    /**
+     * How many rows with changes.
+     */
+    private long optimized;
+
+    /**
+     * Ctor.
+     */
+    Aggregate() {
+        this.sums = new HashMap<>(0);
+        this.outcomes = new TreeMap<>();
+        this.durations = new Histogram();
+    }
+
+    /**
+     * Add all rows of the file, reading it row by row.
+     * @param csv The file with statistics
+     * @return Itself
+     */
+    Aggregate read(final Path csv) {
+        CSV.each(csv, this::add);
+        return this;
+    }
+
+    /**
+     * Add one row.
+     * @param row Values by names of columns
+     */
+    void add(final Map<String, String> row) {
+        ++this.rows;
+        for (final String column : Aggregate.NUMERIC) {
+            if (row.containsKey(column)) {
+                this.sums.merge(column, Aggregate.number(row, column), Long::sum);
+            }
+        }
+        if (Aggregate.number(row, "Changed") > 0L) {
+            ++this.optimized;
+        }
+        final long msec = Aggregate.number(row, "Millis");
+        if (msec > 0L) {
+            this.durations.add(msec);
+        }
+        final String outcome = row.get("Outcome");
+        if (outcome != null && !outcome.isEmpty()) {
+            this.outcomes.merge(outcome, 1L, Long::sum);
+        }
+    }
+
+    /**
+     * How many rows.
+     * @return The number
+     */
+    long rows() {
+        return this.rows;
+    }
+
+    /**
+     * How many rows with changes.
+     * @return The number
+     */
+    long optimized() {
+        return this.optimized;
+    }
+
+    /**
+     * The sum of the numeric column.
+     * @param column The name of the column, like {@code "ClassBefore"}
+     * @return The sum, or zero if there were no numbers
+     */
+    long sum(final String column) {
+        return this.sums.getOrDefault(column, 0L);
+    }
+
+    /**
+     * Numbers of rows by outcomes.
+     * @return Numbers, sorted by outcomes
+     */
+    Map<String, Long> outcomes() {
+        return new TreeMap<>(this.outcomes);
+    }
+
+    /**
+     * The percentile of durations of files.
+     * @param pct The percentile, like {@code 95.0}
+     * @return Milliseconds
+     */
+    long percentile(final double pct) {
+        return this.durations.percentile(pct);
+    }
+
+    /**
+     * The number in the cell.
+     * @param row The row
+     * @param column The column
+     * @return The number, or zero if it's absent or not a number
+     */
+    static long number(final Map<String, String> row, final String column) {
+        long num = 0L;
+        final String cell = row.get(column);
+        if (cell != null && !cell.isEmpty()) {
+            try {
+                num = Long.parseLong(cell);
+            } catch (final NumberFormatException ex) {
+                num = 0L;
+            }
+        }
+        return num;
+    }
+}
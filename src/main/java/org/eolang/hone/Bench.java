@@ -0,0 +1,228 @@
+/*
+ * SPDX-FileCopyrightText: Copyright (c) 2024-2026 Objectionary.com
+ * SPDX-License-Identifier: MIT
+ */
+package org.eolang.hone;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Comparison of two JMH results: before and after optimization.
+ *
+ * <p>Every benchmark, in every mode, is in the results of JMH with its
+ * score and the error of the score, which is the half of the 99.9%
+ * confidence interval. The GC profiler adds secondary results, like
+ * {@code Foo.bar:gc.alloc.rate.norm}, with their own scores and errors.
+ * Only the primary results and the normalized allocation rates, in bytes
+ * per operation, are compared: other rates depend on the throughput.</p>
+ *
+ * <p>The verdict is {@code same}, if the confidence intervals before
+ * and after overlap. Otherwise, it's either {@code better} or
+ * {@code worse}: the throughput is better when it is higher, while
+ * the time and the allocation rate are better when they are lower.</p>
+ *
+ * @since 0.30.0
+ */
+final class Bench {
+
+    /**
+     * The header of the CSV file with the comparison.
+     */
+    static final String HEADER = String.join(
+        ",", "Benchmark", "Mode", "Unit", "Before", "BeforeError",
+        "After", "AfterError", "Change", "Verdict"
+    );
+
+    /**
+     * Rows of JMH before optimization, by benchmarks and modes.
+     */
+    private final Map<String, Map<String, String>> before;
+
+    /**
+     * Rows of JMH after optimization, by benchmarks and modes.
+     */
+    private final Map<String, Map<String, String>> after;
+
+    /**
+     * Ctor.
+     * @param first The CSV of JMH before optimization
+     * @param second The CSV of JMH after optimization
+     */
+    Bench(final Path first, final Path second) {
+        this(new CSV(first), new CSV(second));
+    }
+
+    /**
+     * Ctor.
+     * @param first The CSV of JMH before optimization
+     * @param second The CSV of JMH after optimization
+     */
+    Bench(final CSV first, final CSV second) {
+        this.before = Bench.keyed(first);
+        this.after = Bench.keyed(second);
+    }
+
+    /**
+     * Compare the results.
+     * @return Rows of the comparison, the same columns as in {@link #HEADER}
+     */
+    List<List<String>> rows() {
+        final List<List<String>> rows = new ArrayList<>(this.after.size());
+        for (final Map.Entry<String, Map<String, String>> ent : this.after.entrySet()) {
+            final Map<String, String> prev = this.before.get(ent.getKey());
+            if (prev == null) {
+                continue;
+            }
+            final Map<String, String> next = ent.getValue();
+            final double old = Bench.number(prev, "Score");
+            final double oerr = Bench.number(prev, "Score Error (99.9%)");
+            final double now = Bench.number(next, "Score");
+            final double nerr = Bench.number(next, "Score Error (99.9%)");
+            final String name = Bench.name(next);
+            final String verdict;
+            if (Math.abs(now - old) <= Bench.finite(oerr) + Bench.finite(nerr)) {
+                verdict = "same";
+            } else if (now > old == ("thrpt".equals(next.get("Mode")) && !name.contains(":"))) {
+                verdict = "better";
+            } else {
+                verdict = "worse";
+            }
+            final List<String> row = new ArrayList<>(9);
+            row.add(name);
+            row.add(next.get("Mode"));
+            row.add(next.get("Unit"));
+            row.add(Bench.format(old));
+            row.add(Bench.format(oerr));
+            row.add(Bench.format(now));
+            row.add(Bench.format(nerr));
+            row.add(String.format(Locale.ENGLISH, "%+.1f%%", (now - old) * 100.0d / old));
+            row.add(verdict);
+            rows.add(row);
+        }
+        return rows;
+    }
+
+    /**
+     * Text table of the comparison.
+     * @return The table, one benchmark per line, with a header
+     */
+    String table() {
+        final StringBuilder table = new StringBuilder(0).append(
+            String.format(
+                "%-56s %5s %24s %24s %8s %7s",
+                "Benchmark", "Mode", "Before", "After", "Change", "Verdict"
+            )
+        );
+        for (final List<String> row : this.rows()) {
+            table.append('\n').append(
+                String.format(
+                    "%-56s %5s %24s %24s %8s %7s",
+                    row.get(0), row.get(1),
+                    String.format("%s ± %s %s", row.get(3), row.get(4), row.get(2)),
+                    String.format("%s ± %s %s", row.get(5), row.get(6), row.get(2)),
+                    row.get(7), row.get(8)
+                )
+            );
+        }
+        return table.toString();
+    }
+
+    /**
+     * Save the comparison to the CSV file.
+     * @param csv The file
+     * @throws IOException If fails
+     */
+    void save(final Path csv) throws IOException {
+        final StringBuilder text = new StringBuilder(Bench.HEADER).append('\n');
+        for (final List<String> row : this.rows()) {
+            final List<String> cells = new ArrayList<>(row.size());
+            for (final String cell : row) {
+                cells.add(String.format("\"%s\"", cell.replace("\"", "\"\"")));
+            }
+            text.append(String.join(",", cells)).append('\n');
+        }
+        Files.write(csv, text.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Rows of JMH, which are worth comparing, by benchmarks and modes.
+     * @param csv The CSV of JMH
+     * @return Rows by keys
+     */
+    private static Map<String, Map<String, String>> keyed(final CSV csv) {
+        final Map<String, Map<String, String>> rows = new LinkedHashMap<>(0);
+        for (final Map<String, String> row : csv.rows()) {
+            final String name = Bench.name(row);
+            if (name.contains(":") && !name.endsWith(":gc.alloc.rate.norm")) {
+                continue;
+            }
+            final StringBuilder key = new StringBuilder(name).append(' ')
+                .append(row.get("Mode"));
+            for (final Map.Entry<String, String> ent : row.entrySet()) {
+                if (ent.getKey().startsWith("Param: ")) {
+                    key.append(' ').append(ent.getKey()).append('=').append(ent.getValue());
+                }
+            }
+            rows.put(key.toString(), row);
+        }
+        return rows;
+    }
+
+    /**
+     * The name of the benchmark, without the dot of old JMH versions.
+     * @param row The row of JMH
+     * @return The name, like {@code "org.foo.Bench.run:gc.alloc.rate"}
+     */
+    private static String name(final Map<String, String> row) {
+        return row.getOrDefault("Benchmark", "").replace("·", "");
+    }
+
+    /**
+     * The number in the column.
+     * @param row The row of JMH
+     * @param column The column
+     * @return The number, or NaN if it's absent
+     */
+    private static double number(final Map<String, String> row, final String column) {
+        double num = Double.NaN;
+        final String text = row.get(column);
+        if (text != null && !text.isEmpty()) {
+            try {
+                num = Double.parseDouble(text.replace(',', '.'));
+            } catch (final NumberFormatException ex) {
+                num = Double.NaN;
+            }
+        }
+        return num;
+    }
+
+    /**
+     * The number, or zero if it's not finite.
+     * @param num The number
+     * @return Finite number
+     */
+    private static double finite(final double num) {
+        double fin = num;
+        if (Double.isNaN(num) || Double.isInfinite(num)) {
+            fin = 0.0d;
+        }
+        return fin;
+    }
+
+    /**
+     * Format the number for people.
+     * @param num The number
+     * @return Text
+     */
+    private static String format(final double num) {
+        return String.format(Locale.ENGLISH, "%.3f", num);
+    }
+}
@@ -0,0 +1,226 @@
+/*
+ * SPDX-FileCopyrightText: Copyright (c) 2024-2026 Objectionary.com
+ * SPDX-License-Identifier: MIT
+ */
+package org.eolang.hone;
+
+import com.jcabi.log.Logger;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import org.apache.maven.artifact.DependencyResolutionRequiredException;
+import org.apache.maven.plugins.annotations.Mojo;
+import org.apache.maven.plugins.annotations.Parameter;
+import org.apache.maven.plugins.annotations.ResolutionScope;
+import org.apache.maven.project.MavenProject;
+
+/**
+ * Compare the performance of classes before and after optimization.
+ *
+ * <p>This goal runs JMH benchmarks of the project twice: with the
+ * original classes from {@code target/classes-before-hone/} and with
+ * the optimized ones from {@code target/classes/}. Then, it compares
+ * the throughput, the time, and the allocation rate (the GC profiler
+ * is always on) of every benchmark and prints them, with their
+ * confidence intervals. The comparison is saved to
+ * {@code target/hone-bench.csv}, while the raw results of JMH are in
+ * the {@code target/hone-bench/} directory.</p>
+ *
+ * <p>JMH must be a test dependency of the project and benchmarks
+ * must be compiled, for example:
+ * {@code mvn test-compile hone:optimize hone:bench}.</p>
+ *
+ * @since 0.30.0
+ */
+@Mojo(
+    name = "bench",
+    requiresDependencyResolution = ResolutionScope.TEST
+)
+public final class BenchMojo extends AbstractMojo {
+
+    /**
+     * The project.
+     */
+    @Parameter(defaultValue = "${project}", readonly = true)
+    private MavenProject project;
+
+    /**
+     * Regular expression of benchmarks to run, all of them if empty.
+     */
+    @Parameter(property = "hone.bench", defaultValue = "")
+    private String bench;
+
+    /**
+     * How many times to fork each benchmark.
+     * @checkstyle MemberNameCheck (3 lines)
+     */
+    @Parameter(property = "hone.bench-forks", defaultValue = "1")
+    private int benchForks;
+
+    /**
+     * How many warmup iterations to run.
+     * @checkstyle MemberNameCheck (3 lines)
+     */
+    @Parameter(property = "hone.bench-warmups", defaultValue = "3")
+    private int benchWarmups;
+
+    /**
+     * How many measurement iterations to run.
+     * @checkstyle MemberNameCheck (3 lines)
+     */
+    @Parameter(property = "hone.bench-iterations", defaultValue = "5")
+    private int benchIterations;
+
+    /**
+     * Benchmark modes of JMH, comma-separated.
+     * @checkstyle MemberNameCheck (3 lines)
+     */
+    @Parameter(property = "hone.bench-modes", defaultValue = "thrpt,avgt")
+    private String benchModes;
+
+    /**
+     * Options of the JVMs of benchmarks, like {@code -Xmx1g}.
+     * @checkstyle MemberNameCheck (3 lines)
+     */
+    @Parameter(property = "hone.bench-jvm-args")
+    private String benchJvmArgs;
+
+    /**
+     * Ctor.
+     */
+    public BenchMojo() {
+        // nothing
+    }
+
+    @Override
+    public void exec() throws IOException {
+        final Path bin = Paths.get(this.project.getBuild().getOutputDirectory());
+        final Path before = this.target.toPath().resolve("classes-before-hone");
+        if (!before.toFile().isDirectory()) {
+            throw new IllegalStateException(
+                String.format(
+                    "There are no classes before optimization in %s, run the 'optimize' goal first",
+                    before
+                )
+            );
+        }
+        final List<Path> after = this.classpath();
+        if (!Jmh.present(after)) {
+            throw new IllegalStateException(
+                "JMH is not in the test classpath, add 'org.openjdk.jmh:jmh-core' as a test dependency"
+            );
+        }
+        final List<Path> orig = BenchMojo.original(after, bin, before);
+        final Path dir = Files.createDirectories(this.target.toPath().resolve("hone-bench"));
+        final Jmh jmh = new Jmh(
+            Paths.get(System.getProperty("java.home"), "bin", "java").toString(),
+            this.options()
+        );
+        Logger.info(this, "Running benchmarks with classes before optimization...");
+        jmh.run(orig, dir.resolve("before.csv"));
+        Logger.info(this, "Running benchmarks with optimized classes...");
+        jmh.run(after, dir.resolve("after.csv"));
+        final Bench cmp = new Bench(dir.resolve("before.csv"), dir.resolve("after.csv"));
+        final Path csv = this.target.toPath().resolve("hone-bench.csv");
+        cmp.save(csv);
+        Logger.info(this, "Performance before and after optimization:%n%s", cmp.table());
+        Logger.info(this, "The comparison saved to %[file]s", csv);
+    }
+
+    /**
+     * The classpath with classes before optimization in front of
+     * the optimized ones.
+     *
+     * <p>Entries are compared by their real paths, since Maven may give
+     * the output directory as a relative path, or through a symlink.</p>
+     * @param after The test classpath
+     * @param bin The output directory of the project
+     * @param before The directory with classes before optimization
+     * @return The classpath
+     * @throws IOException If fails
+     */
+    static List<Path> original(final List<Path> after, final Path bin,
+        final Path before) throws IOException {
+        final Path real = BenchMojo.real(bin);
+        final List<Path> orig = new ArrayList<>(after.size() + 1);
+        boolean found = false;
+        for (final Path entry : after) {
+            if (BenchMojo.real(entry).equals(real)) {
+                orig.add(before);
+                found = true;
+            }
+            orig.add(entry);
+        }
+        if (!found) {
+            throw new IllegalStateException(
+                String.format(
+                    "The output directory %s is not in the test classpath %s",
+                    bin, after
+                )
+            );
+        }
+        return orig;
+    }
+
+    /**
+     * The real path of the file, or just the normalized absolute one,
+     * if the file doesn't exist.
+     * @param path The path
+     * @return Real path
+     * @throws IOException If fails
+     */
+    private static Path real(final Path path) throws IOException {
+        final Path abs;
+        if (Files.exists(path)) {
+            abs = path.toRealPath();
+        } else {
+            abs = path.toAbsolutePath().normalize();
+        }
+        return abs;
+    }
+
+    /**
+     * The test classpath of the project.
+     * @return Entries of the classpath
+     */
+    private List<Path> classpath() {
+        final List<Path> entries = new ArrayList<>(0);
+        try {
+            for (final String entry : this.project.getTestClasspathElements()) {
+                entries.add(Paths.get(entry));
+            }
+        } catch (final DependencyResolutionRequiredException ex) {
+            throw new IllegalStateException(ex);
+        }
+        return entries;
+    }
+
+    /**
+     * Options of JMH.
+     * @return Options
+     */
+    private Collection<String> options() {
+        final List<String> opts = new ArrayList<>(16);
+        opts.addAll(
+            Arrays.asList(
+                "-f", Integer.toString(this.benchForks),
+                "-wi", Integer.toString(this.benchWarmups),
+                "-i", Integer.toString(this.benchIterations),
+                "-bm", this.benchModes
+            )
+        );
+        if (this.benchJvmArgs != null && !this.benchJvmArgs.isEmpty()) {
+            opts.add("-jvmArgsAppend");
+            opts.add(this.benchJvmArgs);
+        }
+        if (this.bench != null && !this.bench.isEmpty()) {
+            opts.add(this.bench);
+        }
+        return opts;
+    }
+}
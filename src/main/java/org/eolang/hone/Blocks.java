@@ -0,0 +1,109 @@
+/*
+ * SPDX-FileCopyrightText: Copyright (c) 2024-2026 Objectionary.com
+ * SPDX-License-Identifier: MIT
+ */
+package org.eolang.hone;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Rules, grouped into numbered blocks, which are applied one after another.
+ *
+ * <p>The stream rules are designed as stages: {@code 1xx} normalize the
+ * bytecode, {@code 2xx} recognize streams, {@code 3xx} distill them,
+ * {@code 4xx} fuse, {@code 5xx} lower, and {@code 6xx} with {@code 7xx}
+ * revert what is left. The block of a rule is the name of its directory,
+ * if it looks like {@code 3xx}, or the first digit of its name, if it
+ * starts with three digits, like {@code 301-foo.phr}. All other rules
+ * are in the block with empty name.</p>
+ *
+ * <p>Blocks go in the order of their first rules, which are
+ * in the order of their application.</p>
+ *
+ * @since 0.30.0
+ */
+final class Blocks {
+
+    /**
+     * The name of the directory of a block.
+     */
+    private static final Pattern DIR = Pattern.compile("[0-9]xx");
+
+    /**
+     * The name of a numbered rule.
+     */
+    private static final Pattern NUMBERED = Pattern.compile("([0-9])[0-9]{2}-.*");
+
+    /**
+     * Rules by names of blocks.
+     */
+    private final Map<String, List<String>> groups;
+
+    /**
+     * Ctor.
+     * @param rules Paths of the rules, in the order of their application
+     */
+    Blocks(final Collection<String> rules) {
+        this.groups = new LinkedHashMap<>(0);
+        for (final String rule : rules) {
+            this.groups.computeIfAbsent(Blocks.name(rule), k -> new ArrayList<>(0)).add(rule);
+        }
+    }
+
+    @Override
+    public String toString() {
+        final List<String> all = new ArrayList<>(this.groups.size());
+        for (final Map.Entry<String, List<String>> ent : this.groups.entrySet()) {
+            String name = ent.getKey();
+            if (name.isEmpty()) {
+                name = "other";
+            }
+            all.add(String.format("%s:%d", name, ent.getValue().size()));
+        }
+        return String.join(" ", all);
+    }
+
+    /**
+     * Names of all blocks, in the order of their application.
+     * @return Names, like {@code "1xx"}
+     */
+    List<String> names() {
+        return new ArrayList<>(this.groups.keySet());
+    }
+
+    /**
+     * All rules of the block.
+     * @param block The name of the block
+     * @return Paths of the rules, in the order of their application
+     */
+    List<String> rules(final String block) {
+        return this.groups.getOrDefault(block, new ArrayList<>(0));
+    }
+
+    /**
+     * The name of the block of the rule.
+     * @param rule The path of the rule
+     * @return The name of the block, like {@code "3xx"}, or empty string
+     */
+    static String name(final String rule) {
+        final File file = new File(rule);
+        String name = "";
+        final File dir = file.getParentFile();
+        if (dir != null && Blocks.DIR.matcher(dir.getName()).matches()) {
+            name = dir.getName();
+        } else {
+            final Matcher matcher = Blocks.NUMBERED.matcher(file.getName());
+            if (matcher.matches()) {
+                name = String.format("%sxx", matcher.group(1));
+            }
+        }
+        return name;
+    }
+}
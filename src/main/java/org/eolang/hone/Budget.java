@@ -0,0 +1,101 @@
+/*
+ * SPDX-FileCopyrightText: Copyright (c) 2024-2026 Objectionary.com
+ * SPDX-License-Identifier: MIT
+ */
+package org.eolang.hone;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * How much rewriting phino may do on one file.
+ *
+ * <p>This is the pair of {@code --max-cycles} and {@code --max-depth}
+ * arguments, which phino accepts in order to stop rewriting
+ * that doesn't converge.</p>
+ *
+ * <p>When rules are applied block by block, see {@link Blocks}, each
+ * block may have its own budget. Blocks without their own budgets
+ * get this one.</p>
+ *
+ * @since 0.30.0
+ */
+final class Budget {
+
+    /**
+     * Maximum number of rewriting cycles across all rules.
+     */
+    private final int cycles;
+
+    /**
+     * Maximum number of rewriting cycles per rule.
+     */
+    private final int depth;
+
+    /**
+     * Budgets of blocks, by their names.
+     */
+    private final Map<String, Budget> blocks;
+
+    /**
+     * Ctor.
+     * @param cyc Maximum number of cycles across all rules
+     * @param dpt Maximum number of cycles per rule
+     */
+    Budget(final int cyc, final int dpt) {
+        this(cyc, dpt, new TreeMap<>());
+    }
+
+    /**
+     * Ctor.
+     * @param cyc Maximum number of cycles across all rules
+     * @param dpt Maximum number of cycles per rule
+     * @param per Budgets of blocks, by their names, like {@code "3xx"}
+     */
+    Budget(final int cyc, final int dpt, final Map<String, Budget> per) {
+        this.cycles = cyc;
+        this.depth = dpt;
+        this.blocks = new TreeMap<>(per);
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder text = new StringBuilder(
+            String.format("%d/%d", this.cycles, this.depth)
+        );
+        for (final Map.Entry<String, Budget> ent : this.blocks.entrySet()) {
+            text.append(' ').append(ent.getKey()).append('=').append(ent.getValue());
+        }
+        return text.toString();
+    }
+
+    /**
+     * The budget of the block.
+     * @param block The name of the block, like {@code "3xx"}
+     * @return Its own budget, or this one
+     */
+    Budget of(final String block) {
+        return this.blocks.getOrDefault(block, this);
+    }
+
+    /**
+     * Maximum number of rewriting cycles across all rules.
+     * @return The number
+     */
+    int cycles() {
+        return this.cycles;
+    }
+
+    /**
+     * Command line arguments for phino.
+     * @return The arguments
+     */
+    List<String> args() {
+        return Arrays.asList(
+            "--max-cycles", Integer.toString(this.cycles),
+            "--max-depth", Integer.toString(this.depth)
+        );
+    }
+}
@@ -10,12 +10,12 @@ import java.io.Reader;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
-import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.function.Function;
+import java.util.function.Consumer;
 import java.util.function.Predicate;
 import java.util.stream.Collectors;
 import org.apache.commons.csv.CSVFormat;
@@ -70,17 +70,6 @@ public final class CSV {
         this.records = records;
     }
 
-    /**
-     * Combines this CSV with another CSV, concatenating their records.
-     * @param other The other CSV to combine with this one
-     * @return A new CSV instance containing the combined records of both CSVs
-     */
-    CSV add(final CSV other) {
-        final List<Map<String, String>> combined = new ArrayList<>(this.records);
-        combined.addAll(other.records);
-        return new CSV(this.headers, combined);
-    }
-
     /**
      * Number of records in the CSV.
      * @return The number of records in the CSV
@@ -89,6 +78,14 @@ public final class CSV {
         return this.records.size();
     }
 
+    /**
+     * All rows, in the order of the file.
+     * @return Rows, where values are by names of columns
+     */
+    List<Map<String, String>> rows() {
+        return Collections.unmodifiableList(this.records);
+    }
+
     /**
      * Counts rows where a column value matches the given condition.
      * @param header The column name to check
@@ -102,27 +99,72 @@ public final class CSV {
     }
 
     /**
-     * Recomputes the values of a column using a transformation function.
-     * @param header The name of the column to recompute
-     * @param modification Transformation function
-     * @return A new CSV instance with the recomputed values
+     * Values of one column by values of another one, in rows that have both.
+     * @param key The column with keys
+     * @param value The column with values
+     * @return Values by keys
      */
-    CSV recompute(
-        final String header,
-        final Function<String, String> modification
-    ) {
+    Map<String, String> pairs(final String key, final String value) {
+        final Map<String, String> pairs = new HashMap<>(this.records.size());
+        for (final Map<String, String> row : this.records) {
+            final String left = row.get(key);
+            final String right = row.get(value);
+            if (left != null && right != null && !right.isEmpty()) {
+                pairs.put(left, right);
+            }
+        }
+        return pairs;
+    }
+
+    /**
+     * Sets values of columns in rows, found by the value of the key column.
+     * @param key The column with keys
+     * @param cells Values by names of columns, by keys
+     * @return A new CSV instance with the values set
+     */
+    CSV fill(final String key, final Map<String, Map<String, String>> cells) {
         return new CSV(
             this.headers,
             this.records.stream().map(
                 row -> {
                     final Map<String, String> data = new HashMap<>(row);
-                    data.put(header, modification.apply(row.get(header)));
+                    data.putAll(cells.getOrDefault(row.get(key), Collections.emptyMap()));
                     return data;
                 }
             ).collect(Collectors.toList())
         );
     }
 
+    /**
+     * Read rows of the file one by one, without keeping them in memory.
+     * @param csv The file
+     * @param action What to do with every row, where values are by names of columns
+     * @return Names of columns
+     */
+    static List<String> each(final Path csv, final Consumer<Map<String, String>> action) {
+        try (
+            Reader reader = new InputStreamReader(
+                Files.newInputStream(csv),
+                StandardCharsets.UTF_8
+            );
+            CSVParser parser = CSVFormat.DEFAULT.builder()
+                .setHeader()
+                .setSkipHeaderRecord(false)
+                .get()
+                .parse(reader)
+        ) {
+            for (final CSVRecord record : parser) {
+                action.accept(record.toMap());
+            }
+            return new ListOf<>(parser.getHeaderNames());
+        } catch (final IOException exception) {
+            throw new IllegalStateException(
+                String.format("Failed to read CSV file: %s", csv),
+                exception
+            );
+        }
+    }
+
     /**
      * Flushes the CSV content to the specified file path.
      * @param res The path to the file where the CSV content should be written
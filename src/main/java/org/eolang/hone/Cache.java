@@ -0,0 +1,326 @@
+/*
+ * SPDX-FileCopyrightText: Copyright (c) 2024-2026 Objectionary.com
+ * SPDX-License-Identifier: MIT
+ */
+package org.eolang.hone;
+
+import com.jcabi.log.Logger;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Persistent content-addressed cache of optimized {@code .class} files.
+ *
+ * <p>The key of an entry is the SHA-256 hash of the original bytes of the
+ * class together with the "salt", which is the hash of everything else
+ * that may affect the result of optimization: the contents of the rules,
+ * the budget of phino, the versions of phino and jeo, and so on. Thus,
+ * if the same class is met again, in the same module or in another one,
+ * with the same settings, its optimized bytes are taken from the cache.</p>
+ *
+ * <p>The total size of the cache is limited. When it is over the limit,
+ * the least recently used entries are deleted. An entry is "used" when it
+ * is saved or found, which is marked by its modification time. Many Maven
+ * processes may use the same cache at the same time, that's why entries
+ * are saved through atomic moves and a missing entry is never
+ * an error. Temporary files of entries being saved are not evicted, unless
+ * they are older than an hour, which means that their process is
+ * gone.</p>
+ *
+ * @since 0.30.0
+ */
+final class Cache {
+
+    /**
+     * The version of the format of entries and of the salt, which is
+     * a part of the salt.
+     *
+     * <p>Bump it when the layout of entries changes, or when the plugin
+     * starts to optimize classes differently, while nothing else in the
+     * salt changes, for example, when a new setting affects the result.
+     * Then, all entries and manifests, made by older versions, are
+     * ignored.</p>
+     */
+    static final String FORMAT = "2";
+
+    /**
+     * How long a temporary file may stay, before it is evicted, in msec.
+     */
+    private static final long GRACE = TimeUnit.HOURS.toMillis(1L);
+
+    /**
+     * The directory.
+     */
+    private final Path dir;
+
+    /**
+     * Maximum total size of all entries, in bytes; zero means no cache.
+     */
+    private final long limit;
+
+    /**
+     * The hash of everything that affects optimization, except the class.
+     */
+    private final String salt;
+
+    /**
+     * Ctor of a disabled cache.
+     */
+    Cache() {
+        this(Paths.get(""), 0L, "");
+    }
+
+    /**
+     * Ctor.
+     * @param path The directory
+     * @param max Maximum total size of all entries, in bytes
+     * @param slt The hash of everything that affects optimization
+     */
+    Cache(final Path path, final long max, final String slt) {
+        this.dir = path;
+        this.limit = max;
+        this.salt = slt;
+    }
+
+    @Override
+    public String toString() {
+        return this.dir.toString();
+    }
+
+    /**
+     * Make the salt, from the rules and other settings.
+     * @param rules Paths of rules, in the order of their application
+     * @param extras Other settings
+     * @return The salt
+     * @throws IOException If fails to read rules
+     */
+    static String salt(final Collection<String> rules, final String... extras)
+        throws IOException {
+        final ByteArrayOutputStream all = new ByteArrayOutputStream();
+        for (final String rule : rules) {
+            all.write(Files.readAllBytes(Paths.get(rule)));
+            all.write(0);
+        }
+        for (final String extra : extras) {
+            all.write(String.valueOf(extra).getBytes(StandardCharsets.UTF_8));
+            all.write(0);
+        }
+        return Cache.sha(all.toByteArray());
+    }
+
+    /**
+     * Is it enabled?
+     * @return TRUE if entries may be saved and found
+     */
+    boolean enabled() {
+        return this.limit > 0L;
+    }
+
+    /**
+     * Make the key of the class.
+     * @param bytes Original bytes of the class
+     * @return The key
+     */
+    String key(final byte[] bytes) {
+        final byte[] head = this.salt.getBytes(StandardCharsets.UTF_8);
+        final byte[] all = new byte[head.length + bytes.length];
+        System.arraycopy(head, 0, all, 0, head.length);
+        System.arraycopy(bytes, 0, all, head.length, bytes.length);
+        return Cache.sha(all);
+    }
+
+    /**
+     * Find the entry.
+     * @param key The key
+     * @return The entry or NULL if it's absent
+     * @throws IOException If fails
+     */
+    Cache.Entry load(final String key) throws IOException {
+        Cache.Entry entry = null;
+        if (this.enabled()) {
+            final Path file = this.file(key);
+            try (DataInputStream input = new DataInputStream(Files.newInputStream(file))) {
+                final int changed = input.readInt();
+                entry = new Cache.Entry(Cache.rest(input), changed);
+                if (!file.toFile().setLastModified(System.currentTimeMillis())) {
+                    Logger.debug(this, "Can't touch %[file]s", file);
+                }
+            } catch (final NoSuchFileException ex) {
+                Logger.debug(this, "No entry for %s", key);
+            }
+        }
+        return entry;
+    }
+
+    /**
+     * Save the entry.
+     * @param key The key
+     * @param entry The entry
+     * @throws IOException If fails
+     */
+    void save(final String key, final Cache.Entry entry) throws IOException {
+        if (this.enabled()) {
+            final Path file = this.file(key);
+            Files.createDirectories(file.getParent());
+            final Path temp = Files.createTempFile(file.getParent(), key, ".tmp");
+            try (DataOutputStream output = new DataOutputStream(Files.newOutputStream(temp))) {
+                output.writeInt(entry.changed());
+                output.write(entry.bytes());
+            }
+            try {
+                Files.move(temp, file, StandardCopyOption.ATOMIC_MOVE);
+            } catch (final AtomicMoveNotSupportedException ex) {
+                Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING);
+            }
+        }
+    }
+
+    /**
+     * Delete least recently used entries, until the cache fits the limit.
+     * @return How many entries were deleted
+     * @throws IOException If fails
+     */
+    int evict() throws IOException {
+        int deleted = 0;
+        if (this.enabled() && this.dir.toFile().isDirectory()) {
+            final List<Path> files;
+            final long recent = System.currentTimeMillis() - Cache.GRACE;
+            try (Stream<Path> walk = Files.walk(this.dir)) {
+                files = walk
+                    .filter(Files::isRegularFile)
+                    .filter(
+                        f -> !f.getFileName().toString().endsWith(".tmp")
+                            || f.toFile().lastModified() < recent
+                    )
+                    .sorted(Comparator.comparingLong(f -> f.toFile().lastModified()))
+                    .collect(Collectors.toList());
+            }
+            long total = files.stream().mapToLong(f -> f.toFile().length()).sum();
+            for (final Path file : files) {
+                if (total <= this.limit) {
+                    break;
+                }
+                final long size = file.toFile().length();
+                if (Files.deleteIfExists(file)) {
+                    total -= size;
+                    ++deleted;
+                }
+            }
+            if (deleted > 0) {
+                Logger.info(
+                    this, "Deleted %d least recently used entries from the cache at %[file]s",
+                    deleted, this.dir
+                );
+            }
+        }
+        return deleted;
+    }
+
+    /**
+     * The file of the entry.
+     * @param key The key
+     * @return The file
+     */
+    private Path file(final String key) {
+        return this.dir.resolve(key.substring(0, 2)).resolve(key);
+    }
+
+    /**
+     * Read all bytes left in the stream.
+     * @param input The stream
+     * @return The bytes
+     * @throws IOException If fails
+     */
+    private static byte[] rest(final InputStream input) throws IOException {
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        final byte[] buf = new byte[1 << 14];
+        while (true) {
+            final int len = input.read(buf);
+            if (len < 0) {
+                break;
+            }
+            out.write(buf, 0, len);
+        }
+        return out.toByteArray();
+    }
+
+    /**
+     * SHA-256 of the bytes, in hex.
+     * @param bytes The bytes
+     * @return The hash
+     */
+    static String sha(final byte[] bytes) {
+        final MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (final NoSuchAlgorithmException ex) {
+            throw new IllegalStateException(ex);
+        }
+        final StringBuilder hex = new StringBuilder(64);
+        for (final byte bte : digest.digest(bytes)) {
+            hex.append(String.format("%02x", bte));
+        }
+        return hex.toString();
+    }
+
+    /**
+     * One entry of the cache.
+     * @since 0.30.0
+     */
+    static final class Entry {
+
+        /**
+         * Optimized bytes of the class.
+         */
+        private final byte[] content;
+
+        /**
+         * How many lines of PHI were changed by optimization.
+         */
+        private final int lines;
+
+        /**
+         * Ctor.
+         * @param bytes Optimized bytes of the class
+         * @param changed How many lines of PHI were changed
+         */
+        Entry(final byte[] bytes, final int changed) {
+            this.content = bytes.clone();
+            this.lines = changed;
+        }
+
+        /**
+         * Optimized bytes of the class.
+         * @return The bytes
+         */
+        byte[] bytes() {
+            return this.content.clone();
+        }
+
+        /**
+         * How many lines of PHI were changed by optimization.
+         * @return The number of lines
+         */
+        int changed() {
+            return this.lines;
+        }
+    }
+}
@@ -0,0 +1,256 @@
+/*
+ * SPDX-FileCopyrightText: Copyright (c) 2024-2026 Objectionary.com
+ * SPDX-License-Identifier: MIT
+ */
+package org.eolang.hone;
+
+import com.jcabi.log.Logger;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.TreeSet;
+
+/**
+ * Long-lived Docker container, which runs optimization jobs
+ * of many modules and many builds, one after another.
+ *
+ * <p>Instead of {@code docker run --rm} for every module, the container
+ * is started once, in the background, and every job is
+ * a {@code docker exec} of {@code entry.sh} inside it. Thus, the container
+ * is not created again and again, while everything the previous jobs
+ * downloaded or cached inside it stays there. The host directories
+ * are mounted at the same paths inside the container, that's why
+ * they must be known before it starts: usually they are the directory of
+ * the top project and the EO cache.</p>
+ *
+ * <p>The container is found by its name, which depends on the ID of
+ * the image, the mounted directories and the user. Thus, when the image is
+ * pulled or built again, a new container is started for it, while the old
+ * one stops by itself. When no job runs for the given number
+ * of seconds, it stops and removes itself.</p>
+ *
+ * <p>Many modules, built in parallel, may start the container at the same
+ * time. Only one of them succeeds, while the others get the "name is
+ * already in use" error from Docker, which means that the container is
+ * there and may be used. A running container is never removed.</p>
+ *
+ * <p>The check that the container is running touches the same file as
+ * every job does, so that the container doesn't stop by idleness
+ * right before the job starts. If it stops anyway, for example because it
+ * was just being removed when it was checked, it is started once again.</p>
+ *
+ * @since 0.30.0
+ */
+final class Daemon {
+
+    /**
+     * The file inside the container, which is touched by every job.
+     */
+    private static final String ALIVE = "/tmp/hone-alive";
+
+    /**
+     * The Docker.
+     */
+    private final Docker docker;
+
+    /**
+     * The image.
+     */
+    private final String image;
+
+    /**
+     * Host directories to mount, at the same paths.
+     */
+    private final Collection<Path> mounts;
+
+    /**
+     * The user to run as, like {@code "1000:1000"}.
+     */
+    private final String user;
+
+    /**
+     * Seconds without jobs, after which the container stops.
+     */
+    private final int idle;
+
+    /**
+     * Ctor.
+     * @param dkr The Docker
+     * @param img The image
+     * @param dirs Host directories to mount, at the same paths
+     * @param usr The user to run as
+     * @param sec Seconds without jobs, after which the container stops
+     * @checkstyle ParameterNumberCheck (5 lines)
+     */
+    Daemon(final Docker dkr, final String img, final Collection<Path> dirs,
+        final String usr, final int sec) {
+        this.docker = dkr;
+        this.image = img;
+        this.mounts = new TreeSet<>();
+        for (final Path dir : dirs) {
+            this.mounts.add(dir.toAbsolutePath().normalize());
+        }
+        this.user = usr;
+        this.idle = sec;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s for %s", this.image, this.mounts);
+    }
+
+    /**
+     * Does it mount the directory?
+     * @param dir The directory
+     * @return TRUE if it is inside one of the mounted directories
+     */
+    boolean sees(final Path dir) {
+        boolean sees = false;
+        for (final Path mount : this.mounts) {
+            if (dir.toAbsolutePath().normalize().startsWith(mount)) {
+                sees = true;
+                break;
+            }
+        }
+        return sees;
+    }
+
+    /**
+     * The name of the container.
+     * @param id The ID of the image
+     * @return The name
+     */
+    String name(final String id) {
+        return String.format(
+            "hone-%s",
+            Cache.sha(
+                String.format("%s %s %s", id, this.mounts, this.user)
+                    .getBytes(StandardCharsets.UTF_8)
+            ).substring(0, 12)
+        );
+    }
+
+    /**
+     * Run {@code entry.sh} inside the container, starting it if necessary.
+     * @param envs Options of {@code docker exec}, like {@code --env}
+     * @throws IOException If fails
+     */
+    void exec(final Collection<String> envs) throws IOException {
+        final String name = this.name(this.id());
+        final List<String> command = new ArrayList<>(envs.size() + 6);
+        command.add("exec");
+        command.addAll(envs);
+        command.add(name);
+        command.addAll(
+            Arrays.asList(
+                "/bin/bash", "-c",
+                String.format("touch %s && exec /hone/entry.sh", Daemon.ALIVE)
+            )
+        );
+        this.start(name);
+        try {
+            this.docker.exec(command);
+        } catch (final IOException ex) {
+            if (!Daemon.vanished(ex)) {
+                throw ex;
+            }
+            Logger.info(this, "The container %s stopped before the job, starting it again", name);
+            this.start(name);
+            this.docker.exec(command);
+        }
+    }
+
+    /**
+     * The container is not there anymore, according to the error of Docker?
+     * @param ex The error
+     * @return TRUE if so
+     */
+    private static boolean vanished(final IOException ex) {
+        final String msg = String.valueOf(ex.getMessage());
+        return msg.contains("No such container") || msg.contains("is not running");
+    }
+
+    /**
+     * The ID of the image, pulling it if it's not here yet.
+     * @return The ID, like {@code "sha256:4a8f..."}
+     * @throws IOException If fails
+     */
+    private String id() throws IOException {
+        final String[] inspect = {"image", "inspect", "--format", "{{.Id}}", this.image};
+        String id;
+        try {
+            id = this.docker.stdout(inspect).trim();
+        } catch (final IOException ex) {
+            Logger.info(this, "The image %s is not here, pulling it", this.image);
+            this.docker.exec("pull", this.image);
+            id = this.docker.stdout(inspect).trim();
+        }
+        return id;
+    }
+
+    /**
+     * Start the container, unless it is already running.
+     * @param name The name of the container
+     * @throws IOException If fails
+     */
+    private void start(final String name) throws IOException {
+        try {
+            this.docker.exec("exec", name, "touch", Daemon.ALIVE);
+            Logger.info(this, "The container %s is already running, using it", name);
+        } catch (final IOException ex) {
+            Logger.info(this, "The container %s is not running, starting it", name);
+            final List<String> command = new ArrayList<>(16);
+            command.addAll(Arrays.asList("run", "--detach", "--rm", "--name", name));
+            for (final Path mount : this.mounts) {
+                command.add("--volume");
+                command.add(String.format("%s:%s", mount, mount));
+            }
+            command.addAll(
+                Arrays.asList(
+                    "--user", this.user,
+                    "--privileged",
+                    "-v", "/var/run/docker.sock:/var/run/docker.sock",
+                    "--entrypoint", "/bin/bash",
+                    this.image,
+                    "-c", this.loop()
+                )
+            );
+            try {
+                this.docker.exec(command);
+            } catch (final IOException failed) {
+                if (!failed.getMessage().contains("is already in use")) {
+                    throw failed;
+                }
+                Logger.info(
+                    this, "The container %s was just started by another build, using it", name
+                );
+            }
+        }
+    }
+
+    /**
+     * The script of the container, which waits until it's idle for too long.
+     * @return Bash script
+     */
+    private String loop() {
+        return String.join(
+            "; ",
+            String.format("touch %s", Daemon.ALIVE),
+            "while true",
+            "do sleep 5",
+            String.format(
+                "if pgrep -f '[e]ntry.sh' >/dev/null; then touch %s; continue; fi",
+                Daemon.ALIVE
+            ),
+            String.format(
+                "if [ $(( $(date +%%s) - $(stat -c %%Y %s) )) -ge %d ]; then exit 0; fi",
+                Daemon.ALIVE, this.idle
+            ),
+            "done"
+        );
+    }
+}
@@ -0,0 +1,97 @@
+/*
+ * SPDX-FileCopyrightText: Copyright (c) 2024-2026 Objectionary.com
+ * SPDX-License-Identifier: MIT
+ */
+package org.eolang.hone;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Number of lines that differ between two texts.
+ *
+ * <p>This is what {@code diff a b | grep -cE '^[><]'} prints: the number
+ * of deleted lines plus the number of inserted lines in the shortest
+ * edit script between two lists of lines. The script is not built,
+ * only its length is found, with the help of the
+ * <a href="http://www.xmailserver.org/diff2.pdf">Myers algorithm</a>,
+ * which takes {@code O((N+M)D)} time and {@code O(N+M)} memory. The common
+ * head and tail of the texts are cut off first, since rewriting usually
+ * changes just a few places in a large file.</p>
+ *
+ * @since 0.30.0
+ */
+final class Diff {
+
+    /**
+     * Lines before.
+     */
+    private final List<String> before;
+
+    /**
+     * Lines after.
+     */
+    private final List<String> after;
+
+    /**
+     * Ctor.
+     * @param left Lines before
+     * @param right Lines after
+     */
+    Diff(final List<String> left, final List<String> right) {
+        this.before = left;
+        this.after = right;
+    }
+
+    /**
+     * Count the lines deleted and inserted.
+     * @return Total number of lines changed
+     * @checkstyle CyclomaticComplexityCheck (50 lines)
+     */
+    @SuppressWarnings("PMD.CognitiveComplexity")
+    int count() {
+        int head = 0;
+        final int max = Math.min(this.before.size(), this.after.size());
+        while (head < max && this.before.get(head).equals(this.after.get(head))) {
+            ++head;
+        }
+        int tail = 0;
+        while (tail < max - head && this.before.get(this.before.size() - 1 - tail).equals(
+            this.after.get(this.after.size() - 1 - tail)
+        )) {
+            ++tail;
+        }
+        final int total = this.before.size() - head - tail;
+        final int other = this.after.size() - head - tail;
+        final int limit = total + other;
+        int found = limit;
+        if (total == 0 || other == 0) {
+            found = limit;
+        } else {
+            final int[] reach = new int[2 * limit + 2];
+            Arrays.fill(reach, -1);
+            reach[limit + 1] = 0;
+            for (int step = 0; step <= limit && found == limit; ++step) {
+                for (int diag = -step; diag <= step; diag += 2) {
+                    int pos;
+                    if (diag == -step
+                        || diag != step && reach[limit + diag - 1] < reach[limit + diag + 1]) {
+                        pos = reach[limit + diag + 1];
+                    } else {
+                        pos = reach[limit + diag - 1] + 1;
+                    }
+                    while (pos < total && pos - diag < other
+                        && this.before.get(head + pos).equals(this.after.get(head + pos - diag))) {
+                        ++pos;
+                    }
+                    reach[limit + diag] = pos;
+                    if (pos >= total && pos - diag >= other) {
+                        found = step;
+                        break;
+                    }
+                }
+            }
+        }
+        return found;
+    }
+}
@@ -24,6 +24,11 @@ import java.util.logging.Level;
  */
 final class Docker {
 
+    /**
+     * The executable of Docker.
+     */
+    private final String binary;
+
     /**
      * Whether to prepend "sudo" to Docker commands.
      */
@@ -41,6 +46,16 @@ final class Docker {
      * @param root Whether to run Docker commands with sudo
      */
     Docker(final boolean root) {
+        this("docker", root);
+    }
+
+    /**
+     * Creates a Docker executor with the given executable.
+     * @param bin The executable of Docker
+     * @param root Whether to run Docker commands with sudo
+     */
+    Docker(final String bin, final boolean root) {
+        this.binary = bin;
         this.sudo = root;
     }
 
@@ -76,22 +91,43 @@ final class Docker {
      * @throws IOException If the command fails or returns non-zero exit code
      */
     int exec(final Collection<String> args) throws IOException {
+        this.fire(this.command(args));
+        return 0;
+    }
+
+    /**
+     * Execute a Docker command and return what it printed.
+     * @param args Docker command arguments
+     * @return The stdout of the command
+     * @throws IOException If the command fails or returns non-zero exit code
+     */
+    String stdout(final String... args) throws IOException {
+        return this.fire(this.command(Arrays.asList(args))).stdout();
+    }
+
+    /**
+     * Make the complete command.
+     * @param args Docker command arguments
+     * @return Complete command with all arguments
+     */
+    private List<String> command(final Collection<String> args) {
         final List<String> command = new ArrayList<>(args.size() + 2);
         if (this.sudo) {
             command.add("sudo");
         }
-        command.add("docker");
+        command.add(this.binary);
         command.addAll(args);
-        return this.fire(command);
+        return command;
     }
 
     /**
      * Execute the assembled command and handle the process.
      * @param command Complete command with all arguments
-     * @return Exit code (always 0 on success)
-     * @throws IOException If the command fails or returns non-zero exit code
+     * @return The result, with zero exit code
+     * @throws IOException If the command fails or returns non-zero exit code,
+     *  with its stderr in the message
      */
-    private int fire(final List<String> command) throws IOException {
+    private VerboseProcess.Result fire(final List<String> command) throws IOException {
         final long start = System.currentTimeMillis();
         Logger.info(this, "+ %s ...", String.join(" ", command));
         try (
@@ -109,13 +145,16 @@ final class Docker {
             );
             if (ret.code() != 0) {
                 throw new IOException(
-                    String.format("Failed to execute docker, code=0x%04x", ret.code())
+                    String.format(
+                        "Failed to execute docker, code=0x%04x: %s",
+                        ret.code(), ret.stderr().trim()
+                    )
                 );
             }
+            return ret;
         } catch (final InterruptedException ex) {
             Thread.currentThread().interrupt();
             throw new IOException(ex);
         }
-        return 0;
     }
 }
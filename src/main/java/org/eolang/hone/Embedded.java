@@ -0,0 +1,179 @@
+/*
+ * SPDX-FileCopyrightText: Copyright (c) 2024-2026 Objectionary.com
+ * SPDX-License-Identifier: MIT
+ */
+package org.eolang.hone;
+
+import com.jcabi.log.Logger;
+import java.io.IOException;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import org.apache.maven.execution.MavenSession;
+import org.apache.maven.lifecycle.internal.MojoDescriptorCreator;
+import org.apache.maven.model.Plugin;
+import org.apache.maven.plugin.BuildPluginManager;
+import org.apache.maven.plugin.InvalidPluginDescriptorException;
+import org.apache.maven.plugin.MojoExecution;
+import org.apache.maven.plugin.MojoExecutionException;
+import org.apache.maven.plugin.MojoFailureException;
+import org.apache.maven.plugin.MojoNotFoundException;
+import org.apache.maven.plugin.PluginConfigurationException;
+import org.apache.maven.plugin.PluginDescriptorParsingException;
+import org.apache.maven.plugin.PluginManagerException;
+import org.apache.maven.plugin.PluginNotFoundException;
+import org.apache.maven.plugin.PluginResolutionException;
+import org.apache.maven.plugin.descriptor.MojoDescriptor;
+import org.apache.maven.plugin.descriptor.Parameter;
+import org.codehaus.plexus.util.xml.Xpp3Dom;
+
+/**
+ * A goal of a Maven plugin, executed inside the current Maven JVM.
+ *
+ * <p>The plugin is resolved by Maven the same way it resolves plugins
+ * of the build, and its class realm is cached by Maven between
+ * executions. Thus, in a multi-module build, the plugin is loaded
+ * once and its code is already warmed up by JIT when the next module
+ * needs it.</p>
+ *
+ * <p>The goal is configured with properties, exactly the way
+ * it would be configured with {@code -D} options in command line:
+ * every property is given to the parameter, which has it in its
+ * expression. Properties that don't match any parameter are ignored,
+ * just like Maven ignores them.</p>
+ *
+ * @since 0.30.0
+ */
+final class Embedded {
+
+    /**
+     * Maven session.
+     */
+    private final MavenSession session;
+
+    /**
+     * Plugin manager.
+     */
+    private final BuildPluginManager manager;
+
+    /**
+     * Ctor.
+     * @param ssn Maven session
+     * @param mgr Plugin manager
+     */
+    Embedded(final MavenSession ssn, final BuildPluginManager mgr) {
+        this.session = ssn;
+        this.manager = mgr;
+    }
+
+    /**
+     * Execute the goal.
+     * @param coords Coordinates of the plugin, as {@code group:artifact:version}
+     * @param goal The goal
+     * @param props Properties to configure the goal with
+     * @return TRUE if executed, FALSE if it can't be executed in this JVM
+     * @throws IOException If the goal fails
+     */
+    boolean exec(final String coords, final String goal,
+        final Map<String, String> props) throws IOException {
+        final String[] parts = coords.split(":");
+        final Plugin plugin = new Plugin();
+        plugin.setGroupId(parts[0]);
+        plugin.setArtifactId(parts[1]);
+        plugin.setVersion(parts[2]);
+        boolean done = false;
+        final MojoDescriptor mojo = this.descriptor(plugin, goal);
+        if (mojo != null) {
+            try {
+                this.manager.executeMojo(
+                    this.session,
+                    new MojoExecution(
+                        mojo,
+                        Xpp3Dom.mergeXpp3Dom(
+                            Embedded.config(mojo, props),
+                            MojoDescriptorCreator.convert(mojo)
+                        )
+                    )
+                );
+            } catch (final MojoFailureException | MojoExecutionException
+                | PluginConfigurationException | PluginManagerException ex) {
+                throw new IOException(
+                    String.format("Failed to execute %s:%s", coords, goal),
+                    ex
+                );
+            }
+            done = true;
+        }
+        return done;
+    }
+
+    /**
+     * Find the descriptor of the goal.
+     * @param plugin The plugin
+     * @param goal The goal
+     * @return The descriptor or NULL if it can't be found
+     */
+    private MojoDescriptor descriptor(final Plugin plugin, final String goal) {
+        MojoDescriptor mojo = null;
+        try {
+            mojo = this.manager.getMojoDescriptor(
+                plugin, goal,
+                this.session.getCurrentProject().getRemotePluginRepositories(),
+                this.session.getRepositorySession()
+            );
+        } catch (final PluginNotFoundException | PluginResolutionException
+            | PluginDescriptorParsingException | MojoNotFoundException
+            | InvalidPluginDescriptorException ex) {
+            Logger.info(
+                this, "Can't load %s:%s into this JVM: %s",
+                plugin.getId(), goal, ex.getMessage()
+            );
+        }
+        return mojo;
+    }
+
+    /**
+     * Make configuration of the goal from the properties.
+     * @param mojo The descriptor of the goal
+     * @param props The properties
+     * @return The configuration
+     */
+    private static Xpp3Dom config(final MojoDescriptor mojo,
+        final Map<String, String> props) {
+        final Xpp3Dom config = new Xpp3Dom("configuration");
+        final Set<String> used = new HashSet<>(props.size());
+        if (mojo.getParameters() != null) {
+            for (final Parameter param : mojo.getParameters()) {
+                final String key = Embedded.property(param.getExpression());
+                if (props.containsKey(key)) {
+                    final Xpp3Dom child = new Xpp3Dom(param.getName());
+                    child.setValue(props.get(key));
+                    config.addChild(child);
+                    used.add(key);
+                }
+            }
+        }
+        for (final String key : props.keySet()) {
+            if (!used.contains(key)) {
+                Logger.debug(
+                    Embedded.class, "The property '%s' is not used by %s",
+                    key, mojo.getFullGoalName()
+                );
+            }
+        }
+        return config;
+    }
+
+    /**
+     * Get the name of the property from the expression of a parameter.
+     * @param expr The expression, like {@code "${jeo.version}"}, or NULL
+     * @return The name of the property, or empty string if there is none
+     */
+    private static String property(final String expr) {
+        String key = "";
+        if (expr != null && expr.startsWith("${") && expr.endsWith("}")) {
+            key = expr.substring(2, expr.length() - 1);
+        }
+        return key;
+    }
+}
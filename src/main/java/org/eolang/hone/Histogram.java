@@ -0,0 +1,127 @@
+/*
+ * SPDX-FileCopyrightText: Copyright (c) 2024-2026 Objectionary.com
+ * SPDX-License-Identifier: MIT
+ */
+package org.eolang.hone;
+
+/**
+ * Histogram of non-negative numbers, with percentiles, in constant memory.
+ *
+ * <p>Numbers below {@code 64} are counted exactly, while bigger ones
+ * fall into buckets, 32 per power of two. Thus, a percentile is never
+ * more than about 3% away from the real one, no matter how many numbers
+ * there are, while the histogram is always two thousand counters.</p>
+ *
+ * @since 0.30.0
+ */
+final class Histogram {
+
+    /**
+     * Bits of the sub-bucket inside a power of two.
+     */
+    private static final int BITS = 5;
+
+    /**
+     * Sub-buckets in a power of two.
+     */
+    private static final int SUB = 1 << Histogram.BITS;
+
+    /**
+     * Counters of buckets.
+     */
+    private final long[] counts;
+
+    /**
+     * How many numbers were added.
+     */
+    private long total;
+
+    /**
+     * The biggest number added.
+     */
+    private long max;
+
+    /**
+     * Ctor.
+     */
+    Histogram() {
+        this.counts = new long[Long.SIZE * Histogram.SUB];
+    }
+
+    /**
+     * Add a number.
+     * @param value The number, negative ones are ignored
+     */
+    void add(final long value) {
+        if (value >= 0L) {
+            ++this.counts[Histogram.bucket(value)];
+            ++this.total;
+            this.max = Math.max(this.max, value);
+        }
+    }
+
+    /**
+     * How many numbers were added.
+     * @return The count
+     */
+    long count() {
+        return this.total;
+    }
+
+    /**
+     * The percentile.
+     * @param pct The percentile, like {@code 95.0}
+     * @return The number, which is not smaller than the given percent
+     *  of all numbers, or zero if there are none
+     */
+    long percentile(final double pct) {
+        long found = 0L;
+        if (this.total > 0L) {
+            final long rank = Math.max(1L, (long) Math.ceil(pct / 100.0d * this.total));
+            long seen = 0L;
+            for (int idx = 0; idx < this.counts.length; ++idx) {
+                seen += this.counts[idx];
+                if (seen >= rank) {
+                    found = Histogram.upper(idx);
+                    if (found < 0L || found > this.max) {
+                        found = this.max;
+                    }
+                    break;
+                }
+            }
+        }
+        return found;
+    }
+
+    /**
+     * The bucket of the number.
+     * @param value The number, not negative
+     * @return The index of the bucket
+     */
+    private static int bucket(final long value) {
+        final int idx;
+        if (value < Histogram.SUB) {
+            idx = (int) value;
+        } else {
+            final int shift = Long.SIZE - 1 - Long.numberOfLeadingZeros(value) - Histogram.BITS;
+            idx = (shift + 1) * Histogram.SUB + (int) (value >>> shift) - Histogram.SUB;
+        }
+        return idx;
+    }
+
+    /**
+     * The biggest number in the bucket.
+     * @param idx The index of the bucket
+     * @return The number
+     */
+    private static long upper(final int idx) {
+        final long value;
+        if (idx < Histogram.SUB) {
+            value = idx;
+        } else {
+            final int shift = idx / Histogram.SUB - 1;
+            value = ((long) (idx % Histogram.SUB + Histogram.SUB + 1) << shift) - 1L;
+        }
+        return value;
+    }
+}
@@ -0,0 +1,182 @@
+/*
+ * SPDX-FileCopyrightText: Copyright (c) 2024-2026 Objectionary.com
+ * SPDX-License-Identifier: MIT
+ */
+package org.eolang.hone;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import org.objectweb.asm.ClassReader;
+import org.objectweb.asm.ClassVisitor;
+import org.objectweb.asm.Handle;
+import org.objectweb.asm.Label;
+import org.objectweb.asm.MethodVisitor;
+import org.objectweb.asm.Opcodes;
+
+/**
+ * The number of bytecode instructions in all methods of a class.
+ *
+ * <p>Labels, line numbers, and stack map frames are not instructions
+ * and are not counted. The difference between the numbers before and
+ * after optimization shows how much shorter the bytecode became, which
+ * the size of the {@code .class} file doesn't show well, since it's mostly
+ * the constant pool.</p>
+ *
+ * @since 0.30.0
+ */
+final class Instructions {
+
+    /**
+     * The bytes of the {@code .class} file.
+     */
+    private final byte[] bytes;
+
+    /**
+     * Ctor.
+     * @param bin The bytes of the {@code .class} file
+     */
+    Instructions(final byte[] bin) {
+        this.bytes = bin.clone();
+    }
+
+    /**
+     * Count them.
+     * @return The number of instructions, or -1 if the class can't be read
+     */
+    int count() {
+        final AtomicInteger total = new AtomicInteger();
+        try {
+            new ClassReader(this.bytes).accept(
+                new Instructions.Methods(total),
+                ClassReader.SKIP_DEBUG | ClassReader.SKIP_FRAMES
+            );
+        } catch (final IllegalArgumentException | ArrayIndexOutOfBoundsException ex) {
+            total.set(-1);
+        }
+        return total.get();
+    }
+
+    /**
+     * Visitor of a class, which counts instructions of its methods.
+     * @since 0.30.0
+     */
+    private static final class Methods extends ClassVisitor {
+
+        /**
+         * The number of instructions.
+         */
+        private final AtomicInteger total;
+
+        /**
+         * Ctor.
+         * @param cnt The number of instructions
+         */
+        Methods(final AtomicInteger cnt) {
+            super(Opcodes.ASM9);
+            this.total = cnt;
+        }
+
+        // @checkstyle ParameterNumberCheck (3 lines)
+        @Override
+        public MethodVisitor visitMethod(final int access, final String name,
+            final String desc, final String sign, final String[] exceptions) {
+            return new Instructions.Counter(this.total);
+        }
+    }
+
+    /**
+     * Visitor of a method, which counts its instructions.
+     * @since 0.30.0
+     */
+    @SuppressWarnings("PMD.TooManyMethods")
+    private static final class Counter extends MethodVisitor {
+
+        /**
+         * The number of instructions.
+         */
+        private final AtomicInteger total;
+
+        /**
+         * Ctor.
+         * @param cnt The number of instructions
+         */
+        Counter(final AtomicInteger cnt) {
+            super(Opcodes.ASM9);
+            this.total = cnt;
+        }
+
+        @Override
+        public void visitInsn(final int opcode) {
+            this.total.incrementAndGet();
+        }
+
+        @Override
+        public void visitIntInsn(final int opcode, final int operand) {
+            this.total.incrementAndGet();
+        }
+
+        @Override
+        public void visitVarInsn(final int opcode, final int var) {
+            this.total.incrementAndGet();
+        }
+
+        @Override
+        public void visitTypeInsn(final int opcode, final String type) {
+            this.total.incrementAndGet();
+        }
+
+        // @checkstyle ParameterNumberCheck (3 lines)
+        @Override
+        public void visitFieldInsn(final int opcode, final String owner,
+            final String name, final String desc) {
+            this.total.incrementAndGet();
+        }
+
+        // @checkstyle ParameterNumberCheck (3 lines)
+        @Override
+        public void visitMethodInsn(final int opcode, final String owner,
+            final String name, final String desc, final boolean itf) {
+            this.total.incrementAndGet();
+        }
+
+        // @checkstyle ParameterNumberCheck (3 lines)
+        @Override
+        public void visitInvokeDynamicInsn(final String name, final String desc,
+            final Handle bsm, final Object... args) {
+            this.total.incrementAndGet();
+        }
+
+        @Override
+        public void visitJumpInsn(final int opcode, final Label label) {
+            this.total.incrementAndGet();
+        }
+
+        @Override
+        public void visitLdcInsn(final Object value) {
+            this.total.incrementAndGet();
+        }
+
+        @Override
+        public void visitIincInsn(final int var, final int increment) {
+            this.total.incrementAndGet();
+        }
+
+        // @checkstyle ParameterNumberCheck (3 lines)
+        @Override
+        public void visitTableSwitchInsn(final int min, final int max,
+            final Label dflt, final Label... labels) {
+            this.total.incrementAndGet();
+        }
+
+        // @checkstyle ParameterNumberCheck (3 lines)
+        @Override
+        public void visitLookupSwitchInsn(final Label dflt, final int[] keys,
+            final Label... labels) {
+            this.total.incrementAndGet();
+        }
+
+        @Override
+        public void visitMultiANewArrayInsn(final String desc, final int dims) {
+            this.total.incrementAndGet();
+        }
+    }
+}
@@ -0,0 +1,325 @@
+/*
+ * SPDX-FileCopyrightText: Copyright (c) 2024-2026 Objectionary.com
+ * SPDX-License-Identifier: MIT
+ */
+package org.eolang.hone;
+
+import com.jcabi.log.Logger;
+import com.jcabi.log.VerboseProcess;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.logging.Level;
+
+/**
+ * The jeo-maven-plugin, which turns {@code .class} files into
+ * {@code .xmir} and back.
+ *
+ * <p>If {@link Embedded} is provided, the plugin is executed inside
+ * the current Maven JVM. Otherwise, or if it can't be loaded there, the
+ * plugin is executed in a separate Maven process, exactly the way
+ * the {@code entry.sh} script does it inside Docker. In both cases it
+ * gets the same properties.</p>
+ *
+ * <p>When only some classes must be disassembled, they are hard-linked
+ * into a staging directory, which jeo disassembles entirely. Thus, the
+ * properties don't depend on the number of classes, no matter
+ * how many thousands of them are skipped or kept, and a forked Maven
+ * never gets an argument longer than the kernel allows.</p>
+ *
+ * @since 0.30.0
+ */
+final class Jeo {
+
+    /**
+     * The Maven executable, for a separate process.
+     */
+    private final String maven;
+
+    /**
+     * The version of jeo-maven-plugin.
+     */
+    private final String version;
+
+    /**
+     * The version of EO, or NULL if the default one must be used.
+     */
+    private final String eolang;
+
+    /**
+     * EO cache directory.
+     */
+    private final File cache;
+
+    /**
+     * Comma-separated include patterns, or empty string.
+     */
+    private final String includes;
+
+    /**
+     * Comma-separated exclude patterns, or empty string.
+     */
+    private final String excludes;
+
+    /**
+     * Maven JVM to run the plugin in, or NULL if a new process is needed.
+     */
+    private final Embedded embedded;
+
+    /**
+     * Ctor.
+     * @param ver The version of jeo-maven-plugin
+     * @param eov The version of EO, or NULL
+     * @param dir EO cache directory
+     * @param incl Comma-separated include patterns, or empty string
+     * @param excl Comma-separated exclude patterns, or empty string
+     * @param emb Maven JVM to run the plugin in, or NULL
+     * @checkstyle ParameterNumberCheck (5 lines)
+     */
+    Jeo(final String ver, final String eov, final File dir,
+        final String incl, final String excl, final Embedded emb) {
+        this("mvn", ver, eov, dir, incl, excl, emb);
+    }
+
+    /**
+     * Ctor.
+     * @param mvn The Maven executable, for a separate process
+     * @param ver The version of jeo-maven-plugin
+     * @param eov The version of EO, or NULL
+     * @param dir EO cache directory
+     * @param incl Comma-separated include patterns, or empty string
+     * @param excl Comma-separated exclude patterns, or empty string
+     * @param emb Maven JVM to run the plugin in, or NULL
+     * @checkstyle ParameterNumberCheck (5 lines)
+     */
+    Jeo(final String mvn, final String ver, final String eov, final File dir,
+        final String incl, final String excl, final Embedded emb) {
+        this.maven = mvn;
+        this.version = ver;
+        this.eolang = eov;
+        this.cache = dir;
+        this.includes = incl;
+        this.excludes = excl;
+        this.embedded = emb;
+    }
+
+    /**
+     * Turn {@code .class} files into {@code .xmir} files.
+     * @param classes Directory with {@code .class} files
+     * @param xmir Directory for {@code .xmir} files
+     * @throws IOException If fails
+     */
+    void disassemble(final Path classes, final Path xmir) throws IOException {
+        this.disassemble(classes, xmir, classes);
+    }
+
+    /**
+     * Turn only some {@code .class} files into {@code .xmir} files.
+     *
+     * <p>The files are hard-linked, or copied if links are not possible,
+     * into the staging directory, with the same relative paths, and jeo
+     * disassembles it instead of the directory with classes. Include and
+     * exclude patterns, which start with the directory with classes, are
+     * moved to the staging directory too.</p>
+     *
+     * @param classes Directory with {@code .class} files
+     * @param xmir Directory for {@code .xmir} files
+     * @param only Paths of {@code .class} files to disassemble,
+     *  relative to the directory with classes
+     * @param stage The staging directory, which is replaced
+     * @throws IOException If fails
+     * @checkstyle ParameterNumberCheck (5 lines)
+     */
+    void disassemble(final Path classes, final Path xmir, final Collection<Path> only,
+        final Path stage) throws IOException {
+        Snapshot.delete(stage);
+        Files.createDirectories(stage);
+        boolean links = true;
+        for (final Path rel : only) {
+            final Path src = classes.resolve(rel.toString());
+            final Path dest = stage.resolve(rel.toString());
+            Files.createDirectories(dest.getParent());
+            if (links) {
+                try {
+                    Files.createLink(dest, src);
+                } catch (final IOException | UnsupportedOperationException ex) {
+                    Logger.info(
+                        this, "Can't make hard links in %[file]s (%s), copying files",
+                        stage, ex.getMessage()
+                    );
+                    links = false;
+                }
+            }
+            if (!links) {
+                Files.copy(src, dest, StandardCopyOption.REPLACE_EXISTING);
+            }
+        }
+        Logger.info(
+            this, "%d class(es) of %[file]s staged in %[file]s for disassembling",
+            only.size(), classes, stage
+        );
+        this.disassemble(stage, xmir, classes);
+    }
+
+    /**
+     * Turn all {@code .class} files of the directory into {@code .xmir} files.
+     * @param sources Directory with {@code .class} files to disassemble
+     * @param xmir Directory for {@code .xmir} files
+     * @param classes Directory with classes, which include and exclude
+     *  patterns start with
+     * @throws IOException If fails
+     */
+    private void disassemble(final Path sources, final Path xmir, final Path classes)
+        throws IOException {
+        final Map<String, String> props = this.props();
+        props.put("jeo.disassemble.sourcesDir", sources.toString());
+        props.put("jeo.disassemble.outputDir", xmir.toString());
+        props.put("jeo.disassemble.mode", "debug");
+        props.put("jeo.disassemble.xmir.modifiers", "true");
+        props.put("jeo.disassemble.omitComments", "true");
+        props.put("jeo.disassemble.omitListings", "true");
+        props.put("jeo.disassemble.prettyXmir", "true");
+        props.put("jeo.disassemble.xmir.verification", "false");
+        this.filters(props, "disassemble");
+        if (!sources.equals(classes)) {
+            for (final String key : Arrays.asList(
+                "jeo.disassemble.includes", "jeo.disassemble.excludes"
+            )) {
+                if (props.containsKey(key)) {
+                    props.put(
+                        key, props.get(key).replace(classes.toString(), sources.toString())
+                    );
+                }
+            }
+        }
+        this.exec(props, "disassemble");
+    }
+
+    /**
+     * Turn {@code .xmir} files into {@code .class} files.
+     * @param xmir Directory with {@code .xmir} files
+     * @param classes Directory for {@code .class} files
+     * @throws IOException If fails
+     */
+    void assemble(final Path xmir, final Path classes) throws IOException {
+        final Map<String, String> props = this.props();
+        props.put("jeo.assemble.sourcesDir", xmir.toString());
+        props.put("jeo.assemble.outputDir", classes.toString());
+        props.put("jeo.assemble.xmir.verification", "false");
+        props.put("jeo.assemble.skip.verification", "true");
+        this.filters(props, "assemble");
+        this.exec(props, "assemble");
+    }
+
+    @Override
+    public String toString() {
+        return String.format("jeo-maven-plugin:%s", this.version);
+    }
+
+    /**
+     * Properties shared by both goals.
+     * @return Mutable map of properties
+     */
+    private Map<String, String> props() {
+        final Map<String, String> props = new LinkedHashMap<>(16);
+        props.put("file.encoding", "UTF-8");
+        props.put("eo.cache", this.cache.toString());
+        props.put("jeo.version", this.version);
+        if (this.eolang != null) {
+            props.put("eo.version", this.eolang);
+        }
+        return props;
+    }
+
+    /**
+     * Add includes and excludes to the properties.
+     * @param props The properties
+     * @param goal The goal
+     */
+    private void filters(final Map<String, String> props, final String goal) {
+        if (!this.includes.isEmpty()) {
+            props.put(String.format("jeo.%s.includes", goal), this.includes);
+        }
+        if (!this.excludes.isEmpty()) {
+            props.put(String.format("jeo.%s.excludes", goal), this.excludes);
+        }
+    }
+
+    /**
+     * Run the goal, in this JVM if possible.
+     * @param props The properties
+     * @param goal The goal to run
+     * @throws IOException If fails
+     */
+    private void exec(final Map<String, String> props, final String goal)
+        throws IOException {
+        final long start = System.currentTimeMillis();
+        final String coords = String.format("org.eolang:jeo-maven-plugin:%s", this.version);
+        if (this.embedded != null && this.embedded.exec(coords, goal, props)) {
+            Logger.info(
+                this, "%s:%s finished in this JVM in %[ms]s",
+                this, goal, System.currentTimeMillis() - start
+            );
+        } else {
+            this.fork(props, goal);
+        }
+    }
+
+    /**
+     * Run the goal in a separate Maven process.
+     * @param props The properties
+     * @param goal The goal to run
+     * @throws IOException If fails
+     */
+    private void fork(final Map<String, String> props, final String goal)
+        throws IOException {
+        final List<String> command = new ArrayList<>(props.size() + 8);
+        command.addAll(
+            Arrays.asList(
+                this.maven,
+                "--update-snapshots",
+                "--fail-fast",
+                "--strict-checksums",
+                "--errors",
+                "--batch-mode",
+                "--no-transfer-progress"
+            )
+        );
+        for (final Map.Entry<String, String> ent : props.entrySet()) {
+            command.add(String.format("-D%s=%s", ent.getKey(), ent.getValue()));
+        }
+        command.add(String.format("org.eolang:jeo-maven-plugin:%s:%s", this.version, goal));
+        final long start = System.currentTimeMillis();
+        Logger.info(this, "+ %s ...", String.join(" ", command));
+        try (
+            Mktemp temp = new Mktemp();
+            VerboseProcess proc = new VerboseProcess(
+                new ProcessBuilder(command).directory(temp.path().toFile()),
+                Level.INFO,
+                Level.INFO
+            )
+        ) {
+            final VerboseProcess.Result ret = proc.waitFor();
+            Logger.info(
+                this, "+ mvn %s:%s -> 0x%04x in %[ms]s",
+                this, goal, ret.code(), System.currentTimeMillis() - start
+            );
+            if (ret.code() != 0) {
+                throw new IOException(
+                    String.format("Failed to %s with %s, code=0x%04x", goal, this, ret.code())
+                );
+            }
+        } catch (final InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IOException(ex);
+        }
+    }
+}
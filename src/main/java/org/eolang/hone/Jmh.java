@@ -0,0 +1,134 @@
+/*
+ * SPDX-FileCopyrightText: Copyright (c) 2024-2026 Objectionary.com
+ * SPDX-License-Identifier: MIT
+ */
+package org.eolang.hone;
+
+import com.jcabi.log.Logger;
+import com.jcabi.log.VerboseProcess;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.logging.Level;
+
+/**
+ * The JMH runner, in a separate JVM.
+ *
+ * <p>The JMH itself is not a dependency of this plugin: it must be in the
+ * classpath of the project, together with the benchmarks, which are
+ * compiled with its annotation processor. The runner is started
+ * in a new JVM, which forks more JVMs for the benchmarks, and saves
+ * the results in the CSV format, with the GC profiler turned on.</p>
+ *
+ * @since 0.30.0
+ */
+final class Jmh {
+
+    /**
+     * The main class of JMH.
+     */
+    private static final String MAIN = "org.openjdk.jmh.Main";
+
+    /**
+     * The {@code java} executable.
+     */
+    private final String java;
+
+    /**
+     * Options of JMH, like {@code -f 1}.
+     */
+    private final Collection<String> options;
+
+    /**
+     * Ctor.
+     * @param exe The {@code java} executable
+     * @param opts Options of JMH
+     */
+    Jmh(final String exe, final Collection<String> opts) {
+        this.java = exe;
+        this.options = opts;
+    }
+
+    @Override
+    public String toString() {
+        return String.join(" ", this.options);
+    }
+
+    /**
+     * Is JMH in the classpath?
+     * @param classpath The classpath
+     * @return TRUE if it is
+     */
+    static boolean present(final Collection<Path> classpath) {
+        boolean present = false;
+        for (final Path entry : classpath) {
+            if (entry.getFileName() != null
+                && entry.getFileName().toString().startsWith("jmh-core")) {
+                present = true;
+                break;
+            }
+        }
+        return present;
+    }
+
+    /**
+     * The command to run the benchmarks.
+     * @param classpath The classpath, with classes, benchmarks and JMH
+     * @param csv Where to save the results
+     * @return The command
+     */
+    List<String> command(final Collection<Path> classpath, final Path csv) {
+        final List<String> parts = new ArrayList<>(classpath.size());
+        for (final Path entry : classpath) {
+            parts.add(entry.toString());
+        }
+        final List<String> command = new ArrayList<>(this.options.size() + 12);
+        command.addAll(
+            Arrays.asList(
+                this.java, "-cp", String.join(File.pathSeparator, parts), Jmh.MAIN
+            )
+        );
+        command.addAll(this.options);
+        command.addAll(
+            Arrays.asList("-prof", "gc", "-rf", "csv", "-rff", csv.toString())
+        );
+        return command;
+    }
+
+    /**
+     * Run the benchmarks.
+     * @param classpath The classpath, with classes, benchmarks and JMH
+     * @param csv Where to save the results
+     * @throws IOException If fails
+     */
+    void run(final Collection<Path> classpath, final Path csv) throws IOException {
+        final List<String> command = this.command(classpath, csv);
+        final long start = System.currentTimeMillis();
+        Logger.info(this, "+ %s %s ...", Jmh.MAIN, this);
+        try (
+            VerboseProcess proc = new VerboseProcess(
+                new ProcessBuilder(command),
+                Level.INFO,
+                Level.INFO
+            )
+        ) {
+            final VerboseProcess.Result ret = proc.waitFor();
+            Logger.info(
+                this, "+ %s -> 0x%04x in %[ms]s",
+                Jmh.MAIN, ret.code(), System.currentTimeMillis() - start
+            );
+            if (ret.code() != 0) {
+                throw new IOException(
+                    String.format("Failed to run JMH, code=0x%04x", ret.code())
+                );
+            }
+        } catch (final InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IOException(ex);
+        }
+    }
+}
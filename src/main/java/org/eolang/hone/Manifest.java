@@ -0,0 +1,209 @@
+/*
+ * SPDX-FileCopyrightText: Copyright (c) 2024-2026 Objectionary.com
+ * SPDX-License-Identifier: MIT
+ */
+package org.eolang.hone;
+
+import com.jcabi.log.Logger;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * The record of the previous optimization of a module, in
+ * the {@code manifest.txt} file inside {@code target/hone/}.
+ *
+ * <p>For every class it keeps the hash of its bytes before optimization
+ * and after it. When the pipeline runs again, a class with the same
+ * hash as the previous output is already optimized, while a class with the
+ * same hash as the previous input was just compiled again, and its previous
+ * output may be restored. The outputs, which differ from inputs, are kept
+ * in the {@code optimized/} directory next to the manifest.</p>
+ *
+ * <p>The first line of the manifest is the "salt" (see {@link Cache}), which
+ * is the hash of the rules and all other settings. If it doesn't match,
+ * the manifest is ignored, since the previous outputs are not valid
+ * anymore.</p>
+ *
+ * @since 0.30.0
+ */
+final class Manifest {
+
+    /**
+     * The directory with the manifest, or NULL if it is disabled.
+     */
+    private final Path dir;
+
+    /**
+     * The hash of everything that affects optimization, except the class.
+     */
+    private final String salt;
+
+    /**
+     * Ctor of a disabled manifest.
+     */
+    Manifest() {
+        this(null, "");
+    }
+
+    /**
+     * Ctor.
+     * @param home The directory to keep the manifest in
+     * @param slt The hash of everything that affects optimization
+     */
+    Manifest(final Path home, final String slt) {
+        this.dir = home;
+        this.salt = slt;
+    }
+
+    /**
+     * Is it enabled?
+     * @return TRUE if it may be loaded and saved
+     */
+    boolean enabled() {
+        return this.dir != null;
+    }
+
+    /**
+     * Load all entries of the previous run.
+     * @return Entries by relative paths of classes, maybe empty
+     * @throws IOException If fails
+     */
+    Map<Path, Manifest.Entry> load() throws IOException {
+        final Map<Path, Manifest.Entry> entries = new TreeMap<>();
+        if (this.enabled() && this.file().toFile().isFile()) {
+            final List<String> lines = Files.readAllLines(this.file(), StandardCharsets.UTF_8);
+            if (!lines.isEmpty() && lines.get(0).equals(this.salt)) {
+                for (final String line : lines.subList(1, lines.size())) {
+                    final String[] parts = line.split(" ", 3);
+                    entries.put(Paths.get(parts[2]), new Manifest.Entry(parts[0], parts[1]));
+                }
+            } else {
+                Logger.info(
+                    this, "The manifest %[file]s was made with other settings, ignoring it",
+                    this.file()
+                );
+            }
+        }
+        return entries;
+    }
+
+    /**
+     * Save all entries of this run, replacing the previous ones.
+     * @param entries Entries by relative paths of classes
+     * @throws IOException If fails
+     */
+    void save(final Map<Path, Manifest.Entry> entries) throws IOException {
+        if (this.enabled()) {
+            final List<String> lines = new ArrayList<>(entries.size() + 1);
+            lines.add(this.salt);
+            for (final Map.Entry<Path, Manifest.Entry> ent : entries.entrySet()) {
+                lines.add(
+                    String.format(
+                        "%s %s %s",
+                        ent.getValue().input(), ent.getValue().output(), ent.getKey()
+                    )
+                );
+            }
+            Files.createDirectories(this.dir);
+            Files.write(this.file(), lines, StandardCharsets.UTF_8);
+        }
+    }
+
+    /**
+     * Keep the output of the class, to restore it later.
+     * @param rel Relative path of the class
+     * @param bytes Optimized bytes of the class
+     * @throws IOException If fails
+     */
+    void keep(final Path rel, final byte[] bytes) throws IOException {
+        final Path out = this.dir.resolve("optimized").resolve(rel.toString());
+        Files.createDirectories(out.getParent());
+        Files.write(out, bytes);
+    }
+
+    /**
+     * Get the kept output of the class.
+     * @param rel Relative path of the class
+     * @param hash The expected hash of the output
+     * @return The bytes or NULL if they are absent or don't match the hash
+     * @throws IOException If fails
+     */
+    byte[] restore(final Path rel, final String hash) throws IOException {
+        final Path out = this.dir.resolve("optimized").resolve(rel.toString());
+        byte[] bytes = null;
+        if (out.toFile().isFile()) {
+            bytes = Files.readAllBytes(out);
+            if (!Cache.sha(bytes).equals(hash)) {
+                bytes = null;
+            }
+        }
+        return bytes;
+    }
+
+    /**
+     * Delete the kept output of the class, if it exists.
+     * @param rel Relative path of the class
+     * @throws IOException If fails
+     */
+    void forget(final Path rel) throws IOException {
+        Files.deleteIfExists(this.dir.resolve("optimized").resolve(rel.toString()));
+    }
+
+    /**
+     * The file of the manifest.
+     * @return The file
+     */
+    private Path file() {
+        return this.dir.resolve("manifest.txt");
+    }
+
+    /**
+     * Hashes of one class.
+     * @since 0.30.0
+     */
+    static final class Entry {
+
+        /**
+         * The hash of the class before optimization.
+         */
+        private final String before;
+
+        /**
+         * The hash of the class after optimization.
+         */
+        private final String after;
+
+        /**
+         * Ctor.
+         * @param input The hash of the class before optimization
+         * @param output The hash of the class after optimization
+         */
+        Entry(final String input, final String output) {
+            this.before = input;
+            this.after = output;
+        }
+
+        /**
+         * The hash of the class before optimization.
+         * @return The hash
+         */
+        String input() {
+            return this.before;
+        }
+
+        /**
+         * The hash of the class after optimization.
+         * @return The hash
+         */
+        String output() {
+            return this.after;
+        }
+    }
+}
@@ -0,0 +1,429 @@
+/*
+ * SPDX-FileCopyrightText: Copyright (c) 2024-2026 Objectionary.com
+ * SPDX-License-Identifier: MIT
+ */
+package org.eolang.hone;
+
+import com.jcabi.log.Logger;
+import java.io.Closeable;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.IntSupplier;
+import javax.management.Attribute;
+import javax.management.AttributeList;
+import javax.management.AttributeNotFoundException;
+import javax.management.DynamicMBean;
+import javax.management.JMException;
+import javax.management.MBeanAttributeInfo;
+import javax.management.MBeanInfo;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+/**
+ * Live metrics of the optimization, published while it runs.
+ *
+ * <p>The metrics are the numbers of files done, queued, and running,
+ * the throughput in files and lines per second, the number of timeouts,
+ * the number of classes found in the cache, and the number of resident
+ * phino processes: one per running file and all spare ones.
+ * They are available as attributes of the MBean
+ * {@code org.eolang.hone:type=Optimization}, with the {@code target}
+ * directory as its key, and are written to a file in the Prometheus text
+ * exposition format every few seconds, and once again at the end. The
+ * file is replaced atomically, so that a scraper never sees it half
+ * written.</p>
+ *
+ * <p>The metrics made by the default ctor are disabled: they count,
+ * but neither register the MBean nor write the file.</p>
+ *
+ * @since 0.30.0
+ */
+@SuppressWarnings("PMD.TooManyMethods")
+final class Metrics implements DynamicMBean, Closeable {
+
+    /**
+     * Help lines, by names of attributes.
+     */
+    private static final Map<String, String> HELP = Metrics.help();
+
+    /**
+     * Names of attributes, which only grow.
+     */
+    private static final Collection<String> COUNTERS = Arrays.asList(
+        "FilesDone", "Lines", "Timeouts", "CacheHits"
+    );
+
+    /**
+     * The Prometheus file, or NULL if disabled.
+     */
+    private final Path path;
+
+    /**
+     * Seconds between rewrites of the file.
+     */
+    private final int interval;
+
+    /**
+     * When the optimization started, in milliseconds.
+     */
+    private final AtomicLong start;
+
+    /**
+     * Files done.
+     */
+    private final AtomicLong done;
+
+    /**
+     * Files waiting for a thread.
+     */
+    private final AtomicLong queued;
+
+    /**
+     * Files being rewritten.
+     */
+    private final AtomicLong running;
+
+    /**
+     * Lines of PHI rewritten.
+     */
+    private final AtomicLong lines;
+
+    /**
+     * Timeouts.
+     */
+    private final AtomicLong timeouts;
+
+    /**
+     * Classes found in the cache.
+     */
+    private final AtomicLong hits;
+
+    /**
+     * Spare phino processes, kept ahead of time.
+     */
+    private volatile IntSupplier spares;
+
+    /**
+     * The name of the MBean, when registered.
+     */
+    private ObjectName name;
+
+    /**
+     * The thread that writes the file.
+     */
+    private ScheduledExecutorService writer;
+
+    /**
+     * Ctor of disabled metrics.
+     */
+    Metrics() {
+        this(null, 0);
+    }
+
+    /**
+     * Ctor.
+     * @param prom The Prometheus file
+     * @param sec Seconds between rewrites of the file
+     */
+    Metrics(final Path prom, final int sec) {
+        this.path = prom;
+        this.interval = sec;
+        this.start = new AtomicLong(System.currentTimeMillis());
+        this.done = new AtomicLong();
+        this.queued = new AtomicLong();
+        this.running = new AtomicLong();
+        this.lines = new AtomicLong();
+        this.timeouts = new AtomicLong();
+        this.hits = new AtomicLong();
+        this.spares = () -> 0;
+    }
+
+    @Override
+    public String toString() {
+        final String text;
+        if (this.enabled()) {
+            text = String.format("%s every %ds", this.path, this.interval);
+        } else {
+            text = "disabled";
+        }
+        return text;
+    }
+
+    /**
+     * Is it enabled?
+     * @return TRUE if enabled
+     */
+    boolean enabled() {
+        return this.path != null;
+    }
+
+    /**
+     * Register the MBean and start writing the file.
+     * @param key The key of the MBean, usually the {@code target} directory
+     * @throws IOException If fails
+     */
+    void publish(final String key) throws IOException {
+        this.start.set(System.currentTimeMillis());
+        if (!this.enabled()) {
+            return;
+        }
+        final MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        try {
+            this.name = new ObjectName(
+                String.format(
+                    "org.eolang.hone:type=Optimization,target=%s", ObjectName.quote(key)
+                )
+            );
+            if (server.isRegistered(this.name)) {
+                server.unregisterMBean(this.name);
+            }
+            server.registerMBean(this, this.name);
+        } catch (final JMException ex) {
+            throw new IOException(ex);
+        }
+        Files.createDirectories(this.path.getParent());
+        this.writer = Executors.newSingleThreadScheduledExecutor(
+            job -> {
+                final Thread thread = new Thread(job, "hone-metrics");
+                thread.setDaemon(true);
+                return thread;
+            }
+        );
+        this.writer.scheduleWithFixedDelay(
+            () -> {
+                try {
+                    this.save();
+                } catch (final IOException ex) {
+                    Logger.warn(this, "Failed to save metrics: %s", ex.getMessage());
+                }
+            },
+            0L, Math.max(1, this.interval), TimeUnit.SECONDS
+        );
+        Logger.info(this, "Metrics are published as %s and to %[file]s", this.name, this.path);
+    }
+
+    /**
+     * The files are added to the queue.
+     * @param total How many files
+     */
+    void queue(final int total) {
+        this.queued.addAndGet(total);
+    }
+
+    /**
+     * A file is taken from the queue by a thread.
+     */
+    void begin() {
+        this.queued.decrementAndGet();
+        this.running.incrementAndGet();
+    }
+
+    /**
+     * A file is finished, successfully or not.
+     */
+    void end() {
+        this.running.decrementAndGet();
+        this.done.incrementAndGet();
+    }
+
+    /**
+     * Lines of PHI are rewritten.
+     * @param total How many lines
+     */
+    void rewrote(final int total) {
+        this.lines.addAndGet(total);
+    }
+
+    /**
+     * A file was left untouched because of timeout.
+     */
+    void timeout() {
+        this.timeouts.incrementAndGet();
+    }
+
+    /**
+     * Classes are found in the cache.
+     * @param total How many classes
+     */
+    void hit(final int total) {
+        this.hits.addAndGet(total);
+    }
+
+    /**
+     * Count spare phino processes with this.
+     * @param count How many spare processes there are now
+     */
+    void spares(final IntSupplier count) {
+        this.spares = count;
+    }
+
+    /**
+     * Current values, by names of attributes.
+     * @return Values
+     */
+    Map<String, Number> values() {
+        final double sec = Math.max(1L, System.currentTimeMillis() - this.start.get())
+            / 1000.0d;
+        final Map<String, Number> values = new LinkedHashMap<>(0);
+        values.put("FilesDone", this.done.get());
+        values.put("FilesQueued", this.queued.get());
+        values.put("FilesRunning", this.running.get());
+        values.put("FilesPerSecond", this.done.get() / sec);
+        values.put("LinesPerSecond", this.lines.get() / sec);
+        values.put("Lines", this.lines.get());
+        values.put("Timeouts", this.timeouts.get());
+        values.put("CacheHits", this.hits.get());
+        values.put("PhinoProcesses", this.running.get() + this.spares.getAsInt());
+        values.put("ElapsedSeconds", sec);
+        return values;
+    }
+
+    /**
+     * Current values, in the Prometheus text exposition format.
+     * @return The text
+     */
+    String prometheus() {
+        final StringBuilder text = new StringBuilder(0);
+        for (final Map.Entry<String, Number> ent : this.values().entrySet()) {
+            final String metric = String.format(
+                "hone_%s", ent.getKey().replaceAll("([a-z])([A-Z])", "$1_$2")
+                    .toLowerCase(Locale.ENGLISH)
+            );
+            String type = "gauge";
+            if (Metrics.COUNTERS.contains(ent.getKey())) {
+                type = "counter";
+            }
+            text.append(String.format("# HELP %s %s%n", metric, Metrics.HELP.get(ent.getKey())))
+                .append(String.format("# TYPE %s %s%n", metric, type))
+                .append(String.format(Locale.ENGLISH, "%s %s%n", metric, ent.getValue()));
+        }
+        return text.toString();
+    }
+
+    /**
+     * Write the file once again, stop writing it and unregister the MBean.
+     * @throws IOException If fails
+     */
+    @Override
+    public void close() throws IOException {
+        if (this.writer != null) {
+            this.writer.shutdownNow();
+            this.writer = null;
+        }
+        if (this.name != null) {
+            try {
+                ManagementFactory.getPlatformMBeanServer().unregisterMBean(this.name);
+            } catch (final JMException ex) {
+                Logger.debug(this, "Failed to unregister %s: %s", this.name, ex.getMessage());
+            }
+            this.name = null;
+        }
+        if (this.enabled()) {
+            this.save();
+        }
+    }
+
+    @Override
+    public Object getAttribute(final String attr) throws AttributeNotFoundException {
+        final Number value = this.values().get(attr);
+        if (value == null) {
+            throw new AttributeNotFoundException(attr);
+        }
+        return value;
+    }
+
+    @Override
+    public void setAttribute(final Attribute attr) {
+        throw new UnsupportedOperationException("Metrics are read-only");
+    }
+
+    @Override
+    public AttributeList getAttributes(final String[] attrs) {
+        final Map<String, Number> values = this.values();
+        final AttributeList list = new AttributeList();
+        for (final String attr : attrs) {
+            if (values.containsKey(attr)) {
+                list.add(new Attribute(attr, values.get(attr)));
+            }
+        }
+        return list;
+    }
+
+    @Override
+    public AttributeList setAttributes(final AttributeList attrs) {
+        return new AttributeList();
+    }
+
+    @Override
+    public Object invoke(final String action, final Object[] params, final String[] sign) {
+        throw new UnsupportedOperationException("There are no operations");
+    }
+
+    @Override
+    public MBeanInfo getMBeanInfo() {
+        final List<MBeanAttributeInfo> attrs = new ArrayList<>(0);
+        for (final Map.Entry<String, Number> ent : this.values().entrySet()) {
+            attrs.add(
+                new MBeanAttributeInfo(
+                    ent.getKey(), ent.getValue().getClass().getName(),
+                    Metrics.HELP.get(ent.getKey()), true, false, false
+                )
+            );
+        }
+        return new MBeanInfo(
+            this.getClass().getName(),
+            "Live metrics of hone optimization",
+            attrs.toArray(new MBeanAttributeInfo[0]),
+            null, null, null
+        );
+    }
+
+    /**
+     * Write the file, atomically.
+     * @throws IOException If fails
+     */
+    private synchronized void save() throws IOException {
+        final Path temp = this.path.resolveSibling(
+            String.format("%s.tmp", this.path.getFileName())
+        );
+        Files.write(temp, this.prometheus().getBytes(StandardCharsets.UTF_8));
+        Files.move(
+            temp, this.path,
+            StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE
+        );
+    }
+
+    /**
+     * Help lines of metrics.
+     * @return Help lines, by names of attributes
+     */
+    private static Map<String, String> help() {
+        final Map<String, String> help = new LinkedHashMap<>(0);
+        help.put("FilesDone", "Files rewritten so far, including those that timed out");
+        help.put("FilesQueued", "Files waiting for a thread");
+        help.put("FilesRunning", "Files being rewritten now");
+        help.put("FilesPerSecond", "Files rewritten per second, since the start");
+        help.put("LinesPerSecond", "Lines of PHI rewritten per second, since the start");
+        help.put("Lines", "Lines of PHI rewritten so far");
+        help.put("Timeouts", "Files left untouched because of timeouts");
+        help.put("CacheHits", "Classes taken from the cache, without rewriting");
+        help.put("PhinoProcesses", "Resident phino processes, running and spare");
+        help.put("ElapsedSeconds", "Seconds since the start of optimization");
+        return help;
+    }
+}
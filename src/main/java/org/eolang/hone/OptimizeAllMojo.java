@@ -0,0 +1,82 @@
+/*
+ * SPDX-FileCopyrightText: Copyright (c) 2024-2026 Objectionary.com
+ * SPDX-License-Identifier: MIT
+ */
+package org.eolang.hone;
+
+import com.jcabi.log.Logger;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import org.apache.maven.plugins.annotations.Mojo;
+import org.apache.maven.plugins.annotations.Parameter;
+import org.apache.maven.project.MavenProject;
+
+/**
+ * Optimize classes of all modules of the reactor at once.
+ *
+ * <p>When every module runs its own {@code optimize} goal, each of them
+ * boots jeo, extracts the rules, and starts its own rewriting threads,
+ * which mostly stay idle in small modules. This goal, which runs only
+ * once per reactor, takes classes of all modules with the same parameters
+ * as {@code optimize}, rewrites all of them by the same threads, and puts
+ * the results back to the directories of their modules.
+ * It has to run after all modules are compiled, for example:
+ * {@code mvn compile hone:optimize-all install}.</p>
+ *
+ * <p>All files of hone, including the statistics and snapshots of
+ * classes, are in the {@code target/} directory of the top project.
+ * Works only when {@code phino} is installed locally, not in Docker.</p>
+ *
+ * @since 0.30.0
+ */
+@Mojo(name = "optimize-all", aggregator = true)
+public final class OptimizeAllMojo extends OptimizeMojo {
+
+    /**
+     * All projects of the reactor.
+     */
+    @Parameter(defaultValue = "${reactorProjects}", readonly = true)
+    private List<MavenProject> projects;
+
+    @Override
+    public void exec() throws IOException {
+        if (this.alwaysWithDocker || !new Phino().available(this.phino())) {
+            throw new IllegalStateException(
+                "The 'optimize-all' goal works only with phino installed locally, use the 'optimize' goal in each module instead"
+            );
+        }
+        final Reactor reactor = this.reactor();
+        if (reactor.modules().isEmpty()) {
+            Logger.info(this, "None of the modules have classes, nothing to optimize");
+            return;
+        }
+        if (this.target.mkdirs()) {
+            Logger.info(this, "Target directory %[file]s created", this.target);
+        }
+        Logger.info(this, "Optimizing %s together: %[list]s", reactor, reactor.modules());
+        this.optimize();
+    }
+
+    @Override
+    Reactor reactor() {
+        final Map<String, Path> bins = new LinkedHashMap<>(0);
+        if (this.projects != null) {
+            for (final MavenProject project : this.projects) {
+                final Path bin = Paths.get(project.getBuild().getOutputDirectory());
+                if ("pom".equals(project.getPackaging()) || !bin.toFile().isDirectory()) {
+                    continue;
+                }
+                String name = project.getArtifactId();
+                for (int idx = 2; bins.containsKey(name); ++idx) {
+                    name = String.format("%s-%d", project.getArtifactId(), idx);
+                }
+                bins.put(name, bin);
+            }
+        }
+        return new Reactor(bins);
+    }
+}
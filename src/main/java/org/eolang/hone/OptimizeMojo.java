@@ -7,7 +7,6 @@ package org.eolang.hone;
 import com.jcabi.log.Logger;
 import com.sun.jna.Library;
 import com.sun.jna.Native;
-import com.yegor256.Jaxec;
 import java.io.File;
 import java.io.IOException;
 import java.nio.file.Files;
@@ -15,20 +14,22 @@ import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
+import org.apache.maven.execution.MavenSession;
+import org.apache.maven.plugin.BuildPluginManager;
+import org.apache.maven.plugins.annotations.Component;
 import org.apache.maven.plugins.annotations.LifecyclePhase;
 import org.apache.maven.plugins.annotations.Mojo;
 import org.apache.maven.plugins.annotations.Parameter;
-import org.cactoos.io.OutputTo;
 import org.cactoos.io.ResourceOf;
-import org.cactoos.io.TeeInput;
 import org.cactoos.iterable.Mapped;
-import org.cactoos.scalar.IoChecked;
-import org.cactoos.scalar.LengthOf;
 import org.cactoos.text.IoCheckedText;
 import org.cactoos.text.TextOf;
 
@@ -46,18 +47,48 @@ import org.cactoos.text.TextOf;
  * you obtain optimized Bytecode in the {@code target/classes/} directory,
  * which supposedly works faster than before.</p>
  *
- * <p>The entire optimization pipeline happens inside Docker container,
+ * <p>If the right version of phino is installed locally, the entire
+ * optimization pipeline happens inside the JVM of Maven, see
+ * {@link Pipeline}. Otherwise, it happens inside Docker container,
  * which is run from the image specified in the {@code image} parameter.
  * The image may either be pulled or built locally. We recommend pulling
  * it from the Docker Hub with the help of the {@code pull} goal. Also,
  * we recommend deleting the image after optimization is done, with the help
  * of the {@code rmi} goal.</p>
  *
+ * <p>The class is not final, since {@link OptimizeAllMojo} extends it,
+ * in order to optimize all modules of the reactor at once, with the same
+ * parameters.</p>
+ *
  * @since 0.1.0
  */
 @Mojo(name = "optimize", defaultPhase = LifecyclePhase.PROCESS_CLASSES, requiresProject = false)
 @SuppressWarnings({"PMD.TooManyFields", "PMD.GodClass"})
-public final class OptimizeMojo extends AbstractMojo {
+public class OptimizeMojo extends AbstractMojo {
+
+    /**
+     * Methods of {@code java.util.stream}, which the {@code streams/}
+     * pipeline knows how to fuse.
+     */
+    private static final List<String> TRIGGERS = Collections.unmodifiableList(
+        Arrays.asList(
+            "filter",
+            "map",
+            "mapToInt",
+            "mapToLong",
+            "mapToDouble",
+            "boxed",
+            "peek",
+            "distinct",
+            "skip",
+            "dropWhile",
+            "flatMap",
+            "flatMapToInt",
+            "flatMapToLong",
+            "flatMapToDouble",
+            "mapMulti"
+        )
+    );
 
     /**
      * Default value for {@link #grepIn}.
@@ -88,21 +119,7 @@ public final class OptimizeMojo extends AbstractMojo {
      * @since 0.19.0
      */
     static final String DEFAULT_GREP_IN = new Greppable(
-        "filter",
-        "map",
-        "mapToInt",
-        "mapToLong",
-        "mapToDouble",
-        "boxed",
-        "peek",
-        "distinct",
-        "skip",
-        "dropWhile",
-        "flatMap",
-        "flatMapToInt",
-        "flatMapToLong",
-        "flatMapToDouble",
-        "mapMulti"
+        OptimizeMojo.TRIGGERS.toArray(new String[0])
     ).toString();
 
     /**
@@ -248,6 +265,36 @@ public final class OptimizeMojo extends AbstractMojo {
     @Parameter(property = "hone.max-cycles", defaultValue = "1")
     private int maxCycles;
 
+    /**
+     * Apply rules block by block?
+     *
+     * <p>If this is set to {@code true}, the rules are split into numbered
+     * blocks: {@code 1xx}, {@code 2xx}, and so on, by the names of their
+     * directories or files. Each block is applied to a class until nothing
+     * changes, and only then the next one. Thus, rules of later blocks are
+     * not tried on a class, until it is ready for them, and each block
+     * may have its own budget, see {@code stageBudgets}. Works only when
+     * {@code phino} is installed locally, not in Docker.</p>
+     *
+     * @since 0.30.0
+     */
+    @Parameter(property = "hone.staged", defaultValue = "false")
+    private boolean staged;
+
+    /**
+     * Budgets of blocks of rules, when they are applied block by block.
+     *
+     * <p>This is a comma-separated list of blocks with their
+     * {@code maxCycles} and {@code maxDepth}, for example
+     * {@code "1xx=1/100,3xx=4/500"}. Blocks that are not in the list get
+     * the {@code maxCycles} and {@code maxDepth} of all rules.</p>
+     *
+     * @since 0.30.0
+     * @checkstyle MemberNameCheck (6 lines)
+     */
+    @Parameter(property = "hone.stage-budgets", defaultValue = "")
+    private String stageBudgets;
+
     /**
      * How many seconds to spend on each {@code .phi} file at most?
      *
@@ -260,6 +307,43 @@ public final class OptimizeMojo extends AbstractMojo {
     @Parameter(property = "hone.timeout", defaultValue = "999")
     private int timeout;
 
+    /**
+     * Give each file its own timeout, by the time it is expected to take?
+     *
+     * <p>If this is set to {@code true}, the timeout of a file is the time
+     * it took in the previous run, taken from the statistics, multiplied by
+     * {@code timeoutFactor}. A file without history is expected to take
+     * as long as other files of the same size. The timeout is never less than
+     * {@code timeoutFloor} and never more than {@code timeout}. When
+     * there is no history at all, {@code timeout} is used. Thus, a small
+     * class that hangs doesn't keep a thread busy for sixteen minutes.
+     * Works only when {@code phino} is installed locally, not in Docker.</p>
+     *
+     * @since 0.30.0
+     * @checkstyle MemberNameCheck (6 lines)
+     */
+    @Parameter(property = "hone.adaptive-timeout", defaultValue = "false")
+    private boolean adaptiveTimeout;
+
+    /**
+     * How many times a file may exceed its expected time, when
+     * the timeout is adaptive.
+     *
+     * @since 0.30.0
+     * @checkstyle MemberNameCheck (6 lines)
+     */
+    @Parameter(property = "hone.timeout-factor", defaultValue = "10")
+    private double timeoutFactor;
+
+    /**
+     * The minimum number of seconds for a file, when the timeout is adaptive.
+     *
+     * @since 0.30.0
+     * @checkstyle MemberNameCheck (6 lines)
+     */
+    @Parameter(property = "hone.timeout-floor", defaultValue = "30")
+    private int timeoutFloor;
+
     /**
      * How many threads to use for rewriting?
      *
@@ -274,6 +358,157 @@ public final class OptimizeMojo extends AbstractMojo {
     @Parameter(property = "hone.threads", defaultValue = "0")
     private int threads;
 
+    /**
+     * How many megabytes of memory one phino process needs?
+     *
+     * <p>When {@code threads} is zero, the number of threads is not more
+     * than the number of CPUs allowed by the cgroup quota, and not more than
+     * the available memory divided by this number. Also, no new file is started
+     * while the available memory is less than this number or than the largest
+     * memory of a phino process seen so far, until other files are finished.
+     * Set it to zero to ignore memory.</p>
+     *
+     * @since 0.30.0
+     * @checkstyle MemberNameCheck (6 lines)
+     */
+    @Parameter(property = "hone.memory-per-thread", defaultValue = "1024")
+    private int memoryPerThread;
+
+    /**
+     * Start phino processes ahead of time?
+     *
+     * <p>If this is set to {@code true}, a few {@code phino} processes
+     * are started before they are needed, one per thread for each stage
+     * of rewriting, and the files are sent to them through stdin. This
+     * hides the start-up time of {@code phino}, which is noticeable
+     * when there are many small classes. Works only when {@code phino}
+     * is installed locally, not in Docker.</p>
+     *
+     * @since 0.30.0
+     */
+    @Parameter(property = "hone.pool", defaultValue = "false")
+    private boolean pool;
+
+    /**
+     * Give every class only the rules that may match it?
+     *
+     * <p>If this is set to {@code true}, the rules are indexed by the
+     * absolute paths, like {@code Φ.jeo.opcode.invokeinterface}, that
+     * their patterns require. Every class gets only the rules whose paths
+     * are present in its PHI program, or may be made by the results of
+     * other selected rules. Classes that get no rules at all are not
+     * given to {@code phino}. Works only when {@code phino} is installed
+     * locally, not in Docker.</p>
+     *
+     * @since 0.30.0
+     * @checkstyle MemberNameCheck (6 lines)
+     */
+    @Parameter(property = "hone.rule-index", defaultValue = "false")
+    private boolean ruleIndex;
+
+    /**
+     * Profile the rules?
+     *
+     * <p>If this is set to {@code true}, the rules are applied to every
+     * class one by one, like in the {@code smallSteps} mode, but without
+     * saving intermediate {@code .phi} files. The time of every rule and
+     * the number of lines it changed in every class are saved to
+     * {@code hone-rule-profile.csv}. Use the {@code summary} goal to see
+     * the rules that take the most time. This is much slower than
+     * applying all rules at once, and the result may be different, since
+     * each rule gets the output of the previous one. Classes taken from
+     * the cache are not profiled. Works only when
+     * {@code phino} is installed locally, not in Docker.</p>
+     *
+     * @since 0.30.0
+     * @checkstyle MemberNameCheck (6 lines)
+     */
+    @Parameter(property = "hone.profile-rules", defaultValue = "false")
+    private boolean profileRules;
+
+    /**
+     * Save the trace of optimization?
+     *
+     * <p>If this is set to {@code true}, every stage of every class,
+     * from grep-in to converting PHI back to XMIR, the time it waited for
+     * a thread, and timeouts are saved to {@code hone-trace.json}, in the
+     * Chrome trace-event format. Open it in {@code chrome://tracing} or
+     * in Perfetto to see how busy the threads were and which classes
+     * took the longest. Works only when
+     * {@code phino} is installed locally, not in Docker.</p>
+     *
+     * @since 0.30.0
+     */
+    @Parameter(property = "hone.trace", defaultValue = "false")
+    private boolean trace;
+
+    /**
+     * Publish live metrics of optimization?
+     *
+     * <p>If this is set to {@code true}, the numbers of files done, queued,
+     * and running, files and lines per second, timeouts, cache hits, and
+     * resident phino processes are published as the
+     * {@code org.eolang.hone:type=Optimization} MBean and are written to
+     * {@code target/hone/metrics.prom}, in the Prometheus text format,
+     * every {@code metricsInterval} seconds, while optimization runs.
+     * Works only when {@code phino} is installed locally, not in Docker.</p>
+     *
+     * @since 0.30.0
+     */
+    @Parameter(property = "hone.metrics", defaultValue = "false")
+    private boolean metrics;
+
+    /**
+     * How often to rewrite the file with metrics, in seconds.
+     * @since 0.30.0
+     * @checkstyle MemberNameCheck (6 lines)
+     */
+    @Parameter(property = "hone.metrics-interval", defaultValue = "5")
+    private int metricsInterval;
+
+    /**
+     * Run optimization jobs inside a long-lived Docker container?
+     *
+     * <p>If this is set to {@code true}, the Docker container is not
+     * created for every module. It is started once, in the background, and
+     * each module sends its job to it with {@code docker exec}. Later
+     * modules and later builds of the same project use the same container,
+     * until it stays idle for {@code daemonIdle} seconds. The directory of
+     * the top project and the EO cache are mounted into the container at
+     * the same paths. Works only when Docker is used.</p>
+     *
+     * @since 0.30.0
+     */
+    @Parameter(property = "hone.daemon", defaultValue = "false")
+    private boolean daemon;
+
+    /**
+     * How many seconds the long-lived container waits for the next job,
+     * before it stops.
+     *
+     * @since 0.30.0
+     * @checkstyle MemberNameCheck (6 lines)
+     */
+    @Parameter(property = "hone.daemon-idle", defaultValue = "600")
+    private int daemonIdle;
+
+    /**
+     * Keep {@code .phi} files on disk?
+     *
+     * <p>By default, every class is saved to {@code target/hone/phi/}
+     * before rewriting and to {@code target/hone/phi-optimized/} after it.
+     * If you don't need these files, set this to {@code false}: classes
+     * will go through parsing, rewriting and printing in memory, and only
+     * the resulting {@code .xmir} will be saved. The files are kept
+     * anyway, if {@code debug} or {@code smallSteps} are set. Works only
+     * when {@code phino} is installed locally, not in Docker.</p>
+     *
+     * @since 0.30.0
+     * @checkstyle MemberNameCheck (6 lines)
+     */
+    @Parameter(property = "hone.keep-phi", defaultValue = "true")
+    private boolean keepPhi;
+
     /**
      * The list of all file extensions for the extra rules.
      * @since 0.5.0
@@ -323,6 +558,97 @@ public final class OptimizeMojo extends AbstractMojo {
     @Parameter(property = "hone.cache", defaultValue = "${user.home}/.eo")
     private File cache;
 
+    /**
+     * Maximum size of the cache of optimized classes, in megabytes.
+     *
+     * <p>If this is more than zero, and {@code phino} is installed locally,
+     * every optimized {@code .class} file is saved to the {@code hone/}
+     * directory inside {@code cache}, by the hash of its original bytes,
+     * the rules, the budget, and the versions of phino, jeo and EO. When
+     * the same class is met again, it is taken from there, without
+     * disassembling, rewriting, and assembling. The least recently used
+     * classes are deleted, when the cache grows over this size. Classes
+     * taken from the cache don't have their {@code .phi} files
+     * in {@code target/hone/}.</p>
+     *
+     * @since 0.30.0
+     * @checkstyle MemberNameCheck (6 lines)
+     */
+    @Parameter(property = "hone.cache-size", defaultValue = "0")
+    private int cacheSize;
+
+    /**
+     * Look into {@code .class} files before disassembling them?
+     *
+     * <p>If this is set to {@code true}, {@code grepIn} is not
+     * changed, and {@code phino} is installed locally, the constant pool of
+     * every {@code .class} file is checked for calls of the methods that
+     * the default {@code grepIn} looks for. Classes without such calls are
+     * not given to jeo at all, neither disassembled nor assembled.</p>
+     *
+     * @since 0.30.0
+     */
+    @Parameter(property = "hone.prefilter", defaultValue = "false")
+    private boolean prefilter;
+
+    /**
+     * Optimize only classes changed since the previous run?
+     *
+     * <p>If this is set to {@code true}, and {@code phino} is
+     * installed locally, the hashes of all classes, before and after
+     * optimization, are saved to {@code target/hone/manifest.txt}. Next time,
+     * only new and changed classes are optimized, while others get their
+     * previous optimized bytes back. If the rules or any other settings
+     * change, everything is optimized again.</p>
+     *
+     * @since 0.30.0
+     */
+    @Parameter(property = "hone.incremental", defaultValue = "false")
+    private boolean incremental;
+
+    /**
+     * How to save classes to {@code target/classes-before-hone/}.
+     *
+     * <p>With {@code copy} (default), all files are copied, which may be
+     * hundreds of megabytes of writes in a big module. With {@code link},
+     * without Docker, they are hard-linked instead, and a file is copied only
+     * when it is about to be overwritten; in Docker, they are copied with
+     * {@code cp --reflink=auto}, which is instant on file systems that
+     * support reflinks. With {@code changed}, only the classes that
+     * are about to be overwritten are saved.</p>
+     *
+     * @since 0.30.0
+     */
+    @Parameter(property = "hone.snapshot", defaultValue = "copy")
+    private String snapshot;
+
+    /**
+     * Run jeo-maven-plugin inside this Maven JVM?
+     *
+     * <p>If this is set to {@code true} (default), and {@code phino} is
+     * installed locally, jeo-maven-plugin is resolved and executed right
+     * inside the Maven JVM, which builds the project. Otherwise, or if it
+     * can't be loaded, a new Maven process is started for each of its
+     * goals, exactly the way it's done in Docker.</p>
+     *
+     * @since 0.30.0
+     * @checkstyle MemberNameCheck (6 lines)
+     */
+    @Parameter(property = "hone.jeo-in-process", defaultValue = "true")
+    private boolean jeoInProcess;
+
+    /**
+     * The current Maven session.
+     */
+    @Parameter(defaultValue = "${session}", readonly = true)
+    private MavenSession session;
+
+    /**
+     * Maven plugin manager, to run jeo-maven-plugin with.
+     */
+    @Component
+    private BuildPluginManager manager;
+
     /**
      * Ctor.
      */
@@ -386,7 +712,20 @@ public final class OptimizeMojo extends AbstractMojo {
         return without;
     }
 
-    private void optimize() throws IOException {
+    /**
+     * Directories with classes to optimize.
+     * @return The directories
+     * @throws IOException If fails
+     */
+    Reactor reactor() throws IOException {
+        return new Reactor(this.target.toPath().resolve(this.classes));
+    }
+
+    /**
+     * Optimize, either with Docker or without it.
+     * @throws IOException If fails
+     */
+    final void optimize() throws IOException {
         final long start = System.currentTimeMillis();
         if (this.alwaysWithDocker || !new Phino().available(this.phino())) {
             this.withDocker();
@@ -412,14 +751,16 @@ public final class OptimizeMojo extends AbstractMojo {
     }
 
     private void withDocker() throws IOException {
-        final String tdir = "/target";
-        final String cdir = "/eo-cache";
-        final Collection<String> command = new ArrayList<>(
+        final Daemon daemon = this.container();
+        final boolean shared = this.shared(daemon);
+        String tdir = "/target";
+        String cdir = "/eo-cache";
+        if (shared) {
+            tdir = this.target.getAbsolutePath();
+            cdir = this.cache.getAbsolutePath();
+        }
+        final List<String> command = new ArrayList<>(
             Arrays.asList(
-                "run",
-                "--rm",
-                "--volume", String.format("%s:%s", this.target, tdir),
-                "--volume", String.format("%s:%s", this.cache, cdir),
                 "--env", String.format("TARGET=%s", tdir),
                 "--env", String.format("EO_CACHE=%s", cdir),
                 "--env", "WORKDIR=/hone"
@@ -471,6 +812,11 @@ public final class OptimizeMojo extends AbstractMojo {
                 "--env", String.format("SKIP_PHINO=%s", this.skipPhino)
             )
         );
+        command.addAll(
+            Arrays.asList(
+                "--env", String.format("SNAPSHOT=%s", this.snapshot)
+            )
+        );
         command.addAll(
             Arrays.asList(
                 "--env", String.format("SKIP_IF_NO_CLASSES=%s", this.skipIfNoClasses)
@@ -506,6 +852,11 @@ public final class OptimizeMojo extends AbstractMojo {
                 "--env", String.format("THREADS=%d", this.threads)
             )
         );
+        command.addAll(
+            Arrays.asList(
+                "--env", String.format("MEMORY_PER_THREAD=%d", this.memoryPerThread)
+            )
+        );
         command.addAll(
             Arrays.asList(
                 "--env", String.format("TIMEOUT=%d", this.timeout)
@@ -526,11 +877,6 @@ public final class OptimizeMojo extends AbstractMojo {
             );
         }
         command.addAll(Arrays.asList("--env", "HONE_STATISTICS=true"));
-        command.add("--user");
-        command.add(OptimizeMojo.whoami());
-        command.add("--privileged");
-        command.add("-v");
-        command.add("/var/run/docker.sock:/var/run/docker.sock");
         command.addAll(
             Arrays.asList(
                 "--env",
@@ -540,13 +886,67 @@ public final class OptimizeMojo extends AbstractMojo {
                 )
             )
         );
-        command.add(this.image);
-        this.timings.through(
-            "optimize",
-            () -> new Docker(this.sudo).exec(command)
+        if (shared) {
+            this.timings.through("optimize", () -> daemon.exec(command));
+        } else {
+            command.addAll(
+                0,
+                Arrays.asList(
+                    "run",
+                    "--rm",
+                    "--volume", String.format("%s:%s", this.target, tdir),
+                    "--volume", String.format("%s:%s", this.cache, cdir)
+                )
+            );
+            command.add("--user");
+            command.add(OptimizeMojo.whoami());
+            command.add("--privileged");
+            command.add("-v");
+            command.add("/var/run/docker.sock:/var/run/docker.sock");
+            command.add(this.image);
+            this.timings.through(
+                "optimize",
+                () -> new Docker(this.sudo).exec(command)
+            );
+        }
+    }
+
+    /**
+     * Make the long-lived container, which mounts the directory
+     * of the top-level project and the cache.
+     * @return The container, not started yet
+     */
+    private Daemon container() {
+        File root = this.basedir;
+        if (this.session != null && this.session.getTopLevelProject() != null) {
+            root = this.session.getTopLevelProject().getBasedir();
+        }
+        return new Daemon(
+            new Docker(this.sudo), this.image,
+            Arrays.asList(root.toPath(), this.cache.toPath()),
+            OptimizeMojo.whoami(), this.daemonIdle
         );
     }
 
+    /**
+     * Shall the long-lived container be used instead of {@code docker run}?
+     *
+     * <p>It is used only if requested and only if
+     * it can see the {@code target/} directory.</p>
+     * @param container The container
+     * @return TRUE if it must be used
+     */
+    private boolean shared(final Daemon container) {
+        final boolean yes = this.daemon && container.sees(this.target.toPath());
+        if (this.daemon && !yes) {
+            Logger.info(
+                this, "The container %s can't see %[file]s, using 'docker run' instead",
+                container, this.target
+            );
+        }
+        return yes;
+    }
+
     private void saveExtra(final Path src, final Path target) throws IOException {
         final long count;
         try (Stream<Path> stream = Files.list(target)) {
@@ -625,65 +1025,239 @@ public final class OptimizeMojo extends AbstractMojo {
         );
     }
 
-    // @checkstyle CyclomaticComplexityCheck (200 lines)
-    // @checkstyle NPathComplexityCheck (200 lines)
-    @SuppressWarnings("PMD.NPathComplexity")
     private void withoutDocker() throws IOException {
         try (Mktemp temp = new Mktemp()) {
-            final String[] files = {
-                "entry.sh",
-                "rewrite.sh",
-            };
-            for (final String file : files) {
-                new IoChecked<>(
-                    new LengthOf(
-                        new TeeInput(
-                            new ResourceOf(String.format("org/eolang/hone/scaffolding/%s", file)),
-                            new OutputTo(temp.path().resolve(file))
-                        )
-                    )
-                ).value();
-            }
-            for (final String file : new String[] {"entry.sh", "rewrite.sh"}) {
-                temp.path().resolve(file).toFile().setExecutable(true);
-            }
-            new Rules("*").copyTo(temp.path().resolve("rules"));
-            Jaxec jaxec = new Jaxec(temp.path().resolve("entry.sh").toString())
-                .withEnv("TARGET", this.target.toString())
-                .withEnv("PHINO_VERSION", this.phino())
-                .withEnv("HONE_STATISTICS", "true")
-                .withEnv("DEBUG", Boolean.toString(this.debug))
-                .withEnv("VERBOSE", Boolean.toString(Logger.isDebugEnabled(this)))
-                .withEnv("CLASSES", this.classes)
-                .withEnv("SMALL_STEPS", Boolean.toString(this.smallSteps))
-                .withEnv("SKIP_PHINO", Boolean.toString(this.skipPhino))
-                .withEnv("GREP_IN", this.grepIn)
-                .withEnv("MAX_DEPTH", Integer.toString(this.maxDepth))
-                .withEnv("MAX_CYCLES", Integer.toString(this.maxCycles))
-                .withEnv("THREADS", Integer.toString(this.threads))
-                .withEnv("TIMEOUT", Integer.toString(this.timeout))
-                .withEnv("RULES", this.rulesAsString());
-            if (this.extra != null && !this.extra.isEmpty()) {
-                this.copyExtras(temp.path().resolve("hone-extra"));
-                jaxec = jaxec.withEnv("EXTRA", temp.path().resolve("hone-extra").toString());
-            }
+            String includes = "";
             if (this.includes != null && this.includes.length > 0) {
-                jaxec = jaxec.withEnv("INCLUDES", this.localPaths(this.includes));
+                includes = this.localPaths(this.includes);
             }
+            String excludes = "";
             if (this.excludes != null && this.excludes.length > 0) {
-                jaxec = jaxec.withEnv("EXCLUDES", this.localPaths(this.excludes));
-            }
-            if (this.cache != null) {
-                jaxec = jaxec.withEnv("EO_CACHE", this.cache.getAbsolutePath());
+                excludes = this.localPaths(this.excludes);
             }
             if (this.eoVersion == null) {
                 Logger.info(this, "EO version is not set, we use the default one");
-            } else {
-                jaxec = jaxec.withEnv("EO_VERSION", this.eoVersion);
             }
-            jaxec = jaxec.withEnv("JEO_VERSION", this.jeo());
-            jaxec.exec();
+            final List<String> local = this.localRules(temp.path());
+            final Budget budget = this.budget();
+            String order = budget.toString();
+            if (this.staged) {
+                order = String.format("%s staged", order);
+            }
+            final String salt = Cache.salt(
+                local, order, this.phino(), this.jeo(),
+                String.valueOf(this.eoVersion), this.grepIn,
+                includes, excludes, String.valueOf(this.prefilter),
+                String.format("small-steps=%b", this.smallSteps),
+                String.format("profile-rules=%b", this.profileRules),
+                String.format("rule-index=%b", this.ruleIndex),
+                Cache.FORMAT
+            );
+            final Options options = new Options()
+                .small(this.smallSteps)
+                .debug(this.debug)
+                .pool(this.pool)
+                .keep(this.keepPhi)
+                .index(this.ruleIndex)
+                .profile(this.profileRules)
+                .staged(this.staged)
+                .skip(this.skipPhino)
+                .snapshot(this.snapshot);
+            final Pipeline pipeline = new Pipeline(
+                this.target.toPath(),
+                this.reactor(),
+                new Jeo(
+                    this.jeo(), this.eoVersion, this.cache.getAbsoluteFile(),
+                    includes, excludes, this.embedded()
+                ),
+                new Rewriting(
+                    new Phino(),
+                    local,
+                    budget,
+                    this.grepIn,
+                    options,
+                    new Throttle(Paths.get("/"), this.memoryPerThread * 1024L * 1024L)
+                ),
+                options,
+                this.threads,
+                this.timeouts(),
+                this.classCache(salt),
+                this.prefilter(),
+                this.manifest(salt),
+                this.trace(),
+                this.metrics()
+            );
+            this.timings.through("optimize", pipeline::exec);
+        }
+    }
+
+    /**
+     * Make live metrics of optimization, if they are requested.
+     * @return The metrics
+     */
+    private Metrics metrics() {
+        final Metrics mtr;
+        if (this.metrics) {
+            mtr = new Metrics(
+                this.target.toPath().resolve("hone/metrics.prom"), this.metricsInterval
+            );
+        } else {
+            mtr = new Metrics();
         }
+        return mtr;
+    }
+
+    /**
+     * Make the trace of optimization, if it's requested.
+     * @return The trace
+     */
+    private Trace trace() {
+        final Trace trc;
+        if (this.trace) {
+            trc = new Trace(this.target.toPath().resolve("hone-trace.json"));
+        } else {
+            trc = new Trace();
+        }
+        return trc;
+    }
+
+    /**
+     * Make the rewriting budget, with budgets of blocks, if there are any.
+     * @return The budget
+     */
+    private Budget budget() {
+        final Map<String, Budget> blocks = new TreeMap<>();
+        if (this.stageBudgets != null) {
+            for (final String item : OptimizeMojo.COMMA.split(this.stageBudgets.trim())) {
+                if (item.isEmpty()) {
+                    continue;
+                }
+                final Matcher matcher = Pattern.compile("([0-9]xx)=([0-9]+)/([0-9]+)")
+                    .matcher(item);
+                if (!matcher.matches()) {
+                    throw new IllegalArgumentException(
+                        String.format(
+                            "The budget of a block must look like '3xx=4/500': '%s'", item
+                        )
+                    );
+                }
+                blocks.put(
+                    matcher.group(1),
+                    new Budget(
+                        Integer.parseInt(matcher.group(2)),
+                        Integer.parseInt(matcher.group(3))
+                    )
+                );
+            }
+        }
+        return new Budget(this.maxCycles, this.maxDepth, blocks);
+    }
+
+    /**
+     * Make time budgets of files.
+     * @return Budgets
+     */
+    private Timeouts timeouts() {
+        Timeouts budgets = new Timeouts(this.timeout);
+        if (this.adaptiveTimeout) {
+            if (this.timeoutFactor <= 0.0d) {
+                throw new IllegalArgumentException(
+                    String.format(
+                        "The timeout factor must be positive: %s", this.timeoutFactor
+                    )
+                );
+            }
+            budgets = new Timeouts(this.timeout, this.timeoutFactor, this.timeoutFloor);
+        }
+        return budgets;
+    }
+
+    /**
+     * Make the bytecode-level filter of classes to optimize.
+     *
+     * <p>It is possible only when {@code grepIn} is the default one, since
+     * then we know which methods it looks for. A custom regex can't
+     * be checked before disassembling.</p>
+     *
+     * @return The filter
+     */
+    private Prefilter prefilter() {
+        Prefilter filter = new Prefilter();
+        if (this.prefilter && OptimizeMojo.DEFAULT_GREP_IN.equals(this.grepIn)) {
+            filter = new Prefilter(OptimizeMojo.TRIGGERS);
+        }
+        return filter;
+    }
+
+    /**
+     * Make the cache of optimized classes.
+     * @param salt The hash of the rules and all other settings
+     * @return The cache, maybe disabled
+     */
+    private Cache classCache(final String salt) {
+        Cache chc = new Cache();
+        if (this.cacheSize > 0) {
+            chc = new Cache(
+                this.cache.getAbsoluteFile().toPath().resolve("hone"),
+                this.cacheSize * 1024L * 1024L,
+                salt
+            );
+        }
+        return chc;
+    }
+
+    /**
+     * Make the record of the previous run.
+     * @param salt The hash of the rules and all other settings
+     * @return The manifest, maybe disabled
+     */
+    private Manifest manifest(final String salt) {
+        Manifest mft = new Manifest();
+        if (this.incremental) {
+            mft = new Manifest(this.target.toPath().resolve("hone"), salt);
+        }
+        return mft;
+    }
+
+    /**
+     * Copy the selected rules and the extra ones to the directory.
+     * @param dir The directory to copy them to
+     * @return Absolute paths of all rules, in the order of their application
+     * @throws IOException If fails
+     */
+    private List<String> localRules(final Path dir) throws IOException {
+        final Path local = dir.resolve("rules");
+        new Rules("*").copyTo(local);
+        final List<String> all = new ArrayList<>(0);
+        for (final String yaml : new Rules(this.rules).yamls()) {
+            all.add(local.resolve(yaml).toString());
+        }
+        if (all.isEmpty()) {
+            try (Stream<Path> files = Files.walk(local)) {
+                files.filter(f -> f.toString().endsWith(".yml"))
+                    .map(Path::toString)
+                    .sorted()
+                    .forEach(all::add);
+            }
+        }
+        if (this.extra != null && !this.extra.isEmpty()) {
+            final Path extdir = dir.resolve("hone-extra");
+            this.copyExtras(extdir);
+            try (Stream<Path> files = Files.walk(extdir)) {
+                final List<String> found = files
+                    .filter(f -> f.toString().endsWith(".yml"))
+                    .map(Path::toString)
+                    .sorted()
+                    .collect(Collectors.toList());
+                if (found.isEmpty()) {
+                    Logger.info(this, "No extra rules found in %[file]s", extdir);
+                } else {
+                    Logger.info(this, "Extra rules found in %[file]s: %s", extdir, found);
+                    all.addAll(found);
+                }
+            }
+        }
+        return all;
     }
 
     private String localPaths(final String... paths) {
@@ -696,6 +1270,18 @@ public final class OptimizeMojo extends AbstractMojo {
         );
     }
 
+    /**
+     * Make the Maven JVM to run jeo-maven-plugin in.
+     * @return The embedded or NULL if jeo must run in a new process
+     */
+    private Embedded embedded() {
+        Embedded emb = null;
+        if (this.jeoInProcess && this.session != null && this.manager != null) {
+            emb = new Embedded(this.session, this.manager);
+        }
+        return emb;
+    }
+
     /**
      * Get the JEO version to use.
      * If not set, read it from the default resource file.
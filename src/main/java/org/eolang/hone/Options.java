@@ -0,0 +1,239 @@
+/*
+ * SPDX-FileCopyrightText: Copyright (c) 2024-2026 Objectionary.com
+ * SPDX-License-Identifier: MIT
+ */
+package org.eolang.hone;
+
+import java.util.Collections;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Options of the optimization inside this JVM, by their names.
+ *
+ * <p>The options are immutable: each setter, like {@link #pool(boolean)},
+ * returns a new object, while the getter with the same name,
+ * like {@link #pool()}, tells whether the option is on. All options are off
+ * by default, and the snapshot of classes is made by copying, so that
+ * a call site, like {@code new Options().pool(true).keep(true)},
+ * mentions only what differs:</p>
+ *
+ * <ul>
+ *     <li>{@code small} - apply rules one by one,</li>
+ *     <li>{@code debug} - ask phino to log everything,</li>
+ *     <li>{@code pool} - start phino processes ahead of time,</li>
+ *     <li>{@code keep} - keep PHI files on disk,</li>
+ *     <li>{@code index} - select rules for every file by their triggers,</li>
+ *     <li>{@code profile} - apply rules one by one and record the time
+ *     of each of them,</li>
+ *     <li>{@code staged} - apply rules block by block,</li>
+ *     <li>{@code skip} - don't rewrite anything, only disassemble
+ *     and assemble.</li>
+ * </ul>
+ *
+ * @since 0.30.0
+ */
+@SuppressWarnings("PMD.TooManyMethods")
+final class Options {
+
+    /**
+     * Names of the options that are on.
+     */
+    private final Set<String> flags;
+
+    /**
+     * The mode of the snapshot of classes, see {@link Snapshot}.
+     */
+    private final String snap;
+
+    /**
+     * Ctor, with all options off.
+     */
+    Options() {
+        this(Collections.emptySet(), "copy");
+    }
+
+    /**
+     * Ctor.
+     * @param names Names of the options that are on
+     * @param mode The mode of the snapshot of classes
+     */
+    private Options(final Set<String> names, final String mode) {
+        this.flags = Collections.unmodifiableSet(new TreeSet<>(names));
+        this.snap = mode;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s, %s snapshot", this.flags, this.snap);
+    }
+
+    /**
+     * Apply rules one by one?
+     * @return TRUE if so
+     */
+    boolean small() {
+        return this.flags.contains("small");
+    }
+
+    /**
+     * Apply rules one by one, or not.
+     * @param yes TRUE if so
+     * @return New options
+     */
+    Options small(final boolean yes) {
+        return this.with("small", yes);
+    }
+
+    /**
+     * Ask phino to log everything?
+     * @return TRUE if so
+     */
+    boolean debug() {
+        return this.flags.contains("debug");
+    }
+
+    /**
+     * Ask phino to log everything, or not.
+     * @param yes TRUE if so
+     * @return New options
+     */
+    Options debug(final boolean yes) {
+        return this.with("debug", yes);
+    }
+
+    /**
+     * Start phino processes ahead of time?
+     * @return TRUE if so
+     */
+    boolean pool() {
+        return this.flags.contains("pool");
+    }
+
+    /**
+     * Start phino processes ahead of time, or not.
+     * @param yes TRUE if so
+     * @return New options
+     */
+    Options pool(final boolean yes) {
+        return this.with("pool", yes);
+    }
+
+    /**
+     * Keep PHI files on disk?
+     * @return TRUE if so
+     */
+    boolean keep() {
+        return this.flags.contains("keep");
+    }
+
+    /**
+     * Keep PHI files on disk, or not.
+     * @param yes TRUE if so
+     * @return New options
+     */
+    Options keep(final boolean yes) {
+        return this.with("keep", yes);
+    }
+
+    /**
+     * Select rules for every file by their triggers?
+     * @return TRUE if so
+     */
+    boolean index() {
+        return this.flags.contains("index");
+    }
+
+    /**
+     * Select rules for every file by their triggers, or not.
+     * @param yes TRUE if so
+     * @return New options
+     */
+    Options index(final boolean yes) {
+        return this.with("index", yes);
+    }
+
+    /**
+     * Apply rules one by one and record the time of each of them?
+     * @return TRUE if so
+     */
+    boolean profile() {
+        return this.flags.contains("profile");
+    }
+
+    /**
+     * Apply rules one by one and record the time of each of them, or not.
+     * @param yes TRUE if so
+     * @return New options
+     */
+    Options profile(final boolean yes) {
+        return this.with("profile", yes);
+    }
+
+    /**
+     * Apply rules block by block?
+     * @return TRUE if so
+     */
+    boolean staged() {
+        return this.flags.contains("staged");
+    }
+
+    /**
+     * Apply rules block by block, or not.
+     * @param yes TRUE if so
+     * @return New options
+     */
+    Options staged(final boolean yes) {
+        return this.with("staged", yes);
+    }
+
+    /**
+     * Skip the rewriting?
+     * @return TRUE if so
+     */
+    boolean skip() {
+        return this.flags.contains("skip");
+    }
+
+    /**
+     * Skip the rewriting, or not.
+     * @param yes TRUE if so
+     * @return New options
+     */
+    Options skip(final boolean yes) {
+        return this.with("skip", yes);
+    }
+
+    /**
+     * The mode of the snapshot of classes.
+     * @return The mode, like {@code "copy"} or {@code "link"}
+     */
+    String snapshot() {
+        return this.snap;
+    }
+
+    /**
+     * Make the snapshot of classes in this mode.
+     * @param mode The mode, like {@code "copy"} or {@code "link"}
+     * @return New options
+     */
+    Options snapshot(final String mode) {
+        return new Options(this.flags, mode);
+    }
+
+    /**
+     * Turn the option on or off.
+     * @param name The name of the option
+     * @param yes TRUE if it must be on
+     * @return New options
+     */
+    private Options with(final String name, final boolean yes) {
+        final Set<String> names = new TreeSet<>(this.flags);
+        if (yes) {
+            names.add(name);
+        } else {
+            names.remove(name);
+        }
+        return new Options(names, this.snap);
+    }
+}
@@ -8,6 +8,12 @@ import com.jcabi.log.Logger;
 import com.yegor256.Jaxec;
 import com.yegor256.Result;
 import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 
 /**
  * An abstraction of Phino in command line.
@@ -15,6 +21,12 @@ import java.io.IOException;
  */
 final class Phino {
 
+    /**
+     * How many milliseconds to wait for a process after asking it to stop,
+     * before killing it.
+     */
+    private static final long GRACE = TimeUnit.SECONDS.toMillis(10L);
+
     /**
      * The executable to run.
      */
@@ -76,4 +88,97 @@ final class Phino {
         }
         return available;
     }
+
+    /**
+     * Run {@code phino rewrite} with the given arguments and save
+     * what it prints to the given file.
+     *
+     * <p>If the process doesn't finish before the deadline, it is asked
+     * to stop and then, after a grace period, killed. Since phino is
+     * started directly by this JVM, without a shell in between, there
+     * are no grandchildren that could outlive it (see #727).</p>
+     *
+     * @param args Arguments to pass after {@code rewrite}
+     * @param out The file to save stdout to
+     * @param deadline Time in milliseconds since the epoch, when to give up
+     * @throws IOException If phino fails
+     * @throws TimeoutException If the deadline passes
+     */
+    void rewrite(final Collection<String> args, final Path out, final long deadline)
+        throws IOException, TimeoutException {
+        final Process proc = this.builder(args)
+            .redirectOutput(out.toFile())
+            .start();
+        proc.getOutputStream().close();
+        Phino.await(proc, deadline, args);
+    }
+
+    /**
+     * Start {@code phino rewrite} with the given arguments, which will
+     * read its input from stdin and print the result to stdout.
+     *
+     * <p>The process is not waited for: it's the job of the caller to
+     * feed it and then call {@link #await(Process, long, Collection)}.</p>
+     *
+     * @param args Arguments to pass after {@code rewrite}
+     * @return The process started
+     * @throws IOException If fails to start
+     */
+    Process start(final Collection<String> args) throws IOException {
+        return this.builder(args).start();
+    }
+
+    /**
+     * Wait for the process to finish, before the deadline.
+     *
+     * <p>If the process doesn't finish before the deadline, it is asked
+     * to stop and then, after a grace period, killed.</p>
+     *
+     * @param proc The process started by this phino
+     * @param deadline Time in milliseconds since the epoch, when to give up
+     * @param args Arguments it was started with, for error messages
+     * @throws IOException If phino fails
+     * @throws TimeoutException If the deadline passes
+     */
+    static void await(final Process proc, final long deadline,
+        final Collection<String> args) throws IOException, TimeoutException {
+        try {
+            final long left = Math.max(0L, deadline - System.currentTimeMillis());
+            if (!proc.waitFor(left, TimeUnit.MILLISECONDS)) {
+                proc.destroy();
+                if (!proc.waitFor(Phino.GRACE, TimeUnit.MILLISECONDS)) {
+                    proc.destroyForcibly().waitFor();
+                }
+                throw new TimeoutException(
+                    String.format("The 'phino rewrite' didn't finish in time: %s", args)
+                );
+            }
+        } catch (final InterruptedException ex) {
+            proc.destroyForcibly();
+            Thread.currentThread().interrupt();
+            throw new IOException(ex);
+        }
+        if (proc.exitValue() != 0) {
+            throw new IOException(
+                String.format(
+                    "The 'phino rewrite' failed with exit code %d: %s",
+                    proc.exitValue(), args
+                )
+            );
+        }
+    }
+
+    /**
+     * Make a builder of {@code phino rewrite} process.
+     * @param args Arguments to pass after {@code rewrite}
+     * @return The builder
+     */
+    private ProcessBuilder builder(final Collection<String> args) {
+        final List<String> command = new ArrayList<>(args.size() + 2);
+        command.add(this.executable);
+        command.add("rewrite");
+        command.addAll(args);
+        return new ProcessBuilder(command)
+            .redirectError(ProcessBuilder.Redirect.INHERIT);
+    }
 }
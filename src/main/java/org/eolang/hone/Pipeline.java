@@ -0,0 +1,579 @@
+/*
+ * SPDX-FileCopyrightText: Copyright (c) 2024-2026 Objectionary.com
+ * SPDX-License-Identifier: MIT
+ */
+package org.eolang.hone;
+
+import com.jcabi.log.Logger;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Optimization pipeline, which runs entirely inside this JVM.
+ *
+ * <p>This is what the {@code entry.sh} script does inside Docker: it saves
+ * the original {@code .class} files to {@code classes-before-hone/}
+ * (see {@link Snapshot}),
+ * disassembles them with {@link Jeo}, rewrites them with
+ * {@link Rewriting}, and assembles them back. The time spent in each
+ * stage is recorded in the {@code timings.csv} file, in the same format
+ * as the script does.</p>
+ *
+ * <p>If the {@link Cache} is enabled, classes found there are not
+ * disassembled, rewritten, or assembled: their optimized bytes are taken
+ * from the cache. All other classes, after optimization, are saved to the
+ * cache, except those that were left untouched because of timeouts.</p>
+ *
+ * <p>Classes rejected by the {@link Prefilter} are not disassembled
+ * either: they don't call any method that the rules may rewrite,
+ * so they stay as they are. The same happens to classes that
+ * {@link Rewriting} didn't change: they are not assembled.</p>
+ *
+ * <p>If the {@link Manifest} is enabled, classes that were optimized
+ * by the previous run are not optimized again. If a class is already
+ * optimized in place, it stays as it is. If it was compiled again, into the
+ * same bytes, the previous output is restored. Deleted classes are removed
+ * from the manifest, together with their outputs.</p>
+ *
+ * <p>Classes of many modules may be optimized together, see
+ * {@link Reactor}: they are disassembled and assembled module by module,
+ * but rewritten all at once, by the same threads.</p>
+ *
+ * @since 0.30.0
+ */
+final class Pipeline {
+
+    /**
+     * The {@code target/} directory.
+     */
+    private final Path target;
+
+    /**
+     * Directories with classes.
+     */
+    private final Reactor reactor;
+
+    /**
+     * The jeo to disassemble and assemble with.
+     */
+    private final Jeo jeo;
+
+    /**
+     * The rewriting to apply.
+     */
+    private final Rewriting rewriting;
+
+    /**
+     * The options.
+     */
+    private final Options options;
+
+    /**
+     * How many threads to use, zero means all CPUs.
+     */
+    private final int threads;
+
+    /**
+     * Time budgets of files.
+     */
+    private final Timeouts timeouts;
+
+    /**
+     * The cache of optimized classes.
+     */
+    private final Cache cache;
+
+    /**
+     * The filter of classes to optimize.
+     */
+    private final Prefilter prefilter;
+
+    /**
+     * The record of the previous run.
+     */
+    private final Manifest manifest;
+
+    /**
+     * The trace of stages.
+     */
+    private final Trace trace;
+
+    /**
+     * Live metrics.
+     */
+    private final Metrics metrics;
+
+    /**
+     * Ctor.
+     * @param tgt The {@code target/} directory
+     * @param rct Directories with classes
+     * @param assembler The jeo
+     * @param rwr The rewriting
+     * @param opts The options, see {@link Options#skip()}
+     *  and {@link Options#snapshot()}
+     * @param thr How many threads to use
+     * @param tms Time budgets of files
+     * @param chc The cache of optimized classes
+     * @param pft The filter of classes to optimize
+     * @param mft The record of the previous run
+     * @param trc The trace of stages
+     * @param mtr Live metrics
+     * @checkstyle ParameterNumberCheck (5 lines)
+     */
+    Pipeline(final Path tgt, final Reactor rct, final Jeo assembler,
+        final Rewriting rwr, final Options opts, final int thr, final Timeouts tms,
+        final Cache chc, final Prefilter pft, final Manifest mft, final Trace trc,
+        final Metrics mtr) {
+        this.target = tgt;
+        this.reactor = rct;
+        this.jeo = assembler;
+        this.rewriting = rwr;
+        this.options = opts;
+        this.threads = thr;
+        this.timeouts = tms;
+        this.cache = chc;
+        this.prefilter = pft;
+        this.manifest = mft;
+        this.trace = trc;
+        this.metrics = mtr;
+    }
+
+    /**
+     * Run the pipeline, publishing its metrics while it runs
+     * and saving its trace at the end.
+     * @throws IOException If fails
+     */
+    void exec() throws IOException {
+        this.metrics.publish(this.target.toAbsolutePath().toString());
+        try {
+            this.run();
+        } finally {
+            this.metrics.close();
+            this.trace.save();
+        }
+    }
+
+    /**
+     * Run the pipeline.
+     * @throws IOException If fails
+     */
+    private void run() throws IOException {
+        for (final String module : this.reactor.modules()) {
+            final Path bin = this.reactor.bin(module);
+            if (!bin.toFile().exists()) {
+                throw new IllegalStateException(
+                    String.format(
+                        "There is no '%s' directory, which most probably means that the project has not been compiled yet; make sure you use 'hone-maven-plugin' after the 'compile' phase is finished",
+                        bin
+                    )
+                );
+            }
+        }
+        final Path before = this.target.resolve("classes-before-hone");
+        Logger.info(
+            this, "The binaries of %s before hone are saved in %[file]s (%d files, %s mode)",
+            this.reactor, before,
+            this.reactor.snapshot(before, this.options.snapshot()), this.options.snapshot()
+        );
+        final Path home = this.target.resolve("hone");
+        final Path timings = this.target.resolve("timings.csv");
+        Files.write(
+            timings,
+            String.format("\"Module\";\"Mojo\";\"Time\"%n").getBytes(StandardCharsets.UTF_8)
+        );
+        final boolean incremental = this.manifest.enabled() && !this.options.skip();
+        Map<Path, Manifest.Entry> previous = Collections.emptyMap();
+        if (incremental) {
+            previous = this.manifest.load();
+        }
+        final Map<Path, String> inputs = new TreeMap<>();
+        final Set<Path> kept = new TreeSet<>();
+        final Set<Path> ignored = new TreeSet<>();
+        final Map<Path, String> misses = new TreeMap<>();
+        final Map<Path, Cache.Entry> hits = new TreeMap<>();
+        if (!this.options.skip()
+            && (incremental || this.cache.enabled() || this.prefilter.enabled())) {
+            final long begin = this.trace.now();
+            this.classify(previous, inputs, kept, ignored, misses, hits);
+            this.trace.span("classify", this.reactor, begin);
+            this.metrics.hit(hits.size());
+        }
+        final Statistics stats = new Statistics(
+            this.target.resolve("hone-statistics.csv"), this.cache.enabled()
+        );
+        final Set<Path> except = new TreeSet<>(ignored);
+        except.addAll(hits.keySet());
+        except.addAll(kept);
+        Set<Path> expired = Collections.emptySet();
+        if (except.isEmpty() || !misses.isEmpty()) {
+            expired = this.optimize(home, except, stats, timings);
+        } else {
+            Logger.info(
+                this,
+                "None of %d classes need optimization: %d are optimized already, %d are found in the cache %s, %d don't call any of %s",
+                except.size(), kept.size(), hits.size(), this.cache,
+                ignored.size(), this.prefilter
+            );
+            stats.start();
+        }
+        if (this.cache.enabled() && !this.options.skip()) {
+            this.remember(home, misses, hits, expired, stats);
+        }
+        stats.complete();
+        if (incremental) {
+            this.update(home, previous, inputs, kept, expired);
+        }
+    }
+
+    /**
+     * Disassemble, rewrite, and assemble classes.
+     * @param home The directory with all files of hone
+     * @param except Relative paths of classes that must not be touched
+     * @param stats Statistics
+     * @param timings The {@code timings.csv} file
+     * @return XMIR files, which were left untouched because of timeouts
+     * @throws IOException If fails
+     */
+    private Set<Path> optimize(final Path home, final Collection<Path> except,
+        final Statistics stats, final Path timings) throws IOException {
+        long start = System.currentTimeMillis();
+        Snapshot.delete(home.resolve("jeo-disassemble"));
+        Snapshot.delete(home.resolve("unphi"));
+        List<Path> candidates = Collections.emptyList();
+        if (!except.isEmpty()) {
+            candidates = this.reactor.classes().stream()
+                .filter(rel -> !except.contains(rel))
+                .collect(Collectors.toList());
+        }
+        for (final String module : this.reactor.modules()) {
+            final long begin = this.trace.now();
+            final Path bin = this.reactor.bin(module);
+            final Path xmir = home.resolve("jeo-disassemble").resolve(module);
+            if (except.isEmpty()) {
+                this.jeo.disassemble(bin, xmir);
+            } else {
+                this.jeo.disassemble(
+                    bin, xmir,
+                    candidates.stream()
+                        .filter(rel -> this.reactor.module(rel).equals(module))
+                        .map(this.reactor::local)
+                        .collect(Collectors.toList()),
+                    home.resolve("jeo-candidates").resolve(module)
+                );
+            }
+            this.trace.span("disassemble", bin, begin);
+        }
+        Pipeline.record(timings, "jeo-maven-plugin:disassemble (default-cli)", start);
+        final Path xmir;
+        Set<Path> expired = Collections.emptySet();
+        if (this.options.skip()) {
+            Logger.info(this, "Skipping the phino step as requested");
+            xmir = home.resolve("jeo-disassemble");
+        } else {
+            start = System.currentTimeMillis();
+            expired = this.rewriting.exec(
+                home, stats, this.threads, this.timeouts, this.trace, this.metrics
+            );
+            Pipeline.record(timings, "phino:rewrite (default-cli)", start);
+            xmir = home.resolve("unphi");
+        }
+        start = System.currentTimeMillis();
+        final List<Path> changed = Pipeline.changed(xmir);
+        final Map<Path, byte[]> originals = new TreeMap<>();
+        if (changed.isEmpty()) {
+            Logger.info(this, "No classes were changed, nothing to assemble");
+        } else {
+            final Set<String> modules = new TreeSet<>();
+            for (final Path rel : changed) {
+                originals.put(rel, Files.readAllBytes(this.reactor.file(rel)));
+                this.reactor.save(rel);
+                modules.add(this.reactor.module(rel));
+            }
+            for (final String module : modules) {
+                final long begin = this.trace.now();
+                this.jeo.assemble(xmir.resolve(module), this.reactor.bin(module));
+                this.trace.span("assemble", this.reactor.bin(module), begin);
+            }
+        }
+        Pipeline.record(timings, "jeo-maven-plugin:assemble (default-cli)", start);
+        if (!this.options.skip()) {
+            this.binaries(home, except, originals, stats);
+        }
+        return expired;
+    }
+
+    /**
+     * Give statistics the {@code .class} files of all rewritten classes,
+     * before and after assembling.
+     * @param home The directory with all files of hone
+     * @param except Relative paths of classes that were not touched
+     * @param originals Bytes of assembled classes before assembling
+     * @param stats Statistics
+     * @throws IOException If fails
+     */
+    private void binaries(final Path home, final Collection<Path> except,
+        final Map<Path, byte[]> originals, final Statistics stats) throws IOException {
+        for (final Path rel : this.reactor.classes()) {
+            if (except.contains(rel)) {
+                continue;
+            }
+            final byte[] after = Files.readAllBytes(this.reactor.file(rel));
+            stats.binary(
+                home.resolve("phi").resolve(Pipeline.phi(rel)),
+                originals.getOrDefault(rel, after), after
+            );
+        }
+    }
+
+    /**
+     * Split all classes into those optimized by the previous run, those
+     * rejected by the prefilter, those found in the cache, and those
+     * to optimize.
+     * @param previous Entries of the manifest of the previous run
+     * @param inputs Relative paths and hashes of all classes before optimization
+     * @param kept Relative paths of classes optimized by the previous run
+     * @param ignored Relative paths of classes rejected by the prefilter
+     * @param misses Relative paths and keys of classes to optimize
+     * @param hits Relative paths and entries of classes found in the cache
+     * @throws IOException If fails
+     * @checkstyle ParameterNumberCheck (5 lines)
+     */
+    @SuppressWarnings("PMD.CognitiveComplexity")
+    private void classify(final Map<Path, Manifest.Entry> previous,
+        final Map<Path, String> inputs, final Set<Path> kept, final Set<Path> ignored,
+        final Map<Path, String> misses, final Map<Path, Cache.Entry> hits)
+        throws IOException {
+        final List<Path> all = this.reactor.classes();
+        for (final Path rel : all) {
+            final Path file = this.reactor.file(rel);
+            final byte[] bytes = Files.readAllBytes(file);
+            if (this.manifest.enabled()) {
+                final String hash = Cache.sha(bytes);
+                inputs.put(rel, hash);
+                final Manifest.Entry prev = previous.get(rel);
+                if (prev != null && prev.output().equals(hash)) {
+                    inputs.put(rel, prev.input());
+                    kept.add(rel);
+                    continue;
+                }
+                if (prev != null && prev.input().equals(hash)) {
+                    final byte[] output = this.manifest.restore(rel, prev.output());
+                    if (output != null) {
+                        this.reactor.save(rel);
+                        Files.write(file, output);
+                        kept.add(rel);
+                        continue;
+                    }
+                }
+            }
+            if (!this.prefilter.matches(bytes)) {
+                ignored.add(rel);
+                continue;
+            }
+            String key = "";
+            Cache.Entry entry = null;
+            if (this.cache.enabled()) {
+                key = this.cache.key(bytes);
+                entry = this.cache.load(key);
+            }
+            if (entry == null) {
+                misses.put(rel, key);
+            } else {
+                hits.put(rel, entry);
+            }
+        }
+        if (this.manifest.enabled()) {
+            Logger.info(
+                this, "%d out of %d classes were optimized by the previous run",
+                kept.size(), all.size()
+            );
+        }
+        if (this.prefilter.enabled()) {
+            Logger.info(
+                this, "%d out of %d classes don't call any of %s, they won't be disassembled",
+                ignored.size(), all.size(), this.prefilter
+            );
+        }
+    }
+
+    /**
+     * Record hashes of all classes in the manifest, keep their outputs, and
+     * forget the classes that are gone.
+     * @param home The directory with all files of hone
+     * @param previous Entries of the manifest of the previous run
+     * @param inputs Relative paths and hashes of all classes before optimization
+     * @param kept Relative paths of classes optimized by the previous run
+     * @param expired XMIR files, which were left untouched because of timeouts
+     * @throws IOException If fails
+     * @checkstyle ParameterNumberCheck (5 lines)
+     */
+    private void update(final Path home, final Map<Path, Manifest.Entry> previous,
+        final Map<Path, String> inputs, final Set<Path> kept, final Set<Path> expired)
+        throws IOException {
+        final Map<Path, Manifest.Entry> next = new TreeMap<>();
+        for (final Map.Entry<Path, String> input : inputs.entrySet()) {
+            final Path rel = input.getKey();
+            if (expired.contains(home.resolve("jeo-disassemble").resolve(Pipeline.xmir(rel)))) {
+                continue;
+            }
+            if (kept.contains(rel)) {
+                next.put(rel, previous.get(rel));
+                continue;
+            }
+            final byte[] bytes = Files.readAllBytes(this.reactor.file(rel));
+            final String output = Cache.sha(bytes);
+            if (output.equals(input.getValue())) {
+                this.manifest.forget(rel);
+            } else {
+                this.manifest.keep(rel, bytes);
+            }
+            next.put(rel, new Manifest.Entry(input.getValue(), output));
+        }
+        int gone = 0;
+        for (final Path rel : previous.keySet()) {
+            if (inputs.containsKey(rel)) {
+                continue;
+            }
+            this.manifest.forget(rel);
+            Files.deleteIfExists(home.resolve("jeo-disassemble").resolve(Pipeline.xmir(rel)));
+            Files.deleteIfExists(home.resolve("unphi").resolve(Pipeline.xmir(rel)));
+            Files.deleteIfExists(home.resolve("phi").resolve(Pipeline.phi(rel)));
+            Files.deleteIfExists(home.resolve("phi-optimized").resolve(Pipeline.phi(rel)));
+            ++gone;
+        }
+        this.manifest.save(next);
+        Logger.info(
+            this, "Manifest updated with %d class(es), %d deleted class(es) forgotten",
+            next.size(), gone
+        );
+    }
+
+    /**
+     * Put classes found in the cache into place, and save the others
+     * to the cache.
+     * @param home The directory with all files of hone
+     * @param misses Relative paths and keys of classes not found
+     * @param hits Relative paths and entries of classes found
+     * @param expired XMIR files, which were left untouched because of timeouts
+     * @param stats Statistics
+     * @throws IOException If fails
+     * @checkstyle ParameterNumberCheck (5 lines)
+     */
+    private void remember(final Path home,
+        final Map<Path, String> misses, final Map<Path, Cache.Entry> hits,
+        final Set<Path> expired, final Statistics stats) throws IOException {
+        int idx = 0;
+        for (final Map.Entry<Path, Cache.Entry> hit : hits.entrySet()) {
+            ++idx;
+            final Path phi = home.resolve("phi").resolve(Pipeline.phi(hit.getKey()));
+            stats.binary(
+                phi, Files.readAllBytes(this.reactor.file(hit.getKey())), hit.getValue().bytes()
+            );
+            this.reactor.save(hit.getKey());
+            Files.write(this.reactor.file(hit.getKey()), hit.getValue().bytes());
+            stats.hit(
+                String.format("%d/%d", idx, hits.size()), phi,
+                home.resolve("phi-optimized").resolve(Pipeline.phi(hit.getKey())),
+                hit.getValue().changed()
+            );
+        }
+        int saved = 0;
+        for (final Map.Entry<Path, String> miss : misses.entrySet()) {
+            final Path rel = miss.getKey();
+            if (expired.contains(home.resolve("jeo-disassemble").resolve(Pipeline.xmir(rel)))) {
+                continue;
+            }
+            final Integer changed = stats.changed(home.resolve("phi").resolve(Pipeline.phi(rel)));
+            int lines = 0;
+            if (changed != null) {
+                lines = changed;
+            }
+            this.cache.save(
+                miss.getValue(),
+                new Cache.Entry(Files.readAllBytes(this.reactor.file(rel)), lines)
+            );
+            ++saved;
+        }
+        this.cache.evict();
+        Logger.info(
+            this, "Cache %s: %d hit(s), %d miss(es), %d class(es) saved",
+            this.cache, hits.size(), misses.size(), saved
+        );
+    }
+
+    /**
+     * Find classes that are about to be assembled.
+     * @param dir The directory with XMIR files
+     * @return Relative paths of {@code .class} files
+     * @throws IOException If fails
+     */
+    private static List<Path> changed(final Path dir) throws IOException {
+        List<Path> classes = Collections.emptyList();
+        if (dir.toFile().isDirectory()) {
+            try (Stream<Path> walk = Files.walk(dir)) {
+                classes = walk
+                    .filter(f -> f.toString().endsWith(".xmir"))
+                    .filter(Files::isRegularFile)
+                    .map(dir::relativize)
+                    .map(
+                        rel -> rel.resolveSibling(
+                            rel.getFileName().toString().replaceAll("\\.xmir$", ".class")
+                        )
+                    )
+                    .collect(Collectors.toList());
+            }
+        }
+        return classes;
+    }
+
+    /**
+     * The relative path of XMIR file of the class.
+     * @param rel Relative path of {@code .class} file
+     * @return Relative path of {@code .xmir} file
+     */
+    private static Path xmir(final Path rel) {
+        return rel.resolveSibling(rel.getFileName().toString().replaceAll("\\.class$", ".xmir"));
+    }
+
+    /**
+     * The relative path of PHI file of the class.
+     * @param rel Relative path of {@code .class} file
+     * @return Relative path of {@code .phi} file
+     */
+    private static Path phi(final Path rel) {
+        return rel.resolveSibling(rel.getFileName().toString().replaceAll("\\.class$", ".phi"));
+    }
+
+    /**
+     * Record the time of one stage in the {@code timings.csv} file.
+     * @param csv The file
+     * @param mojo The name of the stage
+     * @param start When the stage started
+     * @throws IOException If fails
+     */
+    private static void record(final Path csv, final String mojo, final long start)
+        throws IOException {
+        Files.write(
+            csv,
+            String.format(
+                Locale.ENGLISH,
+                "\"hone\";\"%s\";\"%.3f\"%n",
+                mojo, (System.currentTimeMillis() - start) / 1000.0d
+            ).getBytes(StandardCharsets.UTF_8),
+            StandardOpenOption.APPEND
+        );
+    }
+}
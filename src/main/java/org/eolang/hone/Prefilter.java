@@ -0,0 +1,105 @@
+/*
+ * SPDX-FileCopyrightText: Copyright (c) 2024-2026 Objectionary.com
+ * SPDX-License-Identifier: MIT
+ */
+package org.eolang.hone;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Set;
+import org.objectweb.asm.ClassReader;
+
+/**
+ * Bytecode-level filter of classes, which selects only those that call
+ * any of the given methods.
+ *
+ * <p>This is a cheap replacement of {@link Greppable} for the time before
+ * disassembling: instead of searching the {@code .xmir} produced by jeo,
+ * it looks through the constant pool of the {@code .class} file.
+ * Every method call, either {@code Methodref} or {@code InterfaceMethodref},
+ * and every {@code invokedynamic} point to a {@code NameAndType} entry,
+ * which points to the name of the method. Thus, if none of
+ * the {@code NameAndType} entries have any of the given names, the class
+ * doesn't call any of the methods and there is nothing to rewrite in it.
+ * Classes that can't be parsed are always selected.</p>
+ *
+ * <p>If there are no names, every class is selected.</p>
+ *
+ * @since 0.30.0
+ */
+final class Prefilter {
+
+    /**
+     * The tag of {@code CONSTANT_NameAndType} in the constant pool.
+     */
+    private static final int NAME_AND_TYPE = 12;
+
+    /**
+     * Method names to look for.
+     */
+    private final Set<String> names;
+
+    /**
+     * Ctor of a filter that selects everything.
+     */
+    Prefilter() {
+        this(new HashSet<>(0));
+    }
+
+    /**
+     * Ctor.
+     * @param methods Method names to look for
+     */
+    Prefilter(final Collection<String> methods) {
+        this.names = new HashSet<>(methods);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%d method name(s)", this.names.size());
+    }
+
+    /**
+     * Does it select anything less than everything?
+     * @return TRUE if some classes may be filtered out
+     */
+    boolean enabled() {
+        return !this.names.isEmpty();
+    }
+
+    /**
+     * Does this class call any of the methods?
+     * @param bytes The bytes of the {@code .class} file
+     * @return TRUE if it has to be rewritten
+     */
+    boolean matches(final byte[] bytes) {
+        boolean found = !this.enabled();
+        if (!found) {
+            try {
+                found = this.scan(new ClassReader(bytes));
+            } catch (final IllegalArgumentException | ArrayIndexOutOfBoundsException ex) {
+                found = true;
+            }
+        }
+        return found;
+    }
+
+    /**
+     * Look through the constant pool.
+     * @param reader The reader of the class
+     * @return TRUE if any of the names is found
+     */
+    private boolean scan(final ClassReader reader) {
+        final char[] buf = new char[reader.getMaxStringLength()];
+        boolean found = false;
+        for (int idx = 1; idx < reader.getItemCount(); ++idx) {
+            final int offset = reader.getItem(idx);
+            if (offset > 0 && reader.readByte(offset - 1) == Prefilter.NAME_AND_TYPE
+                && this.names.contains(reader.readUTF8(offset, buf))) {
+                found = true;
+                break;
+            }
+        }
+        return found;
+    }
+}
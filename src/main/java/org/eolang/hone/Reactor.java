@@ -0,0 +1,175 @@
+/*
+ * SPDX-FileCopyrightText: Copyright (c) 2024-2026 Objectionary.com
+ * SPDX-License-Identifier: MIT
+ */
+package org.eolang.hone;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Directories with {@code .class} files of one or more modules, which are
+ * optimized together by one {@link Pipeline}.
+ *
+ * <p>Every module has a name, which is the first directory in relative paths
+ * of its classes. Thus, {@code a/org/foo/Bar.class} is the class
+ * {@code org/foo/Bar.class} of the module {@code a}. When there is just one
+ * module, its name is empty and relative paths are the same as
+ * in the directory with classes.</p>
+ *
+ * <p>Each module has its own {@link Snapshot}, in the directory with
+ * the same name as the module, inside the directory of the snapshot.</p>
+ *
+ * @since 0.30.0
+ */
+final class Reactor {
+
+    /**
+     * Directories with classes, by names of modules.
+     */
+    private final Map<String, Path> bins;
+
+    /**
+     * Snapshots, by names of modules.
+     */
+    private final Map<String, Snapshot> snapshots;
+
+    /**
+     * Ctor of a single module.
+     * @param bin The directory with classes
+     */
+    Reactor(final Path bin) {
+        this(Collections.singletonMap("", bin));
+    }
+
+    /**
+     * Ctor.
+     * @param dirs Directories with classes, by names of modules
+     */
+    Reactor(final Map<String, Path> dirs) {
+        this.bins = new TreeMap<>(dirs);
+        this.snapshots = new TreeMap<>();
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%d module(s)", this.bins.size());
+    }
+
+    /**
+     * Names of all modules.
+     * @return Names
+     */
+    Set<String> modules() {
+        return this.bins.keySet();
+    }
+
+    /**
+     * The directory with classes of the module.
+     * @param module The name of the module
+     * @return The directory
+     */
+    Path bin(final String module) {
+        return this.bins.get(module);
+    }
+
+    /**
+     * The module of the class.
+     * @param rel Relative path of the class
+     * @return The name of the module
+     */
+    String module(final Path rel) {
+        String module = "";
+        if (!this.bins.containsKey(module)) {
+            module = rel.getName(0).toString();
+        }
+        return module;
+    }
+
+    /**
+     * Relative path of the class in the directory of its module.
+     * @param rel Relative path of the class
+     * @return Path, relative to the directory with classes of the module
+     */
+    Path local(final Path rel) {
+        Path local = rel;
+        if (!this.module(rel).isEmpty()) {
+            local = rel.subpath(1, rel.getNameCount());
+        }
+        return local;
+    }
+
+    /**
+     * The file of the class.
+     * @param rel Relative path of the class
+     * @return The file
+     */
+    Path file(final Path rel) {
+        return this.bin(this.module(rel)).resolve(this.local(rel).toString());
+    }
+
+    /**
+     * All classes of all modules.
+     * @return Relative paths of {@code .class} files
+     * @throws IOException If fails
+     */
+    List<Path> classes() throws IOException {
+        final List<Path> all = new ArrayList<>(0);
+        for (final Map.Entry<String, Path> ent : this.bins.entrySet()) {
+            final Path bin = ent.getValue();
+            try (Stream<Path> walk = Files.walk(bin)) {
+                all.addAll(
+                    walk
+                        .filter(f -> f.toString().endsWith(".class"))
+                        .filter(Files::isRegularFile)
+                        .map(bin::relativize)
+                        .map(rel -> Paths.get(ent.getKey()).resolve(rel.toString()))
+                        .collect(Collectors.toList())
+                );
+            }
+        }
+        return all;
+    }
+
+    /**
+     * Make snapshots of all modules.
+     * @param dir The directory of snapshots
+     * @param mode The mode of snapshots, see {@link Snapshot}
+     * @return How many files and directories were copied or linked
+     * @throws IOException If fails
+     */
+    int snapshot(final Path dir, final String mode) throws IOException {
+        int total = 0;
+        for (final Map.Entry<String, Path> ent : this.bins.entrySet()) {
+            final Snapshot snap = new Snapshot(ent.getValue(), dir.resolve(ent.getKey()), mode);
+            total += snap.take();
+            this.snapshots.put(ent.getKey(), snap);
+        }
+        return total;
+    }
+
+    /**
+     * Save one class in the snapshot of its module, before it is overwritten.
+     * @param rel Relative path of the class
+     * @throws IOException If fails
+     */
+    void save(final Path rel) throws IOException {
+        final Snapshot snap = this.snapshots.get(this.module(rel));
+        if (snap == null) {
+            throw new IllegalStateException(
+                String.format("There is no snapshot of the module of '%s'", rel)
+            );
+        }
+        snap.save(this.local(rel));
+    }
+}
@@ -0,0 +1,1161 @@
+/*
+ * SPDX-FileCopyrightText: Copyright (c) 2024-2026 Objectionary.com
+ * SPDX-License-Identifier: MIT
+ */
+package org.eolang.hone;
+
+import com.jcabi.log.Logger;
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Rewriting of all {@code .xmir} files with the help of phino.
+ *
+ * <p>This is what the {@code rewrite.sh} script does inside Docker, but
+ * without Bash, GNU Parallel, {@code setsid}, and a dozen of other
+ * processes per file. The files are taken from the
+ * {@code jeo-disassemble/} directory, converted to {@code phi/},
+ * rewritten to {@code phi-optimized/} and then converted back
+ * to {@code unphi/}, all inside the given "home" directory.</p>
+ *
+ * <p>Each file has its own time budget, which includes all
+ * phino invocations for this file. When the budget is over, the file
+ * remains untouched. When phino fails, the entire rewriting fails.
+ * The budget is either the same for all files, or adaptive,
+ * see {@link Timeouts}.</p>
+ *
+ * <p>Files that are left untouched, either because of the timeout,
+ * or because they don't match the grep-in regex, or because
+ * the rules didn't change anything in them, don't get into {@code unphi/}
+ * at all. Thus, jeo doesn't assemble them and the original
+ * {@code .class} files stay as they are, byte for byte.</p>
+ *
+ * <p>Every file gets one row in {@link Statistics}, when it is done,
+ * with its outcome, either good or bad, and the time of every stage.</p>
+ *
+ * <p>Files are given to threads in the order of {@link Schedule}:
+ * the most expensive first, judging by the time they took in the previous
+ * run, which is still in the statistics, and by their sizes.</p>
+ *
+ * <p>In the "pool" mode, phino processes are started ahead of time
+ * by {@link Workers} and get their input through stdin. The rules are
+ * applied one by one (in the "small steps" mode) without the pool,
+ * since it would need a spare process per rule.</p>
+ *
+ * <p>In the "profile" mode, the rules are applied one by one too, but
+ * in memory, and the time and the number of changed lines of every rule
+ * are recorded by {@link Statistics#rule(Path, String, long, int)}.
+ * The same is recorded in the "small steps" mode.</p>
+ *
+ * <p>In the "staged" mode, the rules are applied block by block, see
+ * {@link Blocks}: each block until nothing changes, with its own
+ * {@link Budget}, and the result goes to the next block. Thus, rules
+ * of later blocks are not tried on the program until the earlier
+ * blocks are done with it.</p>
+ *
+ * <p>With the rule index, every file gets only the rules that may match
+ * it, see {@link RuleIndex}. If some rules are left out, the file is
+ * rewritten by a new phino process, with a shorter list of rules,
+ * instead of a spare one from the pool. If no rules are left, phino
+ * is not called at all and the file is not changed.</p>
+ *
+ * <p>If PHI files don't need to be kept (and neither debugging nor
+ * small steps are requested), XMIR goes through all three stages
+ * in memory and only the final XMIR is saved to disk. The paths of PHI
+ * files are still recorded in the statistics, since they identify
+ * the file, but they don't exist.</p>
+ *
+ * @since 0.30.0
+ */
+@SuppressWarnings("PMD.TooManyMethods")
+final class Rewriting {
+
+    /**
+     * The phino to use.
+     */
+    private final Phino phino;
+
+    /**
+     * Absolute paths of the rules.
+     */
+    private final Collection<String> rules;
+
+    /**
+     * Rewriting budget.
+     */
+    private final Budget budget;
+
+    /**
+     * The grep-in regex, or empty if all files must be rewritten.
+     */
+    private final String grep;
+
+    /**
+     * The options.
+     */
+    private final Options options;
+
+    /**
+     * The limit of concurrency.
+     */
+    private final Throttle throttle;
+
+    /**
+     * Ctor.
+     * @param phn The phino
+     * @param rls Absolute paths of the rules
+     * @param bdt Rewriting budget
+     * @param grp The grep-in regex, or empty string
+     * @param opts The options
+     * @checkstyle ParameterNumberCheck (5 lines)
+     */
+    Rewriting(final Phino phn, final Collection<String> rls, final Budget bdt,
+        final String grp, final Options opts) {
+        this(phn, rls, bdt, grp, opts, new Throttle());
+    }
+
+    /**
+     * Ctor.
+     * @param phn The phino
+     * @param rls Absolute paths of the rules
+     * @param bdt Rewriting budget
+     * @param grp The grep-in regex, or empty string
+     * @param opts The options
+     * @param thr The limit of concurrency
+     * @checkstyle ParameterNumberCheck (5 lines)
+     */
+    Rewriting(final Phino phn, final Collection<String> rls, final Budget bdt,
+        final String grp, final Options opts, final Throttle thr) {
+        this.phino = phn;
+        this.rules = rls;
+        this.budget = bdt;
+        this.grep = grp;
+        this.options = opts;
+        this.throttle = thr;
+    }
+
+    /**
+     * Rewrite all files found in the {@code jeo-disassemble/} directory,
+     * giving every file its own time budget.
+     * @param home The directory with {@code jeo-disassemble/} inside
+     * @param stats Where to record statistics
+     * @param threads How many threads to use, zero means all CPUs
+     * @param timeouts Time budgets of files
+     * @return XMIR files, which were left untouched because of timeouts
+     * @throws IOException If fails
+     */
+    Set<Path> exec(final Path home, final Statistics stats, final int threads,
+        final Timeouts timeouts) throws IOException {
+        return this.exec(home, stats, threads, timeouts, new Trace(), new Metrics());
+    }
+
+    /**
+     * Rewrite all files found in the {@code jeo-disassemble/} directory,
+     * giving every file its own time budget, tracing every stage of it,
+     * and counting live metrics.
+     * @param home The directory with {@code jeo-disassemble/} inside
+     * @param stats Where to record statistics
+     * @param threads How many threads to use, zero means all CPUs
+     * @param timeouts Time budgets of files
+     * @param trace The trace of stages
+     * @param metrics Live metrics
+     * @return XMIR files, which were left untouched because of timeouts
+     * @throws IOException If fails
+     * @checkstyle ParameterNumberCheck (5 lines)
+     */
+    Set<Path> exec(final Path home, final Statistics stats, final int threads,
+        final Timeouts timeouts, final Trace trace, final Metrics metrics)
+        throws IOException {
+        final Path source = home.resolve("jeo-disassemble");
+        if (!source.toFile().isDirectory()) {
+            throw new IllegalStateException(
+                String.format("The source directory '%s' does not exist", source)
+            );
+        }
+        if (this.rules.isEmpty()) {
+            throw new IllegalStateException("No rules specified for rewriting");
+        }
+        if (timeouts.minimum() < 5) {
+            throw new IllegalStateException(
+                String.format("Timeout is too low: %d seconds", timeouts.minimum())
+            );
+        }
+        final Pattern regex = this.regex();
+        final Map<String, Long> durations = stats.durations();
+        stats.start();
+        Logger.info(this, "Timeout: %s", timeouts);
+        Logger.info(this, "Using %d rewriting rule(s)", this.rules.size());
+        if (regex != null) {
+            Logger.info(this, "Grep-in: %s", this.grep);
+        }
+        final List<Path> files;
+        try (Stream<Path> walk = Files.walk(source)) {
+            files = walk
+                .filter(f -> f.toString().endsWith(".xmir"))
+                .filter(Files::isRegularFile)
+                .map(source::relativize)
+                .sorted()
+                .collect(Collectors.toList());
+        }
+        Logger.debug(this, "Found %d XMIR file(s) to process", files.size());
+        int total = threads;
+        if (total == 0) {
+            total = this.throttle.threads();
+            Logger.info(this, "Using %d threads, by %s", total, this.throttle);
+        }
+        final long start = System.currentTimeMillis();
+        final List<Rewriting.Task> tasks = new ArrayList<>(files.size());
+        for (int idx = 0; idx < files.size(); ++idx) {
+            final String rel = files.get(idx).toString().replaceAll("\\.xmir$", "");
+            tasks.add(
+                new Rewriting.Task(
+                    String.format("%d/%d", idx + 1, files.size()),
+                    source.resolve(String.format("%s.xmir", rel)),
+                    home.resolve("phi").resolve(String.format("%s.phi", rel)),
+                    home.resolve("phi-optimized").resolve(String.format("%s.phi", rel)),
+                    home.resolve("unphi").resolve(String.format("%s.xmir", rel))
+                )
+            );
+        }
+        Rewriting.budget(tasks, durations, timeouts);
+        Logger.info(
+            this, "Starting to rewrite %d file(s) in %d thread(s)...",
+            tasks.size(), total
+        );
+        final Set<Path> expired = new HashSet<>(0);
+        metrics.queue(tasks.size());
+        try (Rewriting.Stages stages = this.stages(total, trace, metrics)) {
+            metrics.spares(stages::spare);
+            if (total == 1) {
+                for (final Rewriting.Task task : tasks) {
+                    task.queued = trace.now();
+                    if (!this.guarded(task, stages, regex, stats)) {
+                        expired.add(task.xmir);
+                    }
+                }
+            } else {
+                expired.addAll(
+                    this.parallel(
+                        Rewriting.scheduled(tasks, durations),
+                        stages, regex, stats, total
+                    )
+                );
+            }
+        }
+        Logger.info(
+            this, "Finished rewriting %d file(s) in %[ms]s",
+            tasks.size(), System.currentTimeMillis() - start
+        );
+        return expired;
+    }
+
+    /**
+     * Run all tasks in a pool of threads and stop at the first failure.
+     * @param tasks The tasks
+     * @param stages Phino processes to use
+     * @param regex The grep-in regex or NULL
+     * @param stats Statistics
+     * @param total How many threads
+     * @return XMIR files, which were left untouched because of timeouts
+     * @throws IOException If fails
+     * @checkstyle ParameterNumberCheck (5 lines)
+     */
+    private Set<Path> parallel(final List<Rewriting.Task> tasks, final Rewriting.Stages stages,
+        final Pattern regex, final Statistics stats, final int total)
+        throws IOException {
+        final ExecutorService pool = Executors.newFixedThreadPool(total);
+        try {
+            final List<Future<Boolean>> futures = new ArrayList<>(tasks.size());
+            for (final Rewriting.Task task : tasks) {
+                task.queued = stages.trace.now();
+                futures.add(
+                    pool.submit(() -> this.guarded(task, stages, regex, stats))
+                );
+            }
+            final Set<Path> expired = new HashSet<>(0);
+            for (int idx = 0; idx < tasks.size(); ++idx) {
+                if (!futures.get(idx).get()) {
+                    expired.add(tasks.get(idx).xmir);
+                }
+            }
+            return expired;
+        } catch (final InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IOException(ex);
+        } catch (final ExecutionException ex) {
+            if (ex.getCause() instanceof IOException) {
+                throw (IOException) ex.getCause();
+            }
+            throw new IllegalStateException(ex.getCause());
+        } finally {
+            pool.shutdownNow();
+            try {
+                pool.awaitTermination(1L, TimeUnit.MINUTES);
+            } catch (final InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    /**
+     * Rewrite one file, within its time budget.
+     * @param task The task
+     * @param stages Phino processes to use
+     * @param regex The grep-in regex or NULL
+     * @param stats Statistics
+     * @return FALSE if the file was left untouched because of timeout
+     * @throws IOException If fails
+     */
+    private boolean guarded(final Rewriting.Task task, final Rewriting.Stages stages,
+        final Pattern regex, final Statistics stats) throws IOException {
+        try {
+            this.throttle.enter();
+        } catch (final InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IOException(ex);
+        }
+        stages.trace.span("queue", task.xmir, task.queued);
+        stages.metrics.begin();
+        final long begin = stages.trace.now();
+        final long start = System.currentTimeMillis();
+        boolean done = true;
+        try {
+            this.rewrite(
+                task, stages, regex, stats,
+                start + TimeUnit.SECONDS.toMillis(task.timeout)
+            );
+        } catch (final IOException ex) {
+            task.cells.put("Outcome", Statistics.FAILED);
+            throw ex;
+        } catch (final TimeoutException ex) {
+            Logger.info(
+                this, "Timeout in %s %s (%d bytes) after %d seconds (of %d allowed)",
+                task.idx, task.xmir.getFileName(), task.xmir.toFile().length(),
+                TimeUnit.MILLISECONDS.toSeconds(System.currentTimeMillis() - start),
+                task.timeout
+            );
+            stages.trace.instant("timeout", task.xmir);
+            stages.metrics.timeout();
+            Files.deleteIfExists(task.out);
+            task.cells.put("Outcome", Statistics.TIMEOUT);
+            task.cells.put("Changed", 0);
+            task.cells.put("Millis", System.currentTimeMillis() - start);
+            done = false;
+        } finally {
+            stats.row(task.idx, task.phi, task.pho, task.cells);
+            stages.trace.span("file", task.xmir, begin);
+            stages.metrics.end();
+            this.throttle.leave();
+        }
+        return done;
+    }
+
+    /**
+     * Rewrite one file.
+     * @param task The task
+     * @param stages Phino processes to use
+     * @param regex The grep-in regex or NULL
+     * @param stats Statistics
+     * @param deadline When to give up
+     * @throws IOException If fails
+     * @throws TimeoutException If takes too long
+     * @checkstyle ParameterNumberCheck (5 lines)
+     */
+    private void rewrite(final Rewriting.Task task, final Rewriting.Stages stages,
+        final Pattern regex, final Statistics stats, final long deadline)
+        throws IOException, TimeoutException {
+        final boolean disk = this.options.keep() || this.options.debug()
+            || this.options.small();
+        Rewriting.mkdirs(task.out);
+        Logger.debug(
+            this, "Next %s XMIR is %[file]s (%d bytes)",
+            task.idx, task.xmir, task.xmir.toFile().length()
+        );
+        final byte[] xmir = Files.readAllBytes(task.xmir);
+        task.cells.put("XmirBytes", xmir.length);
+        final long grep = stages.trace.now();
+        final boolean matches = regex == null
+            || regex.matcher(new String(xmir, StandardCharsets.UTF_8)).find();
+        if (regex != null) {
+            stages.trace.span("grep-in", task.xmir, grep);
+        }
+        if (!matches) {
+            task.cells.put("Outcome", Statistics.GREP_SKIPPED);
+            Files.deleteIfExists(task.out);
+            Logger.info(
+                this, "No grep-in match for %s %s (%d bytes), skipping",
+                task.idx, task.xmir.getFileName(), xmir.length
+            );
+            return;
+        }
+        final boolean changed;
+        if (disk) {
+            changed = this.onDisk(task, stages, stats, deadline);
+        } else {
+            changed = this.inMemory(task, xmir, stages, stats, deadline);
+        }
+        if (changed) {
+            Logger.debug(
+                this, "Converted PHI to %s %s (%d bytes)",
+                task.idx, task.out.getFileName(), task.out.toFile().length()
+            );
+        } else {
+            Files.deleteIfExists(task.out);
+            Logger.debug(
+                this, "Nothing to convert back in %s, the class stays as it is", task.idx
+            );
+        }
+    }
+
+    /**
+     * Rewrite one file, saving PHI files to disk.
+     * @param task The task
+     * @param stages Phino processes to use
+     * @param stats Statistics
+     * @param deadline When to give up
+     * @return TRUE if the file was changed
+     * @throws IOException If fails
+     * @throws TimeoutException If takes too long
+     */
+    private boolean onDisk(final Rewriting.Task task, final Rewriting.Stages stages,
+        final Statistics stats, final long deadline) throws IOException, TimeoutException {
+        Rewriting.mkdirs(task.phi);
+        Rewriting.mkdirs(task.pho);
+        final long parsed = stages.trace.now();
+        final long parse = System.currentTimeMillis();
+        stages.parse.rewrite(task.xmir, task.phi, deadline);
+        task.cells.put("ParseMillis", System.currentTimeMillis() - parse);
+        stages.trace.span("xmir-to-phi", task.xmir, parsed);
+        final long begin = stages.trace.now();
+        final long start = System.currentTimeMillis();
+        final List<String> rules = this.selected(
+            task, stages, new String(Files.readAllBytes(task.phi), StandardCharsets.UTF_8)
+        );
+        task.cells.put("Rules", rules.size());
+        task.cells.put("MaxCycles", this.budget.cycles());
+        if (rules.isEmpty()) {
+            Files.copy(task.phi, task.pho, StandardCopyOption.REPLACE_EXISTING);
+        } else if (this.options.small() || this.options.profile()) {
+            this.steps(task, rules, stats, deadline);
+        } else if (this.options.staged()) {
+            Files.write(
+                task.pho, this.blocks(task, stages, Files.readAllBytes(task.phi), rules, deadline)
+            );
+        } else if (rules.size() == this.rules.size()) {
+            stages.apply.rewrite(task.phi, task.pho, deadline);
+        } else {
+            try (Workers subset = new Workers(this.phino, this.applying(rules), 0)) {
+                subset.rewrite(task.phi, task.pho, deadline);
+            }
+        }
+        final boolean changed = this.record(
+            task, stages.metrics,
+            Files.readAllLines(task.phi, StandardCharsets.UTF_8),
+            Files.readAllLines(task.pho, StandardCharsets.UTF_8),
+            start
+        );
+        stages.trace.span("rewrite", task.xmir, begin);
+        if (changed) {
+            final long printed = stages.trace.now();
+            final long print = System.currentTimeMillis();
+            stages.print.rewrite(task.pho, task.out, deadline);
+            task.cells.put("PrintMillis", System.currentTimeMillis() - print);
+            stages.trace.span("phi-to-xmir", task.xmir, printed);
+        }
+        return changed;
+    }
+
+    /**
+     * Rewrite one file, without saving PHI files.
+     * @param task The task
+     * @param xmir The content of XMIR file
+     * @param stages Phino processes to use
+     * @param stats Statistics
+     * @param deadline When to give up
+     * @return TRUE if the file was changed
+     * @throws IOException If fails
+     * @throws TimeoutException If takes too long
+     * @checkstyle ParameterNumberCheck (5 lines)
+     */
+    private boolean inMemory(final Rewriting.Task task, final byte[] xmir,
+        final Rewriting.Stages stages, final Statistics stats, final long deadline)
+        throws IOException, TimeoutException {
+        final long parsed = stages.trace.now();
+        final long parse = System.currentTimeMillis();
+        final byte[] phi = stages.parse.rewrite(xmir, deadline);
+        task.cells.put("ParseMillis", System.currentTimeMillis() - parse);
+        stages.trace.span("xmir-to-phi", task.xmir, parsed);
+        final long begin = stages.trace.now();
+        final long start = System.currentTimeMillis();
+        final List<String> rules = this.selected(
+            task, stages, new String(phi, StandardCharsets.UTF_8)
+        );
+        task.cells.put("Rules", rules.size());
+        task.cells.put("MaxCycles", this.budget.cycles());
+        final byte[] pho;
+        if (rules.isEmpty()) {
+            pho = phi;
+        } else if (this.options.profile()) {
+            pho = this.stepped(task, phi, rules, stats, deadline);
+        } else if (this.options.staged()) {
+            pho = this.blocks(task, stages, phi, rules, deadline);
+        } else if (rules.size() == this.rules.size()) {
+            pho = stages.apply.rewrite(phi, deadline);
+        } else {
+            try (Workers subset = new Workers(this.phino, this.applying(rules), 0)) {
+                pho = subset.rewrite(phi, deadline);
+            }
+        }
+        final boolean changed = this.record(
+            task, stages.metrics, Rewriting.lines(phi), Rewriting.lines(pho), start
+        );
+        stages.trace.span("rewrite", task.xmir, begin);
+        if (changed) {
+            final long printed = stages.trace.now();
+            final long print = System.currentTimeMillis();
+            Files.write(task.out, stages.print.rewrite(pho, deadline));
+            task.cells.put("PrintMillis", System.currentTimeMillis() - print);
+            stages.trace.span("phi-to-xmir", task.xmir, printed);
+        }
+        return changed;
+    }
+
+    /**
+     * Log the result of rewriting and remember it for statistics,
+     * which get the row of the file when it is done.
+     * @param task The task
+     * @param metrics Live metrics
+     * @param before Lines of PHI before rewriting
+     * @param after Lines of PHI after rewriting
+     * @param start When the rewriting started
+     * @return TRUE if something was changed
+     * @checkstyle ParameterNumberCheck (5 lines)
+     */
+    private boolean record(final Rewriting.Task task, final Metrics metrics,
+        final List<String> before, final List<String> after, final long start) {
+        final long msec = System.currentTimeMillis() - start;
+        final long lps = after.size() * 1000L / Math.max(1L, msec);
+        final int changed = new Diff(before, after).count();
+        if (changed == 0) {
+            Logger.info(
+                this, "No changes in %s %s: %d bytes, %d lines, %d lps",
+                task.idx, task.pho.getFileName(), task.xmir.toFile().length(),
+                after.size(), lps
+            );
+        } else {
+            Logger.info(
+                this, "Modified %s %s (%d bytes): %d/%d lines changed, %d lps",
+                task.idx, task.phi.getFileName(), task.xmir.toFile().length(),
+                changed, after.size(), lps
+            );
+        }
+        task.cells.put("Changed", changed);
+        task.cells.put("LinesPerSec", lps);
+        task.cells.put("Millis", Math.max(1L, msec));
+        metrics.rewrote(after.size());
+        return changed > 0;
+    }
+
+    /**
+     * Select the rules for one file.
+     * @param task The task
+     * @param stages Phino processes to use
+     * @param phi The PHI program of the file
+     * @return Absolute paths of the rules, in the order of their application
+     */
+    private List<String> selected(final Rewriting.Task task, final Rewriting.Stages stages,
+        final String phi) {
+        final List<String> rules;
+        if (this.options.index()) {
+            rules = stages.index.select(phi);
+            Logger.debug(
+                this, "Selected %d of %d rule(s) for %s %s by their triggers",
+                rules.size(), this.rules.size(), task.idx, task.phi.getFileName()
+            );
+        } else {
+            rules = new ArrayList<>(this.rules);
+        }
+        return rules;
+    }
+
+    /**
+     * Apply rules one by one, saving intermediate results.
+     * @param task The task
+     * @param rules Absolute paths of the rules to apply
+     * @param stats Statistics
+     * @param deadline When to give up
+     * @throws IOException If fails
+     * @throws TimeoutException If takes too long
+     * @checkstyle ParameterNumberCheck (5 lines)
+     */
+    private void steps(final Rewriting.Task task, final List<String> rules,
+        final Statistics stats, final long deadline) throws IOException, TimeoutException {
+        Logger.debug(
+            this, "Applying %d rule(s) one by one to %s %s...",
+            rules.size(), task.idx, task.phi.getFileName()
+        );
+        Files.copy(task.phi, task.pho, StandardCopyOption.REPLACE_EXISTING);
+        int pos = 0;
+        for (final String rule : rules) {
+            ++pos;
+            final Path step = task.pho.resolveSibling(
+                String.format("%s.%02d", task.pho.getFileName(), pos)
+            );
+            final List<String> opts = this.args();
+            opts.addAll(this.budget.args());
+            opts.add("--sweet");
+            opts.add("--rule");
+            opts.add(rule);
+            opts.add(task.pho.toString());
+            final long start = System.currentTimeMillis();
+            this.phino.rewrite(opts, step, deadline);
+            this.step(
+                task, stats, rule, System.currentTimeMillis() - start,
+                new Diff(
+                    Files.readAllLines(task.pho, StandardCharsets.UTF_8),
+                    Files.readAllLines(step, StandardCharsets.UTF_8)
+                ).count()
+            );
+            Files.copy(step, task.pho, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    /**
+     * Apply rules one by one, in memory.
+     * @param task The task
+     * @param phi The PHI program
+     * @param rules Absolute paths of the rules to apply
+     * @param stats Statistics
+     * @param deadline When to give up
+     * @return The rewritten PHI program
+     * @throws IOException If fails
+     * @throws TimeoutException If takes too long
+     * @checkstyle ParameterNumberCheck (5 lines)
+     */
+    private byte[] stepped(final Rewriting.Task task, final byte[] phi,
+        final List<String> rules, final Statistics stats, final long deadline)
+        throws IOException, TimeoutException {
+        Logger.debug(
+            this, "Applying %d rule(s) one by one to %s %s in memory...",
+            rules.size(), task.idx, task.phi.getFileName()
+        );
+        byte[] current = phi;
+        for (final String rule : rules) {
+            final long start = System.currentTimeMillis();
+            final byte[] next;
+            try (Workers one = new Workers(
+                this.phino, this.applying(Collections.singletonList(rule)), 0
+            )) {
+                next = one.rewrite(current, deadline);
+            }
+            this.step(
+                task, stats, rule, System.currentTimeMillis() - start,
+                new Diff(Rewriting.lines(current), Rewriting.lines(next)).count()
+            );
+            current = next;
+        }
+        return current;
+    }
+
+    /**
+     * Apply rules block by block, in memory.
+     * @param task The task
+     * @param stages Phino processes to use
+     * @param phi The PHI program
+     * @param rules Absolute paths of the rules to apply
+     * @param deadline When to give up
+     * @return The rewritten PHI program
+     * @throws IOException If fails
+     * @throws TimeoutException If takes too long
+     * @checkstyle ParameterNumberCheck (5 lines)
+     */
+    private byte[] blocks(final Rewriting.Task task, final Rewriting.Stages stages,
+        final byte[] phi, final List<String> rules, final long deadline)
+        throws IOException, TimeoutException {
+        byte[] current = phi;
+        for (final String block : stages.blocks.names()) {
+            final List<String> subset = new ArrayList<>(0);
+            for (final String rule : rules) {
+                if (Blocks.name(rule).equals(block)) {
+                    subset.add(rule);
+                }
+            }
+            if (subset.isEmpty()) {
+                continue;
+            }
+            final long start = System.currentTimeMillis();
+            final byte[] next;
+            if (subset.size() == stages.blocks.rules(block).size()) {
+                next = stages.staged.get(block).rewrite(current, deadline);
+            } else {
+                try (Workers some = new Workers(
+                    this.phino, this.applying(subset, this.budget.of(block)), 0
+                )) {
+                    next = some.rewrite(current, deadline);
+                }
+            }
+            Logger.debug(
+                this, "  %d line(s) changed by %d rule(s) of the block '%s' in %s in %[ms]s",
+                new Diff(Rewriting.lines(current), Rewriting.lines(next)).count(),
+                subset.size(), block, task.phi.getFileName(),
+                System.currentTimeMillis() - start
+            );
+            current = next;
+        }
+        return current;
+    }
+
+    /**
+     * Log the result of one rule and record it in the profile of rules.
+     * @param task The task
+     * @param stats Statistics
+     * @param rule Absolute path of the rule
+     * @param msec How many milliseconds the rule was applied
+     * @param changed How many lines were changed by the rule
+     * @throws IOException If fails
+     * @checkstyle ParameterNumberCheck (5 lines)
+     */
+    private void step(final Rewriting.Task task, final Statistics stats, final String rule,
+        final long msec, final int changed) throws IOException {
+        final String name = new File(rule).getName().replaceAll("\\.(yml|phr)$", "");
+        if (changed == 0) {
+            Logger.debug(
+                this, "  No changes made by '%s' to %s in %[ms]s",
+                name, task.phi.getFileName(), msec
+            );
+        } else {
+            Logger.debug(
+                this, "  %d lines changed by '%s' in %s in %[ms]s",
+                changed, name, task.phi.getFileName(), msec
+            );
+        }
+        stats.rule(task.phi, name, msec, changed);
+    }
+
+    /**
+     * Arguments of phino, which applies the rules all at once.
+     * @param rules Absolute paths of the rules
+     * @return Mutable list of arguments
+     */
+    private List<String> applying(final Collection<String> rules) {
+        return this.applying(rules, this.budget);
+    }
+
+    /**
+     * Arguments of phino, which applies the rules all at once,
+     * with the given budget.
+     * @param rules Absolute paths of the rules
+     * @param bdt The budget
+     * @return Mutable list of arguments
+     */
+    private List<String> applying(final Collection<String> rules, final Budget bdt) {
+        final List<String> apply = this.args();
+        apply.addAll(bdt.args());
+        apply.add("--sweet");
+        for (final String rule : rules) {
+            apply.add(String.format("--rule=%s", rule));
+        }
+        return apply;
+    }
+
+    /**
+     * Index the rules by their triggers.
+     * @return The index, which selects all rules, if it's not necessary
+     * @throws IOException If fails
+     */
+    private RuleIndex indexed() throws IOException {
+        final Map<String, String> yamls = new LinkedHashMap<>(this.rules.size());
+        for (final String rule : this.rules) {
+            String yaml = "";
+            if (this.options.index()) {
+                yaml = new String(Files.readAllBytes(Paths.get(rule)), StandardCharsets.UTF_8);
+            }
+            yamls.put(rule, yaml);
+        }
+        final RuleIndex idx = new RuleIndex(yamls);
+        if (this.options.index()) {
+            Logger.info(this, "Rule index: %s", idx);
+        }
+        return idx;
+    }
+
+    /**
+     * Make phino processes for the three stages of rewriting.
+     *
+     * <p>When rules are applied block by block, every block keeps at most
+     * one spare process, since a thread is in one block at a time, while
+     * there may be many blocks.</p>
+     * @param total How many threads will use them
+     * @param trace The trace of stages
+     * @param metrics Live metrics
+     * @return The stages
+     * @throws IOException If fails
+     */
+    private Rewriting.Stages stages(final int total, final Trace trace,
+        final Metrics metrics) throws IOException {
+        int spares = 0;
+        if (this.options.pool()) {
+            spares = total;
+            Logger.info(this, "Keeping %d spare phino process(es) per stage", spares);
+        }
+        final List<String> parse = this.args();
+        parse.add("--input=xmir");
+        parse.add("--sweet");
+        final List<String> print = this.args();
+        print.add("--output=xmir");
+        print.add("--omit-listing");
+        print.add("--omit-comments");
+        final Blocks blocks = new Blocks(this.rules);
+        final Map<String, Workers> staged = new LinkedHashMap<>(0);
+        int whole = spares;
+        if (this.options.staged()) {
+            whole = 0;
+            final int each = Math.min(spares, 1);
+            for (final String block : blocks.names()) {
+                staged.put(
+                    block,
+                    new Workers(
+                        this.phino,
+                        this.applying(blocks.rules(block), this.budget.of(block)),
+                        each
+                    )
+                );
+            }
+            Logger.info(
+                this, "Applying rules block by block, with %d spare(s) per block: %s",
+                each, blocks
+            );
+        }
+        return new Rewriting.Stages(
+            new Workers(this.phino, parse, spares),
+            new Workers(this.phino, this.applying(this.rules), whole),
+            new Workers(this.phino, print, spares),
+            this.indexed(),
+            blocks,
+            staged,
+            trace,
+            metrics
+        );
+    }
+
+    /**
+     * Arguments that every call of phino gets.
+     * @return Mutable list of arguments
+     */
+    private List<String> args() {
+        final List<String> args = new ArrayList<>(this.rules.size() + 8);
+        if (this.options.debug()) {
+            args.add("--log-level=debug");
+        }
+        return args;
+    }
+
+    /**
+     * Compile the grep-in regex.
+     * @return The regex or NULL if there is no grep-in
+     */
+    private Pattern regex() {
+        Pattern regex = null;
+        if (this.grep != null && !this.grep.isEmpty()) {
+            try {
+                regex = Pattern.compile(this.grep, Pattern.MULTILINE);
+            } catch (final PatternSyntaxException ex) {
+                throw new IllegalStateException(
+                    String.format(
+                        "The grep-in pattern '%s' is invalid; refusing to skip classes blindly",
+                        this.grep
+                    ),
+                    ex
+                );
+            }
+        }
+        return regex;
+    }
+
+    /**
+     * Give every task its time budget.
+     * @param tasks The tasks
+     * @param durations Milliseconds of files in the previous run
+     * @param timeouts Time budgets
+     */
+    private static void budget(final List<Rewriting.Task> tasks,
+        final Map<String, Long> durations, final Timeouts timeouts) {
+        final double[] costs = new Schedule(durations).costs(
+            Rewriting.keys(tasks), Rewriting.sizes(tasks)
+        );
+        int lowest = Integer.MAX_VALUE;
+        int highest = 0;
+        for (int idx = 0; idx < tasks.size(); ++idx) {
+            final int sec = timeouts.seconds(costs[idx]);
+            tasks.get(idx).timeout = sec;
+            lowest = Math.min(lowest, sec);
+            highest = Math.max(highest, sec);
+        }
+        if (timeouts.adaptive() && !tasks.isEmpty()) {
+            Logger.info(
+                Rewriting.class, "Adaptive timeouts are from %d to %d seconds",
+                lowest, highest
+            );
+        }
+    }
+
+    /**
+     * Put the most expensive tasks first.
+     * @param tasks The tasks
+     * @param durations Milliseconds spent on files in the previous run
+     * @return The same tasks, in the order of execution
+     */
+    private static List<Rewriting.Task> scheduled(final List<Rewriting.Task> tasks,
+        final Map<String, Long> durations) {
+        final List<Rewriting.Task> ordered = new ArrayList<>(tasks.size());
+        final List<Integer> order = new Schedule(durations).order(
+            Rewriting.keys(tasks), Rewriting.sizes(tasks)
+        );
+        for (final int idx : order) {
+            ordered.add(tasks.get(idx));
+        }
+        if (!ordered.isEmpty()) {
+            Logger.debug(
+                Rewriting.class, "The first task is %s, %d file(s) have history",
+                ordered.get(0).xmir, durations.size()
+            );
+        }
+        return ordered;
+    }
+
+    /**
+     * Keys of the tasks in the statistics.
+     * @param tasks The tasks
+     * @return Paths of PHI files before rewriting
+     */
+    private static List<String> keys(final List<Rewriting.Task> tasks) {
+        final List<String> keys = new ArrayList<>(tasks.size());
+        for (final Rewriting.Task task : tasks) {
+            keys.add(task.phi.toString());
+        }
+        return keys;
+    }
+
+    /**
+     * Sizes of XMIR files of the tasks.
+     * @param tasks The tasks
+     * @return Sizes in bytes
+     */
+    private static List<Long> sizes(final List<Rewriting.Task> tasks) {
+        final List<Long> sizes = new ArrayList<>(tasks.size());
+        for (final Rewriting.Task task : tasks) {
+            sizes.add(task.xmir.toFile().length());
+        }
+        return sizes;
+    }
+
+    /**
+     * Split the text into lines, the way {@link Files#readAllLines(Path)} does.
+     * @param text The text in UTF-8
+     * @return The lines
+     */
+    private static List<String> lines(final byte[] text) {
+        return new BufferedReader(
+            new StringReader(new String(text, StandardCharsets.UTF_8))
+        ).lines().collect(Collectors.toList());
+    }
+
+    /**
+     * Make sure the parent directory of the file exists.
+     * @param file The file
+     */
+    private static void mkdirs(final Path file) {
+        final File dir = file.toFile().getParentFile();
+        if (dir.mkdirs()) {
+            Logger.debug(Rewriting.class, "Directory created: %[file]s", dir);
+        }
+    }
+
+    /**
+     * One file to rewrite.
+     * @since 0.30.0
+     */
+    private static final class Task {
+
+        /**
+         * The ID of the file, like {@code "3/42"}.
+         */
+        private final String idx;
+
+        /**
+         * The XMIR file to rewrite.
+         */
+        private final Path xmir;
+
+        /**
+         * The PHI file before rewriting.
+         */
+        private final Path phi;
+
+        /**
+         * The PHI file after rewriting.
+         */
+        private final Path pho;
+
+        /**
+         * The XMIR file after rewriting.
+         */
+        private final Path out;
+
+        /**
+         * Seconds to spend on the file.
+         */
+        private int timeout;
+
+        /**
+         * When the file was given to a thread, see {@link Trace#now()}.
+         */
+        private long queued;
+
+        /**
+         * Values of columns of its row in statistics, by their names.
+         */
+        private final Map<String, Object> cells;
+
+        /**
+         * Ctor.
+         * @param num The ID of the file
+         * @param src The XMIR file to rewrite
+         * @param before The PHI file before rewriting
+         * @param after The PHI file after rewriting
+         * @param dest The XMIR file after rewriting
+         * @checkstyle ParameterNumberCheck (5 lines)
+         */
+        Task(final String num, final Path src, final Path before,
+            final Path after, final Path dest) {
+            this.idx = num;
+            this.xmir = src;
+            this.phi = before;
+            this.pho = after;
+            this.out = dest;
+            this.cells = new LinkedHashMap<>(0);
+        }
+    }
+
+    /**
+     * Phino processes for the three stages of rewriting of one file,
+     * the rules to select for it, the trace of what they do, and live metrics.
+     * @since 0.30.0
+     */
+    private static final class Stages implements Closeable {
+
+        /**
+         * From XMIR to PHI.
+         */
+        private final Workers parse;
+
+        /**
+         * From PHI to optimized PHI, with all rules at once.
+         */
+        private final Workers apply;
+
+        /**
+         * From optimized PHI back to XMIR.
+         */
+        private final Workers print;
+
+        /**
+         * The rules by their triggers.
+         */
+        private final RuleIndex index;
+
+        /**
+         * The rules by their blocks.
+         */
+        private final Blocks blocks;
+
+        /**
+         * From PHI to optimized PHI, with all rules of one block,
+         * by names of blocks, or empty if rules are not applied block by block.
+         */
+        private final Map<String, Workers> staged;
+
+        /**
+         * The trace of stages.
+         */
+        private final Trace trace;
+
+        /**
+         * Live metrics.
+         */
+        private final Metrics metrics;
+
+        /**
+         * Ctor.
+         * @param prs From XMIR to PHI
+         * @param apl From PHI to optimized PHI
+         * @param prt From optimized PHI to XMIR
+         * @param idx The rules by their triggers
+         * @param blk The rules by their blocks
+         * @param stg From PHI to optimized PHI, by blocks
+         * @param trc The trace of stages
+         * @param mtr Live metrics
+         * @checkstyle ParameterNumberCheck (5 lines)
+         */
+        Stages(final Workers prs, final Workers apl, final Workers prt,
+            final RuleIndex idx, final Blocks blk, final Map<String, Workers> stg,
+            final Trace trc, final Metrics mtr) {
+            this.parse = prs;
+            this.apply = apl;
+            this.print = prt;
+            this.index = idx;
+            this.blocks = blk;
+            this.staged = stg;
+            this.trace = trc;
+            this.metrics = mtr;
+        }
+
+        /**
+         * How many spare phino processes are waiting now.
+         * @return The number
+         */
+        int spare() {
+            int total = this.parse.spare() + this.apply.spare() + this.print.spare();
+            for (final Workers block : this.staged.values()) {
+                total += block.spare();
+            }
+            return total;
+        }
+
+        @Override
+        public void close() {
+            this.parse.close();
+            this.apply.close();
+            this.print.close();
+            for (final Workers block : this.staged.values()) {
+                block.close();
+            }
+        }
+    }
+}
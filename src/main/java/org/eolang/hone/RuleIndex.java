@@ -0,0 +1,227 @@
+/*
+ * SPDX-FileCopyrightText: Copyright (c) 2024-2026 Objectionary.com
+ * SPDX-License-Identifier: MIT
+ */
+package org.eolang.hone;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Index of rules by their triggers, which selects only the rules
+ * that may match a given PHI program.
+ *
+ * <p>A trigger is an absolute path, like {@code Φ.jeo.opcode.invokeinterface}
+ * or {@code Φ.hone.distill}, which is literally present in
+ * the {@code pattern} of the rule. If the PHI program doesn't mention
+ * the path, the rule can't match it, and there is no reason to give
+ * the rule to phino, which would spend time on parsing it and on
+ * trying it at every node of the program. A path followed by
+ * a metavariable, like {@code Φ.jeo.opcode.𝜏-opcode}, is a trigger too:
+ * the program must have some path that starts with {@code Φ.jeo.opcode.}.</p>
+ *
+ * <p>Since phino applies rules until nothing changes, a rule
+ * may match a path that is not in the program, but is made by the
+ * {@code result} of another rule. That's why the selection is
+ * a closure: the paths from results of all selected rules are added
+ * to the paths of the program, until no more rules get selected. A path
+ * in a result, which is followed by a metavariable, may become anything
+ * that starts with it.</p>
+ *
+ * <p>Paths that the sweet syntax of PHI hides, like {@code Φ.number}
+ * and {@code Φ.string}, are never used as triggers. A rule without
+ * triggers is always selected.</p>
+ *
+ * @since 0.30.0
+ */
+final class RuleIndex {
+
+    /**
+     * Absolute path, maybe ending with a dot, if a metavariable follows.
+     */
+    private static final Pattern PATH = Pattern.compile(
+        "Φ(?:\\.[A-Za-z0-9_$@-]+)*\\.?"
+    );
+
+    /**
+     * Top-level key of a YAML document.
+     */
+    private static final Pattern KEY = Pattern.compile("^([A-Za-z_-]+):(.*)$");
+
+    /**
+     * Paths that are hidden by the sweet syntax of PHI.
+     */
+    private static final Collection<String> SUGAR = Arrays.asList(
+        "Φ.number", "Φ.string", "Φ.bytes"
+    );
+
+    /**
+     * Triggers, by rules.
+     */
+    private final Map<String, Set<String>> needs;
+
+    /**
+     * Paths made by results, by rules.
+     */
+    private final Map<String, Set<String>> gives;
+
+    /**
+     * Ctor.
+     * @param yamls YAML texts of the rules, by their paths,
+     *  in the order of their application
+     */
+    RuleIndex(final Map<String, String> yamls) {
+        this.needs = new LinkedHashMap<>(yamls.size());
+        this.gives = new LinkedHashMap<>(yamls.size());
+        for (final Map.Entry<String, String> ent : yamls.entrySet()) {
+            final Set<String> triggers = new HashSet<>(0);
+            final String pattern = RuleIndex.section(ent.getValue(), "pattern");
+            for (final String path : RuleIndex.paths(pattern)) {
+                if (RuleIndex.SUGAR.stream().noneMatch(
+                    s -> path.equals(s) || path.startsWith(String.format("%s.", s))
+                )) {
+                    triggers.add(path);
+                }
+            }
+            this.needs.put(ent.getKey(), triggers);
+            this.gives.put(
+                ent.getKey(), RuleIndex.paths(RuleIndex.section(ent.getValue(), "result"))
+            );
+        }
+    }
+
+    @Override
+    public String toString() {
+        return String.format(
+            "%d rule(s), %d without triggers",
+            this.needs.size(),
+            this.needs.values().stream().filter(Set::isEmpty).count()
+        );
+    }
+
+    /**
+     * Select the rules that may match the program.
+     * @param phi The PHI program
+     * @return Paths of the rules, in the order of their application
+     */
+    List<String> select(final String phi) {
+        final Set<String> seen = new HashSet<>(0);
+        for (final String path : RuleIndex.paths(phi)) {
+            seen.addAll(RuleIndex.prefixes(path));
+        }
+        final Set<String> wild = new HashSet<>(0);
+        final Set<String> chosen = new HashSet<>(0);
+        boolean grows = true;
+        while (grows) {
+            grows = false;
+            for (final Map.Entry<String, Set<String>> ent : this.needs.entrySet()) {
+                if (chosen.contains(ent.getKey())
+                    || !RuleIndex.fires(ent.getValue(), seen, wild)) {
+                    continue;
+                }
+                chosen.add(ent.getKey());
+                for (final String path : this.gives.get(ent.getKey())) {
+                    seen.addAll(RuleIndex.prefixes(path));
+                    if (path.endsWith(".")) {
+                        wild.add(path);
+                    }
+                }
+                grows = true;
+            }
+        }
+        final List<String> selected = new ArrayList<>(chosen.size());
+        for (final String rule : this.needs.keySet()) {
+            if (chosen.contains(rule)) {
+                selected.add(rule);
+            }
+        }
+        return selected;
+    }
+
+    /**
+     * Are all triggers present?
+     * @param triggers The triggers
+     * @param seen Paths that are present, with all their prefixes
+     * @param wild Prefixes of paths that may be anything
+     * @return TRUE if the rule may match
+     */
+    private static boolean fires(final Set<String> triggers, final Set<String> seen,
+        final Set<String> wild) {
+        boolean fires = true;
+        for (final String trigger : triggers) {
+            if (!seen.contains(trigger) && wild.stream().noneMatch(trigger::startsWith)) {
+                fires = false;
+                break;
+            }
+        }
+        return fires;
+    }
+
+    /**
+     * The path and all its shorter prefixes, which end with a dot.
+     * For example, {@code Φ.jeo.opcode.dup} gives also {@code Φ.jeo.opcode.},
+     * {@code Φ.jeo.}, and {@code Φ.}.
+     * @param path The path
+     * @return All prefixes
+     */
+    private static Set<String> prefixes(final String path) {
+        final Set<String> all = new HashSet<>(4);
+        all.add(path);
+        for (int pos = path.indexOf('.'); pos >= 0; pos = path.indexOf('.', pos + 1)) {
+            all.add(path.substring(0, pos + 1));
+        }
+        return all;
+    }
+
+    /**
+     * All absolute paths in the text.
+     * @param text The text
+     * @return Paths
+     */
+    private static Set<String> paths(final String text) {
+        final Set<String> paths = new HashSet<>(0);
+        final Matcher matcher = RuleIndex.PATH.matcher(
+            text.replace("Φ\u0307", "Φ.org.eolang").replace("Φ.org.eolang.", "Φ.")
+        );
+        while (matcher.find()) {
+            if (matcher.group().length() > 1) {
+                paths.add(matcher.group());
+            }
+        }
+        return paths;
+    }
+
+    /**
+     * The value of the top-level key of YAML, without comments.
+     * @param yaml The YAML text
+     * @param key The key
+     * @return The text of the value, or empty if there is no such key
+     */
+    private static String section(final String yaml, final String key) {
+        final StringBuilder text = new StringBuilder(0);
+        boolean inside = false;
+        for (final String line : yaml.split("\n")) {
+            if (line.trim().startsWith("#")) {
+                continue;
+            }
+            final Matcher matcher = RuleIndex.KEY.matcher(line);
+            if (matcher.matches()) {
+                inside = key.equals(matcher.group(1));
+                if (inside) {
+                    text.append(matcher.group(2)).append('\n');
+                }
+            } else if (inside) {
+                text.append(line).append('\n');
+            }
+        }
+        return text.toString();
+    }
+}
@@ -0,0 +1,144 @@
+/*
+ * SPDX-FileCopyrightText: Copyright (c) 2024-2026 Objectionary.com
+ * SPDX-License-Identifier: MIT
+ */
+package org.eolang.hone;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The {@code hone-rule-profile.csv} file, aggregated by rules.
+ *
+ * <p>Every row of the file is one rule applied to one class. Here, they
+ * are summed up by rules: how many milliseconds the rule took in all
+ * classes, to how many classes it was applied, in how many of them it
+ * changed something (hits), and how many lines it changed.</p>
+ *
+ * <p>The file has a row per class per rule, which makes it the largest
+ * file that the summary reads, that's why it is read row by row and only
+ * the sums are kept in memory, the way {@link Aggregate} does.</p>
+ *
+ * @since 0.30.0
+ */
+final class RuleProfile {
+
+    /**
+     * Milliseconds by rules.
+     */
+    private final Map<String, Long> millis;
+
+    /**
+     * Classes by rules.
+     */
+    private final Map<String, Long> files;
+
+    /**
+     * Hits by rules.
+     */
+    private final Map<String, Long> hits;
+
+    /**
+     * Changed lines by rules.
+     */
+    private final Map<String, Long> changed;
+
+    /**
+     * Ctor.
+     * @param file The CSV file
+     */
+    RuleProfile(final Path file) {
+        this.millis = new HashMap<>(0);
+        this.files = new HashMap<>(0);
+        this.hits = new HashMap<>(0);
+        this.changed = new HashMap<>(0);
+        CSV.each(file, this::add);
+    }
+
+    @Override
+    public String toString() {
+        return String.format(
+            "%d rule(s), %d ms in total",
+            this.files.size(),
+            this.millis.values().stream().mapToLong(Long::longValue).sum()
+        );
+    }
+
+    /**
+     * Rules with the largest numbers in the column.
+     * @param column Either {@code "Millis"}, or {@code "Hit"}, or {@code "Changed"}
+     * @param limit How many rules to return, at most
+     * @return Names of rules, the largest first
+     */
+    List<String> top(final String column, final int limit) {
+        final Map<String, Long> numbers = this.column(column);
+        final List<String> rules = new ArrayList<>(this.files.keySet());
+        rules.sort(
+            Comparator.<String, Long>comparing(r -> numbers.getOrDefault(r, 0L))
+                .reversed()
+                .thenComparing(Comparator.naturalOrder())
+        );
+        return rules.subList(0, Math.min(limit, rules.size()));
+    }
+
+    /**
+     * Text table of rules with the largest numbers in the column.
+     * @param column Either {@code "Millis"}, or {@code "Hit"}, or {@code "Changed"}
+     * @param limit How many rules to show, at most
+     * @return The table, one rule per line, with a header
+     */
+    String table(final String column, final int limit) {
+        final StringBuilder table = new StringBuilder(0).append(
+            String.format("%-48s %10s %7s %7s %9s", "Rule", "Millis", "Files", "Hits", "Changed")
+        );
+        for (final String rule : this.top(column, limit)) {
+            table.append('\n').append(
+                String.format(
+                    "%-48s %10d %7d %7d %9d",
+                    rule, this.millis.getOrDefault(rule, 0L), this.files.get(rule),
+                    this.hits.getOrDefault(rule, 0L), this.changed.getOrDefault(rule, 0L)
+                )
+            );
+        }
+        return table.toString();
+    }
+
+    /**
+     * Add one row to the sums.
+     * @param row Values by names of columns
+     */
+    private void add(final Map<String, String> row) {
+        final String rule = row.get("Rule");
+        if (rule != null) {
+            this.files.merge(rule, 1L, Long::sum);
+            this.millis.merge(rule, Aggregate.number(row, "Millis"), Long::sum);
+            this.hits.merge(rule, Aggregate.number(row, "Hit"), Long::sum);
+            this.changed.merge(rule, Aggregate.number(row, "Changed"), Long::sum);
+        }
+    }
+
+    /**
+     * Numbers of the column by rules.
+     * @param column The name of the column
+     * @return Numbers by rules
+     */
+    private Map<String, Long> column(final String column) {
+        final Map<String, Long> numbers;
+        if ("Millis".equals(column)) {
+            numbers = this.millis;
+        } else if ("Hit".equals(column)) {
+            numbers = this.hits;
+        } else if ("Changed".equals(column)) {
+            numbers = this.changed;
+        } else {
+            throw new IllegalArgumentException(
+                String.format("Unknown column of the rule profile: '%s'", column)
+            );
+        }
+        return numbers;
+    }
+}
@@ -9,6 +9,7 @@ import io.github.classgraph.ClassGraph;
 import io.github.classgraph.Resource;
 import io.github.classgraph.ScanResult;
 import java.io.IOException;
+import java.io.InputStream;
 import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.Collection;
@@ -16,6 +17,7 @@ import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.regex.Pattern;
 import org.cactoos.io.OutputTo;
 import org.cactoos.io.ResourceOf;
@@ -23,6 +25,8 @@ import org.cactoos.io.TeeInput;
 import org.cactoos.iterable.Mapped;
 import org.cactoos.scalar.IoChecked;
 import org.cactoos.scalar.LengthOf;
+import org.cactoos.text.IoCheckedText;
+import org.cactoos.text.TextOf;
 
 /**
  * Optimization rules used by Phino.
@@ -31,6 +35,12 @@ import org.cactoos.scalar.LengthOf;
  * supporting wildcards and exclusions. Rules are stored as YAML files
  * and can be copied to a target directory for use by the optimizer.</p>
  *
+ * <p>The list of rules is taken from the index {@code rules.txt}, which
+ * is made when the plugin is built, with the path of one rule
+ * in each line. The classpath is scanned only if there
+ * is no index, like when the plugin is run right from the sources.
+ * Either way, the list is made once and then reused by all instances.</p>
+ *
  * @since 0.1.0
  */
 final class Rules {
@@ -40,6 +50,16 @@ final class Rules {
      */
     private static final String RULES_PATH = "org/eolang/hone/rules";
 
+    /**
+     * Resource path of the index of rules.
+     */
+    private static final String INDEX = "org/eolang/hone/rules.txt";
+
+    /**
+     * Names of all rules, once they are discovered.
+     */
+    private static final AtomicReference<String[]> FOUND = new AtomicReference<>();
+
     /**
      * Splitter for pattern strings.
      */
@@ -177,10 +197,67 @@ final class Rules {
     }
 
     /**
-     * Discover all available rules from the classpath.
-     * @return Array of rule names discovered from classpath resources
+     * Names of rules, listed in the text of the index.
+     * @param text The text of the index, with the path of a rule in each line
+     * @return Names of rules, in the order of lines
+     */
+    static List<String> listed(final String text) {
+        final List<String> names = new ArrayList<>(0);
+        for (final String line : text.split("\\R")) {
+            final String trimmed = line.trim();
+            if (!trimmed.isEmpty()) {
+                names.add(trimmed);
+            }
+        }
+        return names;
+    }
+
+    /**
+     * Discover all available rules, from the index or from the classpath,
+     * only once.
+     * @return Array of rule names
      */
     private static String[] discover() {
+        String[] result = Rules.FOUND.get();
+        if (result == null) {
+            final List<String> names = Rules.indexed();
+            if (names.isEmpty()) {
+                names.addAll(Rules.scanned());
+            }
+            if (names.isEmpty()) {
+                throw new IllegalStateException(
+                    String.format("No rules found in classpath at %s", Rules.RULES_PATH)
+                );
+            }
+            Collections.sort(names);
+            result = names.toArray(new String[0]);
+            Rules.FOUND.compareAndSet(null, result);
+            Logger.debug(Rules.class, "Discovered %d rules: %s", result.length, names);
+        }
+        return result;
+    }
+
+    /**
+     * Read names of rules from the index, if it exists.
+     * @return Names of rules, or an empty list if there is no index
+     */
+    private static List<String> indexed() {
+        final List<String> names = new ArrayList<>(0);
+        try (InputStream input = Rules.class.getClassLoader().getResourceAsStream(Rules.INDEX)) {
+            if (input != null) {
+                names.addAll(Rules.listed(new IoCheckedText(new TextOf(input)).asString()));
+            }
+        } catch (final IOException ex) {
+            Logger.warn(Rules.class, "Failed to read %s: %s", Rules.INDEX, ex.getMessage());
+        }
+        return names;
+    }
+
+    /**
+     * Discover all available rules by scanning the classpath.
+     * @return Names of rules discovered from classpath resources
+     */
+    private static List<String> scanned() {
         final List<String> names = new ArrayList<>(0);
         try (
             ScanResult scan = new ClassGraph()
@@ -199,14 +276,10 @@ final class Rules {
                 names.add(rel);
             }
         }
-        if (names.isEmpty()) {
-            throw new IllegalStateException(
-                String.format("No rules found in classpath at %s", Rules.RULES_PATH)
-            );
-        }
-        Collections.sort(names);
-        final String[] result = names.toArray(new String[0]);
-        Logger.debug(Rules.class, "Discovered %d rules: %s", result.length, names);
-        return result;
+        Logger.debug(
+            Rules.class, "No %s, %d rules found by scanning the classpath",
+            Rules.INDEX, names.size()
+        );
+        return names;
     }
 }
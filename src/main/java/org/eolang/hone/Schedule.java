@@ -0,0 +1,103 @@
+/*
+ * SPDX-FileCopyrightText: Copyright (c) 2024-2026 Objectionary.com
+ * SPDX-License-Identifier: MIT
+ */
+package org.eolang.hone;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The order, in which files are given to rewriting threads: the most
+ * expensive first.
+ *
+ * <p>When threads take files from a queue, the total time is at least
+ * the time of the most expensive file, and it is at most that plus
+ * the time of everything else divided by the number of threads.
+ * If a huge file is taken last, all other threads wait for it doing
+ * nothing. If it is taken first, others process small files
+ * in the meantime. This is the "longest processing time first" rule,
+ * which is never worse than 4/3 of the optimal schedule.</p>
+ *
+ * <p>The cost of a file is the time it took in the previous run, if it is
+ * known. Otherwise, it is the size of the file, converted to milliseconds
+ * at the rate of files with known time. If no time is known at all,
+ * files are ordered just by size.</p>
+ *
+ * @since 0.30.0
+ */
+final class Schedule {
+
+    /**
+     * Milliseconds spent on files in the previous run, by their keys.
+     */
+    private final Map<String, Long> history;
+
+    /**
+     * Ctor.
+     * @param hist Milliseconds spent on files in the previous run, by their keys
+     */
+    Schedule(final Map<String, Long> hist) {
+        this.history = new HashMap<>(hist);
+    }
+
+    /**
+     * Order the files.
+     * @param keys Keys of the files
+     * @param sizes Sizes of the files, in bytes
+     * @return Positions of files in the given lists, the most expensive first
+     */
+    List<Integer> order(final List<String> keys, final List<Long> sizes) {
+        final double[] costs = this.costs(keys, sizes);
+        final List<Integer> order = new ArrayList<>(keys.size());
+        for (int idx = 0; idx < keys.size(); ++idx) {
+            if (costs[idx] < 0.0d) {
+                costs[idx] = sizes.get(idx);
+            }
+            order.add(idx);
+        }
+        order.sort(
+            Comparator.comparingDouble((Integer idx) -> costs[idx]).reversed()
+                .thenComparing(Comparator.naturalOrder())
+        );
+        return order;
+    }
+
+    /**
+     * Expected milliseconds of the files.
+     * @param keys Keys of the files
+     * @param sizes Sizes of the files, in bytes
+     * @return Milliseconds, in the same order, or negative numbers for
+     *  the files that can't be estimated, since no time is known at all
+     */
+    double[] costs(final List<String> keys, final List<Long> sizes) {
+        long msec = 0L;
+        long bytes = 0L;
+        for (int idx = 0; idx < keys.size(); ++idx) {
+            final Long known = this.history.get(keys.get(idx));
+            if (known != null) {
+                msec += known;
+                bytes += sizes.get(idx);
+            }
+        }
+        double rate = -1.0d;
+        if (msec > 0L && bytes > 0L) {
+            rate = (double) msec / bytes;
+        }
+        final double[] costs = new double[keys.size()];
+        for (int idx = 0; idx < keys.size(); ++idx) {
+            final Long known = this.history.get(keys.get(idx));
+            if (known == null && rate < 0.0d) {
+                costs[idx] = -1.0d;
+            } else if (known == null) {
+                costs[idx] = sizes.get(idx) * rate;
+            } else {
+                costs[idx] = known;
+            }
+        }
+        return costs;
+    }
+}
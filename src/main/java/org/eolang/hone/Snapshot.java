@@ -0,0 +1,206 @@
+/*
+ * SPDX-FileCopyrightText: Copyright (c) 2024-2026 Objectionary.com
+ * SPDX-License-Identifier: MIT
+ */
+package org.eolang.hone;
+
+import com.jcabi.log.Logger;
+import java.io.IOException;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * The copy of {@code .class} files made before optimization, in
+ * the {@code classes-before-hone/} directory.
+ *
+ * <p>There are three modes:</p>
+ *
+ * <ul>
+ * <li>{@code copy}: all files are copied, exactly the way
+ * {@code cp -R} does it in the {@code entry.sh} script;</li>
+ * <li>{@code link}: all files are hard-linked, which costs nothing, no
+ * matter how many of them and how big they are; a file that is about to
+ * be overwritten is detached first: it gets a new copy in the directory
+ * with classes, while the old one stays in the snapshot; if the file
+ * system can't make hard links, files are copied;</li>
+ * <li>{@code changed}: only the files that are about to be overwritten
+ * are copied, right before it happens.</li>
+ * </ul>
+ *
+ * <p>In all modes, {@link #save(Path)} must be called before a file in
+ * the directory with classes is overwritten.</p>
+ *
+ * @since 0.30.0
+ */
+final class Snapshot {
+
+    /**
+     * The directory with classes.
+     */
+    private final Path bin;
+
+    /**
+     * The directory of the snapshot.
+     */
+    private final Path dir;
+
+    /**
+     * The mode.
+     */
+    private final String mode;
+
+    /**
+     * Ctor.
+     * @param src The directory with classes
+     * @param dest The directory of the snapshot
+     * @param mde The mode: {@code copy}, {@code link}, or {@code changed}
+     */
+    Snapshot(final Path src, final Path dest, final String mde) {
+        this.bin = src;
+        this.dir = dest;
+        this.mode = mde.toLowerCase(Locale.ENGLISH);
+        if (!"copy".equals(this.mode) && !"link".equals(this.mode)
+            && !"changed".equals(this.mode)) {
+            throw new IllegalArgumentException(
+                String.format(
+                    "Unknown snapshot mode '%s', use 'copy', 'link', or 'changed'", mde
+                )
+            );
+        }
+    }
+
+    @Override
+    public String toString() {
+        return this.mode;
+    }
+
+    /**
+     * Make the snapshot.
+     * @return How many files and directories were copied or linked
+     * @throws IOException If fails
+     */
+    int take() throws IOException {
+        final int total;
+        if ("copy".equals(this.mode)) {
+            total = this.walk(false);
+        } else {
+            Snapshot.delete(this.dir);
+            if ("link".equals(this.mode)) {
+                total = this.walk(true);
+            } else {
+                Files.createDirectories(this.dir);
+                total = 0;
+            }
+        }
+        return total;
+    }
+
+    /**
+     * Save one file, which is about to be overwritten.
+     * @param rel Relative path of the file
+     * @throws IOException If fails
+     */
+    void save(final Path rel) throws IOException {
+        final Path file = this.bin.resolve(rel.toString());
+        if (file.toFile().isFile()) {
+            if ("link".equals(this.mode)) {
+                final Path temp = file.resolveSibling(
+                    String.format("%s.hone", file.getFileName())
+                );
+                Files.copy(file, temp, StandardCopyOption.REPLACE_EXISTING);
+                Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING);
+            } else if ("changed".equals(this.mode)) {
+                final Path dest = this.dir.resolve(rel.toString());
+                Files.createDirectories(dest.getParent());
+                Files.copy(
+                    file, dest,
+                    StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.COPY_ATTRIBUTES
+                );
+            }
+        }
+    }
+
+    /**
+     * Copy or link the directory with classes recursively, replacing what
+     * is already there.
+     * @param link Make hard links, when possible
+     * @return How many files and directories were copied or linked
+     * @throws IOException If fails
+     */
+    private int walk(final boolean link) throws IOException {
+        final AtomicInteger count = new AtomicInteger();
+        final AtomicBoolean links = new AtomicBoolean(link);
+        Files.walkFileTree(
+            this.bin,
+            new SimpleFileVisitor<Path>() {
+                @Override
+                public FileVisitResult preVisitDirectory(final Path sub,
+                    final BasicFileAttributes attrs) throws IOException {
+                    Files.createDirectories(
+                        Snapshot.this.dir.resolve(Snapshot.this.bin.relativize(sub).toString())
+                    );
+                    count.incrementAndGet();
+                    return FileVisitResult.CONTINUE;
+                }
+
+                @Override
+                public FileVisitResult visitFile(final Path file,
+                    final BasicFileAttributes attrs) throws IOException {
+                    final Path dest = Snapshot.this.dir.resolve(
+                        Snapshot.this.bin.relativize(file).toString()
+                    );
+                    if (links.get()) {
+                        try {
+                            Files.createLink(dest, file);
+                        } catch (final IOException | UnsupportedOperationException ex) {
+                            Logger.info(
+                                Snapshot.class,
+                                "Can't make hard links in %[file]s (%s), copying files",
+                                Snapshot.this.dir, ex.getMessage()
+                            );
+                            links.set(false);
+                        }
+                    }
+                    if (!links.get()) {
+                        Files.copy(
+                            file, dest,
+                            StandardCopyOption.REPLACE_EXISTING,
+                            StandardCopyOption.COPY_ATTRIBUTES
+                        );
+                    }
+                    count.incrementAndGet();
+                    return FileVisitResult.CONTINUE;
+                }
+            }
+        );
+        return count.get();
+    }
+
+    /**
+     * Delete the directory recursively, if it exists.
+     * @param path The directory
+     * @throws IOException If fails
+     */
+    static void delete(final Path path) throws IOException {
+        if (path.toFile().exists()) {
+            final List<Path> all;
+            try (Stream<Path> walk = Files.walk(path)) {
+                all = walk.sorted(Comparator.reverseOrder()).collect(Collectors.toList());
+            }
+            for (final Path item : all) {
+                Files.delete(item);
+            }
+        }
+    }
+}
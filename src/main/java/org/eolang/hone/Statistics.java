@@ -0,0 +1,404 @@
+/*
+ * SPDX-FileCopyrightText: Copyright (c) 2024-2026 Objectionary.com
+ * SPDX-License-Identifier: MIT
+ */
+package org.eolang.hone;
+
+import com.jcabi.log.Logger;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The {@code hone-statistics.csv} file, written row by row,
+ * while files are being rewritten.
+ *
+ * <p>Rows may arrive from many threads at the same time, that's why
+ * every write is synchronized. The first five columns and the
+ * {@code Outcome} are the same as the ones the {@code rewrite.sh} script
+ * produces, in order to let {@link Summary} and {@link CSV} read both of
+ * them, by the names of columns. The {@code Millis} is how many
+ * milliseconds the rules were applied to the file, while the
+ * {@code ParseMillis} and the {@code PrintMillis} are how long it was
+ * converted from XMIR to PHI and back. The {@code Cache} is {@code hit} for
+ * classes taken from the {@link Cache}, {@code miss} for classes rewritten
+ * while the cache is enabled, and empty otherwise. The {@code Output} is
+ * what happened to the {@code .class} file: {@code assembled} for
+ * optimized classes, which jeo assembles, {@code cached} for classes,
+ * whose bytes are taken from the cache, and {@code passthrough} for all
+ * others, which stay as they are.</p>
+ *
+ * <p>The {@code Outcome} is one of {@code optimized}, {@code unchanged},
+ * {@code grep-skipped}, {@code cached}, {@code timeout}, and
+ * {@code failed}. The {@code XmirBytes} is the size of the XMIR file,
+ * the {@code Rules} is how many rules were given to phino for the file,
+ * and the {@code MaxCycles} is how many rewriting cycles phino was allowed
+ * to spend on it, since phino doesn't tell how many it used.</p>
+ *
+ * <p>The {@code ClassBefore}, the {@code ClassAfter}, and the
+ * {@code InstructionsDelta} are only known after jeo assembles
+ * the classes, that's why they are filled in by {@link #complete()},
+ * which rewrites the file once, at the end. The delta is the difference
+ * between the numbers of {@link Instructions} after and before.</p>
+ *
+ * <p>The number of changed lines of every file is also remembered, until
+ * the file is started from scratch.</p>
+ *
+ * <p>When rules are applied one by one, the time and the result of
+ * each of them are written to the {@code hone-rule-profile.csv} file,
+ * next to this one: one row per rule per file. The {@code Hit} is one,
+ * if the rule changed anything in the file, and zero otherwise.</p>
+ *
+ * @since 0.30.0
+ */
+final class Statistics {
+
+    /**
+     * The header of the CSV file.
+     */
+    static final String HEADER = String.join(
+        ",", "ID", "Before", "After", "Changed", "LinesPerSec", "Millis", "Cache", "Output",
+        "Outcome", "XmirBytes", "ParseMillis", "PrintMillis", "Rules", "MaxCycles",
+        "ClassBefore", "ClassAfter", "InstructionsDelta"
+    );
+
+    /**
+     * The outcome of a file, which was changed by the rules.
+     */
+    static final String OPTIMIZED = "optimized";
+
+    /**
+     * The outcome of a file, which was not changed by the rules.
+     */
+    static final String UNCHANGED = "unchanged";
+
+    /**
+     * The outcome of a file, which didn't match the grep-in regex.
+     */
+    static final String GREP_SKIPPED = "grep-skipped";
+
+    /**
+     * The outcome of a class, which was taken from the cache.
+     */
+    static final String CACHED = "cached";
+
+    /**
+     * The outcome of a file, which was left untouched because of timeout.
+     */
+    static final String TIMEOUT = "timeout";
+
+    /**
+     * The outcome of a file, which phino failed to rewrite.
+     */
+    static final String FAILED = "failed";
+
+    /**
+     * The name of the file with the profile of rules.
+     */
+    static final String PROFILE = "hone-rule-profile.csv";
+
+    /**
+     * The header of the profile of rules.
+     */
+    static final String PROFILE_HEADER = "Before,Rule,Millis,Changed,Hit";
+
+    /**
+     * Path to the CSV file.
+     */
+    private final Path path;
+
+    /**
+     * Is the cache enabled?
+     */
+    private final boolean cached;
+
+    /**
+     * Changed lines by the path of PHI file before rewriting.
+     */
+    private final Map<Path, Integer> changes;
+
+    /**
+     * Sizes and instructions of classes, by the path of PHI file
+     * before rewriting, to be filled in by {@link #complete()}.
+     */
+    private final Map<String, Map<String, String>> binaries;
+
+    /**
+     * Ctor.
+     * @param file Path to the CSV file
+     */
+    Statistics(final Path file) {
+        this(file, false);
+    }
+
+    /**
+     * Ctor.
+     * @param file Path to the CSV file
+     * @param cache Is the cache enabled?
+     */
+    Statistics(final Path file, final boolean cache) {
+        this.path = file;
+        this.cached = cache;
+        this.changes = new ConcurrentHashMap<>(0);
+        this.binaries = new ConcurrentHashMap<>(0);
+    }
+
+    /**
+     * Start the file from scratch, with only the header inside.
+     * @throws IOException If fails to write
+     */
+    synchronized void start() throws IOException {
+        this.changes.clear();
+        this.binaries.clear();
+        Files.deleteIfExists(this.profile());
+        final File dir = this.path.toFile().getParentFile();
+        if (dir.mkdirs()) {
+            Logger.debug(this, "Directory created: %[file]s", dir);
+        }
+        Files.write(
+            this.path,
+            String.format("%s%n", Statistics.HEADER).getBytes(StandardCharsets.UTF_8)
+        );
+    }
+
+    /**
+     * Append one row.
+     * @param idx The ID of the file, like {@code "3/42"}
+     * @param before The path of the {@code .phi} file before rewriting
+     * @param after The path of the {@code .phi} file after rewriting
+     * @param changed How many lines were changed
+     * @param lps How many lines per second were processed
+     * @throws IOException If fails to write
+     * @checkstyle ParameterNumberCheck (5 lines)
+     */
+    void row(final String idx, final Path before, final Path after,
+        final int changed, final long lps) throws IOException {
+        this.row(idx, before, after, changed, lps, 0L);
+    }
+
+    /**
+     * Append one row, with the time of rewriting.
+     * @param idx The ID of the file, like {@code "3/42"}
+     * @param before The path of the {@code .phi} file before rewriting
+     * @param after The path of the {@code .phi} file after rewriting
+     * @param changed How many lines were changed
+     * @param lps How many lines per second were processed
+     * @param msec How many milliseconds the rules were applied
+     * @throws IOException If fails to write
+     * @checkstyle ParameterNumberCheck (5 lines)
+     */
+    void row(final String idx, final Path before, final Path after,
+        final int changed, final long lps, final long msec) throws IOException {
+        final Map<String, Object> cells = new HashMap<>(0);
+        cells.put("Changed", changed);
+        cells.put("LinesPerSec", lps);
+        cells.put("Millis", msec);
+        this.row(idx, before, after, cells);
+    }
+
+    /**
+     * Append one row, with any columns of {@link #HEADER}.
+     *
+     * <p>The {@code Cache} and the {@code Output} are decided here, while
+     * the {@code Outcome}, if absent, is either {@code optimized} or
+     * {@code unchanged}, depending on the {@code Changed}. Other absent
+     * columns are empty, except numbers of the rewriting, which are zeros.</p>
+     *
+     * @param idx The ID of the file, like {@code "3/42"}
+     * @param before The path of the {@code .phi} file before rewriting
+     * @param after The path of the {@code .phi} file after rewriting
+     * @param cells Values by names of columns
+     * @throws IOException If fails to write
+     */
+    void row(final String idx, final Path before, final Path after,
+        final Map<String, Object> cells) throws IOException {
+        final Map<String, Object> row = new HashMap<>(cells);
+        row.putIfAbsent("Changed", 0);
+        row.putIfAbsent("LinesPerSec", 0L);
+        row.putIfAbsent("Millis", 0L);
+        final int changed = Integer.parseInt(row.get("Changed").toString());
+        if (changed == 0) {
+            row.putIfAbsent("Outcome", Statistics.UNCHANGED);
+        } else {
+            row.putIfAbsent("Outcome", Statistics.OPTIMIZED);
+        }
+        if (Statistics.CACHED.equals(row.get("Outcome"))) {
+            row.put("Cache", "hit");
+        } else if (this.cached) {
+            row.put("Cache", "miss");
+        }
+        if (Statistics.CACHED.equals(row.get("Outcome"))) {
+            row.put("Output", "cached");
+        } else if (Statistics.OPTIMIZED.equals(row.get("Outcome"))) {
+            row.put("Output", "assembled");
+        } else {
+            row.put("Output", "passthrough");
+        }
+        this.append(idx, before, after, row);
+        this.changes.put(before, changed);
+    }
+
+    /**
+     * Append one row about a class, which was found in the cache.
+     * @param idx The ID of the file, like {@code "3/42"}
+     * @param before The path of the {@code .phi} file before rewriting
+     * @param after The path of the {@code .phi} file after rewriting
+     * @param changed How many lines were changed, when it was rewritten
+     * @throws IOException If fails to write
+     */
+    void hit(final String idx, final Path before, final Path after,
+        final int changed) throws IOException {
+        final Map<String, Object> cells = new HashMap<>(0);
+        cells.put("Changed", changed);
+        cells.put("Outcome", Statistics.CACHED);
+        this.row(idx, before, after, cells);
+    }
+
+    /**
+     * Remember the {@code .class} file of a row, before and after
+     * optimization, to fill in its sizes and the delta of instructions
+     * by {@link #complete()}.
+     * @param before The path of the {@code .phi} file before rewriting
+     * @param original The bytes of the class before optimization
+     * @param optimized The bytes of the class after optimization
+     */
+    void binary(final Path before, final byte[] original, final byte[] optimized) {
+        final Map<String, String> cells = new HashMap<>(0);
+        cells.put("ClassBefore", Integer.toString(original.length));
+        cells.put("ClassAfter", Integer.toString(optimized.length));
+        if (Arrays.equals(original, optimized)) {
+            cells.put("InstructionsDelta", "0");
+        } else {
+            final int first = new Instructions(original).count();
+            final int second = new Instructions(optimized).count();
+            if (first >= 0 && second >= 0) {
+                cells.put("InstructionsDelta", Integer.toString(second - first));
+            }
+        }
+        this.binaries.put(before.toString(), cells);
+    }
+
+    /**
+     * Fill in the sizes and the instructions of classes, remembered
+     * by {@link #binary(Path, byte[], byte[])}, rewriting the file once.
+     * @throws IOException If fails to write
+     */
+    synchronized void complete() throws IOException {
+        if (!this.binaries.isEmpty() && this.path.toFile().isFile()) {
+            try {
+                new CSV(this.path).fill("Before", this.binaries).flush(this.path);
+            } catch (final IllegalStateException ex) {
+                throw new IOException(ex);
+            }
+            Logger.debug(
+                this, "Sizes of %d class(es) filled in %[file]s",
+                this.binaries.size(), this.path
+            );
+        }
+    }
+
+    /**
+     * Append one row to the profile of rules.
+     * @param before The path of the {@code .phi} file before rewriting
+     * @param rule The name of the rule
+     * @param msec How many milliseconds the rule was applied
+     * @param changed How many lines were changed by the rule
+     * @throws IOException If fails to write
+     */
+    synchronized void rule(final Path before, final String rule, final long msec,
+        final int changed) throws IOException {
+        final Path file = this.profile();
+        if (!file.toFile().exists()) {
+            Files.write(
+                file,
+                String.format("%s%n", Statistics.PROFILE_HEADER).getBytes(StandardCharsets.UTF_8)
+            );
+        }
+        int hit = 0;
+        if (changed > 0) {
+            hit = 1;
+        }
+        Files.write(
+            file,
+            String.format(
+                "\"%s\",%s,%d,%d,%d%n", before, rule, msec, changed, hit
+            ).getBytes(StandardCharsets.UTF_8),
+            StandardOpenOption.APPEND
+        );
+    }
+
+    /**
+     * How long the rules were applied to each file in the previous run,
+     * which is still in the file, since it is not started from scratch yet.
+     * @return Milliseconds by the paths of PHI files before rewriting
+     */
+    Map<String, Long> durations() {
+        final Map<String, Long> all = new HashMap<>(0);
+        if (this.path.toFile().isFile()) {
+            try {
+                for (final Map.Entry<String, String> ent
+                    : new CSV(this.path).pairs("Before", "Millis").entrySet()) {
+                    final long msec = Long.parseLong(ent.getValue());
+                    if (msec > 0L) {
+                        all.put(ent.getKey(), msec);
+                    }
+                }
+            } catch (final IllegalStateException | NumberFormatException ex) {
+                Logger.debug(this, "Can't read durations from %[file]s: %s", this.path, ex);
+            }
+        }
+        return all;
+    }
+
+    /**
+     * How many lines were changed in this file?
+     * @param before The path of the {@code .phi} file before rewriting
+     * @return The number of lines or NULL if there is no row for this file
+     */
+    Integer changed(final Path before) {
+        return this.changes.get(before);
+    }
+
+    /**
+     * The file with the profile of rules.
+     * @return The path
+     */
+    private Path profile() {
+        return this.path.resolveSibling(Statistics.PROFILE);
+    }
+
+    /**
+     * Append one row.
+     * @param idx The ID of the file
+     * @param before The path of the {@code .phi} file before rewriting
+     * @param after The path of the {@code .phi} file after rewriting
+     * @param cells Values of other columns, by their names
+     * @throws IOException If fails to write
+     */
+    private synchronized void append(final String idx, final Path before,
+        final Path after, final Map<String, Object> cells) throws IOException {
+        final StringBuilder line = new StringBuilder(0).append(
+            String.format("%s,\"%s\",\"%s\"", idx, before, after)
+        );
+        final String[] columns = Statistics.HEADER.split(",");
+        for (int pos = 3; pos < columns.length; ++pos) {
+            line.append(',');
+            final Object cell = cells.get(columns[pos]);
+            if (cell != null) {
+                line.append(cell);
+            }
+        }
+        Files.write(
+            this.path,
+            String.format("%s%n", line).getBytes(StandardCharsets.UTF_8),
+            StandardOpenOption.APPEND, StandardOpenOption.CREATE
+        );
+    }
+}
@@ -4,20 +4,67 @@
  */
 package org.eolang.hone;
 
+import com.jcabi.log.Logger;
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileVisitResult;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.attribute.BasicFileAttributes;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashSet;
 import java.util.List;
-import java.util.concurrent.atomic.AtomicInteger;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BiConsumer;
+import java.util.stream.Collectors;
 import java.util.stream.Stream;
+import org.apache.commons.csv.CSVFormat;
+import org.apache.commons.csv.CSVPrinter;
 
 /**
  * Build summary statistics.
+ *
+ * <p>The statistics of all modules are merged into one file, which is
+ * written row by row, while the files of modules are read row by row
+ * too: first, in order to count the rows and to learn the columns of all
+ * of them, and then, in order to write them, renumbered. Thus, no matter
+ * how many modules and rows there are, only one row is in memory at a
+ * time. While the rows are written, their totals are accumulated by
+ * {@link Aggregate}, one per module, and saved to the
+ * {@code hone-modules.csv} file, next to the merged one.</p>
+ *
+ * <p>The files are looked for in the given directories first, usually
+ * the {@code target/} directories of all projects of the reactor, without
+ * walking through them. Only if there are no directories, or none of
+ * them has the file, the root is walked, in parallel, one thread per
+ * its child directory, skipping directories with classes and
+ * intermediate files of hone, like {@code phi/} and {@code unphi/},
+ * which have thousands of files and never have statistics.</p>
+ *
  * @since 0.1.0
  */
 public final class Summary {
 
+    /**
+     * The name of the file with totals of modules.
+     */
+    static final String MODULES = "hone-modules.csv";
+
+    /**
+     * Directories, which are not walked, because they are full of files.
+     */
+    private static final Collection<String> PRUNED = Arrays.asList(
+        ".git", "classes", "test-classes", "classes-before-hone",
+        "jeo-disassemble", "phi", "phi-optimized", "unphi"
+    );
+
     /**
      * Where to look for statistics.
      */
@@ -28,6 +75,11 @@ public final class Summary {
      */
     private final Path target;
 
+    /**
+     * Directories to look for statistics in, before walking the root.
+     */
+    private final Collection<Path> dirs;
+
     /**
      * Constructor.
      * @param root Root directory to search for statistics
@@ -42,47 +94,254 @@ public final class Summary {
      * @param target Directory to save the summary report
      */
     Summary(final Path root, final Path target) {
+        this(root, target, Collections.emptyList());
+    }
+
+    /**
+     * Constructor.
+     * @param root Root directory to search for statistics
+     * @param target Directory to save the summary report
+     * @param known Directories to look for statistics in, like {@code target/}
+     *  of all modules
+     */
+    Summary(final Path root, final Path target, final Collection<Path> known) {
         this.root = root;
         this.target = target;
+        this.dirs = known;
     }
 
     /**
-     * Collects summary statistics from all child modules.
+     * Collects summary statistics from all child modules,
+     * and totals of every module.
      * @return The path to the generated summary report
      */
     Path collect() {
-        final List<CSV> found = new ArrayList<>(0);
-        final String stats = "hone-statistics.csv";
-        final Path destination = this.target.resolve(stats);
+        final Path destination = this.target.resolve("hone-statistics.csv");
+        final List<Path> found = this.found(destination);
+        if (!found.isEmpty()) {
+            final Map<String, Aggregate> modules = new TreeMap<>();
+            Summary.merge(
+                found, destination,
+                (file, row) -> modules.computeIfAbsent(
+                    this.module(file), module -> new Aggregate()
+                ).add(row)
+            );
+            Summary.save(modules, this.target.resolve(Summary.MODULES));
+        }
+        return destination;
+    }
+
+    /**
+     * Collects profiles of rules from all child modules.
+     * @return The path to the profile of all modules
+     */
+    Path profile() {
+        final Path destination = this.target.resolve(Statistics.PROFILE);
+        final List<Path> found = this.found(destination);
+        if (!found.isEmpty()) {
+            Summary.merge(found, destination, (file, row) -> { });
+        }
+        return destination;
+    }
+
+    /**
+     * Find all files with the same name as the destination, except it,
+     * in the known directories or, if none there, in the root.
+     * @param destination The file to save the summary to
+     * @return All found files
+     */
+    private List<Path> found(final Path destination) {
+        final String name = destination.getFileName().toString();
         final Path output = destination.toAbsolutePath().normalize();
-        try (Stream<Path> paths = Files.walk(this.root)) {
-            paths.filter(Files::isRegularFile)
-                .filter(path -> stats.equals(path.getFileName().toString()))
-                .filter(path -> !output.equals(path.toAbsolutePath().normalize()))
-                .map(CSV::new)
-                .forEach(found::add);
+        final List<Path> found = new ArrayList<>(this.dirs.size());
+        for (final Path dir : this.dirs) {
+            final Path file = dir.resolve(name);
+            if (Files.isRegularFile(file) && !output.equals(file.toAbsolutePath().normalize())) {
+                found.add(file);
+            }
+        }
+        if (found.isEmpty()) {
+            final long start = System.currentTimeMillis();
+            found.addAll(this.walked(name, output));
+            Logger.debug(
+                this, "%d file(s) named %s found in %[file]s in %[ms]s",
+                found.size(), name, this.root, System.currentTimeMillis() - start
+            );
+        }
+        return found;
+    }
+
+    /**
+     * Walk the root, in parallel, skipping directories full of files.
+     * @param name The name of files to find
+     * @param output The file to save the summary to, which is not included
+     * @return All found files, sorted
+     */
+    private List<Path> walked(final String name, final Path output) {
+        final List<Path> tops;
+        try (Stream<Path> paths = Files.list(this.root)) {
+            tops = paths.collect(Collectors.toList());
         } catch (final IOException exception) {
             throw new IllegalStateException(
-                "Failed to collect summary statistics",
+                String.format("Failed to collect summary of %s", name),
                 exception
             );
         }
-        if (!found.isEmpty()) {
-            Summary.reduce(found).flush(destination);
+        return tops.parallelStream()
+            .flatMap(top -> Summary.walked(top, name).stream())
+            .filter(path -> !output.equals(path.toAbsolutePath().normalize()))
+            .sorted()
+            .collect(Collectors.toList());
+    }
+
+    /**
+     * Walk one directory, skipping directories full of files.
+     * @param top The directory or the file
+     * @param name The name of files to find
+     * @return All found files
+     */
+    private static List<Path> walked(final Path top, final String name) {
+        final List<Path> found = new ArrayList<>(0);
+        try {
+            Files.walkFileTree(
+                top,
+                new SimpleFileVisitor<Path>() {
+                    @Override
+                    public FileVisitResult preVisitDirectory(final Path dir,
+                        final BasicFileAttributes attrs) {
+                        FileVisitResult next = FileVisitResult.CONTINUE;
+                        if (Summary.PRUNED.contains(String.valueOf(dir.getFileName()))) {
+                            next = FileVisitResult.SKIP_SUBTREE;
+                        }
+                        return next;
+                    }
+
+                    @Override
+                    public FileVisitResult visitFile(final Path file,
+                        final BasicFileAttributes attrs) {
+                        if (attrs.isRegularFile()
+                            && name.equals(file.getFileName().toString())) {
+                            found.add(file);
+                        }
+                        return FileVisitResult.CONTINUE;
+                    }
+
+                    @Override
+                    public FileVisitResult visitFileFailed(final Path file,
+                        final IOException exc) {
+                        return FileVisitResult.CONTINUE;
+                    }
+                }
+            );
+        } catch (final IOException exception) {
+            throw new IllegalStateException(
+                String.format("Failed to walk %s", top),
+                exception
+            );
+        }
+        return found;
+    }
+
+    /**
+     * The name of the module of the file.
+     * @param file The file with statistics
+     * @return Its directory, relative to the root
+     */
+    private String module(final Path file) {
+        String name = this.root.toAbsolutePath().normalize()
+            .relativize(file.toAbsolutePath().normalize().getParent()).toString();
+        if (name.isEmpty()) {
+            name = ".";
+        }
+        return name;
+    }
+
+    /**
+     * Merge files into one, row by row, renumbering the {@code ID} column,
+     * if there is one.
+     * @param files The files to merge
+     * @param destination The file to write
+     * @param each What to do with every row, and the file it's from
+     */
+    private static void merge(final List<Path> files, final Path destination,
+        final BiConsumer<Path, Map<String, String>> each) {
+        final Set<String> headers = new LinkedHashSet<>();
+        final AtomicLong total = new AtomicLong();
+        for (final Path file : files) {
+            headers.addAll(CSV.each(file, row -> total.incrementAndGet()));
+        }
+        final AtomicLong index = new AtomicLong();
+        try (
+            CSVPrinter printer = new CSVPrinter(
+                Files.newBufferedWriter(destination, StandardCharsets.UTF_8),
+                CSVFormat.DEFAULT.builder().setHeader(headers.toArray(new String[0])).get()
+            )
+        ) {
+            for (final Path file : files) {
+                CSV.each(
+                    file,
+                    row -> {
+                        if (headers.contains("ID")) {
+                            row.put(
+                                "ID",
+                                String.format("%d/%d", index.incrementAndGet(), total.get())
+                            );
+                        }
+                        each.accept(file, row);
+                        Summary.print(printer, headers, row);
+                    }
+                );
+            }
+        } catch (final IOException exception) {
+            throw new IllegalStateException(
+                String.format("Failed to merge %d file(s) into %s", files.size(), destination),
+                exception
+            );
+        }
+    }
+
+    /**
+     * Print one row.
+     * @param printer The printer
+     * @param headers Names of columns
+     * @param row Values by names of columns
+     */
+    private static void print(final CSVPrinter printer, final Collection<String> headers,
+        final Map<String, String> row) {
+        try {
+            printer.printRecord(headers.stream().map(row::get).collect(Collectors.toList()));
+        } catch (final IOException exception) {
+            throw new IllegalStateException("Failed to print a row of summary", exception);
         }
-        return destination;
     }
 
-    private static CSV reduce(final List<CSV> csvs) {
-        final CSV res = csvs.stream().reduce(CSV::add).orElseThrow(
-            () -> new IllegalStateException(
-                "Failed to reduce summary statistics: no CSV files found."
+    /**
+     * Save totals of modules.
+     * @param modules Totals by names of modules
+     * @param csv The file to save them to
+     */
+    private static void save(final Map<String, Aggregate> modules, final Path csv) {
+        try (
+            CSVPrinter printer = new CSVPrinter(
+                Files.newBufferedWriter(csv, StandardCharsets.UTF_8),
+                CSVFormat.DEFAULT.builder().setHeader(
+                    "Module", "Files", "Optimized", "Timeouts", "Millis", "P50", "P95", "P99"
+                ).get()
             )
-        );
-        final AtomicInteger index = new AtomicInteger(1);
-        return res.recompute(
-            "ID",
-            ignore -> String.format("%d/%d", index.getAndIncrement(), res.size())
-        );
+        ) {
+            for (final Map.Entry<String, Aggregate> ent : modules.entrySet()) {
+                final Aggregate agg = ent.getValue();
+                printer.printRecord(
+                    ent.getKey(), agg.rows(), agg.optimized(),
+                    agg.outcomes().getOrDefault(Statistics.TIMEOUT, 0L), agg.sum("Millis"),
+                    agg.percentile(50.0d), agg.percentile(95.0d), agg.percentile(99.0d)
+                );
+            }
+        } catch (final IOException exception) {
+            throw new IllegalStateException(
+                String.format("Failed to save totals of modules to %s", csv),
+                exception
+            );
+        }
     }
 }
@@ -8,13 +8,34 @@ import com.jcabi.log.Logger;
 import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
 import org.apache.maven.plugins.annotations.Mojo;
+import org.apache.maven.plugins.annotations.Parameter;
+import org.apache.maven.project.MavenProject;
 
 /**
  * Build summary statistics.
  *
  * <p>This goal tries to find all the statistics in child modules and
- * build a single summary report.</p>
+ * build a single summary report. If there are profiles of rules,
+ * see the {@code profileRules} parameter of the {@code optimize} goal,
+ * they are collected too, and the rules that take the most time
+ * and change the most classes are printed.</p>
+ *
+ * <p>Besides the number of optimized files, it prints how many files had
+ * each outcome, how long the stages took, and how the sizes of
+ * {@code .class} files and the numbers of instructions changed, if the
+ * statistics have these columns, see {@link Statistics}. The percentiles
+ * of time per file are printed too, while the totals of every module,
+ * with their own percentiles, are saved to {@code hone-modules.csv}.
+ * The statistics are read row by row, see {@link Summary}, thus the
+ * goal doesn't need more memory for bigger projects.</p>
+ *
+ * <p>The statistics are taken from the {@code target/} directories of
+ * all projects of the reactor, without walking through the entire
+ * project, which may have thousands of intermediate files of hone.</p>
  *
  * @since 0.1.0
  */
@@ -24,6 +45,20 @@ import org.apache.maven.plugins.annotations.Mojo;
 )
 public final class SummaryMojo extends AbstractMojo {
 
+    /**
+     * How many rules to show in each table of the profile of rules.
+     * @since 0.30.0
+     */
+    @Parameter(property = "hone.top", defaultValue = "10")
+    private int top;
+
+    /**
+     * All projects of the reactor, whose {@code target/} directories
+     * are where to look for statistics.
+     */
+    @Parameter(defaultValue = "${reactorProjects}", readonly = true)
+    private List<MavenProject> projects;
+
     /**
      * Ctor.
      */
@@ -34,17 +69,60 @@ public final class SummaryMojo extends AbstractMojo {
     @Override
     public void exec() throws IOException {
         Logger.info(this, "Collecting summary build statistics...");
-        final Path stats = new Summary(
+        final List<Path> dirs = new ArrayList<>(0);
+        if (this.projects != null) {
+            for (final MavenProject project : this.projects) {
+                dirs.add(Paths.get(project.getBuild().getDirectory()));
+            }
+        }
+        final Summary summary = new Summary(
             this.basedir.toPath(),
-            Files.createDirectories(this.target.toPath())
-        ).collect();
+            Files.createDirectories(this.target.toPath()),
+            dirs
+        );
+        final Path stats = summary.collect();
         if (stats.toFile().exists()) {
-            final CSV csv = new CSV(stats);
+            final Aggregate all = new Aggregate().read(stats);
+            Logger.info(this, "Optimized %d/%d files", all.optimized(), all.rows());
+            if (!all.outcomes().isEmpty()) {
+                Logger.info(this, "Outcomes of files: %s", all.outcomes());
+            }
+            if (all.percentile(100.0d) > 0L) {
+                Logger.info(
+                    this, "Time per file: %[ms]s p50, %[ms]s p95, %[ms]s p99, %[ms]s max",
+                    all.percentile(50.0d), all.percentile(95.0d), all.percentile(99.0d),
+                    all.percentile(100.0d)
+                );
+            }
+            if (all.sum("ParseMillis") > 0L) {
+                Logger.info(
+                    this,
+                    "Time in stages: %[ms]s converting XMIR to PHI, %[ms]s applying rules, %[ms]s converting PHI to XMIR",
+                    all.sum("ParseMillis"), all.sum("Millis"), all.sum("PrintMillis")
+                );
+            }
+            if (all.sum("ClassBefore") > 0L) {
+                Logger.info(
+                    this,
+                    "Binaries: %d bytes of .class files became %d bytes, with %+d instruction(s)",
+                    all.sum("ClassBefore"), all.sum("ClassAfter"),
+                    all.sum("InstructionsDelta")
+                );
+            }
+            Logger.info(
+                this, "Totals of modules saved to %[file]s",
+                this.target.toPath().resolve(Summary.MODULES)
+            );
+        }
+        final Path profile = summary.profile();
+        if (profile.toFile().exists()) {
+            final RuleProfile rules = new RuleProfile(profile);
+            Logger.info(this, "Profile of rules collected: %s", rules);
+            Logger.info(
+                this, "Top %d rules by time:%n%s", this.top, rules.table("Millis", this.top)
+            );
             Logger.info(
-                this,
-                "Optimized %d/%d files",
-                csv.count("Changed", v -> Integer.parseInt(v) > 0),
-                csv.size()
+                this, "Top %d rules by hits:%n%s", this.top, rules.table("Hit", this.top)
             );
         }
         Logger.info(this, "Summary build statistics collected successfully!");
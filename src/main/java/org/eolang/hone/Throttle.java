@@ -0,0 +1,367 @@
+/*
+ * SPDX-FileCopyrightText: Copyright (c) 2024-2026 Objectionary.com
+ * SPDX-License-Identifier: MIT
+ */
+package org.eolang.hone;
+
+import com.jcabi.log.Logger;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * The limit of concurrent rewriting, by CPUs and memory of the machine.
+ *
+ * <p>The number of threads is the number of CPUs, unless the CPU quota
+ * of the cgroup (in a container, for example) is smaller. It is also
+ * not more than the available memory divided by the memory of one
+ * phino process. Since a few dozen of phino processes that rewrite big
+ * classes may take all memory and get killed by the OOM killer,
+ * the throttle also doesn't let a thread start with a new file when
+ * the available memory is less than one process needs, until some other
+ * thread finishes with its file. At least one file is always in progress.</p>
+ *
+ * <p>How much memory one process needs is the largest of the configured
+ * number and the peak RSS ({@code VmHWM}) of phino processes, which
+ * are observed among the descendants of this JVM.</p>
+ *
+ * <p>Everything is read from {@code /proc} and {@code /sys/fs/cgroup}.
+ * When they are absent, like on macOS, only the number of CPUs is
+ * taken into account.</p>
+ *
+ * @since 0.30.0
+ */
+final class Throttle {
+
+    /**
+     * Bytes in a kilobyte.
+     */
+    private static final long KILO = 1024L;
+
+    /**
+     * The limit of cgroup v1, which means "no limit".
+     */
+    private static final long UNLIMITED = Long.MAX_VALUE / 2L;
+
+    /**
+     * The root of the file system, or NULL if nothing must be read.
+     */
+    private final Path root;
+
+    /**
+     * Bytes one process needs, or zero if memory must not be watched.
+     */
+    private final long budget;
+
+    /**
+     * The largest RSS of a process seen so far, in bytes.
+     */
+    private final AtomicLong peak;
+
+    /**
+     * When processes were looked at the last time, in milliseconds.
+     */
+    private final AtomicLong seen;
+
+    /**
+     * How many files are in progress now.
+     */
+    private int running;
+
+    /**
+     * Ctor of a throttle that only knows the number of CPUs.
+     */
+    Throttle() {
+        this(null, 0L);
+    }
+
+    /**
+     * Ctor.
+     * @param dir The root of the file system, usually {@code /}
+     * @param per Bytes one process needs, or zero if memory must not be watched
+     */
+    Throttle(final Path dir, final long per) {
+        this.root = dir;
+        this.budget = per;
+        this.peak = new AtomicLong();
+        this.seen = new AtomicLong();
+    }
+
+    @Override
+    public String toString() {
+        return String.format(
+            "%d CPU(s), %d MB of memory, %d MB per process",
+            this.cpus(), this.memory() / Throttle.KILO / Throttle.KILO,
+            this.need() / Throttle.KILO / Throttle.KILO
+        );
+    }
+
+    /**
+     * How many threads to use.
+     * @return The number of threads, at least one
+     */
+    int threads() {
+        int total = this.cpus();
+        final long free = this.memory();
+        if (this.budget > 0L && free >= 0L) {
+            total = (int) Math.max(1L, Math.min(total, free / this.need()));
+        }
+        return total;
+    }
+
+    /**
+     * How many CPUs may be used.
+     * @return The number of CPUs, at least one
+     */
+    int cpus() {
+        int cpus = Runtime.getRuntime().availableProcessors();
+        if (this.root != null) {
+            final long quota = this.quota();
+            if (quota > 0L) {
+                cpus = (int) Math.max(1L, Math.min(cpus, quota));
+            }
+        }
+        return cpus;
+    }
+
+    /**
+     * How much memory is available now.
+     * @return Bytes, or a negative number if it is not known
+     */
+    long memory() {
+        long free = -1L;
+        if (this.root != null) {
+            final String info = this.read("proc/meminfo");
+            for (final String line : info.split("\n")) {
+                if (line.startsWith("MemAvailable:")) {
+                    free = Throttle.number(line) * Throttle.KILO;
+                }
+            }
+            free = Throttle.least(
+                free,
+                this.room("sys/fs/cgroup/memory.max", "sys/fs/cgroup/memory.current")
+            );
+            free = Throttle.least(
+                free,
+                this.room(
+                    "sys/fs/cgroup/memory/memory.limit_in_bytes",
+                    "sys/fs/cgroup/memory/memory.usage_in_bytes"
+                )
+            );
+        }
+        return free;
+    }
+
+    /**
+     * The largest peak RSS of processes, which are descendants of this JVM,
+     * seen so far. Processes are looked at not more often than once a second.
+     * @return Bytes, or zero if there were no such processes
+     */
+    long rss() {
+        long max = 0L;
+        final long now = System.currentTimeMillis();
+        final long last = this.seen.get();
+        if (this.root != null && now - last >= 1000L && this.seen.compareAndSet(last, now)) {
+            for (final String pid : this.descendants()) {
+                for (final String line : this.read(String.format("proc/%s/status", pid))
+                    .split("\n")) {
+                    if (line.startsWith("VmHWM:")) {
+                        max = Math.max(max, Throttle.number(line) * Throttle.KILO);
+                    }
+                }
+            }
+        }
+        return this.peak.accumulateAndGet(max, Math::max);
+    }
+
+    /**
+     * Wait until there is enough memory to start with one more file.
+     * @throws InterruptedException If interrupted while waiting
+     */
+    void enter() throws InterruptedException {
+        synchronized (this) {
+            if (this.budget > 0L) {
+                while (this.running > 0) {
+                    final long free = this.memory();
+                    final long need = Math.max(this.need(), this.rss());
+                    if (free < 0L || free >= need) {
+                        break;
+                    }
+                    Logger.debug(
+                        this, "Only %d MB of memory available, %d MB needed, waiting...",
+                        free / Throttle.KILO / Throttle.KILO, need / Throttle.KILO / Throttle.KILO
+                    );
+                    this.wait(1000L);
+                }
+            }
+            ++this.running;
+        }
+    }
+
+    /**
+     * Finish with one file.
+     */
+    void leave() {
+        synchronized (this) {
+            --this.running;
+            this.notifyAll();
+        }
+    }
+
+    /**
+     * Bytes one process needs, by what is known so far.
+     * @return Bytes, at least one
+     */
+    private long need() {
+        return Math.max(1L, Math.max(this.budget, this.peak.get()));
+    }
+
+    /**
+     * CPU quota of the cgroup, rounded up.
+     * @return The number of CPUs, or zero if there is no quota
+     */
+    private long quota() {
+        long quota = 0L;
+        final String[] max = this.read("sys/fs/cgroup/cpu.max").trim().split(" ");
+        if (max.length == 2 && !"max".equals(max[0])) {
+            quota = Throttle.ratio(max[0], max[1]);
+        }
+        if (quota == 0L) {
+            quota = Throttle.ratio(
+                this.read("sys/fs/cgroup/cpu/cpu.cfs_quota_us").trim(),
+                this.read("sys/fs/cgroup/cpu/cpu.cfs_period_us").trim()
+            );
+        }
+        return quota;
+    }
+
+    /**
+     * Memory left in the cgroup.
+     * @param limit The file with the limit
+     * @param usage The file with the usage
+     * @return Bytes or a negative number if there is no limit
+     */
+    private long room(final String limit, final String usage) {
+        long free = -1L;
+        try {
+            final long max = Long.parseLong(this.read(limit).trim());
+            if (max < Throttle.UNLIMITED) {
+                free = Math.max(0L, max - Long.parseLong(this.read(usage).trim()));
+            }
+        } catch (final NumberFormatException ex) {
+            free = -1L;
+        }
+        return free;
+    }
+
+    /**
+     * IDs of all processes, which are descendants of this JVM.
+     * @return PIDs
+     */
+    private List<String> descendants() {
+        final List<String> found = new ArrayList<>(0);
+        final File[] all = this.root.resolve("proc").toFile().listFiles(
+            file -> file.getName().matches("[0-9]+")
+        );
+        String self = "";
+        try {
+            self = this.root.resolve("proc/self").toRealPath().getFileName().toString();
+        } catch (final IOException ex) {
+            Logger.debug(this, "Can't find the PID of this JVM: %s", ex.getMessage());
+        }
+        if (all != null && !self.isEmpty()) {
+            final Map<String, List<String>> children = new HashMap<>(0);
+            for (final File dir : all) {
+                final String stat = this.read(String.format("proc/%s/stat", dir.getName()));
+                final String[] parts = stat.substring(stat.lastIndexOf(')') + 1).trim().split(" ");
+                if (parts.length > 1) {
+                    children.computeIfAbsent(parts[1], k -> new ArrayList<>(1))
+                        .add(dir.getName());
+                }
+            }
+            final Deque<String> queue = new ArrayDeque<>(
+                children.getOrDefault(self, new ArrayList<>(0))
+            );
+            while (!queue.isEmpty()) {
+                final String pid = queue.pop();
+                found.add(pid);
+                queue.addAll(children.getOrDefault(pid, new ArrayList<>(0)));
+            }
+        }
+        return found;
+    }
+
+    /**
+     * Read the file, if it exists.
+     * @param rel The path of the file, relative to the root
+     * @return The content, or empty string if it can't be read
+     */
+    private String read(final String rel) {
+        String text = "";
+        final Path file = this.root.resolve(rel);
+        if (file.toFile().isFile()) {
+            try {
+                text = new String(Files.readAllBytes(file), StandardCharsets.UTF_8);
+            } catch (final IOException ex) {
+                Logger.debug(this, "Can't read %[file]s: %s", file, ex.getMessage());
+            }
+        }
+        return text;
+    }
+
+    /**
+     * The quota divided by the period, rounded up.
+     * @param quota The quota
+     * @param period The period
+     * @return The ratio, or zero if any of them is not a positive number
+     */
+    private static long ratio(final String quota, final String period) {
+        long ratio = 0L;
+        try {
+            final long top = Long.parseLong(quota);
+            final long bottom = Long.parseLong(period);
+            if (top > 0L && bottom > 0L) {
+                ratio = (top + bottom - 1L) / bottom;
+            }
+        } catch (final NumberFormatException ex) {
+            ratio = 0L;
+        }
+        return ratio;
+    }
+
+    /**
+     * The number in a line like {@code "MemAvailable:  1234 kB"}.
+     * @param line The line
+     * @return The number
+     */
+    private static long number(final String line) {
+        return Long.parseLong(line.replaceAll("[^0-9]", ""));
+    }
+
+    /**
+     * The least of two numbers, ignoring negative ones, which mean "unknown".
+     * @param first The first one
+     * @param second The second one
+     * @return The least one, or a negative number if both are unknown
+     */
+    private static long least(final long first, final long second) {
+        final long least;
+        if (first < 0L) {
+            least = second;
+        } else if (second < 0L) {
+            least = first;
+        } else {
+            least = Math.min(first, second);
+        }
+        return least;
+    }
+}
@@ -0,0 +1,107 @@
+/*
+ * SPDX-FileCopyrightText: Copyright (c) 2024-2026 Objectionary.com
+ * SPDX-License-Identifier: MIT
+ */
+package org.eolang.hone;
+
+/**
+ * Time budgets of files, in seconds.
+ *
+ * <p>The fixed budget is the same for every file. The adaptive one
+ * is the expected time of the file, multiplied by the factor, but not less
+ * than the floor and not more than the ceiling. The expected time
+ * is predicted by {@link Schedule}: it's either the time the file
+ * took in the previous run, or its size converted to milliseconds at the rate
+ * of files with known time. When nothing is known, the ceiling is used.</p>
+ *
+ * <p>Thus, a small class that hangs is killed in seconds, while a big one,
+ * which always takes long, still gets enough time.</p>
+ *
+ * @since 0.30.0
+ */
+final class Timeouts {
+
+    /**
+     * The maximum number of seconds.
+     */
+    private final int ceiling;
+
+    /**
+     * How many times the expected time may be exceeded, or zero if
+     * the budget is fixed.
+     */
+    private final double factor;
+
+    /**
+     * The minimum number of seconds.
+     */
+    private final int floor;
+
+    /**
+     * Ctor of the fixed budget.
+     * @param sec Seconds per file
+     */
+    Timeouts(final int sec) {
+        this(sec, 0.0d, sec);
+    }
+
+    /**
+     * Ctor.
+     * @param max The maximum number of seconds
+     * @param fct How many times the expected time may be exceeded,
+     *  or zero if the budget is fixed
+     * @param min The minimum number of seconds
+     */
+    Timeouts(final int max, final double fct, final int min) {
+        this.ceiling = max;
+        this.factor = fct;
+        this.floor = min;
+    }
+
+    @Override
+    public String toString() {
+        final String text;
+        if (this.adaptive()) {
+            text = String.format(
+                "%.1fx of expected time, %d-%d seconds",
+                this.factor, this.floor, this.ceiling
+            );
+        } else {
+            text = String.format("%d seconds", this.ceiling);
+        }
+        return text;
+    }
+
+    /**
+     * Is it adaptive?
+     * @return TRUE if budgets depend on files
+     */
+    boolean adaptive() {
+        return this.factor > 0.0d;
+    }
+
+    /**
+     * The smallest budget of all.
+     * @return Seconds
+     */
+    int minimum() {
+        return Math.min(this.floor, this.ceiling);
+    }
+
+    /**
+     * The budget of a file.
+     * @param msec Expected milliseconds of the file, or a negative number
+     *  if they are not known
+     * @return Seconds
+     */
+    int seconds(final double msec) {
+        int sec = this.ceiling;
+        if (this.adaptive() && msec >= 0.0d) {
+            sec = (int) Math.min(
+                this.ceiling,
+                Math.max(this.floor, Math.ceil(msec * this.factor / 1000.0d))
+            );
+        }
+        return sec;
+    }
+}
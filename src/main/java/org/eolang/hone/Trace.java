@@ -0,0 +1,212 @@
+/*
+ * SPDX-FileCopyrightText: Copyright (c) 2024-2026 Objectionary.com
+ * SPDX-License-Identifier: MIT
+ */
+package org.eolang.hone;
+
+import com.jcabi.log.Logger;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Trace of the optimization, file by file and stage by stage,
+ * in the Chrome trace-event format.
+ *
+ * <p>Every stage of every file, like {@code xmir-to-phi} or
+ * {@code rewrite}, is a "complete" event, on the thread that did it, with
+ * its start and duration in microseconds. The time a file waited for
+ * a thread is the {@code queue} event, while a timeout, after which phino
+ * is killed, is an "instant" event. The file may be opened in
+ * {@code chrome://tracing} or in <a href="https://ui.perfetto.dev">Perfetto</a>,
+ * to see how busy the threads were, which files took the longest,
+ * and where the threads were idle.</p>
+ *
+ * <p>Events are kept in memory and saved all at once,
+ * by {@link #save()}. The trace made by the default ctor is disabled: it
+ * doesn't keep any events and doesn't save anything.</p>
+ *
+ * @since 0.30.0
+ */
+final class Trace {
+
+    /**
+     * The JSON file, or NULL if disabled.
+     */
+    private final Path path;
+
+    /**
+     * When the trace started, in nanoseconds.
+     */
+    private final long zero;
+
+    /**
+     * Events, as JSON objects.
+     */
+    private final List<String> events;
+
+    /**
+     * Numbers of threads, by their IDs.
+     */
+    private final Map<Long, Integer> threads;
+
+    /**
+     * Ctor of a disabled trace.
+     */
+    Trace() {
+        this(null);
+    }
+
+    /**
+     * Ctor.
+     * @param json The JSON file to save the trace to
+     */
+    Trace(final Path json) {
+        this.path = json;
+        this.zero = System.nanoTime();
+        this.events = new ArrayList<>(0);
+        this.threads = new LinkedHashMap<>(0);
+    }
+
+    @Override
+    public String toString() {
+        final String text;
+        if (this.enabled()) {
+            text = this.path.toString();
+        } else {
+            text = "disabled";
+        }
+        return text;
+    }
+
+    /**
+     * Is it enabled?
+     * @return TRUE if enabled
+     */
+    boolean enabled() {
+        return this.path != null;
+    }
+
+    /**
+     * Current time, since the start of the trace.
+     * @return Microseconds
+     */
+    long now() {
+        return TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - this.zero);
+    }
+
+    /**
+     * Record a stage, which started at the given time and finishes now,
+     * on the current thread.
+     * @param name The name of the stage, like {@code "rewrite"}
+     * @param subject The file or the module
+     * @param start When it started, see {@link #now()}
+     */
+    void span(final String name, final Object subject, final long start) {
+        if (this.enabled()) {
+            final long end = this.now();
+            this.add(
+                String.format(
+                    "{\"name\":\"%s\",\"cat\":\"hone\",\"ph\":\"X\",\"ts\":%d,\"dur\":%d,\"pid\":1,\"tid\":%d,\"args\":{\"file\":\"%s\"}}",
+                    Trace.escaped(name), start, Math.max(0L, end - start),
+                    this.thread(), Trace.escaped(subject.toString())
+                )
+            );
+        }
+    }
+
+    /**
+     * Record an event without duration, on the current thread.
+     * @param name The name of the event, like {@code "timeout"}
+     * @param subject The file or the module
+     */
+    void instant(final String name, final Object subject) {
+        if (this.enabled()) {
+            this.add(
+                String.format(
+                    "{\"name\":\"%s\",\"cat\":\"hone\",\"ph\":\"i\",\"s\":\"t\",\"ts\":%d,\"pid\":1,\"tid\":%d,\"args\":{\"file\":\"%s\"}}",
+                    Trace.escaped(name), this.now(), this.thread(),
+                    Trace.escaped(subject.toString())
+                )
+            );
+        }
+    }
+
+    /**
+     * Save all events to the JSON file.
+     * @throws IOException If fails
+     */
+    void save() throws IOException {
+        if (this.enabled()) {
+            final StringBuilder json = new StringBuilder(0)
+                .append("{\"displayTimeUnit\":\"ms\",\"traceEvents\":[\n");
+            synchronized (this.events) {
+                json.append(String.join(",\n", this.events));
+                json.append("\n]}\n");
+                Files.write(this.path, json.toString().getBytes(StandardCharsets.UTF_8));
+                Logger.info(
+                    this, "Trace of %d event(s) in %d thread(s) saved to %[file]s",
+                    this.events.size(), this.threads.size(), this.path
+                );
+            }
+        }
+    }
+
+    /**
+     * Add an event.
+     * @param event The JSON object
+     */
+    private void add(final String event) {
+        synchronized (this.events) {
+            this.events.add(event);
+        }
+    }
+
+    /**
+     * The number of the current thread, naming it in the trace
+     * when it is met for the first time.
+     * @return The number
+     */
+    private int thread() {
+        final Thread current = Thread.currentThread();
+        synchronized (this.events) {
+            Integer num = this.threads.get(current.getId());
+            if (num == null) {
+                num = this.threads.size() + 1;
+                this.threads.put(current.getId(), num);
+                this.events.add(
+                    String.format(
+                        "{\"name\":\"thread_name\",\"ph\":\"M\",\"pid\":1,\"tid\":%d,\"args\":{\"name\":\"%s\"}}",
+                        num, Trace.escaped(current.getName())
+                    )
+                );
+            }
+            return num;
+        }
+    }
+
+    /**
+     * Escape the text for JSON.
+     * @param text The text
+     * @return Escaped text
+     */
+    private static String escaped(final String text) {
+        final StringBuilder out = new StringBuilder(text.length());
+        for (final char chr : text.toCharArray()) {
+            if (chr == '"' || chr == '\\') {
+                out.append('\\').append(chr);
+            } else if (chr < ' ') {
+                out.append(String.format("\\u%04x", (int) chr));
+            } else {
+                out.append(chr);
+            }
+        }
+        return out.toString();
+    }
+}
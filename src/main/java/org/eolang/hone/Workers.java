@@ -0,0 +1,288 @@
+/*
+ * SPDX-FileCopyrightText: Copyright (c) 2024-2026 Objectionary.com
+ * SPDX-License-Identifier: MIT
+ */
+package org.eolang.hone;
+
+import com.jcabi.log.Logger;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * A pool of phino processes, all with the same arguments, started ahead
+ * of time and waiting for their input on stdin.
+ *
+ * <p>Every call of {@code phino rewrite} pays for the start of the GHC
+ * runtime and for the parsing of all rules it gets. Phino doesn't have
+ * a server mode, where one process could rewrite many files, that's
+ * why every file still needs its own process. However, since the
+ * arguments don't depend on the file, the process may be started before
+ * the file is ready. When a file arrives, a spare process is taken
+ * from the pool, a new one is started to replace it, and the file is
+ * sent to the stdin of the taken one. Thus, the start-up of the next
+ * process overlaps with the rewriting of the current file.</p>
+ *
+ * <p>If the size of the pool is zero, no processes are started ahead
+ * of time and the file is given to phino as an argument, exactly the way
+ * the {@code rewrite.sh} script does it. This is not so, when the input
+ * is in memory: it always goes through stdin.</p>
+ *
+ * @since 0.30.0
+ */
+final class Workers implements Closeable {
+
+    /**
+     * Milliseconds to wait for the rest of stdout, after the process exits.
+     */
+    private static final long GRACE = TimeUnit.SECONDS.toMillis(10L);
+
+    /**
+     * The phino.
+     */
+    private final Phino phino;
+
+    /**
+     * Arguments for all processes.
+     */
+    private final List<String> args;
+
+    /**
+     * How many spare processes to keep.
+     */
+    private final int size;
+
+    /**
+     * Spare processes, waiting for their input.
+     */
+    private final BlockingQueue<Process> spares;
+
+    /**
+     * Threads that move bytes to and from processes.
+     */
+    private final ExecutorService pumps;
+
+    /**
+     * Ctor.
+     * @param phn The phino
+     * @param opts Arguments for all processes, after {@code rewrite}
+     * @param total How many spare processes to keep, zero means none
+     */
+    Workers(final Phino phn, final List<String> opts, final int total) {
+        this.phino = phn;
+        this.args = Collections.unmodifiableList(new ArrayList<>(opts));
+        this.size = total;
+        this.spares = new LinkedBlockingQueue<>();
+        this.pumps = Executors.newCachedThreadPool(
+            job -> {
+                final Thread thread = new Thread(job, "hone-pump");
+                thread.setDaemon(true);
+                return thread;
+            }
+        );
+    }
+
+    /**
+     * Rewrite one file.
+     * @param input The file to rewrite
+     * @param output The file to save the result to
+     * @param deadline Time in milliseconds since the epoch, when to give up
+     * @throws IOException If fails
+     * @throws TimeoutException If the deadline passes
+     */
+    void rewrite(final Path input, final Path output, final long deadline)
+        throws IOException, TimeoutException {
+        if (this.size == 0) {
+            final List<String> opts = new ArrayList<>(this.args);
+            opts.add(input.toString());
+            this.phino.rewrite(opts, output, deadline);
+        } else {
+            try (
+                InputStream src = Files.newInputStream(input);
+                OutputStream dest = Files.newOutputStream(output)
+            ) {
+                this.feed(this.next(), src, dest, deadline);
+            }
+        }
+    }
+
+    /**
+     * Rewrite one text, which is in memory.
+     * @param input The text to rewrite
+     * @param deadline Time in milliseconds since the epoch, when to give up
+     * @return The result
+     * @throws IOException If fails
+     * @throws TimeoutException If the deadline passes
+     */
+    byte[] rewrite(final byte[] input, final long deadline)
+        throws IOException, TimeoutException {
+        final ByteArrayOutputStream dest = new ByteArrayOutputStream(input.length);
+        this.feed(this.next(), new ByteArrayInputStream(input), dest, deadline);
+        return dest.toByteArray();
+    }
+
+    /**
+     * How many spare processes are waiting now.
+     * @return The number
+     */
+    int spare() {
+        return this.spares.size();
+    }
+
+    @Override
+    public void close() {
+        final List<Process> left = new ArrayList<>(this.spares.size());
+        this.spares.drainTo(left);
+        for (final Process proc : left) {
+            proc.destroy();
+        }
+        this.pumps.shutdownNow();
+        if (!left.isEmpty()) {
+            Logger.debug(this, "Stopped %d spare phino process(es)", left.size());
+        }
+    }
+
+    /**
+     * Get the process to feed and make sure there are enough spares.
+     * @return The process
+     * @throws IOException If fails
+     */
+    private Process next() throws IOException {
+        final Process proc = this.take();
+        this.refill();
+        return proc;
+    }
+
+    /**
+     * Take a live spare process, or start a new one if there are none.
+     * @return The process
+     * @throws IOException If fails
+     */
+    private Process take() throws IOException {
+        Process proc = this.spares.poll();
+        while (proc != null && !proc.isAlive()) {
+            Logger.debug(this, "Spare phino process is dead, exit code %d", proc.exitValue());
+            proc = this.spares.poll();
+        }
+        if (proc == null) {
+            proc = this.phino.start(this.args);
+        }
+        return proc;
+    }
+
+    /**
+     * Start new spare processes, until there are enough of them.
+     * @throws IOException If fails
+     */
+    private void refill() throws IOException {
+        while (this.spares.size() < this.size) {
+            final Process proc = this.phino.start(this.args);
+            if (!this.spares.offer(proc)) {
+                proc.destroy();
+            }
+        }
+    }
+
+    /**
+     * Send the input to the process and save what it prints.
+     * @param proc The process
+     * @param input What to send to stdin
+     * @param output Where to save stdout
+     * @param deadline Time in milliseconds since the epoch, when to give up
+     * @throws IOException If fails
+     * @throws TimeoutException If the deadline passes
+     */
+    private void feed(final Process proc, final InputStream input, final OutputStream output,
+        final long deadline) throws IOException, TimeoutException {
+        final Future<?> writer = this.pumps.submit(
+            () -> {
+                try (OutputStream stdin = proc.getOutputStream()) {
+                    Workers.pump(input, stdin);
+                }
+                return null;
+            }
+        );
+        final Future<?> reader = this.pumps.submit(
+            () -> {
+                try (InputStream stdout = proc.getInputStream()) {
+                    Workers.pump(stdout, output);
+                }
+                return null;
+            }
+        );
+        try {
+            try {
+                Phino.await(proc, deadline, this.args);
+            } finally {
+                writer.cancel(true);
+            }
+            this.drain(reader);
+        } finally {
+            reader.cancel(true);
+        }
+    }
+
+    /**
+     * Wait until the rest of stdout is read, after the process exited.
+     *
+     * <p>The process finished in time, that's why the deadline doesn't
+     * matter here anymore, while the output may still be in the pipe.</p>
+     * @param reader The job that reads stdout
+     * @throws IOException If fails or takes too long
+     */
+    private void drain(final Future<?> reader) throws IOException {
+        try {
+            reader.get(Workers.GRACE, TimeUnit.MILLISECONDS);
+        } catch (final InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IOException(ex);
+        } catch (final ExecutionException ex) {
+            throw new IOException(
+                String.format("Failed to read the output of phino %s", this.args),
+                ex.getCause()
+            );
+        } catch (final TimeoutException ex) {
+            throw new IOException(
+                String.format(
+                    "The output of phino %s was not read in %d ms after it exited",
+                    this.args, Workers.GRACE
+                ),
+                ex
+            );
+        }
+    }
+
+    /**
+     * Copy all bytes from one stream to another.
+     * @param input Where to read from
+     * @param output Where to write to
+     * @throws IOException If fails
+     */
+    private static void pump(final InputStream input, final OutputStream output)
+        throws IOException {
+        final byte[] buf = new byte[1 << 16];
+        while (true) {
+            final int len = input.read(buf);
+            if (len < 0) {
+                break;
+            }
+            output.write(buf, 0, len);
+        }
+    }
+}
@@ -88,8 +88,22 @@ after the 'compile' phase is finished; this is what is in the '${TARGET}' direct
 fi
 
 # In order to save them "as is", just in case:
-cp -R "${TARGET}/${CLASSES}" "${TARGET}/classes-before-hone"
-echo "The binaries before hone are saved in '${TARGET}/classes-before-hone' ($(find "${TARGET}/classes-before-hone" -print | wc -l | xargs) files)"
+before="${TARGET}/classes-before-hone"
+case "${SNAPSHOT}" in
+  copy)
+    cp -R "${TARGET}/${CLASSES}" "${before}"
+    ;;
+  changed)
+    rm -rf "${before}"
+    mkdir -p "${before}"
+    ;;
+  *)
+    rm -rf "${before}"
+    cp -R --reflink=auto "${TARGET}/${CLASSES}" "${before}" \
+      || cp -R "${TARGET}/${CLASSES}" "${before}"
+    ;;
+esac
+echo "The binaries before hone are saved in '${before}' ($(find "${before}" -print | wc -l | xargs) files)"
 
 if [ -z "${PHINO_VERSION}" ]; then
   echo "PHINO_VERSION is not set"
@@ -230,6 +244,7 @@ if [ "${SKIP_PHINO}" != 'true' ]; then
   export HONE_MAX_DEPTH="${MAX_DEPTH}"
   export HONE_MAX_CYCLES="${MAX_CYCLES}"
   export HONE_THREADS="${THREADS}"
+  export HONE_MEMORY_PER_THREAD="${MEMORY_PER_THREAD:-0}"
   export HONE_TIMEOUT="${TIMEOUT}"
   export HONE_STATISTICS
   start=$(date '+%s.%N')
@@ -240,6 +255,23 @@ if [ "${SKIP_PHINO}" != 'true' ]; then
   record_timing "phino:rewrite (default-cli)" "$(elapsed "${start}")"
 fi
 
+if [ "${SNAPSHOT}" == 'changed' ]; then
+  xmirs="${TARGET}/hone/unphi"
+  if [ "${SKIP_PHINO}" == 'true' ]; then
+    xmirs="${TARGET}/hone/jeo-disassemble"
+  fi
+  if [ -d "${xmirs}" ]; then
+    while IFS= read -r x; do
+      c="${x%.xmir}.class"
+      if [ -f "${TARGET}/${CLASSES}/${c}" ]; then
+        mkdir -p "$(dirname "${before}/${c}")"
+        cp -p "${TARGET}/${CLASSES}/${c}" "${before}/${c}"
+      fi
+    done < <(cd "${xmirs}" && find . -name '*.xmir' -type f | sed 's|^\./||')
+  fi
+  echo "The binaries about to be assembled are saved in '${before}' ($(find "${before}" -type f -print | wc -l | xargs) files)"
+fi
+
 start=$(date '+%s.%N')
 (
   set -x
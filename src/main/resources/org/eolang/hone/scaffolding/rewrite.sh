@@ -44,7 +44,7 @@ function verbose {
 function statistics_header {
   if [ "${HONE_STATISTICS}" == 'true' ]; then
     local csv="${1}"
-    echo "ID,Before,After,Changed,LinesPerSec" > "${csv}"
+    echo "ID,Before,After,Changed,LinesPerSec,Outcome" > "${csv}"
   fi
 }
 
@@ -99,6 +99,7 @@ function rewrite {
     fi
     if [ "${rc}" -ne 0 ]; then
       cp "${xi}" "${xo}"
+      statistics_row "${statistics_csv}" "${idx},\"${phi}\",\"${pho}\",0,0,grep-skipped"
       echo "No grep-in match for ${idx} $(basename "${xi}") ($(du -sh "${xi}" | cut -f1)), skipping"
       return
     fi
@@ -134,15 +135,19 @@ function rewrite {
   s_lines=$(wc -l < "${pho}" | xargs)
   per=$(perl -E "say int(${s_lines} / ($(date '+%s.%N') - ${start}))")
   changed=0
+  outcome=unchanged
   if cmp -s "${phi}" "${pho}"; then
     echo "No changes in ${idx} $(basename "${pho}"): ${s_size}, ${s_lines} lines, ${per} lps"
   else
     changed=$(diff "${phi}" "${pho}" | grep -cE '^[><]' || true)
+    outcome=optimized
     echo "Modified ${idx} $(basename "${phi}") (${s_size}): ${changed}/${s_lines} lines changed, ${per} lps"
   fi
-  statistics_row "${statistics_csv}" "${idx},\"${phi}\",\"${pho}\",${changed},${per}"
   phino rewrite "${phinopts[@]}" --output=xmir --omit-listing --omit-comments "${pho}" > "${xo}"
   verbose "Converted PHI to ${idx} $(basename "${xo}") ($(du -sh "${xo}" | cut -f1))"
+  # Only now, when the XMIR is here, since a timeout or a failure of the
+  # conversion above adds its own row for this file:
+  statistics_row "${statistics_csv}" "${idx},\"${phi}\",\"${pho}\",${changed},${per},${outcome}"
   if cmp -s "${xi}" "${xo}"; then
     verbose "No changes made to ${idx} $(basename "${xi}")"
   else
@@ -172,6 +177,16 @@ function rewrite_with_timeout {
   xo=${5}
   start=$(date '+%s.%N')
   code=0
+  # Don't start a new phino while memory is short, since other workers
+  # will most probably release some of it soon; but don't wait forever.
+  if [ "${HONE_WAIT_FOR_MEMORY}" == 'true' ] && [ -e /proc/meminfo ]; then
+    for _ in $(seq 1 60); do
+      free=$(awk '/^MemAvailable:/ { print int($2 / 1024) }' /proc/meminfo)
+      [ "${free}" -ge "${HONE_MEMORY_PER_THREAD}" ] && break
+      verbose "Only ${free} Mb of memory available, waiting before ${idx}..."
+      sleep 1
+    done
+  fi
   # GNU "timeout" sends its signal only to its direct child (the bash
   # re-invocation of this script), not to the phino process that the "rewrite"
   # function launches in the foreground. On timeout that phino is reparented to
@@ -209,11 +224,13 @@ function rewrite_with_timeout {
     rm -f "${flag}"
     sec=$(perl -E "say int($(date '+%s.%N') - ${start})")
     echo "Timeout in ${idx} $(basename "${xi}") ($(du -sh "${xi}" | cut -f1)) after ${sec} seconds"
+    statistics_row "${statistics_csv}" "${idx},\"${phi}\",\"${pho}\",0,0,timeout"
     cp "${xi}" "${xo}"
   elif [ "${code}" -ne 0 ]; then
     rm -f "${flag}"
     sec=$(perl -E "say int($(date '+%s.%N') - ${start})")
     echo "Failure (exit code ${code}) in ${idx} $(basename "${xi}") ($(du -sh "${xi}" | cut -f1)) after ${sec} seconds; refusing to copy it through unoptimized" >&2
+    statistics_row "${statistics_csv}" "${idx},\"${phi}\",\"${pho}\",0,0,failed"
     exit "${code}"
   else
     rm -f "${flag}"
@@ -294,7 +311,7 @@ files=$(find "$("${RP}" "${HONE_XMIR_IN}")" -name '*.xmir' -type f -exec "${RP}"
 total=$(echo "${files}" | wc -l | xargs)
 tasks=${TARGET}/hone-tasks.txt
 mkdir -p "$(dirname "${tasks}")"
-rm -f "${tasks}"
+rm -f "${tasks}" "${tasks}.sizes"
 verbose "Found ${total} XMIR file(s) to process"
 idx=0
 while IFS= read -r f; do
@@ -305,13 +322,34 @@ while IFS= read -r f; do
   xi="${HONE_XMIR_IN}/${f}.xmir"
   xo="${HONE_XMIR_OUT}/${f}.xmir"
   i="${idx}/${total}"
-  printf "%s rewrite_with_timeout %s %s %s %s %s\n" "${0@Q}" "${i@Q}" "${phi@Q}" "${pho@Q}" "${xi@Q}" "${xo@Q}" >> "${tasks}"
+  printf "%s\t%s rewrite_with_timeout %s %s %s %s %s\n" "$(wc -c < "${xi}" | xargs)" "${0@Q}" "${i@Q}" "${phi@Q}" "${pho@Q}" "${xi@Q}" "${xo@Q}" >> "${tasks}.sizes"
 done <<< "${files}"
+# The largest files go first, in order not to wait for one of them at the end:
+LC_ALL=C sort -t "$(printf '\t')" -k1,1nr -s "${tasks}.sizes" | cut -f2- > "${tasks}"
+rm -f "${tasks}.sizes"
 
 threads=${HONE_THREADS}
 if [ -z "${threads}" ] || [ "${threads}" == '0' ]; then
   threads=$(nproc)
-  echo "Using ${threads} threads, by the number of CPU cores"
+  if [ -f /sys/fs/cgroup/cpu.max ]; then
+    read -r quota period < /sys/fs/cgroup/cpu.max
+    if [ "${quota}" != 'max' ] && [ "${period}" -gt 0 ]; then
+      quota=$(( (quota + period - 1) / period ))
+      if [ "${quota}" -lt "${threads}" ]; then
+        threads=${quota}
+      fi
+    fi
+  fi
+  if [ "${HONE_MEMORY_PER_THREAD:-0}" -gt 0 ] && [ -e /proc/meminfo ]; then
+    room=$(awk -v per="${HONE_MEMORY_PER_THREAD}" '/^MemAvailable:/ { print int($2 / 1024 / per) }' /proc/meminfo)
+    if [ "${room}" -lt 1 ]; then
+      room=1
+    fi
+    if [ "${room}" -lt "${threads}" ]; then
+      threads=${room}
+    fi
+  fi
+  echo "Using ${threads} threads, by the number of CPU cores and available memory"
 fi
 
 start=$(date '+%s.%N')
@@ -326,6 +364,9 @@ else
     exit 1
   fi
   echo "Starting to rewrite ${total} file(s) in ${threads} thread(s)..."
+  if [ "${HONE_MEMORY_PER_THREAD:-0}" -gt 0 ]; then
+    export HONE_WAIT_FOR_MEMORY=true
+  fi
   export PARALLEL_HOME=${TARGET}/parallel
   mkdir -p "${PARALLEL_HOME}"
   parallel --record-env
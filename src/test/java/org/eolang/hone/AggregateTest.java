@@ -0,0 +1,55 @@
+/*
+ * SPDX-FileCopyrightText: Copyright (c) 2024-2026 Objectionary.com
+ * SPDX-License-Identifier: MIT
+ */
+package org.eolang.hone;
+
+import com.yegor256.Mktmp;
+import com.yegor256.MktmpResolver;
+import java.nio.file.Path;
+import java.util.Collections;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+/**
+ * Test case for {@link Aggregate}.
+ * @since 0.30.0
+ */
+@ExtendWith(MktmpResolver.class)
+final class AggregateTest {
+
+    @Test
+    void countsOptimizedFilesAndOutcomes(@Mktmp final Path temp) throws Exception {
+        final Path file = temp.resolve("hone-statistics.csv");
+        final Statistics stats = new Statistics(file);
+        stats.start();
+        stats.row("1/3", temp.resolve("a.phi"), temp.resolve("b.phi"), 3, 10L, 100L);
+        stats.row("2/3", temp.resolve("c.phi"), temp.resolve("d.phi"), 0, 10L, 300L);
+        stats.row(
+            "3/3", temp.resolve("e.phi"), temp.resolve("f.phi"),
+            Collections.singletonMap("Outcome", Statistics.GREP_SKIPPED)
+        );
+        final Aggregate agg = new Aggregate().read(file);
+        MatcherAssert.assertThat(
+            "one file must be optimized, of all three, with three outcomes",
+            String.format("%d/%d %s", agg.optimized(), agg.rows(), agg.outcomes()),
+            Matchers.equalTo("1/3 {grep-skipped=1, optimized=1, unchanged=1}")
+        );
+    }
+
+    @Test
+    void ignoresSkippedFilesInPercentiles(@Mktmp final Path temp) throws Exception {
+        final Path file = temp.resolve("hone-statistics.csv");
+        final Statistics stats = new Statistics(file);
+        stats.start();
+        stats.row("1/2", temp.resolve("a.phi"), temp.resolve("b.phi"), 3, 10L, 40L);
+        stats.hit("2/2", temp.resolve("c.phi"), temp.resolve("d.phi"), 1);
+        MatcherAssert.assertThat(
+            "the median must be the time of the only rewritten file",
+            new Aggregate().read(file).percentile(50.0d),
+            Matchers.is(40L)
+        );
+    }
+}
@@ -0,0 +1,52 @@
+/*
+ * SPDX-FileCopyrightText: Copyright (c) 2024-2026 Objectionary.com
+ * SPDX-License-Identifier: MIT
+ */
+package org.eolang.hone;
+
+import com.yegor256.Mktmp;
+import com.yegor256.MktmpResolver;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collections;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+/**
+ * Test case for {@link BenchMojo}.
+ * @since 0.30.0
+ */
+@ExtendWith(MktmpResolver.class)
+final class BenchMojoTest {
+
+    @Test
+    void putsOriginalClassesBeforeOutputDirectoryGivenDifferently(
+        @Mktmp final Path temp) throws Exception {
+        final Path bin = Files.createDirectories(temp.resolve("target/classes"));
+        final Path tests = Files.createDirectories(temp.resolve("target/test-classes"));
+        final Path before = temp.resolve("target/classes-before-hone");
+        final Path entry = temp.resolve("target/test-classes/../classes");
+        MatcherAssert.assertThat(
+            "classes before optimization must go right before the output directory",
+            BenchMojo.original(Arrays.asList(tests, entry), bin, before),
+            Matchers.contains(tests, before, entry)
+        );
+    }
+
+    @Test
+    void failsWhenOutputDirectoryIsNotInClasspath(@Mktmp final Path temp) throws Exception {
+        final Path tests = Files.createDirectories(temp.resolve("target/test-classes"));
+        Assertions.assertThrows(
+            IllegalStateException.class,
+            () -> BenchMojo.original(
+                Collections.singletonList(tests), temp.resolve("target/classes"),
+                temp.resolve("target/classes-before-hone")
+            ),
+            "the benchmark must not run the optimized classes twice"
+        );
+    }
+}
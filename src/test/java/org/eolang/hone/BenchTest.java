@@ -0,0 +1,130 @@
+/*
+ * SPDX-FileCopyrightText: Copyright (c) 2024-2026 Objectionary.com
+ * SPDX-License-Identifier: MIT
+ */
+package org.eolang.hone;
+
+import com.yegor256.Mktmp;
+import com.yegor256.MktmpResolver;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+/**
+ * Test case for {@link Bench}.
+ * @since 0.30.0
+ */
+@ExtendWith(MktmpResolver.class)
+final class BenchTest {
+
+    @Test
+    void findsBetterThroughput(@Mktmp final Path dir) throws IOException {
+        final List<List<String>> rows = new Bench(
+            BenchTest.jmh(dir.resolve("before.csv"), "thrpt", 100.0, 2.0),
+            BenchTest.jmh(dir.resolve("after.csv"), "thrpt", 150.0, 3.0)
+        ).rows();
+        MatcherAssert.assertThat(
+            "the higher throughput must be better, while the allocation rate is the same",
+            rows,
+            Matchers.equalTo(
+                Arrays.asList(
+                    Arrays.asList(
+                        "org.foo.Main.run", "thrpt", "ops/s",
+                        "100.000", "2.000", "150.000", "3.000", "+50.0%", "better"
+                    ),
+                    Arrays.asList(
+                        "org.foo.Main.run:gc.alloc.rate.norm", "thrpt", "B/op",
+                        "48.000", "0.001", "48.000", "0.001", "+0.0%", "same"
+                    )
+                )
+            )
+        );
+    }
+
+    @Test
+    void findsWorseTime(@Mktmp final Path dir) throws IOException {
+        MatcherAssert.assertThat(
+            "the longer time must be worse",
+            new Bench(
+                BenchTest.jmh(dir.resolve("a.csv"), "avgt", 10.0, 0.5),
+                BenchTest.jmh(dir.resolve("b.csv"), "avgt", 12.0, 0.5)
+            ).rows().get(0).get(8),
+            Matchers.equalTo("worse")
+        );
+    }
+
+    @Test
+    void findsSameScoresWithinErrors(@Mktmp final Path dir) throws IOException {
+        MatcherAssert.assertThat(
+            "overlapping confidence intervals must give the same verdict",
+            new Bench(
+                BenchTest.jmh(dir.resolve("x.csv"), "thrpt", 100.0, 8.0),
+                BenchTest.jmh(dir.resolve("y.csv"), "thrpt", 110.0, 8.0)
+            ).rows().get(0).get(8),
+            Matchers.equalTo("same")
+        );
+    }
+
+    @Test
+    void savesComparison(@Mktmp final Path dir) throws IOException {
+        final Path csv = dir.resolve("hone-bench.csv");
+        new Bench(
+            BenchTest.jmh(dir.resolve("1.csv"), "thrpt", 1.0, 0.1),
+            BenchTest.jmh(dir.resolve("2.csv"), "thrpt", 2.0, 0.1)
+        ).save(csv);
+        MatcherAssert.assertThat(
+            "the comparison must be saved in CSV, one row per benchmark",
+            new CSV(csv).size(),
+            Matchers.equalTo(2)
+        );
+    }
+
+    /**
+     * Make a CSV of JMH, with one benchmark and its allocation rate.
+     * @param csv The file
+     * @param mode The mode
+     * @param score The score
+     * @param error The error of the score
+     * @return The file
+     * @throws IOException If fails
+     * @checkstyle ParameterNumberCheck (5 lines)
+     */
+    private static Path jmh(final Path csv, final String mode, final double score,
+        final double error) throws IOException {
+        Files.write(
+            csv,
+            String.join(
+                "\n",
+                "\"Benchmark\",\"Mode\",\"Threads\",\"Samples\",\"Score\",\"Score Error (99.9%)\",\"Unit\"",
+                String.format(
+                    Locale.ENGLISH,
+                    "\"org.foo.Main.run\",\"%s\",1,5,%f,%f,\"ops/s\"", mode, score, error
+                ),
+                String.format(
+                    Locale.ENGLISH,
+                    "\"org.foo.Main.run:·gc.alloc.rate\",\"%s\",1,5,%f,%f,\"MB/sec\"",
+                    mode, score * 3.0, error
+                ),
+                String.format(
+                    Locale.ENGLISH,
+                    "\"org.foo.Main.run:·gc.alloc.rate.norm\",\"%s\",1,5,48.0,0.001,\"B/op\"",
+                    mode
+                ),
+                String.format(
+                    Locale.ENGLISH,
+                    "\"org.foo.Main.run:·gc.count\",\"%s\",1,5,0.0,NaN,\"counts\"", mode
+                ),
+                ""
+            ).getBytes(StandardCharsets.UTF_8)
+        );
+        return csv;
+    }
+}
@@ -0,0 +1,48 @@
+/*
+ * SPDX-FileCopyrightText: Copyright (c) 2024-2026 Objectionary.com
+ * SPDX-License-Identifier: MIT
+ */
+package org.eolang.hone;
+
+import java.util.Arrays;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test case for {@link Blocks}.
+ * @since 0.30.0
+ */
+final class BlocksTest {
+
+    @Test
+    void groupsRulesByDirectories() {
+        final Blocks blocks = new Blocks(
+            Arrays.asList(
+                "/r/33-to-42.yml",
+                "/r/streams/1xx/101-a.phr",
+                "/r/streams/1xx/102-b.phr",
+                "/r/streams/3xx/301-c.phr"
+            )
+        );
+        MatcherAssert.assertThat(
+            "blocks must go in the order of their rules",
+            blocks.names(),
+            Matchers.contains("", "1xx", "3xx")
+        );
+        MatcherAssert.assertThat(
+            "the block must have all its rules",
+            blocks.rules("1xx"),
+            Matchers.contains("/r/streams/1xx/101-a.phr", "/r/streams/1xx/102-b.phr")
+        );
+    }
+
+    @Test
+    void findsBlockByNameOfRule() {
+        MatcherAssert.assertThat(
+            "the block must be found by the first digit of the rule",
+            Arrays.asList(Blocks.name("/x/405-fuse.yml"), Blocks.name("/x/none.yml")),
+            Matchers.contains("4xx", "")
+        );
+    }
+}
@@ -0,0 +1,39 @@
+/*
+ * SPDX-FileCopyrightText: Copyright (c) 2024-2026 Objectionary.com
+ * SPDX-License-Identifier: MIT
+ */
+package org.eolang.hone;
+
+import java.util.Arrays;
+import java.util.Collections;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test case for {@link Budget}.
+ * @since 0.30.0
+ */
+final class BudgetTest {
+
+    @Test
+    void buildsPhinoArguments() {
+        MatcherAssert.assertThat(
+            "cycles and depth must be passed to phino",
+            new Budget(3, 500).args(),
+            Matchers.contains("--max-cycles", "3", "--max-depth", "500")
+        );
+    }
+
+    @Test
+    void givesOwnBudgetsToBlocks() {
+        final Budget budget = new Budget(
+            1, 500, Collections.singletonMap("3xx", new Budget(4, 100))
+        );
+        MatcherAssert.assertThat(
+            "the block must have its own budget, while others have the common one",
+            Arrays.asList(budget.of("3xx").toString(), budget.of("1xx").toString()),
+            Matchers.contains("4/100", "1/500 3xx=4/100")
+        );
+    }
+}
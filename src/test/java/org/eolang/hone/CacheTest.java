@@ -0,0 +1,115 @@
+/*
+ * SPDX-FileCopyrightText: Copyright (c) 2024-2026 Objectionary.com
+ * SPDX-License-Identifier: MIT
+ */
+package org.eolang.hone;
+
+import com.yegor256.Mktmp;
+import com.yegor256.MktmpResolver;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collections;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+/**
+ * Test case for {@link Cache}.
+ * @since 0.30.0
+ */
+@ExtendWith(MktmpResolver.class)
+final class CacheTest {
+
+    @Test
+    void findsWhatWasSaved(@Mktmp final Path temp) throws Exception {
+        final Cache cache = new Cache(temp, 1024L * 1024L, "salt");
+        final String key = cache.key("original".getBytes(StandardCharsets.UTF_8));
+        cache.save(key, new Cache.Entry("optimized".getBytes(StandardCharsets.UTF_8), 7));
+        final Cache.Entry entry = cache.load(key);
+        MatcherAssert.assertThat(
+            "saved bytes must be found",
+            new String(entry.bytes(), StandardCharsets.UTF_8),
+            Matchers.equalTo("optimized")
+        );
+        MatcherAssert.assertThat(
+            "the number of changed lines must be found",
+            entry.changed(),
+            Matchers.is(7)
+        );
+    }
+
+    @Test
+    void returnsNullWhenAbsent(@Mktmp final Path temp) throws Exception {
+        MatcherAssert.assertThat(
+            "absent entry must not be found",
+            new Cache(temp, 1024L, "x").load(new Cache(temp, 1024L, "x").key(new byte[] {1})),
+            Matchers.nullValue()
+        );
+    }
+
+    @Test
+    void makesDifferentKeysForDifferentRules(@Mktmp final Path temp) throws Exception {
+        final Path rule = temp.resolve("rule.yml");
+        Files.write(rule, "name: a".getBytes(StandardCharsets.UTF_8));
+        final String first = Cache.salt(Collections.singletonList(rule.toString()), "v1");
+        Files.write(rule, "name: b".getBytes(StandardCharsets.UTF_8));
+        final String second = Cache.salt(Collections.singletonList(rule.toString()), "v1");
+        MatcherAssert.assertThat(
+            "keys must differ when rules differ",
+            new Cache(temp, 1L, first).key(new byte[] {42}),
+            Matchers.not(Matchers.equalTo(new Cache(temp, 1L, second).key(new byte[] {42})))
+        );
+    }
+
+    @Test
+    void evictsLeastRecentlyUsed(@Mktmp final Path temp) throws Exception {
+        final Cache cache = new Cache(temp, 150L, "");
+        final String old = cache.key(new byte[] {1});
+        final String fresh = cache.key(new byte[] {2});
+        cache.save(old, new Cache.Entry(new byte[100], 0));
+        cache.save(fresh, new Cache.Entry(new byte[100], 0));
+        temp.resolve(old.substring(0, 2)).resolve(old).toFile().setLastModified(1000L);
+        cache.evict();
+        MatcherAssert.assertThat(
+            "the oldest entry must be deleted",
+            cache.load(old),
+            Matchers.nullValue()
+        );
+        MatcherAssert.assertThat(
+            "the freshest entry must stay",
+            cache.load(fresh),
+            Matchers.notNullValue()
+        );
+    }
+
+    @Test
+    void keepsEntriesBeingSaved(@Mktmp final Path temp) throws Exception {
+        final Cache cache = new Cache(temp, 1L, "");
+        final Path saving = temp.resolve("ab/abcdef123.tmp");
+        Files.createDirectories(saving.getParent());
+        Files.write(saving, new byte[100]);
+        final Path orphan = temp.resolve("ab/abcdef456.tmp");
+        Files.write(orphan, new byte[100]);
+        orphan.toFile().setLastModified(1000L);
+        cache.evict();
+        MatcherAssert.assertThat(
+            "a fresh temporary file must stay, while an old one must be deleted",
+            Arrays.asList(saving.toFile().exists(), orphan.toFile().exists()),
+            Matchers.contains(true, false)
+        );
+    }
+
+    @Test
+    void ignoresEverythingWhenDisabled(@Mktmp final Path temp) throws Exception {
+        final Cache cache = new Cache(temp, 0L, "");
+        cache.save("abcdef", new Cache.Entry(new byte[] {1}, 0));
+        MatcherAssert.assertThat(
+            "disabled cache must not find anything",
+            cache.load("abcdef"),
+            Matchers.nullValue()
+        );
+    }
+}
@@ -0,0 +1,93 @@
+/*
+ * SPDX-FileCopyrightText: Copyright (c) 2024-2026 Objectionary.com
+ * SPDX-License-Identifier: MIT
+ */
+package org.eolang.hone;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A reproducible corpus of Java classes, each with a random stream
+ * pipeline of {@link RandomPipeline} in it.
+ *
+ * <p>The corpus is defined by its size and its seed only: the class number
+ * {@code i} is the pipeline of the seed {@code seed + i}, therefore the same
+ * corpus is the very same set of files on every machine, in every release of
+ * hone and with every version of phino, and the throughput measured on it
+ * can be compared with the throughput measured before. Classes are spread
+ * over packages of a hundred, the way real projects have them, instead of
+ * ten thousand files in one directory.</p>
+ *
+ * @since 0.30.0
+ */
+final class Corpus {
+
+    /**
+     * How many classes are in one package.
+     */
+    private static final int PACKAGE = 100;
+
+    /**
+     * How many classes.
+     */
+    private final int total;
+
+    /**
+     * The seed of the first class.
+     */
+    private final long seed;
+
+    /**
+     * Ctor.
+     * @param size How many classes
+     * @param sed The seed of the first class
+     */
+    Corpus(final int size, final long sed) {
+        this.total = size;
+        this.seed = sed;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%d classes from seed %d", this.total, this.seed);
+    }
+
+    /**
+     * How many classes.
+     * @return The number
+     */
+    int size() {
+        return this.total;
+    }
+
+    /**
+     * Write the sources of all classes.
+     * @param src The directory of sources, like {@code src/main/java}
+     * @return Paths of the files written, relative to the directory
+     * @throws IOException If fails
+     */
+    List<Path> write(final Path src) throws IOException {
+        final List<Path> files = new ArrayList<>(this.total);
+        for (int idx = 0; idx < this.total; ++idx) {
+            final String pkg = String.format("corpus.p%03d", idx / Corpus.PACKAGE);
+            final String name = String.format("C%05d", idx);
+            final Path rel = src.getFileSystem().getPath(
+                pkg.replace('.', '/'), String.format("%s.java", name)
+            );
+            final Path file = src.resolve(rel);
+            Files.createDirectories(file.getParent());
+            Files.write(
+                file,
+                new RandomPipeline(this.seed + idx).java(pkg, name)
+                    .getBytes(StandardCharsets.UTF_8)
+            );
+            files.add(rel);
+        }
+        return files;
+    }
+}
@@ -0,0 +1,157 @@
+/*
+ * SPDX-FileCopyrightText: Copyright (c) 2024-2026 Objectionary.com
+ * SPDX-License-Identifier: MIT
+ */
+package org.eolang.hone;
+
+import com.yegor256.Mktmp;
+import com.yegor256.MktmpResolver;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.Collections;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+/**
+ * Test case for {@link Daemon}.
+ * @since 0.30.0
+ */
+@ExtendWith(MktmpResolver.class)
+final class DaemonTest {
+
+    @Test
+    void keepsIdleContainerAliveWhenChecking(@Mktmp final Path temp) throws Exception {
+        DaemonTest.daemon(temp, "").exec(Collections.emptyList());
+        MatcherAssert.assertThat(
+            "the check of a running container must reset its idle time",
+            DaemonTest.calls(temp),
+            Matchers.matchesPattern("(?sm).*^exec hone-[0-9a-f]+ touch /tmp/hone-alive$.*")
+        );
+    }
+
+    @Test
+    void startsAgainContainerStoppedByIdleness(@Mktmp final Path temp) throws Exception {
+        DaemonTest.daemon(
+            temp,
+            String.join(
+                "\n",
+                "  *entry.sh*)",
+                "    if [ ! -e idle ]; then",
+                "      touch idle gone",
+                "      echo 'Error response from daemon: No such container' >&2",
+                "      exit 1",
+                "    fi ;;",
+                "  exec*)",
+                "    if [ -e gone ]; then",
+                "      echo 'Error response from daemon: container is not running' >&2",
+                "      exit 1",
+                "    fi ;;",
+                "  run*) rm gone ;;"
+            )
+        ).exec(Collections.emptyList());
+        MatcherAssert.assertThat(
+            "the container, which stopped after the check, must be started again",
+            DaemonTest.calls(temp),
+            Matchers.matchesPattern("(?sm).*^run --detach --rm --name hone-.*")
+        );
+    }
+
+    @Test
+    void seesDirectoriesInsideMounts() {
+        MatcherAssert.assertThat(
+            "the target/ of a module must be visible inside the top project",
+            new Daemon(
+                new Docker(), "hone:latest",
+                Arrays.asList(Paths.get("/work/app"), Paths.get("/cache")),
+                "1000:1000", 60
+            ).sees(Paths.get("/work/app/sub/target")),
+            Matchers.is(true)
+        );
+    }
+
+    @Test
+    void doesNotSeeOtherDirectories() {
+        MatcherAssert.assertThat(
+            "a directory outside of mounts must not be visible",
+            new Daemon(
+                new Docker(), "hone:latest",
+                Collections.singletonList(Paths.get("/work/app")),
+                "1000:1000", 60
+            ).sees(Paths.get("/work/application/target")),
+            Matchers.is(false)
+        );
+    }
+
+    @Test
+    void namesContainerByImageId() {
+        final Daemon daemon = new Daemon(
+            new Docker(), "hone:latest",
+            Collections.singletonList(Paths.get("/work/a")), "1000:1000", 60
+        );
+        MatcherAssert.assertThat(
+            "a new image under the same tag must get a new container",
+            daemon.name("sha256:4a8f"),
+            Matchers.not(daemon.name("sha256:77c1"))
+        );
+    }
+
+    @Test
+    void namesContainerBySettings() {
+        MatcherAssert.assertThat(
+            "containers of different projects must have different names",
+            new Daemon(
+                new Docker(), "hone:latest",
+                Collections.singletonList(Paths.get("/work/a")), "1000:1000", 60
+            ).name("sha256:4a8f"),
+            Matchers.not(
+                new Daemon(
+                    new Docker(), "hone:latest",
+                    Collections.singletonList(Paths.get("/work/b")), "1000:1000", 60
+                ).name("sha256:4a8f")
+            )
+        );
+    }
+
+    /**
+     * Make a daemon with a fake Docker, which saves its arguments.
+     * @param dir The directory for the fake Docker and its arguments
+     * @param cases More cases of the fake, by its arguments
+     * @return The daemon
+     * @throws Exception If fails
+     */
+    private static Daemon daemon(final Path dir, final String cases) throws Exception {
+        return new Daemon(
+            new Docker(
+                PhinoTest.fake(
+                    dir,
+                    String.join(
+                        "\n",
+                        String.format("cd '%s'", dir),
+                        "echo \"$*\" >> calls.txt",
+                        "case \"$*\" in",
+                        "  image*) echo sha256:4a8f ;;",
+                        cases,
+                        "esac"
+                    )
+                ).toString(),
+                false
+            ),
+            "hone:latest", Collections.singletonList(dir), "1000:1000", 60
+        );
+    }
+
+    /**
+     * Calls of the fake Docker.
+     * @param dir The directory of the fake Docker
+     * @return Arguments of calls, one per line
+     * @throws Exception If fails
+     */
+    private static String calls(final Path dir) throws Exception {
+        return new String(Files.readAllBytes(dir.resolve("calls.txt")), StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,69 @@
+/*
+ * SPDX-FileCopyrightText: Copyright (c) 2024-2026 Objectionary.com
+ * SPDX-License-Identifier: MIT
+ */
+package org.eolang.hone;
+
+import java.util.Arrays;
+import java.util.Collections;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test case for {@link Diff}.
+ * @since 0.30.0
+ */
+final class DiffTest {
+
+    @Test
+    void findsNothingInEqualTexts() {
+        MatcherAssert.assertThat(
+            "equal texts must have no changed lines",
+            new Diff(Arrays.asList("a", "b", "c"), Arrays.asList("a", "b", "c")).count(),
+            Matchers.is(0)
+        );
+    }
+
+    @Test
+    void countsReplacedLineTwice() {
+        MatcherAssert.assertThat(
+            "a replaced line is one deletion and one insertion, exactly as in 'diff'",
+            new Diff(Arrays.asList("a", "b", "c"), Arrays.asList("a", "x", "c")).count(),
+            Matchers.is(2)
+        );
+    }
+
+    @Test
+    void countsInsertedLines() {
+        MatcherAssert.assertThat(
+            "inserted lines must be counted",
+            new Diff(
+                Arrays.asList("a", "b", "c"),
+                Arrays.asList("x", "a", "b", "y", "c", "z")
+            ).count(),
+            Matchers.is(3)
+        );
+    }
+
+    @Test
+    void countsEverythingAgainstEmptyText() {
+        MatcherAssert.assertThat(
+            "all lines must be counted when the other text is empty",
+            new Diff(Arrays.asList("a", "b"), Collections.emptyList()).count(),
+            Matchers.is(2)
+        );
+    }
+
+    @Test
+    void findsShortestScript() {
+        MatcherAssert.assertThat(
+            "the shortest edit script must be found, not just any",
+            new Diff(
+                Arrays.asList("a", "b", "c", "a", "b", "b", "a"),
+                Arrays.asList("c", "b", "a", "b", "a", "c")
+            ).count(),
+            Matchers.is(5)
+        );
+    }
+}
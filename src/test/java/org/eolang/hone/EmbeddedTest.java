@@ -0,0 +1,170 @@
+/*
+ * SPDX-FileCopyrightText: Copyright (c) 2024-2026 Objectionary.com
+ * SPDX-License-Identifier: MIT
+ */
+package org.eolang.hone;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+import org.apache.maven.execution.DefaultMavenExecutionRequest;
+import org.apache.maven.execution.DefaultMavenExecutionResult;
+import org.apache.maven.execution.MavenSession;
+import org.apache.maven.model.Plugin;
+import org.apache.maven.plugin.BuildPluginManager;
+import org.apache.maven.plugin.MojoExecution;
+import org.apache.maven.plugin.PluginResolutionException;
+import org.apache.maven.plugin.descriptor.MojoDescriptor;
+import org.apache.maven.plugin.descriptor.Parameter;
+import org.apache.maven.plugin.descriptor.PluginDescriptor;
+import org.apache.maven.project.MavenProject;
+import org.codehaus.plexus.classworlds.realm.ClassRealm;
+import org.eclipse.aether.RepositorySystemSession;
+import org.eclipse.aether.repository.RemoteRepository;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test case for {@link Embedded}.
+ * @since 0.30.0
+ */
+final class EmbeddedTest {
+
+    @Test
+    void passesPropertiesToParameters() throws Exception {
+        final AtomicReference<MojoExecution> done = new AtomicReference<>();
+        new Embedded(
+            EmbeddedTest.session(),
+            new EmbeddedTest.FakeManager(EmbeddedTest.descriptor(), done)
+        ).exec(
+            "org.eolang:jeo-maven-plugin:0.1.0", "disassemble",
+            Collections.singletonMap("jeo.disassemble.sourcesDir", "/tmp/classes")
+        );
+        MatcherAssert.assertThat(
+            "the property must be given to the parameter with this expression",
+            done.get().getConfiguration().getChild("sourcesDir").getValue(),
+            Matchers.equalTo("/tmp/classes")
+        );
+    }
+
+    @Test
+    void ignoresUnknownProperties() throws Exception {
+        final AtomicReference<MojoExecution> done = new AtomicReference<>();
+        new Embedded(
+            EmbeddedTest.session(),
+            new EmbeddedTest.FakeManager(EmbeddedTest.descriptor(), done)
+        ).exec(
+            "org.eolang:jeo-maven-plugin:0.1.0", "disassemble",
+            Collections.singletonMap("eo.cache", "/tmp/eo")
+        );
+        MatcherAssert.assertThat(
+            "unknown properties must not get into the configuration",
+            done.get().getConfiguration().getChild("cache"),
+            Matchers.nullValue()
+        );
+    }
+
+    @Test
+    void refusesWhenPluginIsNotResolved() throws Exception {
+        MatcherAssert.assertThat(
+            "it must refuse to run, letting the caller start a new process",
+            new Embedded(
+                EmbeddedTest.session(),
+                new EmbeddedTest.FakeManager(null, new AtomicReference<>())
+            ).exec(
+                "org.eolang:jeo-maven-plugin:0.1.0", "assemble",
+                Collections.emptyMap()
+            ),
+            Matchers.is(false)
+        );
+    }
+
+    /**
+     * Make a session.
+     * @return The session
+     */
+    @SuppressWarnings("deprecation")
+    private static MavenSession session() {
+        return new MavenSession(
+            null, new DefaultMavenExecutionRequest(),
+            new DefaultMavenExecutionResult(), new MavenProject()
+        );
+    }
+
+    /**
+     * Make a descriptor of a goal with one parameter.
+     * @return The descriptor
+     */
+    private static MojoDescriptor descriptor() throws Exception {
+        final PluginDescriptor plugin = new PluginDescriptor();
+        plugin.setGroupId("org.eolang");
+        plugin.setArtifactId("jeo-maven-plugin");
+        plugin.setVersion("0.1.0");
+        plugin.setGoalPrefix("jeo");
+        final MojoDescriptor mojo = new MojoDescriptor();
+        mojo.setGoal("disassemble");
+        mojo.setPluginDescriptor(plugin);
+        final Parameter param = new Parameter();
+        param.setName("sourcesDir");
+        param.setExpression("${jeo.disassemble.sourcesDir}");
+        mojo.addParameter(param);
+        return mojo;
+    }
+
+    /**
+     * Fake plugin manager.
+     * @since 0.30.0
+     */
+    private static final class FakeManager implements BuildPluginManager {
+
+        /**
+         * The descriptor to return, or NULL if the plugin is not found.
+         */
+        private final MojoDescriptor mojo;
+
+        /**
+         * The last execution.
+         */
+        private final AtomicReference<MojoExecution> last;
+
+        /**
+         * Ctor.
+         * @param desc The descriptor to return, or NULL
+         * @param ref The last execution
+         */
+        FakeManager(final MojoDescriptor desc, final AtomicReference<MojoExecution> ref) {
+            this.mojo = desc;
+            this.last = ref;
+        }
+
+        @Override
+        public PluginDescriptor loadPlugin(final Plugin plugin,
+            final List<RemoteRepository> repos, final RepositorySystemSession ssn) {
+            throw new UnsupportedOperationException("#loadPlugin()");
+        }
+
+        @Override
+        public MojoDescriptor getMojoDescriptor(final Plugin plugin, final String goal,
+            final List<RemoteRepository> repos, final RepositorySystemSession ssn)
+            throws PluginResolutionException {
+            if (this.mojo == null) {
+                throw new PluginResolutionException(
+                    plugin, new IllegalStateException("offline")
+                );
+            }
+            return this.mojo;
+        }
+
+        @Override
+        public ClassRealm getPluginRealm(final MavenSession ssn,
+            final PluginDescriptor desc) {
+            throw new UnsupportedOperationException("#getPluginRealm()");
+        }
+
+        @Override
+        public void executeMojo(final MavenSession ssn, final MojoExecution exec) {
+            this.last.set(exec);
+        }
+    }
+}
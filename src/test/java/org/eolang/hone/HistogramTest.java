@@ -0,0 +1,63 @@
+/*
+ * SPDX-FileCopyrightText: Copyright (c) 2024-2026 Objectionary.com
+ * SPDX-License-Identifier: MIT
+ */
+package org.eolang.hone;
+
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test case for {@link Histogram}.
+ * @since 0.30.0
+ */
+final class HistogramTest {
+
+    @Test
+    void findsExactPercentilesOfSmallNumbers() {
+        final Histogram hist = new Histogram();
+        for (long num = 1L; num <= 20L; ++num) {
+            hist.add(num);
+        }
+        MatcherAssert.assertThat(
+            "small numbers must be counted exactly",
+            hist.percentile(50.0d),
+            Matchers.is(10L)
+        );
+    }
+
+    @Test
+    void findsPercentilesOfBigNumbersApproximately() {
+        final Histogram hist = new Histogram();
+        for (long num = 1L; num <= 100_000L; ++num) {
+            hist.add(num * 10L);
+        }
+        MatcherAssert.assertThat(
+            "the 95th percentile must be within a few percent",
+            (double) hist.percentile(95.0d),
+            Matchers.closeTo(950_000.0d, 950_000.0d * 0.04d)
+        );
+    }
+
+    @Test
+    void neverExceedsTheMaximum() {
+        final Histogram hist = new Histogram();
+        hist.add(1000L);
+        hist.add(1001L);
+        MatcherAssert.assertThat(
+            "the percentile must not be bigger than the biggest number",
+            hist.percentile(99.0d),
+            Matchers.is(1001L)
+        );
+    }
+
+    @Test
+    void returnsZeroWhenEmpty() {
+        MatcherAssert.assertThat(
+            "an empty histogram has no percentiles",
+            new Histogram().percentile(50.0d),
+            Matchers.is(0L)
+        );
+    }
+}
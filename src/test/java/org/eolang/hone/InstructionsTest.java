@@ -0,0 +1,57 @@
+/*
+ * SPDX-FileCopyrightText: Copyright (c) 2024-2026 Objectionary.com
+ * SPDX-License-Identifier: MIT
+ */
+package org.eolang.hone;
+
+import org.cactoos.bytes.BytesOf;
+import org.cactoos.io.ResourceOf;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test case for {@link Instructions}.
+ * @since 0.30.0
+ */
+final class InstructionsTest {
+
+    @Test
+    void countsInstructionsOfRealClass() throws Exception {
+        MatcherAssert.assertThat(
+            "a compiled class must have some instructions",
+            new Instructions(InstructionsTest.bytes(Budget.class)).count(),
+            Matchers.greaterThan(10)
+        );
+    }
+
+    @Test
+    void countsMoreInstructionsInBiggerClass() throws Exception {
+        MatcherAssert.assertThat(
+            "a class with more code must have more instructions",
+            new Instructions(InstructionsTest.bytes(Rewriting.class)).count(),
+            Matchers.greaterThan(new Instructions(InstructionsTest.bytes(Budget.class)).count())
+        );
+    }
+
+    @Test
+    void refusesBrokenClass() {
+        MatcherAssert.assertThat(
+            "a broken class must not have any number of instructions",
+            new Instructions(new byte[] {1, 2, 3}).count(),
+            Matchers.is(-1)
+        );
+    }
+
+    /**
+     * Bytes of the compiled class.
+     * @param type The class
+     * @return Bytes of its {@code .class} file
+     * @throws Exception If fails
+     */
+    private static byte[] bytes(final Class<?> type) throws Exception {
+        return new BytesOf(
+            new ResourceOf(String.format("%s.class", type.getName().replace('.', '/')))
+        ).asBytes();
+    }
+}
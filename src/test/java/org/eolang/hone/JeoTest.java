@@ -0,0 +1,135 @@
+/*
+ * SPDX-FileCopyrightText: Copyright (c) 2024-2026 Objectionary.com
+ * SPDX-License-Identifier: MIT
+ */
+package org.eolang.hone;
+
+import com.yegor256.Mktmp;
+import com.yegor256.MktmpResolver;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+/**
+ * Test case for {@link Jeo}.
+ * @since 0.30.0
+ */
+@ExtendWith(MktmpResolver.class)
+final class JeoTest {
+
+    @Test
+    void forksMavenWithShortArgumentsForThousandsOfSkippedClasses(
+        @Mktmp final Path temp) throws Exception {
+        final Path bin = temp.resolve("classes");
+        for (int idx = 0; idx < 5000; ++idx) {
+            JeoTest.touch(bin.resolve(String.format("org/foo/bar/Rejected%04d.class", idx)));
+        }
+        JeoTest.touch(bin.resolve("org/foo/bar/Kept.class"));
+        JeoTest.jeo(temp, "").disassemble(
+            bin, temp.resolve("xmir"),
+            Collections.singletonList(Paths.get("org/foo/bar/Kept.class")),
+            temp.resolve("stage")
+        );
+        MatcherAssert.assertThat(
+            "no argument of forked Maven may grow with the number of skipped classes",
+            JeoTest.args(temp).stream().mapToInt(String::length).max().orElse(0),
+            Matchers.lessThan(1024)
+        );
+    }
+
+    @Test
+    void disassemblesOnlyStagedClasses(@Mktmp final Path temp) throws Exception {
+        final Path bin = temp.resolve("classes");
+        JeoTest.touch(bin.resolve("org/Skipped.class"));
+        JeoTest.touch(bin.resolve("org/Kept.class"));
+        JeoTest.jeo(temp, "").disassemble(
+            bin, temp.resolve("xmir"),
+            Collections.singletonList(Paths.get("org/Kept.class")),
+            temp.resolve("stage")
+        );
+        final List<Path> staged;
+        try (Stream<Path> walk = Files.walk(temp.resolve("stage"))) {
+            staged = walk.filter(Files::isRegularFile)
+                .map(temp.resolve("stage")::relativize)
+                .collect(Collectors.toList());
+        }
+        MatcherAssert.assertThat(
+            "the staging directory must be given to jeo",
+            JeoTest.args(temp),
+            Matchers.hasItem(
+                String.format("-Djeo.disassemble.sourcesDir=%s", temp.resolve("stage"))
+            )
+        );
+        MatcherAssert.assertThat(
+            "only kept classes must be staged",
+            staged,
+            Matchers.contains(Paths.get("org/Kept.class"))
+        );
+    }
+
+    @Test
+    void movesPatternsToStagingDirectory(@Mktmp final Path temp) throws Exception {
+        final Path bin = temp.resolve("classes");
+        JeoTest.touch(bin.resolve("org/Kept.class"));
+        JeoTest.jeo(temp, String.format("%s/org/Foo*.class", bin)).disassemble(
+            bin, temp.resolve("xmir"),
+            Collections.singletonList(Paths.get("org/Kept.class")),
+            temp.resolve("stage")
+        );
+        MatcherAssert.assertThat(
+            "exclude patterns must point to the staging directory",
+            JeoTest.args(temp),
+            Matchers.hasItem(
+                String.format(
+                    "-Djeo.disassemble.excludes=%s/org/Foo*.class", temp.resolve("stage")
+                )
+            )
+        );
+    }
+
+    /**
+     * Make a jeo with a fake Maven, which saves its arguments.
+     * @param dir The directory for the fake Maven and its arguments
+     * @param excludes Exclude patterns
+     * @return The jeo
+     * @throws Exception If fails
+     */
+    private static Jeo jeo(final Path dir, final String excludes) throws Exception {
+        return new Jeo(
+            PhinoTest.fake(
+                dir,
+                String.format("printf '%%s\\n' \"$@\" > '%s'", dir.resolve("args.txt"))
+            ).toString(),
+            "0.0.0", null, dir.resolve("eo").toFile(), "", excludes, null
+        );
+    }
+
+    /**
+     * Arguments of the fake Maven.
+     * @param dir The directory of the fake Maven
+     * @return Arguments, one per line
+     * @throws Exception If fails
+     */
+    private static List<String> args(final Path dir) throws Exception {
+        return Files.readAllLines(dir.resolve("args.txt"), StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Make an empty file with its directories.
+     * @param file The file
+     * @throws Exception If fails
+     */
+    private static void touch(final Path file) throws Exception {
+        Files.createDirectories(file.getParent());
+        Files.write(file, new byte[] {(byte) 0xCA, (byte) 0xFE});
+    }
+}
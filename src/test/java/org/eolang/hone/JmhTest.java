@@ -0,0 +1,44 @@
+/*
+ * SPDX-FileCopyrightText: Copyright (c) 2024-2026 Objectionary.com
+ * SPDX-License-Identifier: MIT
+ */
+package org.eolang.hone;
+
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.Collections;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test case for {@link Jmh}.
+ * @since 0.30.0
+ */
+final class JmhTest {
+
+    @Test
+    void findsJmhInClasspath() {
+        MatcherAssert.assertThat(
+            "JMH must be found by the name of its JAR",
+            Jmh.present(
+                Arrays.asList(Paths.get("target/classes"), Paths.get("m2/jmh-core-1.37.jar"))
+            ),
+            Matchers.is(true)
+        );
+    }
+
+    @Test
+    void buildsCommandWithProfiler() {
+        MatcherAssert.assertThat(
+            "the command must run JMH with the GC profiler and save CSV",
+            new Jmh("java", Arrays.asList("-f", "1")).command(
+                Collections.singletonList(Paths.get("a.jar")), Paths.get("x.csv")
+            ),
+            Matchers.contains(
+                "java", "-cp", "a.jar", "org.openjdk.jmh.Main", "-f", "1",
+                "-prof", "gc", "-rf", "csv", "-rff", "x.csv"
+            )
+        );
+    }
+}
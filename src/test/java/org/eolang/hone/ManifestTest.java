@@ -0,0 +1,89 @@
+/*
+ * SPDX-FileCopyrightText: Copyright (c) 2024-2026 Objectionary.com
+ * SPDX-License-Identifier: MIT
+ */
+package org.eolang.hone;
+
+import com.yegor256.Mktmp;
+import com.yegor256.MktmpResolver;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Collections;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+/**
+ * Test case for {@link Manifest}.
+ * @since 0.30.0
+ */
+@ExtendWith(MktmpResolver.class)
+final class ManifestTest {
+
+    @Test
+    void loadsWhatWasSaved(@Mktmp final Path temp) throws Exception {
+        new Manifest(temp, "salt").save(
+            Collections.singletonMap(
+                Paths.get("a/Foo$1.class"), new Manifest.Entry("abc", "def")
+            )
+        );
+        MatcherAssert.assertThat(
+            "the hash of the output must be loaded",
+            new Manifest(temp, "salt").load().get(Paths.get("a/Foo$1.class")).output(),
+            Matchers.equalTo("def")
+        );
+    }
+
+    @Test
+    void ignoresManifestWithOtherSalt(@Mktmp final Path temp) throws Exception {
+        new Manifest(temp, "first").save(
+            Collections.singletonMap(Paths.get("Foo.class"), new Manifest.Entry("a", "b"))
+        );
+        MatcherAssert.assertThat(
+            "entries made with other settings must be ignored",
+            new Manifest(temp, "second").load().isEmpty(),
+            Matchers.is(true)
+        );
+    }
+
+    @Test
+    void restoresKeptOutput(@Mktmp final Path temp) throws Exception {
+        final Manifest manifest = new Manifest(temp, "");
+        final byte[] bytes = "optimized".getBytes(StandardCharsets.UTF_8);
+        manifest.keep(Paths.get("x/Foo.class"), bytes);
+        MatcherAssert.assertThat(
+            "the kept output must be restored",
+            new String(
+                manifest.restore(Paths.get("x/Foo.class"), Cache.sha(bytes)),
+                StandardCharsets.UTF_8
+            ),
+            Matchers.equalTo("optimized")
+        );
+    }
+
+    @Test
+    void refusesToRestoreBrokenOutput(@Mktmp final Path temp) throws Exception {
+        final Manifest manifest = new Manifest(temp, "");
+        manifest.keep(Paths.get("Foo.class"), new byte[] {1, 2, 3});
+        MatcherAssert.assertThat(
+            "the output with another hash must not be restored",
+            manifest.restore(Paths.get("Foo.class"), Cache.sha(new byte[] {4})),
+            Matchers.nullValue()
+        );
+    }
+
+    @Test
+    void forgetsOutput(@Mktmp final Path temp) throws Exception {
+        final Manifest manifest = new Manifest(temp, "");
+        final byte[] bytes = {7};
+        manifest.keep(Paths.get("Foo.class"), bytes);
+        manifest.forget(Paths.get("Foo.class"));
+        MatcherAssert.assertThat(
+            "the forgotten output must not be restored",
+            manifest.restore(Paths.get("Foo.class"), Cache.sha(bytes)),
+            Matchers.nullValue()
+        );
+    }
+}
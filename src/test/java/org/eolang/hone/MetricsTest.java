@@ -0,0 +1,97 @@
+/*
+ * SPDX-FileCopyrightText: Copyright (c) 2024-2026 Objectionary.com
+ * SPDX-License-Identifier: MIT
+ */
+package org.eolang.hone;
+
+import com.yegor256.Mktmp;
+import com.yegor256.MktmpResolver;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import javax.management.ObjectName;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+/**
+ * Test case for {@link Metrics}.
+ * @since 0.30.0
+ */
+@ExtendWith(MktmpResolver.class)
+final class MetricsTest {
+
+    @Test
+    void countsFiles() {
+        final Metrics metrics = new Metrics();
+        metrics.queue(3);
+        metrics.begin();
+        metrics.begin();
+        metrics.end();
+        metrics.timeout();
+        MatcherAssert.assertThat(
+            "files must be counted as done, queued, and running",
+            metrics.prometheus(),
+            Matchers.allOf(
+                Matchers.containsString("hone_files_done 1\n"),
+                Matchers.containsString("hone_files_queued 1\n"),
+                Matchers.containsString("hone_files_running 1\n"),
+                Matchers.containsString("# TYPE hone_timeouts counter\nhone_timeouts 1\n")
+            )
+        );
+    }
+
+    @Test
+    void countsSpareProcesses() {
+        final Metrics metrics = new Metrics();
+        metrics.queue(1);
+        metrics.begin();
+        metrics.spares(() -> 4);
+        MatcherAssert.assertThat(
+            "running files and spare processes must be counted as phino processes",
+            metrics.values().get("PhinoProcesses"),
+            Matchers.equalTo(5L)
+        );
+    }
+
+    @Test
+    void publishesMbeanAndFile(@Mktmp final Path temp) throws Exception {
+        final Path prom = temp.resolve("hone/metrics.prom");
+        final ObjectName name = new ObjectName(
+            String.format(
+                "org.eolang.hone:type=Optimization,target=%s",
+                ObjectName.quote(temp.toString())
+            )
+        );
+        final Object hits;
+        try (Metrics metrics = new Metrics(prom, 1)) {
+            metrics.publish(temp.toString());
+            metrics.hit(7);
+            hits = ManagementFactory.getPlatformMBeanServer().getAttribute(name, "CacheHits");
+        }
+        MatcherAssert.assertThat(
+            "metrics must be available in JMX and saved to the file at the end",
+            Files.readString(prom, StandardCharsets.UTF_8),
+            Matchers.allOf(
+                Matchers.containsString(String.format("hone_cache_hits %s", hits)),
+                Matchers.containsString("hone_cache_hits 7\n")
+            )
+        );
+    }
+
+    @Test
+    void unregistersMbeanWhenClosed(@Mktmp final Path temp) throws Exception {
+        try (Metrics metrics = new Metrics(temp.resolve("m.prom"), 1)) {
+            metrics.publish("closed");
+        }
+        MatcherAssert.assertThat(
+            "the MBean must be unregistered, when optimization is finished",
+            ManagementFactory.getPlatformMBeanServer().isRegistered(
+                new ObjectName("org.eolang.hone:type=Optimization,target=\"closed\"")
+            ),
+            Matchers.is(false)
+        );
+    }
+}
@@ -218,6 +218,50 @@ final class OptimizeMojoDefaultGrepInTest {
         );
     }
 
+    @Test
+    void writesNoStatisticsWhenConversionToXmirFails(@Mktmp final Path dir)
+        throws Exception {
+        final Path bin = Files.createDirectories(dir.resolve("bin"));
+        PhinoTest.fake(
+            bin,
+            String.join(
+                "\n",
+                "case \"$*\" in",
+                "  *--output=xmir*) exit 1 ;;",
+                "  *) echo foo ;;",
+                "esac"
+            )
+        );
+        final Path script = dir.resolve("rewrite.sh");
+        Files.write(
+            script,
+            new IoCheckedText(
+                new TextOf(
+                    new ResourceOf("org/eolang/hone/scaffolding/rewrite.sh")
+                )
+            ).asString().getBytes(StandardCharsets.UTF_8)
+        );
+        final Path xmir = dir.resolve("Foo.xmir");
+        Files.write(xmir, "<o/>".getBytes(StandardCharsets.UTF_8));
+        new Jaxec(
+            "env",
+            String.format("PATH=%s:%s", bin, System.getenv("PATH")),
+            String.format("TARGET=%s", dir),
+            "HONE_STATISTICS=true",
+            "HONE_RULES=none.yml",
+            "bash", script.toString(), "rewrite", "1/1",
+            dir.resolve("phi/Foo.phi").toString(),
+            dir.resolve("pho/Foo.phi").toString(),
+            xmir.toString(),
+            dir.resolve("out/Foo.xmir").toString()
+        ).withCheck(false).execUnsafe();
+        MatcherAssert.assertThat(
+            "a file must get no row before it's converted back to XMIR, since the timeout or the failure adds its own row",
+            dir.resolve("hone-statistics.csv").toFile().exists(),
+            Matchers.is(false)
+        );
+    }
+
     /**
      * Runs the default {@code grep-in} pattern through the very tool that
      * consumes it in {@code rewrite.sh} ({@code grep -E}), so the pattern's
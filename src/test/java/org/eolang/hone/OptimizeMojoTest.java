@@ -132,6 +132,26 @@ final class OptimizeMojoTest {
         new Farea(home).together(OptimizeMojoTest::runSimpleAppWithoutDocker);
     }
 
+    @Test
+    @Tag("deep")
+    @ExtendWith(MayBeSlow.class)
+    @Timeout(180L)
+    @DisabledWithoutPhino
+    @SuppressWarnings({"PMD.UnitTestShouldIncludeAssert", "JTCOP.RuleAssertionMessage"})
+    void skipsClassesWithoutStreamsByPrefilter(@Mktmp final Path home) throws Exception {
+        new Farea(home).together(OptimizeMojoTest::runWithPrefilter);
+    }
+
+    @Test
+    @Tag("deep")
+    @ExtendWith(MayBeSlow.class)
+    @Timeout(180L)
+    @DisabledWithoutPhino
+    @SuppressWarnings({"PMD.UnitTestShouldIncludeAssert", "JTCOP.RuleAssertionMessage"})
+    void rewritesAllClassesWithExplicitGrepIn(@Mktmp final Path home) throws Exception {
+        new Farea(home).together(OptimizeMojoTest::runWithGrepIn);
+    }
+
     @Test
     @Tag("deep")
     @ExtendWith(MayBeSlow.class)
@@ -324,6 +344,84 @@ final class OptimizeMojoTest {
      * @throws IOException If the build fails to run
      */
     private static void runSimpleAppWithoutDocker(final Farea fea) throws IOException {
+        OptimizeMojoTest.bytesApp(fea);
+        fea.build()
+            .plugins()
+            .appendItself()
+            .execution("default")
+            .phase("process-classes")
+            .goals("optimize")
+            .configuration()
+            .set("debug", "true")
+            .set("alwaysWithDocker", "false");
+        fea.exec("test");
+        MatcherAssert.assertThat(
+            "the build must be successful",
+            fea.log(),
+            RequisiteMatcher.SUCCESS
+        );
+        MatcherAssert.assertThat(
+            "the class without streams must not be assembled again",
+            fea.files().file("target/hone/unphi/foo/Bytes.xmir").exists(),
+            Matchers.is(false)
+        );
+    }
+
+    /**
+     * Body of {@link #skipsClassesWithoutStreamsByPrefilter}.
+     * @param fea Fake Maven project
+     * @throws IOException If the build fails to run
+     */
+    private static void runWithPrefilter(final Farea fea) throws IOException {
+        OptimizeMojoTest.bytesApp(fea);
+        fea.build()
+            .plugins()
+            .appendItself()
+            .execution("default")
+            .phase("process-classes")
+            .goals("optimize")
+            .configuration()
+            .set("alwaysWithDocker", "false")
+            .set("prefilter", "true");
+        fea.exec("test");
+        MatcherAssert.assertThat(
+            "the class without streams must not be disassembled",
+            fea.files().file("target/hone/jeo-disassemble/foo/Bytes.xmir").exists(),
+            Matchers.is(false)
+        );
+    }
+
+    /**
+     * Body of {@link #rewritesAllClassesWithExplicitGrepIn}.
+     * @param fea Fake Maven project
+     * @throws IOException If the build fails to run
+     */
+    private static void runWithGrepIn(final Farea fea) throws IOException {
+        OptimizeMojoTest.bytesApp(fea);
+        fea.build()
+            .plugins()
+            .appendItself()
+            .execution("default")
+            .phase("process-classes")
+            .goals("optimize")
+            .configuration()
+            .set("alwaysWithDocker", "false")
+            .set("prefilter", "true")
+            .set("grepIn", ".*");
+        fea.exec("test");
+        MatcherAssert.assertThat(
+            "the class without streams must be rewritten, if grepIn asks for it",
+            fea.files().file("target/hone/phi-optimized/foo/Bytes.phi").exists(),
+            Matchers.is(true)
+        );
+    }
+
+    /**
+     * Make a simple app with one class without streams.
+     * @param fea Fake Maven project
+     * @throws IOException If fails
+     */
+    private static void bytesApp(final Farea fea) throws IOException {
         fea.clean();
         fea.files()
             .file("src/main/java/foo/Bytes.java").write(
@@ -354,21 +452,6 @@ final class OptimizeMojoTest {
             .append("org.junit.jupiter", "junit-jupiter-engine", "5.10.2");
         fea.dependencies()
             .append("org.junit.jupiter", "junit-jupiter-params", "5.10.2");
-        fea.build()
-            .plugins()
-            .appendItself()
-            .execution("default")
-            .phase("process-classes")
-            .goals("optimize")
-            .configuration()
-            .set("debug", "true")
-            .set("alwaysWithDocker", "false");
-        fea.exec("test");
-        MatcherAssert.assertThat(
-            "optimized .xmir must be present",
-            fea.files().file("target/hone/unphi/foo/Bytes.xmir").exists(),
-            Matchers.is(true)
-        );
     }
 
     /**
@@ -0,0 +1,41 @@
+/*
+ * SPDX-FileCopyrightText: Copyright (c) 2024-2026 Objectionary.com
+ * SPDX-License-Identifier: MIT
+ */
+package org.eolang.hone;
+
+import java.util.Arrays;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test case for {@link Options}.
+ * @since 0.30.0
+ */
+final class OptionsTest {
+
+    @Test
+    void turnsOptionsOnOneByOne() {
+        final Options opts = new Options().pool(true).keep(true).keep(false);
+        MatcherAssert.assertThat(
+            String.format("only the pool must be on in %s", opts),
+            Arrays.asList(
+                opts.small(), opts.debug(), opts.pool(), opts.keep(), opts.index(),
+                opts.profile(), opts.staged(), opts.skip()
+            ),
+            Matchers.contains(false, false, true, false, false, false, false, false)
+        );
+    }
+
+    @Test
+    void doesNotChangeItself() {
+        final Options opts = new Options();
+        opts.staged(true).snapshot("link");
+        MatcherAssert.assertThat(
+            "options must be immutable",
+            opts.toString(),
+            Matchers.equalTo("[], copy snapshot")
+        );
+    }
+}
@@ -4,13 +4,18 @@
  */
 package org.eolang.hone;
 
+import java.io.IOException;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.attribute.PosixFilePermission;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.EnumSet;
+import java.util.concurrent.TimeoutException;
 import org.hamcrest.MatcherAssert;
 import org.hamcrest.Matchers;
+import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.io.TempDir;
 
@@ -60,6 +65,42 @@ final class PhinoTest {
         );
     }
 
+    @Test
+    void savesWhatPhinoPrints(@TempDir final Path dir) throws Exception {
+        final Path out = dir.resolve("out.phi");
+        new Phino(PhinoTest.fake(dir, "echo \"$@\"").toString()).rewrite(
+            Arrays.asList("--sweet", "Foo.xmir"), out, Long.MAX_VALUE
+        );
+        MatcherAssert.assertThat(
+            "the output of phino must be saved to the file",
+            Files.readString(out, StandardCharsets.UTF_8),
+            Matchers.containsString("rewrite --sweet Foo.xmir")
+        );
+    }
+
+    @Test
+    void stopsPhinoAfterDeadline(@TempDir final Path dir) throws Exception {
+        final Phino phino = new Phino(PhinoTest.fake(dir, "exec sleep 60").toString());
+        Assertions.assertThrows(
+            TimeoutException.class,
+            () -> phino.rewrite(
+                Collections.emptyList(), dir.resolve("x.phi"),
+                System.currentTimeMillis() + 100L
+            ),
+            "phino must be stopped when the deadline passes"
+        );
+    }
+
+    @Test
+    void failsWhenPhinoFails(@TempDir final Path dir) throws Exception {
+        final Phino phino = new Phino(PhinoTest.fake(dir, "exit 3").toString());
+        Assertions.assertThrows(
+            IOException.class,
+            () -> phino.rewrite(Collections.emptyList(), dir.resolve("x.phi"), Long.MAX_VALUE),
+            "the failure of phino must be reported"
+        );
+    }
+
     /**
      * Create a fake executable script in the given directory.
      * @param dir The directory to create the script in
@@ -67,7 +108,7 @@ final class PhinoTest {
      * @return The path to the script
      * @throws Exception If something goes wrong
      */
-    private static Path fake(final Path dir, final String body) throws Exception {
+    static Path fake(final Path dir, final String body) throws Exception {
         final Path script = dir.resolve("phino");
         Files.write(
             script,
@@ -0,0 +1,98 @@
+/*
+ * SPDX-FileCopyrightText: Copyright (c) 2024-2026 Objectionary.com
+ * SPDX-License-Identifier: MIT
+ */
+package org.eolang.hone;
+
+import java.util.Arrays;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.jupiter.api.Test;
+import org.objectweb.asm.ClassWriter;
+import org.objectweb.asm.MethodVisitor;
+import org.objectweb.asm.Opcodes;
+
+/**
+ * Test case for {@link Prefilter}.
+ * @since 0.30.0
+ */
+final class PrefilterTest {
+
+    @Test
+    void selectsClassThatCallsMethod() {
+        MatcherAssert.assertThat(
+            "class calling Stream.map() must be selected",
+            new Prefilter(Arrays.asList("filter", "map")).matches(
+                PrefilterTest.calling("map")
+            ),
+            Matchers.is(true)
+        );
+    }
+
+    @Test
+    void rejectsClassWithoutCalls() {
+        MatcherAssert.assertThat(
+            "class calling only Stream.count() must be rejected",
+            new Prefilter(Arrays.asList("filter", "map")).matches(
+                PrefilterTest.calling("count")
+            ),
+            Matchers.is(false)
+        );
+    }
+
+    @Test
+    void rejectsClassWithPrefixOfMethod() {
+        MatcherAssert.assertThat(
+            "class calling Stream.mapToInt() must be rejected, when only map() is wanted",
+            new Prefilter(Arrays.asList("map")).matches(PrefilterTest.calling("mapToInt")),
+            Matchers.is(false)
+        );
+    }
+
+    @Test
+    void selectsBrokenClass() {
+        MatcherAssert.assertThat(
+            "class that can't be parsed must be selected",
+            new Prefilter(Arrays.asList("map")).matches(new byte[] {1, 2, 3}),
+            Matchers.is(true)
+        );
+    }
+
+    @Test
+    void selectsEverythingWithoutNames() {
+        MatcherAssert.assertThat(
+            "everything must be selected, when there are no names",
+            new Prefilter().matches(PrefilterTest.calling("count")),
+            Matchers.is(true)
+        );
+    }
+
+    /**
+     * Make a class, which calls the method of a stream.
+     * @param method The name of the method
+     * @return Bytes of the class
+     */
+    private static byte[] calling(final String method) {
+        final ClassWriter writer = new ClassWriter(ClassWriter.COMPUTE_MAXS);
+        writer.visit(
+            Opcodes.V1_8, Opcodes.ACC_PUBLIC, "Foo", null, "java/lang/Object", null
+        );
+        final MethodVisitor mtd = writer.visitMethod(
+            Opcodes.ACC_PUBLIC | Opcodes.ACC_STATIC, "go",
+            "(Ljava/util/stream/Stream;)V", null, null
+        );
+        mtd.visitCode();
+        mtd.visitVarInsn(Opcodes.ALOAD, 0);
+        mtd.visitInsn(Opcodes.ACONST_NULL);
+        mtd.visitMethodInsn(
+            Opcodes.INVOKEINTERFACE, "java/util/stream/Stream", method,
+            "(Ljava/lang/Object;)Ljava/util/stream/Stream;", true
+        );
+        mtd.visitInsn(Opcodes.POP);
+        mtd.visitInsn(Opcodes.RETURN);
+        mtd.visitMaxs(0, 0);
+        mtd.visitEnd();
+        writer.visitEnd();
+        return writer.toByteArray();
+    }
+}
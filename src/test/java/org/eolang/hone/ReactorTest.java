@@ -0,0 +1,96 @@
+/*
+ * SPDX-FileCopyrightText: Copyright (c) 2024-2026 Objectionary.com
+ * SPDX-License-Identifier: MIT
+ */
+package org.eolang.hone;
+
+import com.yegor256.Mktmp;
+import com.yegor256.MktmpResolver;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.HashMap;
+import java.util.Map;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+/**
+ * Test case for {@link Reactor}.
+ * @since 0.30.0
+ */
+@ExtendWith(MktmpResolver.class)
+final class ReactorTest {
+
+    @Test
+    void keepsPathsOfSingleModule(@Mktmp final Path temp) throws Exception {
+        ReactorTest.write(temp.resolve("classes/org/Foo.class"), "foo");
+        MatcherAssert.assertThat(
+            "paths of a single module must not have a prefix",
+            new Reactor(temp.resolve("classes")).classes(),
+            Matchers.contains(Paths.get("org/Foo.class"))
+        );
+    }
+
+    @Test
+    void findsClassesOfAllModules(@Mktmp final Path temp) throws Exception {
+        ReactorTest.write(temp.resolve("a/classes/org/Foo.class"), "foo");
+        ReactorTest.write(temp.resolve("b/classes/org/Foo.class"), "bar");
+        MatcherAssert.assertThat(
+            "classes of both modules must be found, with their names",
+            ReactorTest.reactor(temp).classes(),
+            Matchers.containsInAnyOrder(Paths.get("a/org/Foo.class"), Paths.get("b/org/Foo.class"))
+        );
+    }
+
+    @Test
+    void findsFileOfClassInItsModule(@Mktmp final Path temp) throws Exception {
+        ReactorTest.write(temp.resolve("b/classes/org/Foo.class"), "bar");
+        MatcherAssert.assertThat(
+            "the class must be found in the directory of its module",
+            new String(
+                Files.readAllBytes(ReactorTest.reactor(temp).file(Paths.get("b/org/Foo.class"))),
+                StandardCharsets.UTF_8
+            ),
+            Matchers.equalTo("bar")
+        );
+    }
+
+    @Test
+    void savesClassInSnapshotOfItsModule(@Mktmp final Path temp) throws Exception {
+        ReactorTest.write(temp.resolve("a/classes/org/Foo.class"), "foo");
+        final Reactor reactor = ReactorTest.reactor(temp);
+        reactor.snapshot(temp.resolve("before"), "changed");
+        reactor.save(Paths.get("a/org/Foo.class"));
+        MatcherAssert.assertThat(
+            "the class must be saved in the snapshot of its module",
+            temp.resolve("before/a/org/Foo.class").toFile().exists(),
+            Matchers.is(true)
+        );
+    }
+
+    /**
+     * Make a reactor of two modules.
+     * @param temp The directory with modules
+     * @return The reactor
+     */
+    private static Reactor reactor(final Path temp) {
+        final Map<String, Path> bins = new HashMap<>(0);
+        bins.put("a", temp.resolve("a/classes"));
+        bins.put("b", temp.resolve("b/classes"));
+        return new Reactor(bins);
+    }
+
+    /**
+     * Write a file.
+     * @param file The file
+     * @param text The content
+     * @throws Exception If fails
+     */
+    private static void write(final Path file, final String text) throws Exception {
+        Files.createDirectories(file.getParent());
+        Files.write(file, text.getBytes(StandardCharsets.UTF_8));
+    }
+}
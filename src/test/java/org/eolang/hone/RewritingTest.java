@@ -0,0 +1,394 @@
+/*
+ * SPDX-FileCopyrightText: Copyright (c) 2024-2026 Objectionary.com
+ * SPDX-License-Identifier: MIT
+ */
+package org.eolang.hone;
+
+import com.yegor256.Mktmp;
+import com.yegor256.MktmpResolver;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Map;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+/**
+ * Test case for {@link Rewriting}.
+ *
+ * <p>A fake phino is used here, which prints the last file it gets
+ * (or its stdin, if there is no file), replacing "foo" with "bar" if
+ * there is at least one rule.</p>
+ *
+ * @since 0.30.0
+ */
+@ExtendWith(MktmpResolver.class)
+final class RewritingTest {
+
+    @Test
+    void rewritesAllFiles(@Mktmp final Path temp) throws Exception {
+        RewritingTest.xmir(temp, "a/Foo", "<o>foo</o>");
+        RewritingTest.xmir(temp, "Bar", "<o>foo</o>");
+        RewritingTest.rewriting(temp, "sed 's/foo/bar/'", "", new Options().keep(true)).exec(
+            temp, new Statistics(temp.resolve("stats.csv")), 2, new Timeouts(10)
+        );
+        MatcherAssert.assertThat(
+            "the file must be rewritten and converted back",
+            Files.readString(temp.resolve("unphi/a/Foo.xmir"), StandardCharsets.UTF_8),
+            Matchers.containsString("bar")
+        );
+    }
+
+    @Test
+    void recordsStatistics(@Mktmp final Path temp) throws Exception {
+        RewritingTest.xmir(temp, "Foo", "<o>foo</o>");
+        RewritingTest.xmir(temp, "Bar", "<o>xyz</o>");
+        RewritingTest.rewriting(temp, "sed 's/foo/bar/'", "", new Options().keep(true)).exec(
+            temp, new Statistics(temp.resolve("stats.csv")), 1, new Timeouts(10)
+        );
+        MatcherAssert.assertThat(
+            "only one file must be changed, with two lines in the diff",
+            new CSV(temp.resolve("stats.csv")).count("Changed", v -> Integer.parseInt(v) == 2),
+            Matchers.is(1)
+        );
+    }
+
+    @Test
+    void skipsFilesWithoutGrepInMatch(@Mktmp final Path temp) throws Exception {
+        RewritingTest.xmir(temp, "Foo", "<o>foo</o>");
+        RewritingTest.rewriting(
+            temp, "sed 's/foo/bar/'", ">(6D-61-70)<", new Options().keep(true)
+        ).exec(
+            temp, new Statistics(temp.resolve("stats.csv")), 1, new Timeouts(10)
+        );
+        MatcherAssert.assertThat(
+            "the file must not be given to the assembler",
+            temp.resolve("unphi/Foo.xmir").toFile().exists(),
+            Matchers.is(false)
+        );
+        MatcherAssert.assertThat(
+            "the file must be recorded as skipped by grep-in",
+            new CSV(temp.resolve("stats.csv")).count("Outcome", "grep-skipped"::equals),
+            Matchers.is(1)
+        );
+    }
+
+    @Test
+    void leavesFileUntouchedOnTimeout(@Mktmp final Path temp) throws Exception {
+        RewritingTest.xmir(temp, "Slow", "<o>foo</o>");
+        RewritingTest.rewriting(temp, "exec sleep 60", "", new Options().keep(true)).exec(
+            temp, new Statistics(temp.resolve("stats.csv")), 1, new Timeouts(5)
+        );
+        MatcherAssert.assertThat(
+            "the file must not be given to the assembler, after the timeout",
+            temp.resolve("unphi/Slow.xmir").toFile().exists(),
+            Matchers.is(false)
+        );
+        MatcherAssert.assertThat(
+            "the file must be recorded as timed out",
+            new CSV(temp.resolve("stats.csv")).count("Outcome", "timeout"::equals),
+            Matchers.is(1)
+        );
+    }
+
+    @Test
+    void recordsStagesOfFiles(@Mktmp final Path temp) throws Exception {
+        RewritingTest.xmir(temp, "Foo", "<o>foo</o>");
+        RewritingTest.rewriting(temp, "sed 's/foo/bar/'", "", new Options()).exec(
+            temp, new Statistics(temp.resolve("stats.csv")), 1, new Timeouts(10)
+        );
+        final Map<String, String> row = new CSV(temp.resolve("stats.csv")).rows().get(0);
+        MatcherAssert.assertThat(
+            "the row must have the outcome, the size of XMIR, and the times of stages",
+            Arrays.asList(
+                row.get("Outcome"), row.get("XmirBytes").isEmpty(),
+                row.get("ParseMillis").isEmpty(), row.get("PrintMillis").isEmpty(),
+                row.get("Rules")
+            ),
+            Matchers.equalTo(Arrays.asList("optimized", false, false, false, "1"))
+        );
+    }
+
+    @Test
+    void tracesStagesOfFiles(@Mktmp final Path temp) throws Exception {
+        RewritingTest.xmir(temp, "a/Foo", "<o>foo</o>");
+        final Trace trace = new Trace(temp.resolve("trace.json"));
+        RewritingTest.rewriting(temp, "sed 's/foo/bar/'", "", new Options()).exec(
+            temp, new Statistics(temp.resolve("stats.csv")), 1, new Timeouts(10), trace,
+            new Metrics()
+        );
+        trace.save();
+        MatcherAssert.assertThat(
+            "every stage of the file must be in the trace",
+            Files.readString(temp.resolve("trace.json"), StandardCharsets.UTF_8),
+            Matchers.allOf(
+                Matchers.containsString("\"name\":\"queue\""),
+                Matchers.containsString("\"name\":\"xmir-to-phi\""),
+                Matchers.containsString("\"name\":\"rewrite\""),
+                Matchers.containsString("\"name\":\"phi-to-xmir\""),
+                Matchers.containsString("\"name\":\"file\"")
+            )
+        );
+    }
+
+    @Test
+    void countsFilesInMetrics(@Mktmp final Path temp) throws Exception {
+        RewritingTest.xmir(temp, "a/Foo", "<o>foo</o>");
+        RewritingTest.xmir(temp, "a/Bar", "<o>bar</o>");
+        final Metrics metrics = new Metrics();
+        RewritingTest.rewriting(temp, "sed 's/foo/bar/'", "", new Options()).exec(
+            temp, new Statistics(temp.resolve("stats.csv")), 2, new Timeouts(10),
+            new Trace(), metrics
+        );
+        MatcherAssert.assertThat(
+            "all files must be counted as done, none as queued or running",
+            metrics.prometheus(),
+            Matchers.allOf(
+                Matchers.containsString("hone_files_done 2\n"),
+                Matchers.containsString("hone_files_queued 0\n"),
+                Matchers.containsString("hone_files_running 0\n")
+            )
+        );
+    }
+
+    @Test
+    void givesUpEarlierWithAdaptiveTimeout(@Mktmp final Path temp) throws Exception {
+        RewritingTest.xmir(temp, "Slow", "<o>foo</o>");
+        final Path csv = temp.resolve("stats.csv");
+        Files.write(
+            csv,
+            String.join(
+                "\n",
+                Statistics.HEADER,
+                String.format(
+                    "1/1,\"%s\",\"%s\",0,100,200,,passthrough",
+                    temp.resolve("phi/Slow.phi"), temp.resolve("phi-optimized/Slow.phi")
+                ),
+                ""
+            ).getBytes(StandardCharsets.UTF_8)
+        );
+        final long start = System.currentTimeMillis();
+        RewritingTest.rewriting(temp, "exec sleep 60", "", new Options().keep(true)).exec(
+            temp, new Statistics(csv), 1, new Timeouts(600, 10.0d, 5)
+        );
+        MatcherAssert.assertThat(
+            "the file must be given up on long before the ceiling",
+            System.currentTimeMillis() - start,
+            Matchers.lessThan(30_000L)
+        );
+    }
+
+    @Test
+    void rewritesWithSpareProcesses(@Mktmp final Path temp) throws Exception {
+        for (int idx = 0; idx < 5; ++idx) {
+            RewritingTest.xmir(temp, String.format("x/Foo%d", idx), "<o>foo</o>");
+        }
+        RewritingTest.rewriting(
+            temp, "sed 's/foo/bar/'", "", new Options().pool(true).keep(true)
+        ).exec(
+            temp, new Statistics(temp.resolve("stats.csv")), 2, new Timeouts(10)
+        );
+        MatcherAssert.assertThat(
+            "all files must be rewritten through stdin of spare processes",
+            new CSV(temp.resolve("stats.csv")).count("Changed", v -> Integer.parseInt(v) == 2),
+            Matchers.is(5)
+        );
+    }
+
+    @Test
+    void rewritesInMemory(@Mktmp final Path temp) throws Exception {
+        RewritingTest.xmir(temp, "a/Foo", "<o>foo</o>");
+        RewritingTest.rewriting(temp, "sed 's/foo/bar/'", "", new Options()).exec(
+            temp, new Statistics(temp.resolve("stats.csv")), 1, new Timeouts(10)
+        );
+        MatcherAssert.assertThat(
+            "the file must be rewritten without PHI files on disk",
+            Files.readString(temp.resolve("unphi/a/Foo.xmir"), StandardCharsets.UTF_8),
+            Matchers.containsString("bar")
+        );
+    }
+
+    @Test
+    void doesNotSavePhiInMemory(@Mktmp final Path temp) throws Exception {
+        RewritingTest.xmir(temp, "Foo", "<o>foo</o>");
+        RewritingTest.rewriting(temp, "sed 's/foo/bar/'", "", new Options().pool(true)).exec(
+            temp, new Statistics(temp.resolve("stats.csv")), 2, new Timeouts(10)
+        );
+        MatcherAssert.assertThat(
+            "PHI files must not be saved",
+            temp.resolve("phi-optimized/Foo.phi").toFile().exists(),
+            Matchers.is(false)
+        );
+    }
+
+    @Test
+    void countsChangesInMemory(@Mktmp final Path temp) throws Exception {
+        RewritingTest.xmir(temp, "Foo", "<o>foo</o>\n<o>foo</o>");
+        RewritingTest.rewriting(temp, "sed 's/foo/bar/'", "", new Options()).exec(
+            temp, new Statistics(temp.resolve("stats.csv")), 1, new Timeouts(10)
+        );
+        MatcherAssert.assertThat(
+            "changes must be counted the same way as with files",
+            new CSV(temp.resolve("stats.csv")).count("Changed", v -> Integer.parseInt(v) == 4),
+            Matchers.is(1)
+        );
+    }
+
+    @Test
+    void passesThroughUnchangedFiles(@Mktmp final Path temp) throws Exception {
+        RewritingTest.xmir(temp, "Foo", "<o>foo</o>");
+        RewritingTest.xmir(temp, "Bar", "<o>xyz</o>");
+        Files.createDirectories(temp.resolve("unphi"));
+        Files.write(temp.resolve("unphi/Bar.xmir"), "stale".getBytes(StandardCharsets.UTF_8));
+        RewritingTest.rewriting(temp, "sed 's/foo/bar/'", "", new Options()).exec(
+            temp, new Statistics(temp.resolve("stats.csv")), 1, new Timeouts(10)
+        );
+        MatcherAssert.assertThat(
+            "the unchanged file must not be given to the assembler",
+            temp.resolve("unphi/Bar.xmir").toFile().exists(),
+            Matchers.is(false)
+        );
+        MatcherAssert.assertThat(
+            "the unchanged file must be recorded as passthrough",
+            new CSV(temp.resolve("stats.csv")).count("Output", "passthrough"::equals),
+            Matchers.is(1)
+        );
+    }
+
+    @Test
+    void skipsFilesWithoutTriggersOfRules(@Mktmp final Path temp) throws Exception {
+        Files.write(
+            temp.resolve("rule.yml"),
+            String.join(
+                "\n",
+                "name: swap",
+                "pattern: ⟦ φ ↦ Φ.jeo.opcode.swap, 𝐵-rest ⟧",
+                "result: ⟦ φ ↦ Φ.jeo.opcode.nop, 𝐵-rest ⟧"
+            ).getBytes(StandardCharsets.UTF_8)
+        );
+        RewritingTest.xmir(temp, "Foo", "<o>foo Φ.jeo.opcode.swap</o>");
+        RewritingTest.xmir(temp, "Bar", "<o>foo Φ.jeo.opcode.dup</o>");
+        RewritingTest.rewriting(temp, "sed 's/foo/bar/'", "", new Options().index(true)).exec(
+            temp, new Statistics(temp.resolve("stats.csv")), 1, new Timeouts(10)
+        );
+        MatcherAssert.assertThat(
+            "only the file with the trigger of the rule must be rewritten",
+            Arrays.asList(
+                temp.resolve("unphi/Foo.xmir").toFile().exists(),
+                temp.resolve("unphi/Bar.xmir").toFile().exists()
+            ),
+            Matchers.contains(true, false)
+        );
+    }
+
+    @Test
+    void profilesRulesInMemory(@Mktmp final Path temp) throws Exception {
+        RewritingTest.xmir(temp, "Foo", "<o>foo</o>");
+        RewritingTest.xmir(temp, "Bar", "<o>xyz</o>");
+        RewritingTest.rewriting(temp, "sed 's/foo/bar/'", "", new Options().profile(true)).exec(
+            temp, new Statistics(temp.resolve("stats.csv")), 1, new Timeouts(10)
+        );
+        MatcherAssert.assertThat(
+            "every file must have a row in the profile, but only one a hit",
+            Arrays.asList(
+                new CSV(temp.resolve(Statistics.PROFILE)).count("Rule", "rule"::equals),
+                new CSV(temp.resolve(Statistics.PROFILE)).count("Hit", "1"::equals)
+            ),
+            Matchers.contains(2, 1)
+        );
+        MatcherAssert.assertThat(
+            "the rewritten file must still be given to the assembler",
+            temp.resolve("unphi/Foo.xmir").toFile().exists(),
+            Matchers.is(true)
+        );
+    }
+
+    @Test
+    void appliesRulesBlockByBlock(@Mktmp final Path temp) throws Exception {
+        RewritingTest.xmir(temp, "Foo", "<o>foo</o>");
+        new Rewriting(
+            new Phino(
+                PhinoTest.fake(
+                    temp,
+                    String.join(
+                        "\n",
+                        "for a; do f=\"${a}\"; done",
+                        "if [ -f \"${f}\" ]; then exec < \"${f}\"; fi",
+                        "case \"$*\" in",
+                        "  *--rule*) sed 's/o/0/' ;;",
+                        "  *) cat ;;",
+                        "esac"
+                    )
+                ).toString()
+            ),
+            Arrays.asList(
+                temp.resolve("1xx/101-a.yml").toString(),
+                temp.resolve("2xx/201-b.yml").toString()
+            ),
+            new Budget(1, 500),
+            "",
+            new Options().keep(true).staged(true)
+        ).exec(temp, new Statistics(temp.resolve("stats.csv")), 1, new Timeouts(10));
+        MatcherAssert.assertThat(
+            "each block must be applied by its own phino",
+            new String(
+                Files.readAllBytes(temp.resolve("phi-optimized/Foo.phi")),
+                StandardCharsets.UTF_8
+            ),
+            Matchers.startsWith("<0>f0o</o>")
+        );
+    }
+
+    /**
+     * Make a rewriting with a fake phino.
+     * @param dir The directory for the fake phino
+     * @param ruled What the fake does when a rule is given
+     * @param grep The grep-in regex
+     * @param opts The options
+     * @return The rewriting
+     * @throws Exception If fails
+     */
+    private static Rewriting rewriting(final Path dir, final String ruled,
+        final String grep, final Options opts) throws Exception {
+        return new Rewriting(
+            new Phino(
+                PhinoTest.fake(
+                    dir,
+                    String.join(
+                        "\n",
+                        "for a; do f=\"${a}\"; done",
+                        "if [ -f \"${f}\" ]; then exec < \"${f}\"; fi",
+                        "case \"$*\" in",
+                        String.format("  *--rule*) %s ;;", ruled),
+                        "  *) cat ;;",
+                        "esac"
+                    )
+                ).toString()
+            ),
+            Collections.singletonList(dir.resolve("rule.yml").toString()),
+            new Budget(1, 500),
+            grep,
+            opts
+        );
+    }
+
+    /**
+     * Save XMIR file.
+     * @param home The home directory
+     * @param name The name of the file, without extension
+     * @param body The content
+     * @throws Exception If fails
+     */
+    private static void xmir(final Path home, final String name,
+        final String body) throws Exception {
+        final Path file = home.resolve("jeo-disassemble").resolve(
+            String.format("%s.xmir", name)
+        );
+        Files.createDirectories(file.getParent());
+        Files.write(file, body.getBytes(StandardCharsets.UTF_8));
+    }
+}
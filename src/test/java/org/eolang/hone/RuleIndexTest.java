@@ -0,0 +1,92 @@
+/*
+ * SPDX-FileCopyrightText: Copyright (c) 2024-2026 Objectionary.com
+ * SPDX-License-Identifier: MIT
+ */
+package org.eolang.hone;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test case for {@link RuleIndex}.
+ * @since 0.30.0
+ */
+final class RuleIndexTest {
+
+    @Test
+    void selectsRulesWithPresentTriggers() {
+        final Map<String, String> yamls = new LinkedHashMap<>(0);
+        yamls.put("a.yml", RuleIndexTest.rule("Φ.jeo.opcode.dup", "Φ.jeo.opcode.nop"));
+        yamls.put("b.yml", RuleIndexTest.rule("Φ.jeo.opcode.swap", "Φ.jeo.opcode.nop"));
+        MatcherAssert.assertThat(
+            "only the rule whose trigger is in the program must be selected",
+            new RuleIndex(yamls).select("⟦ x ↦ Φ.jeo.opcode.dup, y ↦ Φ.jeo.opcode.pop ⟧"),
+            Matchers.contains("a.yml")
+        );
+    }
+
+    @Test
+    void selectsRulesMadeApplicableByOthers() {
+        final Map<String, String> yamls = new LinkedHashMap<>(0);
+        yamls.put("late.yml", RuleIndexTest.rule("Φ.hone.p-filter", "Φ.hone.done"));
+        yamls.put("early.yml", RuleIndexTest.rule("Φ.jeo.class", "Φ.hone.𝜏-filter"));
+        yamls.put("never.yml", RuleIndexTest.rule("Φ.jeo.opcode.swap", "Φ.jeo.class"));
+        MatcherAssert.assertThat(
+            "the rule must be selected, if another rule may make its trigger",
+            new RuleIndex(yamls).select("⟦ φ ↦ Φ.jeo.class ⟧"),
+            Matchers.contains("late.yml", "early.yml")
+        );
+    }
+
+    @Test
+    void matchesPrefixOfMetavariable() {
+        final Map<String, String> yamls = new LinkedHashMap<>(0);
+        yamls.put("x.yml", RuleIndexTest.rule("Φ.jeo.opcode.𝜏-op", "Φ.jeo.opcode.nop"));
+        MatcherAssert.assertThat(
+            "the trigger with a metavariable must match any path with the same prefix",
+            new RuleIndex(yamls).select("⟦ x ↦ Φ.jeo.opcode.aload ⟧"),
+            Matchers.contains("x.yml")
+        );
+    }
+
+    @Test
+    void ignoresPathsHiddenBySugar() {
+        final Map<String, String> yamls = new LinkedHashMap<>(0);
+        yamls.put(
+            "n.yml",
+            RuleIndexTest.rule(
+                "Φ.bytes ( data ↦ ⟦ Δ ⤍ 40-40-80-00-00-00-00-00 ⟧ )",
+                "Φ.bytes ( data ↦ ⟦ Δ ⤍ 40-45-00-00-00-00-00-00 ⟧ )"
+            )
+        );
+        yamls.put("e.yml", "");
+        MatcherAssert.assertThat(
+            "rules without triggers must always be selected",
+            new RuleIndex(yamls).select("⟦ x ↦ 33 ⟧"),
+            Matchers.contains("n.yml", "e.yml")
+        );
+    }
+
+    /**
+     * Make YAML of a rule.
+     * @param pattern The pattern
+     * @param result The result
+     * @return YAML
+     */
+    private static String rule(final String pattern, final String result) {
+        return String.join(
+            "\n",
+            "# Φ.jeo.comment",
+            "---",
+            "name: test",
+            "pattern: |",
+            String.format("  ⟦ φ ↦ %s, 𝐵-rest ⟧", pattern),
+            "result: |",
+            String.format("  ⟦ φ ↦ %s, 𝐵-rest ⟧", result),
+            ""
+        );
+    }
+}
@@ -0,0 +1,77 @@
+/*
+ * SPDX-FileCopyrightText: Copyright (c) 2024-2026 Objectionary.com
+ * SPDX-License-Identifier: MIT
+ */
+package org.eolang.hone;
+
+import com.yegor256.Mktmp;
+import com.yegor256.MktmpResolver;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+/**
+ * Test case for {@link RuleProfile}.
+ * @since 0.30.0
+ */
+@ExtendWith(MktmpResolver.class)
+final class RuleProfileTest {
+
+    @Test
+    void sortsRulesByTime(@Mktmp final Path temp) throws Exception {
+        MatcherAssert.assertThat(
+            "the rule that took the most time in total must be the first",
+            new RuleProfile(RuleProfileTest.profile(temp)).top("Millis", 2),
+            Matchers.contains("fast-but-often", "slow")
+        );
+    }
+
+    @Test
+    void sortsRulesByHits(@Mktmp final Path temp) throws Exception {
+        MatcherAssert.assertThat(
+            "the rule that changed the most classes must be the first",
+            new RuleProfile(RuleProfileTest.profile(temp)).top("Hit", 1),
+            Matchers.contains("slow")
+        );
+    }
+
+    @Test
+    void printsTable(@Mktmp final Path temp) throws Exception {
+        MatcherAssert.assertThat(
+            "the table must have a header and all numbers of the rule",
+            new RuleProfile(RuleProfileTest.profile(temp)).table("Millis", 1),
+            Matchers.allOf(
+                Matchers.containsString("Millis"),
+                Matchers.matchesPattern("(?s).*fast-but-often +130 +3 +0 +0$")
+            )
+        );
+    }
+
+    /**
+     * Save the profile of rules.
+     * @param dir The directory
+     * @return The file
+     * @throws Exception If fails
+     */
+    private static Path profile(final Path dir) throws Exception {
+        final Path file = dir.resolve(Statistics.PROFILE);
+        Files.write(
+            file,
+            String.join(
+                "\n",
+                Statistics.PROFILE_HEADER,
+                "\"a.phi\",slow,100,7,1",
+                "\"a.phi\",fast-but-often,50,0,0",
+                "\"b.phi\",slow,20,2,1",
+                "\"b.phi\",fast-but-often,40,0,0",
+                "\"c.phi\",fast-but-often,40,0,0",
+                ""
+            ).getBytes(StandardCharsets.UTF_8)
+        );
+        return file;
+    }
+}
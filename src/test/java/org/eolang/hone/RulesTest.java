@@ -131,6 +131,22 @@ final class RulesTest {
         );
     }
 
+    @Test
+    void listsRulesOfIndex() {
+        MatcherAssert.assertThat(
+            "Should take paths of rules from the index, ignoring empty lines",
+            Rules.listed(
+                String.join(
+                    "\n",
+                    "none.yml",
+                    "",
+                    "streams/1xx/101-remove-self-reference-labels.phr"
+                )
+            ),
+            Matchers.contains("none.yml", "streams/1xx/101-remove-self-reference-labels.phr")
+        );
+    }
+
     @Test
     void yamlsReturnsSortedList() {
         final Iterable<String> yamls = new Rules("*").yamls();
@@ -0,0 +1,86 @@
+/*
+ * SPDX-FileCopyrightText: Copyright (c) 2024-2026 Objectionary.com
+ * SPDX-License-Identifier: MIT
+ */
+package org.eolang.hone;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test case for {@link Schedule}.
+ * @since 0.30.0
+ */
+final class ScheduleTest {
+
+    @Test
+    void putsLargestFirstWithoutHistory() {
+        MatcherAssert.assertThat(
+            "the largest file must go first",
+            new Schedule(Collections.emptyMap()).order(
+                Arrays.asList("a", "b", "c"),
+                Arrays.asList(10L, 300L, 20L)
+            ),
+            Matchers.contains(1, 2, 0)
+        );
+    }
+
+    @Test
+    void prefersHistoryOverSize() {
+        final Map<String, Long> hist = new HashMap<>(0);
+        hist.put("a", 5000L);
+        hist.put("b", 10L);
+        MatcherAssert.assertThat(
+            "the file that was slow last time must go first",
+            new Schedule(hist).order(
+                Arrays.asList("a", "b", "c"),
+                Arrays.asList(10L, 300L, 20L)
+            ),
+            Matchers.contains(0, 2, 1)
+        );
+    }
+
+    @Test
+    void keepsOriginalOrderForEqualCosts() {
+        MatcherAssert.assertThat(
+            "files of the same size must keep their order",
+            new Schedule(Collections.emptyMap()).order(
+                Arrays.asList("x", "y"),
+                Arrays.asList(7L, 7L)
+            ),
+            Matchers.contains(0, 1)
+        );
+    }
+
+    @Test
+    void estimatesUnknownFilesByRateOfKnownOnes() {
+        final Map<String, Long> hist = new HashMap<>(0);
+        hist.put("a", 500L);
+        final double[] costs = new Schedule(hist).costs(
+            Arrays.asList("a", "b"),
+            Arrays.asList(100L, 300L)
+        );
+        MatcherAssert.assertThat(
+            "the unknown file must take as long per byte as the known one",
+            costs[1],
+            Matchers.closeTo(1500.0d, 0.001d)
+        );
+    }
+
+    @Test
+    void admitsThatNothingIsKnown() {
+        MatcherAssert.assertThat(
+            "without history the cost must be negative",
+            new Schedule(Collections.emptyMap()).costs(
+                Collections.singletonList("a"),
+                Collections.singletonList(100L)
+            )[0],
+            Matchers.lessThan(0.0d)
+        );
+    }
+}
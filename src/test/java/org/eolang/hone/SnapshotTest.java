@@ -0,0 +1,94 @@
+/*
+ * SPDX-FileCopyrightText: Copyright (c) 2024-2026 Objectionary.com
+ * SPDX-License-Identifier: MIT
+ */
+package org.eolang.hone;
+
+import com.yegor256.Mktmp;
+import com.yegor256.MktmpResolver;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+/**
+ * Test case for {@link Snapshot}.
+ * @since 0.30.0
+ */
+@ExtendWith(MktmpResolver.class)
+final class SnapshotTest {
+
+    @Test
+    void copiesAllFiles(@Mktmp final Path temp) throws Exception {
+        SnapshotTest.write(temp.resolve("classes/a/Foo.class"), "foo");
+        new Snapshot(temp.resolve("classes"), temp.resolve("before"), "copy").take();
+        MatcherAssert.assertThat(
+            "the file must be copied",
+            Files.readString(temp.resolve("before/a/Foo.class")),
+            Matchers.equalTo("foo")
+        );
+    }
+
+    @Test
+    void keepsLinkedFileAfterOverwrite(@Mktmp final Path temp) throws Exception {
+        final Path file = temp.resolve("classes/a/Foo.class");
+        SnapshotTest.write(file, "original");
+        final Snapshot snap = new Snapshot(
+            temp.resolve("classes"), temp.resolve("before"), "link"
+        );
+        snap.take();
+        snap.save(Paths.get("a/Foo.class"));
+        Files.write(file, "optimized".getBytes(StandardCharsets.UTF_8));
+        MatcherAssert.assertThat(
+            "the snapshot must keep the original bytes",
+            Files.readString(temp.resolve("before/a/Foo.class")),
+            Matchers.equalTo("original")
+        );
+    }
+
+    @Test
+    void savesOnlyChangedFiles(@Mktmp final Path temp) throws Exception {
+        SnapshotTest.write(temp.resolve("classes/Foo.class"), "foo");
+        SnapshotTest.write(temp.resolve("classes/Bar.class"), "bar");
+        final Snapshot snap = new Snapshot(
+            temp.resolve("classes"), temp.resolve("before"), "changed"
+        );
+        snap.take();
+        snap.save(Paths.get("Foo.class"));
+        MatcherAssert.assertThat(
+            "only the saved file must be in the snapshot",
+            temp.resolve("before/Bar.class").toFile().exists(),
+            Matchers.is(false)
+        );
+        MatcherAssert.assertThat(
+            "the saved file must be in the snapshot",
+            Files.readString(temp.resolve("before/Foo.class")),
+            Matchers.equalTo("foo")
+        );
+    }
+
+    @Test
+    void rejectsUnknownMode(@Mktmp final Path temp) {
+        Assertions.assertThrows(
+            IllegalArgumentException.class,
+            () -> new Snapshot(temp, temp.resolve("before"), "symlink"),
+            "unknown mode must be rejected"
+        );
+    }
+
+    /**
+     * Write the file, making its directory.
+     * @param file The file
+     * @param text The content
+     * @throws Exception If fails
+     */
+    private static void write(final Path file, final String text) throws Exception {
+        Files.createDirectories(file.getParent());
+        Files.write(file, text.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,154 @@
+/*
+ * SPDX-FileCopyrightText: Copyright (c) 2024-2026 Objectionary.com
+ * SPDX-License-Identifier: MIT
+ */
+package org.eolang.hone;
+
+import com.yegor256.Mktmp;
+import com.yegor256.MktmpResolver;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Map;
+import java.util.stream.Collectors;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+/**
+ * Test case for {@link Statistics}.
+ * @since 0.30.0
+ */
+@ExtendWith(MktmpResolver.class)
+final class StatisticsTest {
+
+    @Test
+    void writesRowsReadableByCsv(@Mktmp final Path temp) throws Exception {
+        final Path file = temp.resolve("a/hone-statistics.csv");
+        final Statistics stats = new Statistics(file);
+        stats.start();
+        stats.row("1/2", temp.resolve("a.phi"), temp.resolve("b.phi"), 4, 100L);
+        stats.row("2/2", temp.resolve("c.phi"), temp.resolve("d.phi"), 0, 200L);
+        MatcherAssert.assertThat(
+            "only one file must be counted as changed",
+            new CSV(file).count("Changed", v -> Integer.parseInt(v) > 0),
+            Matchers.is(1)
+        );
+    }
+
+    @Test
+    void restartsFromScratch(@Mktmp final Path temp) throws Exception {
+        final Path file = temp.resolve("hone-statistics.csv");
+        final Statistics stats = new Statistics(file);
+        stats.start();
+        stats.row("1/1", temp.resolve("a.phi"), temp.resolve("b.phi"), 1, 1L);
+        stats.start();
+        MatcherAssert.assertThat(
+            "previous rows must be gone after restart",
+            new CSV(file).size(),
+            Matchers.is(0)
+        );
+    }
+
+    @Test
+    void marksHitsAndMisses(@Mktmp final Path temp) throws Exception {
+        final Path file = temp.resolve("hone-statistics.csv");
+        final Statistics stats = new Statistics(file, true);
+        stats.start();
+        stats.row("1/2", temp.resolve("a.phi"), temp.resolve("b.phi"), 3, 10L);
+        stats.hit("1/1", temp.resolve("c.phi"), temp.resolve("d.phi"), 5);
+        MatcherAssert.assertThat(
+            "one file must be taken from the cache",
+            new CSV(file).count("Cache", "hit"::equals),
+            Matchers.is(1)
+        );
+        MatcherAssert.assertThat(
+            "changed lines of a rewritten file must be remembered",
+            stats.changed(temp.resolve("a.phi")),
+            Matchers.is(3)
+        );
+    }
+
+    @Test
+    void writesProfileOfRules(@Mktmp final Path temp) throws Exception {
+        final Statistics stats = new Statistics(temp.resolve("hone-statistics.csv"));
+        stats.start();
+        stats.rule(temp.resolve("a.phi"), "101-foo", 40L, 3);
+        stats.rule(temp.resolve("a.phi"), "102-bar", 10L, 0);
+        MatcherAssert.assertThat(
+            "only the rule that changed something must be a hit",
+            new CSV(temp.resolve(Statistics.PROFILE)).count("Hit", "1"::equals),
+            Matchers.is(1)
+        );
+        stats.start();
+        MatcherAssert.assertThat(
+            "the profile must be gone after restart",
+            temp.resolve(Statistics.PROFILE).toFile().exists(),
+            Matchers.is(false)
+        );
+    }
+
+    @Test
+    void readsDurationsOfPreviousRun(@Mktmp final Path temp) throws Exception {
+        final Path file = temp.resolve("hone-statistics.csv");
+        final Statistics stats = new Statistics(file);
+        stats.start();
+        stats.row("1/1", temp.resolve("a.phi"), temp.resolve("b.phi"), 1, 10L, 1234L);
+        MatcherAssert.assertThat(
+            "the duration must be read back by the path before rewriting",
+            new Statistics(file).durations().get(temp.resolve("a.phi").toString()),
+            Matchers.is(1234L)
+        );
+    }
+
+    @Test
+    void writesOutcomesOfFiles(@Mktmp final Path temp) throws Exception {
+        final Path file = temp.resolve("hone-statistics.csv");
+        final Statistics stats = new Statistics(file, true);
+        stats.start();
+        stats.row("1/3", temp.resolve("a.phi"), temp.resolve("b.phi"), 2, 10L, 5L);
+        stats.row(
+            "2/3", temp.resolve("c.phi"), temp.resolve("d.phi"),
+            Collections.singletonMap("Outcome", Statistics.TIMEOUT)
+        );
+        stats.hit("3/3", temp.resolve("e.phi"), temp.resolve("f.phi"), 1);
+        MatcherAssert.assertThat(
+            "every file must have its own outcome",
+            new CSV(file).rows().stream()
+                .map(row -> row.get("Outcome"))
+                .collect(Collectors.toList()),
+            Matchers.equalTo(Arrays.asList("optimized", "timeout", "cached"))
+        );
+    }
+
+    @Test
+    void doesNotCountCacheHitsAsAssembled(@Mktmp final Path temp) throws Exception {
+        final Path file = temp.resolve("hone-statistics.csv");
+        final Statistics stats = new Statistics(file, true);
+        stats.start();
+        stats.row("1/2", temp.resolve("a.phi"), temp.resolve("b.phi"), 3, 10L);
+        stats.hit("1/1", temp.resolve("c.phi"), temp.resolve("d.phi"), 5);
+        MatcherAssert.assertThat(
+            "a class taken from the cache must not be counted as assembled",
+            new CSV(file).count("Output", "assembled"::equals),
+            Matchers.is(1)
+        );
+    }
+
+    @Test
+    void fillsInSizesOfClasses(@Mktmp final Path temp) throws Exception {
+        final Path file = temp.resolve("hone-statistics.csv");
+        final Statistics stats = new Statistics(file);
+        stats.start();
+        stats.row("1/1", temp.resolve("a.phi"), temp.resolve("b.phi"), 2, 10L, 5L);
+        stats.binary(temp.resolve("a.phi"), new byte[] {1, 2, 3}, new byte[] {1, 2});
+        stats.complete();
+        final Map<String, String> row = new CSV(file).rows().get(0);
+        MatcherAssert.assertThat(
+            "sizes of the class before and after must be filled in",
+            Arrays.asList(row.get("ClassBefore"), row.get("ClassAfter"), row.get("Outcome")),
+            Matchers.equalTo(Arrays.asList("3", "2", "optimized"))
+        );
+    }
+}
@@ -6,8 +6,10 @@ package org.eolang.hone;
 
 import com.yegor256.Mktmp;
 import com.yegor256.MktmpResolver;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.Arrays;
 import org.cactoos.bytes.BytesOf;
 import org.cactoos.io.ResourceOf;
 import org.cactoos.text.TextOf;
@@ -68,6 +70,107 @@ final class SummaryTest {
         );
     }
 
+    @Test
+    void collectsProfilesOfRules(@Mktmp final Path temp) throws Exception {
+        for (final String module : new String[] {"server", "client"}) {
+            new Statistics(
+                Files.createDirectories(temp.resolve(module)).resolve("hone-statistics.csv")
+            ).rule(temp.resolve(module).resolve("a.phi"), "101-foo", 10L, 1);
+        }
+        MatcherAssert.assertThat(
+            "the profile must contain rows from both modules",
+            new CSV(new Summary(temp, Files.createDirectories(temp.resolve("target"))).profile())
+                .count("Rule", "101-foo"::equals),
+            Matchers.is(2)
+        );
+    }
+
+    @Test
+    void savesTotalsOfModules(@Mktmp final Path temp) throws Exception {
+        for (final String module : new String[] {"server", "client"}) {
+            final Statistics stats = new Statistics(
+                Files.createDirectories(temp.resolve(module)).resolve("hone-statistics.csv")
+            );
+            stats.start();
+            stats.row("1/2", temp.resolve("a.phi"), temp.resolve("b.phi"), 1, 10L, 20L);
+            stats.row("2/2", temp.resolve("c.phi"), temp.resolve("d.phi"), 0, 10L, 50L);
+        }
+        final Path dir = Files.createDirectories(temp.resolve("target"));
+        final Path report = new Summary(temp, dir).collect();
+        MatcherAssert.assertThat(
+            "rows of both modules must be renumbered in one sequence",
+            new CSV(report).count("ID", "4/4"::equals),
+            Matchers.is(1)
+        );
+        MatcherAssert.assertThat(
+            "every module must have its own totals",
+            new CSV(dir.resolve(Summary.MODULES)).count("Millis", "70"::equals),
+            Matchers.is(2)
+        );
+    }
+
+    @Test
+    void keepsColumnsOfAllModules(@Mktmp final Path temp) throws Exception {
+        Files.write(
+            Files.createDirectories(temp.resolve("old")).resolve("hone-statistics.csv"),
+            String.join(System.lineSeparator(), "ID,Changed", "1/1,5", "")
+                .getBytes(StandardCharsets.UTF_8)
+        );
+        Files.write(
+            Files.createDirectories(temp.resolve("new")).resolve("hone-statistics.csv"),
+            String.join(System.lineSeparator(), "ID,Changed,Outcome", "1/1,0,timeout", "")
+                .getBytes(StandardCharsets.UTF_8)
+        );
+        MatcherAssert.assertThat(
+            "the column that only one of the modules has must not be lost",
+            new CSV(
+                new Summary(temp, Files.createDirectories(temp.resolve("target"))).collect()
+            ).count("Outcome", "timeout"::equals),
+            Matchers.is(1)
+        );
+    }
+
+    @Test
+    void takesStatisticsFromKnownDirectoriesOnly(@Mktmp final Path temp) throws Exception {
+        SummaryTest.statistics(temp.resolve("a/target"));
+        SummaryTest.statistics(temp.resolve("b/custom"));
+        MatcherAssert.assertThat(
+            "only the statistics of the known directory must be collected",
+            new CSV(
+                new Summary(
+                    temp, Files.createDirectories(temp.resolve("target")),
+                    Arrays.asList(temp.resolve("a/target"), temp.resolve("c/target"))
+                ).collect()
+            ).size(),
+            Matchers.is(1)
+        );
+    }
+
+    @Test
+    void skipsIntermediateFilesWhileWalking(@Mktmp final Path temp) throws Exception {
+        SummaryTest.statistics(temp.resolve("a/target"));
+        SummaryTest.statistics(temp.resolve("a/target/hone/phi/foo"));
+        SummaryTest.statistics(temp.resolve("a/target/classes"));
+        MatcherAssert.assertThat(
+            "statistics must not be looked for among intermediate files",
+            new CSV(
+                new Summary(temp, Files.createDirectories(temp.resolve("target"))).collect()
+            ).size(),
+            Matchers.is(1)
+        );
+    }
+
+    /**
+     * Write statistics with one row.
+     * @param dir The directory
+     * @throws Exception If fails
+     */
+    private static void statistics(final Path dir) throws Exception {
+        final Statistics stats = new Statistics(dir.resolve("hone-statistics.csv"));
+        stats.start();
+        stats.row("1/1", dir.resolve("a.phi"), dir.resolve("b.phi"), 1, 10L, 20L);
+    }
+
     private static Path modular(final Path root) throws Exception {
         Files.createDirectories(root.resolve("server"));
         Files.createDirectories(root.resolve("client"));
@@ -0,0 +1,98 @@
+/*
+ * SPDX-FileCopyrightText: Copyright (c) 2024-2026 Objectionary.com
+ * SPDX-License-Identifier: MIT
+ */
+package org.eolang.hone;
+
+import com.yegor256.Mktmp;
+import com.yegor256.MktmpResolver;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+/**
+ * Test case for {@link Throttle}.
+ * @since 0.30.0
+ */
+@ExtendWith(MktmpResolver.class)
+final class ThrottleTest {
+
+    @Test
+    void honoursCpuQuota(@Mktmp final Path temp) throws Exception {
+        ThrottleTest.write(temp, "sys/fs/cgroup/cpu.max", "100000 100000\n");
+        MatcherAssert.assertThat(
+            "the number of CPUs must be limited by the cgroup quota",
+            new Throttle(temp, 0L).cpus(),
+            Matchers.equalTo(1)
+        );
+    }
+
+    @Test
+    void readsAvailableMemory(@Mktmp final Path temp) throws Exception {
+        ThrottleTest.write(temp, "proc/meminfo", "MemTotal: 9000 kB\nMemAvailable: 4096 kB\n");
+        ThrottleTest.write(temp, "sys/fs/cgroup/memory.max", "3145728\n");
+        ThrottleTest.write(temp, "sys/fs/cgroup/memory.current", "1048576\n");
+        MatcherAssert.assertThat(
+            "the memory must be the least of the host and the cgroup",
+            new Throttle(temp, 0L).memory(),
+            Matchers.equalTo(2L * 1024L * 1024L)
+        );
+    }
+
+    @Test
+    void limitsThreadsByMemory(@Mktmp final Path temp) throws Exception {
+        ThrottleTest.write(temp, "proc/meminfo", "MemAvailable: 1024 kB\n");
+        MatcherAssert.assertThat(
+            "there must be one thread when memory is enough only for one",
+            new Throttle(temp, 1024L * 1024L).threads(),
+            Matchers.equalTo(1)
+        );
+    }
+
+    @Test
+    void findsPeakMemoryOfChildren(@Mktmp final Path temp) throws Exception {
+        ThrottleTest.write(temp, "proc/7/stat", "7 (java) S 1 7 7 0\n");
+        ThrottleTest.write(temp, "proc/8/stat", "8 (bash) S 7 8 8 0\n");
+        ThrottleTest.write(temp, "proc/9/stat", "9 (phino) R 8 8 8 0\n");
+        ThrottleTest.write(temp, "proc/9/status", "Name:\tphino\nVmHWM:\t  2048 kB\n");
+        ThrottleTest.write(temp, "proc/10/stat", "10 (other) R 1 8 8 0\n");
+        ThrottleTest.write(temp, "proc/10/status", "VmHWM:\t 99999 kB\n");
+        Files.createSymbolicLink(temp.resolve("proc/self"), temp.resolve("proc/7"));
+        MatcherAssert.assertThat(
+            "the peak memory of the grandchild must be found",
+            new Throttle(temp, 0L).rss(),
+            Matchers.equalTo(2048L * 1024L)
+        );
+    }
+
+    @Test
+    void letsOneFileGoWithoutMemory(@Mktmp final Path temp) throws Exception {
+        ThrottleTest.write(temp, "proc/meminfo", "MemAvailable: 1 kB\n");
+        final Throttle throttle = new Throttle(temp, 1024L * 1024L);
+        throttle.enter();
+        throttle.leave();
+        MatcherAssert.assertThat(
+            "the throttle must not block when nothing is in progress",
+            throttle.threads(),
+            Matchers.equalTo(1)
+        );
+    }
+
+    /**
+     * Write a file.
+     * @param root The root
+     * @param rel The path of the file
+     * @param text The content
+     * @throws Exception If fails
+     */
+    private static void write(final Path root, final String rel, final String text)
+        throws Exception {
+        final Path file = root.resolve(rel);
+        Files.createDirectories(file.getParent());
+        Files.write(file, text.getBytes(StandardCharsets.UTF_8));
+    }
+}
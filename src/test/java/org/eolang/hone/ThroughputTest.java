@@ -0,0 +1,213 @@
+/*
+ * SPDX-FileCopyrightText: Copyright (c) 2024-2026 Objectionary.com
+ * SPDX-License-Identifier: MIT
+ */
+package org.eolang.hone;
+
+import com.jcabi.log.Logger;
+import com.yegor256.MayBeSlow;
+import com.yegor256.Mktmp;
+import com.yegor256.MktmpResolver;
+import com.yegor256.farea.Farea;
+import com.yegor256.farea.RequisiteMatcher;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+import org.cactoos.io.ResourceOf;
+import org.cactoos.text.IoCheckedText;
+import org.cactoos.text.TextOf;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.parallel.Execution;
+import org.junit.jupiter.api.parallel.ExecutionMode;
+
+/**
+ * Throughput of {@link OptimizeMojo} on corpora of {@link Corpus}.
+ *
+ * <p>The deep test optimizes corpora of the given sizes, with every
+ * combination of threads, small steps, and rules, and appends one line per
+ * run to {@code hone-throughput.csv} in the {@code target/} directory of
+ * this build. The sizes, the seed, and the combinations are taken from
+ * system properties, for example:
+ * {@code mvn test -Pdeep -Dtest=ThroughputTest -Dhone.throughput.sizes=100,1000,10000}.
+ * </p>
+ *
+ * @since 0.30.0
+ */
+@Execution(ExecutionMode.SAME_THREAD)
+@ExtendWith(MktmpResolver.class)
+@SuppressWarnings("JTCOP.RuleEveryTestHasProductionClass")
+final class ThroughputTest {
+
+    /**
+     * The header of the file with results.
+     */
+    private static final String HEADER = String.join(
+        ",", "Classes", "Seed", "Threads", "SmallSteps", "Rules", "Phino",
+        "Millis", "ClassesPerSec", "XmirBytes", "XmirMbPerSec"
+    );
+
+    @Test
+    void writesTheSameCorpusOnTheSameSeed(@Mktmp final Path dir) throws IOException {
+        final List<Path> files = new Corpus(3, 7L).write(dir.resolve("a"));
+        new Corpus(3, 7L).write(dir.resolve("b"));
+        boolean same = true;
+        for (final Path file : files) {
+            same &= Arrays.equals(
+                Files.readAllBytes(dir.resolve("a").resolve(file)),
+                Files.readAllBytes(dir.resolve("b").resolve(file))
+            );
+        }
+        MatcherAssert.assertThat(
+            "the same size and seed must give the very same files, or runs are not comparable",
+            same,
+            Matchers.is(true)
+        );
+    }
+
+    @Test
+    void spreadsClassesOverPackages(@Mktmp final Path dir) throws IOException {
+        new Corpus(250, 1L).write(dir);
+        try (Stream<Path> pkgs = Files.list(dir.resolve("corpus"))) {
+            MatcherAssert.assertThat(
+                "every hundred of classes must be in its own package",
+                pkgs.count(),
+                Matchers.equalTo(3L)
+            );
+        }
+    }
+
+    @Test
+    @Tag("deep")
+    @ExtendWith(MayBeSlow.class)
+    @Timeout(36_000L)
+    @DisabledWithoutPhino
+    @SuppressWarnings({"PMD.UnitTestShouldIncludeAssert", "JTCOP.RuleAssertionMessage"})
+    void measuresThroughputOnCorpora(@Mktmp final Path home) throws IOException {
+        final Path report = Paths.get(System.getProperty("target.directory", "target"))
+            .resolve("hone-throughput.csv");
+        if (!report.toFile().exists()) {
+            Files.write(
+                report,
+                String.format("%s%n", ThroughputTest.HEADER).getBytes(StandardCharsets.UTF_8)
+            );
+        }
+        final long seed = Long.getLong("hone.throughput.seed", 42L);
+        for (final String size : ThroughputTest.values("sizes", "100")) {
+            final Corpus corpus = new Corpus(Integer.parseInt(size), seed);
+            for (final String threads : ThroughputTest.values("threads", "1,4")) {
+                for (final String steps : ThroughputTest.values("small-steps", "false")) {
+                    for (final String rules : ThroughputTest.values("rules", "streams/*")) {
+                        new Farea(home).together(
+                            f -> ThroughputTest.measure(
+                                f, home, corpus, report, Arrays.asList(threads, steps, rules)
+                            )
+                        );
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Body of {@link #measuresThroughputOnCorpora}, one run.
+     * @param fea Fake Maven project
+     * @param home The root of the fake Maven project
+     * @param corpus The corpus
+     * @param report The file with results
+     * @param params Threads, small steps, and rules
+     * @throws IOException If the build fails to run
+     * @checkstyle ParameterNumberCheck (5 lines)
+     */
+    private static void measure(final Farea fea, final Path home, final Corpus corpus,
+        final Path report, final List<String> params) throws IOException {
+        fea.clean();
+        corpus.write(home.resolve("src/main/java"));
+        fea.build()
+            .plugins()
+            .appendItself()
+            .execution("default")
+            .phase("process-classes")
+            .goals("optimize")
+            .configuration()
+            .set("alwaysWithDocker", "false")
+            .set("grepIn", ".*")
+            .set("threads", params.get(0))
+            .set("smallSteps", params.get(1))
+            .set("rules", params.get(2));
+        fea.exec("process-classes");
+        MatcherAssert.assertThat(
+            String.format("the build of %s must be successful", corpus),
+            fea.log(),
+            RequisiteMatcher.SUCCESS
+        );
+        final String timing = fea.files().file("target/hone-timings.csv").content();
+        final Matcher mtc = Pattern.compile(
+            String.format("optimize,(?<msec>[0-9]+)%n")
+        ).matcher(timing);
+        MatcherAssert.assertThat(
+            String.format("timing must exist in [%s]", timing),
+            mtc.find(), Matchers.is(true)
+        );
+        final long msec = Math.max(1L, Long.parseLong(mtc.group("msec")));
+        final long bytes;
+        try (Stream<Path> files = Files.walk(home.resolve("target/hone/jeo-disassemble"))) {
+            bytes = files.filter(f -> f.toString().endsWith(".xmir"))
+                .mapToLong(f -> f.toFile().length())
+                .sum();
+        }
+        Files.write(
+            report,
+            String.format(
+                Locale.ENGLISH,
+                "%d,%d,%s,%s,\"%s\",%s,%d,%.2f,%d,%.3f%n",
+                corpus.size(), Long.getLong("hone.throughput.seed", 42L),
+                params.get(0), params.get(1), params.get(2), ThroughputTest.phino(),
+                msec, corpus.size() * 1000.0d / msec,
+                bytes, bytes * 1000.0d / msec / 1024.0d / 1024.0d
+            ).getBytes(StandardCharsets.UTF_8),
+            StandardOpenOption.APPEND
+        );
+        Logger.info(
+            ThroughputTest.class,
+            "%s with threads=%s, smallSteps=%s, rules=%s optimized in %[ms]s",
+            corpus, params.get(0), params.get(1), params.get(2), msec
+        );
+    }
+
+    /**
+     * Values of the system property, comma-separated.
+     * @param name The name of the property, without {@code hone.throughput.}
+     * @param def The default values
+     * @return Values
+     */
+    private static List<String> values(final String name, final String def) {
+        return Arrays.asList(
+            System.getProperty(String.format("hone.throughput.%s", name), def).split(",")
+        );
+    }
+
+    /**
+     * The version of phino, which is pinned.
+     * @return The version
+     * @throws IOException If fails
+     */
+    private static String phino() throws IOException {
+        return new IoCheckedText(
+            new TextOf(new ResourceOf("org/eolang/hone/default-phino-version.txt"))
+        ).asString().trim();
+    }
+}
@@ -0,0 +1,54 @@
+/*
+ * SPDX-FileCopyrightText: Copyright (c) 2024-2026 Objectionary.com
+ * SPDX-License-Identifier: MIT
+ */
+package org.eolang.hone;
+
+import java.util.Arrays;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test case for {@link Timeouts}.
+ * @since 0.30.0
+ */
+final class TimeoutsTest {
+
+    @Test
+    void givesSameBudgetWhenFixed() {
+        MatcherAssert.assertThat(
+            "the fixed budget must not depend on the expected time",
+            new Timeouts(999).seconds(100.0d),
+            Matchers.equalTo(999)
+        );
+    }
+
+    @Test
+    void multipliesExpectedTime() {
+        MatcherAssert.assertThat(
+            "the budget must be the expected time multiplied by the factor",
+            new Timeouts(999, 10.0d, 5).seconds(12_000.0d),
+            Matchers.equalTo(120)
+        );
+    }
+
+    @Test
+    void staysWithinFloorAndCeiling() {
+        final Timeouts timeouts = new Timeouts(60, 10.0d, 30);
+        MatcherAssert.assertThat(
+            "the budget must be within the floor and the ceiling",
+            Arrays.asList(timeouts.seconds(1.0d), timeouts.seconds(1_000_000.0d)),
+            Matchers.contains(30, 60)
+        );
+    }
+
+    @Test
+    void givesCeilingWhenNothingIsKnown() {
+        MatcherAssert.assertThat(
+            "the budget of an unknown file must be the ceiling",
+            new Timeouts(600, 10.0d, 30).seconds(-1.0d),
+            Matchers.equalTo(600)
+        );
+    }
+}
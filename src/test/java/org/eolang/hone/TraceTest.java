@@ -0,0 +1,68 @@
+/*
+ * SPDX-FileCopyrightText: Copyright (c) 2024-2026 Objectionary.com
+ * SPDX-License-Identifier: MIT
+ */
+package org.eolang.hone;
+
+import com.yegor256.Mktmp;
+import com.yegor256.MktmpResolver;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+/**
+ * Test case for {@link Trace}.
+ * @since 0.30.0
+ */
+@ExtendWith(MktmpResolver.class)
+final class TraceTest {
+
+    @Test
+    void savesEventsInChromeFormat(@Mktmp final Path temp) throws Exception {
+        final Trace trace = new Trace(temp.resolve("trace.json"));
+        trace.span("rewrite", "a/\"Foo\".xmir", trace.now());
+        trace.instant("timeout", "a/Bar.xmir");
+        trace.save();
+        MatcherAssert.assertThat(
+            "events must be saved as complete and instant events, with names of threads",
+            Files.readString(temp.resolve("trace.json"), StandardCharsets.UTF_8),
+            Matchers.allOf(
+                Matchers.startsWith("{\"displayTimeUnit\":\"ms\",\"traceEvents\":["),
+                Matchers.containsString("\"name\":\"thread_name\",\"ph\":\"M\""),
+                Matchers.containsString("\"name\":\"rewrite\",\"cat\":\"hone\",\"ph\":\"X\""),
+                Matchers.containsString("\"args\":{\"file\":\"a/\\\"Foo\\\".xmir\"}"),
+                Matchers.containsString("\"name\":\"timeout\",\"cat\":\"hone\",\"ph\":\"i\"")
+            )
+        );
+    }
+
+    @Test
+    void givesOneNumberToOneThread(@Mktmp final Path temp) throws Exception {
+        final Trace trace = new Trace(temp.resolve("one.json"));
+        trace.span("a", "x", trace.now());
+        trace.span("b", "y", trace.now());
+        trace.save();
+        MatcherAssert.assertThat(
+            "the thread must be named only once",
+            Files.readString(temp.resolve("one.json"), StandardCharsets.UTF_8)
+                .split("thread_name", -1).length,
+            Matchers.equalTo(2)
+        );
+    }
+
+    @Test
+    void savesNothingWhenDisabled(@Mktmp final Path temp) throws Exception {
+        final Trace trace = new Trace();
+        trace.span("rewrite", "Foo.xmir", trace.now());
+        trace.save();
+        MatcherAssert.assertThat(
+            "the disabled trace must not save any files",
+            temp.toFile().list().length,
+            Matchers.equalTo(0)
+        );
+    }
+}
@@ -0,0 +1,123 @@
+/*
+ * SPDX-FileCopyrightText: Copyright (c) 2024-2026 Objectionary.com
+ * SPDX-License-Identifier: MIT
+ */
+package org.eolang.hone;
+
+import com.yegor256.Mktmp;
+import com.yegor256.MktmpResolver;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.concurrent.TimeoutException;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+/**
+ * Test case for {@link Workers}.
+ * @since 0.30.0
+ */
+@ExtendWith(MktmpResolver.class)
+final class WorkersTest {
+
+    @Test
+    void sendsFileThroughStdin(@Mktmp final Path temp) throws Exception {
+        final Path input = temp.resolve("a.phi");
+        Files.write(input, "{⟦ x ↦ ξ.y ⟧}".getBytes(StandardCharsets.UTF_8));
+        final Path output = temp.resolve("b.phi");
+        try (Workers workers = new Workers(
+            new Phino(PhinoTest.fake(temp, "echo \"$@\" && cat").toString()),
+            Arrays.asList("--sweet", "--rule=r.yml"),
+            2
+        )) {
+            workers.rewrite(input, output, Long.MAX_VALUE);
+        }
+        MatcherAssert.assertThat(
+            "the file must be sent through stdin, not as an argument",
+            Files.readAllLines(output, StandardCharsets.UTF_8),
+            Matchers.contains("rewrite --sweet --rule=r.yml", "{⟦ x ↦ ξ.y ⟧}")
+        );
+    }
+
+    @Test
+    void passesFileAsArgumentWithoutSpares(@Mktmp final Path temp) throws Exception {
+        final Path input = temp.resolve("c.phi");
+        Files.write(input, "{⟦⟧}".getBytes(StandardCharsets.UTF_8));
+        final Path output = temp.resolve("d.phi");
+        try (Workers workers = new Workers(
+            new Phino(PhinoTest.fake(temp, "echo \"$@\"").toString()),
+            Collections.singletonList("--sweet"),
+            0
+        )) {
+            workers.rewrite(input, output, Long.MAX_VALUE);
+        }
+        MatcherAssert.assertThat(
+            "the file must be passed as the last argument",
+            Files.readString(output, StandardCharsets.UTF_8),
+            Matchers.containsString(String.format("rewrite --sweet %s", input))
+        );
+    }
+
+    @Test
+    void rewritesManyFilesInRow(@Mktmp final Path temp) throws Exception {
+        try (Workers workers = new Workers(
+            new Phino(PhinoTest.fake(temp, "tr a-z A-Z").toString()),
+            Collections.emptyList(),
+            3
+        )) {
+            for (int idx = 0; idx < 10; ++idx) {
+                final Path input = temp.resolve(String.format("%d.phi", idx));
+                Files.write(input, "abc".getBytes(StandardCharsets.UTF_8));
+                workers.rewrite(input, temp.resolve(String.format("%d.pho", idx)), Long.MAX_VALUE);
+            }
+        }
+        MatcherAssert.assertThat(
+            "every file must be rewritten by its own process",
+            Files.readString(temp.resolve("9.pho"), StandardCharsets.UTF_8),
+            Matchers.equalTo("ABC")
+        );
+    }
+
+    @Test
+    void readsOutputLeftAfterProcessExits(@Mktmp final Path temp) throws Exception {
+        final Path input = temp.resolve("g.phi");
+        Files.write(input, "{⟦⟧}".getBytes(StandardCharsets.UTF_8));
+        final Path output = temp.resolve("h.phi");
+        try (Workers workers = new Workers(
+            new Phino(PhinoTest.fake(temp, "cat > /dev/null; (sleep 2; echo late) &").toString()),
+            Collections.emptyList(),
+            1
+        )) {
+            workers.rewrite(input, output, System.currentTimeMillis() + 1000L);
+        }
+        MatcherAssert.assertThat(
+            "the output must be read to the end, if the process exits before the deadline",
+            Files.readString(output, StandardCharsets.UTF_8),
+            Matchers.equalTo("late\n")
+        );
+    }
+
+    @Test
+    void stopsProcessAfterDeadline(@Mktmp final Path temp) throws Exception {
+        final Path input = temp.resolve("e.phi");
+        Files.write(input, "{⟦⟧}".getBytes(StandardCharsets.UTF_8));
+        try (Workers workers = new Workers(
+            new Phino(PhinoTest.fake(temp, "exec sleep 60").toString()),
+            Collections.emptyList(),
+            1
+        )) {
+            Assertions.assertThrows(
+                TimeoutException.class,
+                () -> workers.rewrite(
+                    input, temp.resolve("f.phi"), System.currentTimeMillis() + 100L
+                ),
+                "the process must be stopped when the deadline passes"
+            );
+        }
+    }
+}